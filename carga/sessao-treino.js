@@ -0,0 +1,199 @@
+// Teste de carga da API com k6 (https://k6.io). Ver carga/README.md para subir a aplicação contra os stubs de IA.
+//
+// Variáveis (-e NOME=valor):
+//   BASE_URL   URL da API (padrão http://localhost:8080)
+//   CLIENTES   clientes criados no setup; cada VU usa sempre o mesmo (padrão 50)
+//   VUS        VUs do fluxo completo de sessão (padrão 20)
+//   DURACAO    duração de cada cenário (padrão 2m)
+//   LEITURAS   requisições/s de dashboard e histórico (padrão 20)
+//   LOGINS     logins/s (padrão 5)
+//   AUDIO_KB   tamanho do áudio enviado (padrão 96, ~6 s de MP3 a 128 kbps)
+//   SAIDA      arquivo JSON do resumo (padrão target/carga-resumo.json)
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CLIENTES = parseInt(__ENV.CLIENTES || '50', 10);
+const VUS = parseInt(__ENV.VUS || '20', 10);
+const DURACAO = __ENV.DURACAO || '2m';
+const LEITURAS = parseInt(__ENV.LEITURAS || '20', 10);
+const LOGINS = parseInt(__ENV.LOGINS || '5', 10);
+const AUDIO_KB = parseInt(__ENV.AUDIO_KB || '96', 10);
+const SAIDA = __ENV.SAIDA || 'target/carga-resumo.json';
+const SENHA = 'carga-123';
+
+const ENDPOINTS = ['login', 'iniciar', 'audio', 'dashboard', 'historico'];
+
+// Um limite por endpoint faz o k6 reportar as métricas de cada um separadamente no resumo
+const thresholds = { http_req_failed: ['rate<0.05'] };
+for (const endpoint of ENDPOINTS) {
+    thresholds[`http_req_duration{endpoint:${endpoint}}`] = [endpoint === 'audio' ? 'p(95)<15000' : 'p(95)<1000'];
+    thresholds[`http_reqs{endpoint:${endpoint}}`] = ['count>=0'];
+}
+
+export const options = {
+    setupTimeout: '5m',
+    summaryTrendStats: ['avg', 'min', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    thresholds,
+    scenarios: {
+        sessoes: {
+            executor: 'constant-vus',
+            exec: 'sessao',
+            vus: VUS,
+            duration: DURACAO,
+        },
+        leituras: {
+            executor: 'constant-arrival-rate',
+            exec: 'leitura',
+            rate: LEITURAS,
+            timeUnit: '1s',
+            duration: DURACAO,
+            preAllocatedVUs: Math.max(LEITURAS, 1),
+        },
+        logins: {
+            executor: 'constant-arrival-rate',
+            exec: 'login',
+            rate: LOGINS,
+            timeUnit: '1s',
+            duration: DURACAO,
+            preAllocatedVUs: Math.max(LOGINS, 1),
+        },
+    },
+};
+
+// Bytes aleatórios bastam: os stubs não decodificam o áudio
+const audio = new Uint8Array(AUDIO_KB * 1024);
+for (let i = 0; i < audio.length; i++) {
+    audio[i] = Math.floor(Math.random() * 256);
+}
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+function postJson(caminho, corpo, endpoint) {
+    return http.post(`${BASE_URL}${caminho}`, JSON.stringify(corpo),
+        Object.assign({ tags: { endpoint } }, JSON_HEADERS));
+}
+
+export function setup() {
+    const rodada = Date.now().toString(36);
+
+    const especialista = postJson('/especialistas', {
+        nome: `Especialista carga ${rodada}`,
+        idade: 40,
+        endereco: 'Rua da Carga, 1',
+        crmFono: `CRFA-${rodada}`,
+        especialidade: 'Fonoaudiologia',
+        login: `esp-${rodada}`,
+        senha: SENHA,
+    }, 'setup');
+    if (especialista.status !== 200) {
+        exec.test.abort(`Falha ao criar especialista: ${especialista.status} ${especialista.body}`);
+    }
+
+    const clientes = [];
+    for (let i = 0; i < CLIENTES; i++) {
+        const login = `cli-${rodada}-${i}`;
+        const resposta = postJson('/clientes', {
+            nome: `Cliente carga ${i}`,
+            idade: 6 + (i % 10),
+            endereco: 'Rua da Carga, 2',
+            nivel: 'iniciante',
+            login,
+            senha: SENHA,
+        }, 'setup');
+        if (resposta.status !== 200) {
+            exec.test.abort(`Falha ao criar cliente ${i}: ${resposta.status} ${resposta.body}`);
+        }
+        clientes.push({ id: resposta.json('id'), login });
+    }
+
+    return { especialistaId: especialista.json('id'), clientes };
+}
+
+function entrar(login) {
+    const resposta = postJson('/auth/login', { login, senha: SENHA }, 'login');
+    check(resposta, { 'login 200': (r) => r.status === 200 && !!r.json('token') });
+    return resposta;
+}
+
+// Fluxo completo: login, início da sessão, envio do áudio e consulta dos resultados
+export function sessao(dados) {
+    const cliente = dados.clientes[(exec.vu.idInTest - 1) % dados.clientes.length];
+    entrar(cliente.login);
+
+    const inicio = postJson('/api/sessao-treino/iniciar', {
+        clienteId: cliente.id,
+        especialistaId: dados.especialistaId,
+        dificuldade: 'R',
+        idade: 8,
+    }, 'iniciar');
+    if (!check(inicio, { 'iniciar 200': (r) => r.status === 200 })) {
+        sleep(1);
+        return;
+    }
+    const sessaoId = inicio.json('0.sessaoId');
+
+    // Tempo de leitura do trava-língua e gravação
+    sleep(1 + Math.random() * 2);
+
+    const envio = http.post(`${BASE_URL}/api/sessao-treino/${sessaoId}/audio`, {
+        audio: http.file(audio.buffer, 'gravacao.mp3', 'audio/mpeg'),
+    }, { tags: { endpoint: 'audio' }, timeout: '120s' });
+    check(envio, { 'audio 200': (r) => r.status === 200 });
+
+    leituraCliente(cliente.id);
+    sleep(1);
+}
+
+function leituraCliente(clienteId) {
+    const dashboard = http.get(`${BASE_URL}/api/sessao-treino/dashboard/${clienteId}`, { tags: { endpoint: 'dashboard' } });
+    check(dashboard, { 'dashboard 200': (r) => r.status === 200 });
+    const historico = http.get(`${BASE_URL}/api/sessao-treino/historico/cliente/${clienteId}`, { tags: { endpoint: 'historico' } });
+    check(historico, { 'historico 200': (r) => r.status === 200 });
+}
+
+export function leitura(dados) {
+    const cliente = dados.clientes[Math.floor(Math.random() * dados.clientes.length)];
+    leituraCliente(cliente.id);
+}
+
+export function login(dados) {
+    const cliente = dados.clientes[Math.floor(Math.random() * dados.clientes.length)];
+    entrar(cliente.login);
+}
+
+// Tabela por endpoint no terminal e o resumo completo em JSON (sem depender da jslib remota do k6)
+export function handleSummary(data) {
+    const duracaoS = data.state.testRunDurationMs / 1000;
+    const linhas = [
+        '',
+        'endpoint'.padEnd(10) + 'req'.padStart(7) + 'req/s'.padStart(10) + 'p50(ms)'.padStart(11)
+            + 'p95(ms)'.padStart(9) + 'p99(ms)'.padStart(9) + 'max(ms)'.padStart(9),
+    ];
+    for (const endpoint of ENDPOINTS) {
+        const tempos = data.metrics[`http_req_duration{endpoint:${endpoint}}`];
+        const total = data.metrics[`http_reqs{endpoint:${endpoint}}`];
+        if (!tempos || !total) {
+            continue;
+        }
+        const v = tempos.values;
+        linhas.push([
+            endpoint.padEnd(10),
+            String(total.values.count).padStart(7),
+            (total.values.count / duracaoS).toFixed(1).padStart(10),
+            v.med.toFixed(0).padStart(11),
+            v['p(95)'].toFixed(0).padStart(9),
+            v['p(99)'].toFixed(0).padStart(9),
+            v.max.toFixed(0).padStart(9),
+        ].join(''));
+    }
+    const falhas = data.metrics.http_req_failed ? (data.metrics.http_req_failed.values.rate * 100).toFixed(2) : '0.00';
+    linhas.push('', `falhas HTTP: ${falhas}%  |  resumo completo em ${SAIDA}`, '');
+
+    return {
+        stdout: linhas.join('\n'),
+        [SAIDA]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,67 @@
+package com.inatel.prototipo_ia.banco;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Conexões dos benchmarks contra um Postgres real. O endereço vem do perfil Maven "banco"
+ * (BANCO_URL, BANCO_USUARIO, BANCO_SENHA e, opcional, BANCO_URL_PGBOUNCER), e os parâmetros do driver
+ * são lidos de application-&lt;modo&gt;.properties, os mesmos que a aplicação usa em cada DB_MODO.
+ */
+final class BancoBenchmark {
+
+    private static final String PREFIXO_DRIVER = "spring.datasource.hikari.data-source-properties.";
+
+    private BancoBenchmark() {
+    }
+
+    // Sem BANCO_URL_PGBOUNCER o modo pgbouncer usa a conexão direta, medindo só o efeito dos parâmetros do driver
+    static String url(String modo) {
+        String url = "pgbouncer".equals(modo) ? System.getenv("BANCO_URL_PGBOUNCER") : null;
+        if (url == null || url.isBlank()) {
+            url = System.getenv("BANCO_URL");
+        }
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("BANCO_URL não informada: rode com -Dbanco.url=jdbc:postgresql://...");
+        }
+        return url;
+    }
+
+    static HikariDataSource dataSource(String modo, int tamanhoPool) throws IOException {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("benchmark-" + modo);
+        config.setJdbcUrl(url(modo));
+        config.setUsername(System.getenv("BANCO_USUARIO"));
+        config.setPassword(System.getenv("BANCO_SENHA"));
+        config.setMaximumPoolSize(tamanhoPool);
+        config.setMinimumIdle(tamanhoPool);
+
+        Properties perfil = new Properties();
+        try (InputStream entrada = BancoBenchmark.class.getResourceAsStream("/application-" + modo + ".properties")) {
+            if (entrada == null) {
+                throw new IllegalArgumentException("Modo de conexão desconhecido: " + modo);
+            }
+            perfil.load(entrada);
+        }
+        for (String chave : perfil.stringPropertyNames()) {
+            if (chave.startsWith(PREFIXO_DRIVER)) {
+                config.addDataSourceProperty(chave.substring(PREFIXO_DRIVER.length()), perfil.getProperty(chave));
+            }
+        }
+        return new HikariDataSource(config);
+    }
+
+    // DDL e limpeza fora do trecho medido
+    static void executar(HikariDataSource dataSource, String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection(); Statement statement = conexao.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
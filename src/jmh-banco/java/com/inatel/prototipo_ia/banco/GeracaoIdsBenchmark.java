@@ -0,0 +1,127 @@
+package com.inatel.prototipo_ia.banco;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.*;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserção em lote de linhas no formato de DetalheErro com id IDENTITY (um INSERT ... RETURNING por linha,
+ * sem batch) e com sequência pooled-lo de 50 (um nextval a cada 50 linhas e INSERTs em batch de 50),
+ * com as mesmas propriedades do Hibernate de application.properties. As tabelas ficam no schema
+ * benchmark_ids, criado e apagado pelo próprio benchmark.
+ * <p>
+ * Precisa de um Postgres: mvn -Pbenchmark test-compile exec:exec -Dbanco.url=... -Djmh.filtro=GeracaoIds
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeracaoIdsBenchmark {
+
+    @Param({"identity", "pooled-lo"})
+    private String geracao;
+
+    // Uma sessão de treino gera dezenas de linhas; uma carga de conteúdo, milhares
+    @Param({"50", "1000"})
+    private int linhas;
+
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private Class<? extends Linha> entidade;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        dataSource = BancoBenchmark.dataSource("postgres", 2);
+        BancoBenchmark.executar(dataSource, "CREATE SCHEMA IF NOT EXISTS benchmark_ids");
+        StandardServiceRegistry registro = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.DEFAULT_SCHEMA, "benchmark_ids")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 50)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+                .build();
+        sessionFactory = new MetadataSources(registro)
+                .addAnnotatedClass(LinhaIdentity.class)
+                .addAnnotatedClass(LinhaPooledLo.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        entidade = "identity".equals(geracao) ? LinhaIdentity.class : LinhaPooledLo.class;
+    }
+
+    @TearDown(Level.Iteration)
+    public void esvaziarTabelas() throws SQLException {
+        BancoBenchmark.executar(dataSource, "TRUNCATE benchmark_ids.linha_identity, benchmark_ids.linha_pooled_lo");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        BancoBenchmark.executar(dataSource, "DROP SCHEMA benchmark_ids CASCADE");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void inserirLote() throws ReflectiveOperationException {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < linhas; i++) {
+                Linha linha = entidade.getDeclaredConstructor().newInstance();
+                linha.fonemaEsperado = "r";
+                linha.fonemaProduzido = i % 3 == 0 ? "l" : "r";
+                linha.scoreDesvio = (i % 100) / 100f;
+                linha.relatorioId = (long) (i / 20);
+                session.persist(linha);
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @MappedSuperclass
+    public abstract static class Linha {
+
+        @Column(name = "fonemaesperado")
+        String fonemaEsperado;
+
+        @Column(name = "fonemaproduzido")
+        String fonemaProduzido;
+
+        @Column(name = "scoredesvio")
+        Float scoreDesvio;
+
+        @Column(name = "relatorio_id", nullable = false)
+        Long relatorioId;
+    }
+
+    @Entity
+    @Table(name = "linha_identity")
+    public static class LinhaIdentity extends Linha {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    // Mesmo mapeamento das entidades da aplicação desde a V11
+    @Entity
+    @Table(name = "linha_pooled_lo")
+    public static class LinhaPooledLo extends Linha {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "linha_pooled_lo_seq")
+        @SequenceGenerator(name = "linha_pooled_lo_seq", sequenceName = "linha_pooled_lo_seq", allocationSize = 50)
+        Long id;
+    }
+}
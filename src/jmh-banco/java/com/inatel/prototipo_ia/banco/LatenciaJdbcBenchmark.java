@@ -0,0 +1,134 @@
+package com.inatel.prototipo_ia.banco;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência por comando JDBC em cada DB_MODO, com os parâmetros do driver do perfil correspondente:
+ * postgres (statements preparados no servidor a partir da 5ª execução, com cache) e pgbouncer
+ * (só statements sem nome). Com -Dbanco.url-pgbouncer o modo pgbouncer passa também pelo pooler;
+ * sem ele, usa a conexão direta e a diferença é só a dos parâmetros do driver.
+ * <p>
+ * As consultas imitam a agenda (consultas do especialista num intervalo de datas) e a reserva
+ * (SELECT ... FOR UPDATE e UPDATE numa transação), sobre o schema benchmark_jdbc criado e apagado aqui.
+ * <p>
+ * Precisa de um Postgres: mvn -Pbenchmark test-compile exec:exec -Dbanco.url=... -Djmh.filtro=LatenciaJdbc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatenciaJdbcBenchmark {
+
+    private static final int ESPECIALISTAS = 50;
+    private static final int CONSULTAS = 20_000;
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 1);
+
+    private static final String CONSULTAS_DA_AGENDA = """
+            SELECT id, data, hora, tipo, status FROM benchmark_jdbc.consulta
+            WHERE especialista_id = ? AND data BETWEEN ? AND ? ORDER BY data, hora""";
+
+    @Param({"postgres", "pgbouncer"})
+    private String modo;
+
+    private HikariDataSource dataSource;
+    private int rodada;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        dataSource = BancoBenchmark.dataSource(modo, 1);
+        BancoBenchmark.executar(dataSource, "DROP SCHEMA IF EXISTS benchmark_jdbc CASCADE");
+        BancoBenchmark.executar(dataSource, "CREATE SCHEMA benchmark_jdbc");
+        BancoBenchmark.executar(dataSource, """
+                CREATE TABLE benchmark_jdbc.consulta (
+                    id BIGINT PRIMARY KEY,
+                    especialista_id BIGINT NOT NULL,
+                    cliente_id BIGINT NOT NULL,
+                    data DATE NOT NULL,
+                    hora TIME NOT NULL,
+                    tipo VARCHAR(50),
+                    status VARCHAR(50))""");
+        BancoBenchmark.executar(dataSource, """
+                INSERT INTO benchmark_jdbc.consulta
+                SELECT i, i %% %d, i %% 997, DATE '%s' + (i / 40), TIME '08:00' + (i %% 8) * INTERVAL '1 hour',
+                       'FONOAUDIOLOGIA', 'AGENDADA'
+                FROM generate_series(1, %d) AS i""".formatted(ESPECIALISTAS, INICIO, CONSULTAS));
+        BancoBenchmark.executar(dataSource,
+                "CREATE INDEX idx_benchmark_consulta_especialista_data ON benchmark_jdbc.consulta (especialista_id, data)");
+        BancoBenchmark.executar(dataSource, "ANALYZE benchmark_jdbc.consulta");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        BancoBenchmark.executar(dataSource, "DROP SCHEMA benchmark_jdbc CASCADE");
+        dataSource.close();
+    }
+
+    // Só a ida e volta: pool, protocolo e rede
+    @Benchmark
+    public int selecionarUm() throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement statement = conexao.prepareStatement("SELECT 1");
+             ResultSet resultado = statement.executeQuery()) {
+            resultado.next();
+            return resultado.getInt(1);
+        }
+    }
+
+    @Benchmark
+    public int consultasDaAgenda() throws SQLException {
+        int especialista = rodada++ % ESPECIALISTAS;
+        LocalDate de = INICIO.plusDays(rodada % 400);
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement statement = conexao.prepareStatement(CONSULTAS_DA_AGENDA)) {
+            statement.setLong(1, especialista);
+            statement.setDate(2, Date.valueOf(de));
+            statement.setDate(3, Date.valueOf(de.plusDays(30)));
+            int linhas = 0;
+            try (ResultSet resultado = statement.executeQuery()) {
+                while (resultado.next()) {
+                    linhas++;
+                }
+            }
+            return linhas;
+        }
+    }
+
+    @Benchmark
+    public int reservarConsulta() throws SQLException {
+        long id = 1 + rodada++ % CONSULTAS;
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.setAutoCommit(false);
+            try (PreparedStatement bloqueio = conexao.prepareStatement(
+                    "SELECT status FROM benchmark_jdbc.consulta WHERE id = ? FOR UPDATE");
+                 PreparedStatement atualizacao = conexao.prepareStatement(
+                         "UPDATE benchmark_jdbc.consulta SET status = ? WHERE id = ?")) {
+                bloqueio.setLong(1, id);
+                try (ResultSet resultado = bloqueio.executeQuery()) {
+                    resultado.next();
+                }
+                atualizacao.setString(1, rodada % 2 == 0 ? "AGENDADA" : "CONFIRMADA");
+                atualizacao.setLong(2, id);
+                int alteradas = atualizacao.executeUpdate();
+                conexao.commit();
+                return alteradas;
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.inatel.prototipo_ia.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma verificação de senha por algoritmo e força, para escolher api.security.senha.*
+ * (a meta usual é algo entre 100 ms e 500 ms por login no hardware de produção).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodificadorSenhaBenchmark {
+
+    @Param({"BCRYPT:10", "BCRYPT:12", "BCRYPT:14", "PBKDF2:0"})
+    private String configuracao;
+
+    private CodificadorSenha codificador;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        String[] partes = configuracao.split(":");
+        int forca = Integer.parseInt(partes[1]);
+        codificador = new CodificadorSenha(CodificadorSenha.Algoritmo.valueOf(partes[0]), forca > 0 ? forca : 10, 1, 16);
+        hash = codificador.encode("senha-de-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        codificador.destroy();
+    }
+
+    @Benchmark
+    public boolean verificarSenha() {
+        return codificador.matches("senha-de-benchmark", hash);
+    }
+}
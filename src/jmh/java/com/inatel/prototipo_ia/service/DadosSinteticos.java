@@ -0,0 +1,166 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Dados de entrada determinísticos (semente fixa) para os benchmarks.
+ */
+final class DadosSinteticos {
+
+    private static final String[] VOCABULARIO = {
+            "rato", "roupa", "rei", "rainha", "carro", "barata", "trator", "prato",
+            "três", "tigres", "tristes", "trigo", "pássaro", "chave", "palhaço", "ninho",
+            "açúcar", "girafa", "cachorro", "borboleta", "relógio", "arara", "tesoura", "lâmpada"
+    };
+
+    private DadosSinteticos() {
+    }
+
+    static List<String> palavras(int quantidade) {
+        List<String> palavras = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            palavras.add(VOCABULARIO[i % VOCABULARIO.length]);
+        }
+        return palavras;
+    }
+
+    // Transcrição com a troca típica de R por L a cada três palavras e pontuação no meio
+    static String transcricaoComErros(List<String> palavras) {
+        StringBuilder transcricao = new StringBuilder();
+        for (int i = 0; i < palavras.size(); i++) {
+            String palavra = palavras.get(i);
+            transcricao.append(i % 3 == 0 ? palavra.replace('r', 'l') : palavra);
+            transcricao.append(i % 5 == 4 ? ", " : " ");
+        }
+        return transcricao.toString().trim();
+    }
+
+    // Texto como o Gemini devolve com saída estruturada (responseMimeType application/json): JSON puro
+    static String respostaGemini(List<String> palavras) {
+        ObjectNode json = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        ArrayNode resultados = json.putArray("resultados");
+        for (int i = 0; i < palavras.size(); i++) {
+            resultados.addObject()
+                    .put("palavraEsperada", palavras.get(i))
+                    .put("palavraTranscrita", i % 3 == 0 ? palavras.get(i).replace('r', 'l') : palavras.get(i))
+                    .put("acertou", i % 3 != 0)
+                    .put("similaridade", i % 3 == 0 ? 75 : 100)
+                    .put("feedback", i % 3 == 0 ? "Atenção ao som do R" : "Perfeito!");
+        }
+        json.put("feedbackGeral", "Bom trabalho! Continue treinando.");
+        json.put("pontuacaoGeral", 83.3);
+        return json.toString();
+    }
+
+    // Corpo HTTP do generateContent com o texto no primeiro candidato e o uso de tokens
+    static byte[] envelopeGemini(String texto) throws IOException {
+        ObjectNode envelope = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        envelope.putArray("candidates").addObject().putObject("content").putArray("parts").addObject().put("text", texto);
+        envelope.putObject("usageMetadata")
+                .put("promptTokenCount", 1200)
+                .put("candidatesTokenCount", texto.length() / 4)
+                .put("totalTokenCount", 1200 + texto.length() / 4);
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(envelope);
+    }
+
+    // Análise de vários áudios como o Gemini devolve com ESQUEMA_ANALISES_LOTE, uma por áudio na ordem
+    static String respostaGeminiVariosAudios(List<List<String>> palavrasPorAudio) throws IOException {
+        ObjectNode json = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        ArrayNode analises = json.putArray("analises");
+        for (int i = 0; i < palavrasPorAudio.size(); i++) {
+            ObjectNode analise = (ObjectNode) JsonTestes.OBJECT_MAPPER.readTree(respostaGemini(palavrasPorAudio.get(i)));
+            analises.addObject().put("indice", i + 1).setAll(analise);
+        }
+        return json.toString();
+    }
+
+    // Corpo HTTP do Deepgram /v1/listen com a transcrição no primeiro canal
+    static byte[] respostaDeepgram(String transcricao) throws IOException {
+        ObjectNode resposta = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        resposta.putObject("results").putArray("channels").addObject()
+                .putArray("alternatives").addObject()
+                .put("transcript", transcricao)
+                .put("confidence", 0.93);
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(resposta);
+    }
+
+    static BatchPronunciationAnalysisDTO analise(int quantidadePalavras) {
+        List<String> palavras = palavras(quantidadePalavras);
+        List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
+        for (int i = 0; i < palavras.size(); i++) {
+            resultados.add(new BatchPronunciationAnalysisDTO.ResultadoPalavra(
+                    palavras.get(i), palavras.get(i), i % 3 != 0, i % 3 == 0 ? 75.0 : 100.0, "Perfeito!"));
+        }
+        BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+        analise.setPalavrasEsperadas(palavras);
+        analise.setTranscricaoCompleta(transcricaoComErros(palavras));
+        analise.setResultados(resultados);
+        analise.setPontuacaoGeral(83.3);
+        analise.setTotalAcertos((int) resultados.stream().filter(BatchPronunciationAnalysisDTO.ResultadoPalavra::getAcertou).count());
+        analise.setTotalPalavras(palavras.size());
+        analise.setPorcentagemAcerto(66.7);
+        analise.setFeedbackGeral("Bom trabalho! Continue treinando.");
+        analise.setDataAnalise(LocalDateTime.of(2025, 1, 10, 14, 30));
+        return analise;
+    }
+
+    // Sessões finalizadas fora de ordem, até um ano antes de "agora", com sequência de dias no fim
+    static List<SessaoTreinoEntity> sessoesFinalizadas(int quantidade, LocalDateTime agora) {
+        Random random = new Random(42);
+        List<SessaoTreinoEntity> sessoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+            sessao.setId((long) i);
+            sessao.setStatus(StatusSessao.FINALIZADA);
+            sessao.setPontuacaoGeral(40 + random.nextDouble() * 60);
+            sessao.setDataInicio(i < 5 ? agora.minusDays(i) : agora.minusDays(5 + random.nextInt(360)));
+            sessoes.add(sessao);
+        }
+        Collections.shuffle(sessoes, random);
+        return sessoes;
+    }
+
+    // Sessões finalizadas com o resultado gravado em JSON, como o histórico as lê do banco
+    static List<SessaoTreinoEntity> sessoesComResultado(int quantidade, int palavrasPorSessao) throws IOException {
+        String resultado = JsonTestes.OBJECT_MAPPER.writeValueAsString(analise(palavrasPorSessao));
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 10, 0);
+        List<SessaoTreinoEntity> sessoes = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+            sessao.setId((long) i);
+            sessao.setStatus(StatusSessao.FINALIZADA);
+            sessao.setDificuldade("R");
+            sessao.setDataInicio(inicio.minusDays(i));
+            sessao.setDataFim(inicio.minusDays(i).plusMinutes(4));
+            sessao.setPontuacaoGeral(83.3);
+            sessao.setTotalAcertos(palavrasPorSessao * 2 / 3);
+            sessao.setTotalPalavras(palavrasPorSessao);
+            sessao.setResultado(resultado);
+            sessoes.add(sessao);
+        }
+        return sessoes;
+    }
+
+    // Service com o repositório dado; as demais dependências não são usadas nas consultas medidas
+    static SessaoTreinoService sessaoTreinoService(SessaoTreinoRepository sessaoRepository) {
+        return new SessaoTreinoService(sessaoRepository, null, null, null, null, null, null, null,
+                Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, mock(PlatformTransactionManager.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.DashboardDtoOut;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Agregação do dashboard (ordenação, média, evolução e sequência de dias) por buscarDashboard, com o
+ * repositório devolvendo sessões sintéticas. A lista é copiada a cada chamada porque o service a ordena
+ * no lugar, como faria com a lista nova vinda do banco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int quantidadeSessoes;
+
+    private SessaoTreinoService service;
+
+    @Setup
+    public void setUp() {
+        List<SessaoTreinoEntity> sessoes = DadosSinteticos.sessoesFinalizadas(quantidadeSessoes, LocalDateTime.now());
+        SessaoTreinoRepository sessaoRepository = mock(SessaoTreinoRepository.class);
+        when(sessaoRepository.findByClienteIdAndStatus(1L, StatusSessao.FINALIZADA))
+                .thenAnswer(invocacao -> new ArrayList<>(sessoes));
+        service = DadosSinteticos.sessaoTreinoService(sessaoRepository);
+    }
+
+    @Benchmark
+    public DashboardDtoOut buscarDashboard() {
+        return service.buscarDashboard(1L);
+    }
+}
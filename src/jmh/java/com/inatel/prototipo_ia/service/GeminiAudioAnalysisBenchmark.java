@@ -0,0 +1,94 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.inatel.prototipo_ia.service.GeminiAudioAnalysisService.AudioSessao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análise pelo Gemini de ponta a ponta no cliente: serialização da requisição (JSON + áudio em Base64),
+ * envio e parse da resposta, contra servidores locais que devolvem sempre a mesma análise. Compara quatro
+ * áudios em quatro requisições com os mesmos quatro numa requisição só.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeminiAudioAnalysisBenchmark {
+
+    private static final int AUDIOS_POR_LOTE = 4;
+
+    @Param({"64", "1024"})
+    private int tamanhoAudioKb;
+
+    private ServidorIaLocal geminiUmAudio;
+    private ServidorIaLocal geminiVariosAudios;
+    private GeminiAudioAnalysisService umAudio;
+    private GeminiAudioAnalysisService variosAudios;
+    private List<String> palavrasEsperadas;
+    private List<AudioSessao> audios;
+
+    @Setup
+    public void setUp() throws IOException {
+        palavrasEsperadas = DadosSinteticos.palavras(12);
+        Random random = new Random(42);
+        audios = new ArrayList<>(AUDIOS_POR_LOTE);
+        for (int i = 0; i < AUDIOS_POR_LOTE; i++) {
+            byte[] audio = new byte[tamanhoAudioKb * 1024];
+            random.nextBytes(audio);
+            audios.add(new AudioSessao((long) i, audio, palavrasEsperadas));
+        }
+
+        geminiUmAudio = new ServidorIaLocal(DadosSinteticos.envelopeGemini(DadosSinteticos.respostaGemini(palavrasEsperadas)));
+        geminiVariosAudios = new ServidorIaLocal(DadosSinteticos.envelopeGemini(DadosSinteticos.respostaGeminiVariosAudios(
+                audios.stream().map(AudioSessao::palavrasEsperadas).toList())));
+        umAudio = servicoApontandoPara(geminiUmAudio);
+        variosAudios = servicoApontandoPara(geminiVariosAudios);
+    }
+
+    private static GeminiAudioAnalysisService servicoApontandoPara(ServidorIaLocal servidor) {
+        GeminiAudioAnalysisService service = new GeminiAudioAnalysisService(
+                Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+        servidor.atender(service, "geminiApiUrl", "/v1beta/models/gemini-2.0-flash:generateContent");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "chave-benchmark");
+        return service;
+    }
+
+    @TearDown
+    public void tearDown() {
+        geminiUmAudio.close();
+        geminiVariosAudios.close();
+    }
+
+    @Benchmark
+    public BatchPronunciationAnalysisDTO analisarUmAudio() {
+        return umAudio.analisarPronunciaEmLote(audios.get(0).audio(), palavrasEsperadas);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AUDIOS_POR_LOTE)
+    public List<BatchPronunciationAnalysisDTO> analisarAudiosUmPorRequisicao() {
+        List<BatchPronunciationAnalysisDTO> analises = new ArrayList<>(AUDIOS_POR_LOTE);
+        for (AudioSessao audio : audios) {
+            analises.add(umAudio.analisarPronunciaEmLote(audio.audio(), audio.palavrasEsperadas()));
+        }
+        return analises;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AUDIOS_POR_LOTE)
+    public List<Optional<BatchPronunciationAnalysisDTO>> analisarAudiosNumaRequisicao() {
+        return variosAudios.analisarVariosAudios(audios).conteudo();
+    }
+}
@@ -0,0 +1,46 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida e volta do resultado da análise em JSON, como SessaoTreinoService grava e lê em sessaotreino.resultado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonAnaliseBenchmark {
+
+    @Param({"12", "64"})
+    private int quantidadePalavras;
+
+    private final ObjectWriter escritor = JsonTestes.OBJECT_MAPPER.writerFor(BatchPronunciationAnalysisDTO.class);
+    private final ObjectReader leitor = JsonTestes.OBJECT_MAPPER.readerFor(BatchPronunciationAnalysisDTO.class);
+    private BatchPronunciationAnalysisDTO analise;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        analise = DadosSinteticos.analise(quantidadePalavras);
+        json = escritor.writeValueAsString(analise);
+    }
+
+    @Benchmark
+    public String serializar() throws IOException {
+        return escritor.writeValueAsString(analise);
+    }
+
+    @Benchmark
+    public BatchPronunciationAnalysisDTO desserializar() throws IOException {
+        return leitor.readValue(json);
+    }
+}
@@ -0,0 +1,54 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Análise pelo Deepgram de ponta a ponta no cliente: envio do áudio, leitura da transcrição e pontuação
+ * (Levenshtein ortográfico + fonético), contra um servidor local que devolve sempre a mesma transcrição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PronunciationAnalysisBenchmark {
+
+    @Param({"8", "32"})
+    private int quantidadePalavras;
+
+    private ServidorIaLocal deepgram;
+    private PronunciationAnalysisService service;
+    private List<String> palavrasEsperadas;
+    private byte[] audio;
+
+    @Setup
+    public void setUp() throws IOException {
+        palavrasEsperadas = DadosSinteticos.palavras(quantidadePalavras);
+        deepgram = new ServidorIaLocal(DadosSinteticos.respostaDeepgram(DadosSinteticos.transcricaoComErros(palavrasEsperadas)));
+        service = new PronunciationAnalysisService(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER);
+        deepgram.atender(service, "deepgramApiUrl", "/v1/listen");
+        ReflectionTestUtils.setField(service, "deepgramApiKey", "chave-benchmark");
+        audio = new byte[16 * 1024];
+        new Random(42).nextBytes(audio);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deepgram.close();
+    }
+
+    @Benchmark
+    public BatchPronunciationAnalysisDTO analisarPronunciaEmLote() {
+        return service.analisarPronunciaEmLote(audio, palavrasEsperadas);
+    }
+}
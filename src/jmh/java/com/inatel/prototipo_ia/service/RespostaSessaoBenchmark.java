@@ -0,0 +1,88 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.DashboardDtoOut;
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
+import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Custo de JSON por resposta de /api/sessao-treino, com o mesmo ObjectMapper que o Spring MVC usa:
+ * histórico (leitura de cada resultado gravado + escrita da lista), dashboard e mensagens de finalização.
+ * As respostas saem dos métodos públicos do service com o repositório devolvendo sessões sintéticas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RespostaSessaoBenchmark {
+
+    @Param({"10", "100"})
+    private int quantidadeSessoes;
+
+    private SessaoTreinoService service;
+    private List<SessaoTreinoHistoryDtoOut> historico;
+    private DashboardDtoOut dashboard;
+    private List<MensagemSessaoDtoOut> mensagensFinalizacao;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<SessaoTreinoEntity> sessoes = DadosSinteticos.sessoesComResultado(quantidadeSessoes, 12);
+        List<SessaoTreinoEntity> finalizadas = DadosSinteticos.sessoesFinalizadas(quantidadeSessoes, LocalDateTime.now());
+        SessaoTreinoRepository sessaoRepository = mock(SessaoTreinoRepository.class);
+        when(sessaoRepository.findByClienteId(1L)).thenReturn(sessoes);
+        when(sessaoRepository.findByClienteIdAndStatus(1L, StatusSessao.FINALIZADA))
+                .thenAnswer(invocacao -> new ArrayList<>(finalizadas));
+        service = DadosSinteticos.sessaoTreinoService(sessaoRepository);
+        historico = service.buscarHistoricoPorCliente(1L);
+        dashboard = service.buscarDashboard(1L);
+
+        MensagemSessaoDtoOut.ResumoSessao resumo = new MensagemSessaoDtoOut.ResumoSessao();
+        resumo.setTotalPalavras(12);
+        resumo.setTotalAcertos(8);
+        resumo.setPontuacaoGeral(83.3);
+        resumo.setPorcentagemAcerto(66.7);
+        resumo.setFeedbackGeral("Bom trabalho! Continue treinando.");
+        resumo.setPontosFortes(List.of("rato", "roupa", "rei"));
+        resumo.setPontosAMelhorar(List.of("trator", "prato"));
+        resumo.setDuracaoMinutos(4);
+        mensagensFinalizacao = List.of(
+                MensagemSessaoDtoOut.feedbackAnalise(1L, DadosSinteticos.analise(12)),
+                MensagemSessaoDtoOut.resumoFinal(1L, resumo));
+    }
+
+    // Resposta completa do histórico: resultados lidos do banco (JSON) e lista escrita no corpo HTTP
+    @Benchmark
+    public byte[] historico() throws IOException {
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(service.buscarHistoricoPorCliente(1L));
+    }
+
+    @Benchmark
+    public byte[] historicoSoEscrita() throws IOException {
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(historico);
+    }
+
+    @Benchmark
+    public byte[] dashboard() throws IOException {
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public byte[] mensagensFinalizacao() throws IOException {
+        return JsonTestes.OBJECT_MAPPER.writeValueAsBytes(mensagensFinalizacao);
+    }
+}
@@ -0,0 +1,103 @@
+package com.inatel.prototipo_ia.service;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP em loopback que responde sempre o mesmo corpo, para os benchmarks chamarem os services de IA
+ * pela API pública sem rede. A resposta é montada uma vez: o tempo medido é o do cliente (montagem e envio
+ * do corpo com o áudio, leitura e parse da resposta) mais o loopback.
+ * <p>
+ * Em loopback o Nagle do cliente com o ACK atrasado do servidor prende a última parte do corpo por ~40 ms,
+ * o que esconderia todo o resto; por isso os dois lados usam TCP_NODELAY.
+ */
+final class ServidorIaLocal implements AutoCloseable {
+
+    static {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService threads = Executors.newFixedThreadPool(4);
+
+    ServidorIaLocal(byte[] resposta) throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        servidor.createContext("/", troca -> {
+            try (troca) {
+                try (InputStream corpo = troca.getRequestBody()) {
+                    corpo.transferTo(OutputStream.nullOutputStream());
+                }
+                troca.getResponseHeaders().set("Content-Type", "application/json");
+                troca.sendResponseHeaders(200, resposta.length);
+                try (OutputStream saida = troca.getResponseBody()) {
+                    saida.write(resposta);
+                }
+            }
+        });
+        servidor.setExecutor(threads);
+        servidor.start();
+    }
+
+    String url(String caminho) {
+        return "http://localhost:" + servidor.getAddress().getPort() + caminho;
+    }
+
+    // Aponta o service para este servidor, trocando o cliente HTTP por um igual (mesmos interceptors) sem Nagle
+    void atender(Object service, String campoUrl, String caminho) {
+        ReflectionTestUtils.setField(service, campoUrl, url(caminho));
+        OkHttpClient cliente = (OkHttpClient) ReflectionTestUtils.getField(service, "httpClient");
+        ReflectionTestUtils.setField(service, "httpClient", cliente.newBuilder().socketFactory(new SemNagle()).build());
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        threads.shutdownNow();
+    }
+
+    private static final class SemNagle extends SocketFactory {
+
+        private final SocketFactory padrao = SocketFactory.getDefault();
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return semNagle(padrao.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(String host, int porta) throws IOException {
+            return semNagle(padrao.createSocket(host, porta));
+        }
+
+        @Override
+        public Socket createSocket(String host, int porta, InetAddress local, int portaLocal) throws IOException {
+            return semNagle(padrao.createSocket(host, porta, local, portaLocal));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int porta) throws IOException {
+            return semNagle(padrao.createSocket(host, porta));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int porta, InetAddress local, int portaLocal) throws IOException {
+            return semNagle(padrao.createSocket(host, porta, local, portaLocal));
+        }
+
+        private static Socket semNagle(Socket socket) throws IOException {
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+}
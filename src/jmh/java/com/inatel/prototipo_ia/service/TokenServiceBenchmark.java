@@ -0,0 +1,67 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação de JWT: o mesmo token repetido e tokens sempre novos (sem cache, os dois custam o mesmo HMAC).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    // Tokens distintos suficientes para não caberem nos caches da CPU
+    private static final int TOKENS_DISTINTOS = 50_000;
+
+    private TokenService tokenService;
+    private ClienteEntity usuario;
+    private String tokenRepetido;
+    private String[] tokensNovos;
+    private int proximo;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "benchmark-secret-key-12345678");
+        ReflectionTestUtils.setField(tokenService, "expiration", 3_600_000L);
+
+        usuario = new ClienteEntity();
+        usuario.setId(1L);
+        usuario.setLogin("cliente@teste.com");
+        tokenRepetido = tokenService.gerarToken(usuario);
+
+        tokensNovos = new String[TOKENS_DISTINTOS];
+        for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+            ClienteEntity outro = new ClienteEntity();
+            outro.setId((long) i + 2);
+            outro.setLogin("cliente" + i + "@teste.com");
+            tokensNovos[i] = tokenService.gerarToken(outro);
+        }
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public Optional<UsuarioAutenticado> validarTokenRepetido() {
+        return tokenService.getUsuarioAutenticado(tokenRepetido);
+    }
+
+    @Benchmark
+    public Optional<UsuarioAutenticado> validarTokenNovo() {
+        String token = tokensNovos[proximo];
+        proximo = (proximo + 1) % TOKENS_DISTINTOS;
+        return tokenService.getUsuarioAutenticado(token);
+    }
+}
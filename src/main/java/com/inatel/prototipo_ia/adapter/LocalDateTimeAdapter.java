@@ -1,27 +0,0 @@
-package com.inatel.prototipo_ia.adapter;
-
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
-import java.io.IOException;
-import java.time.LocalDateTime;
-
-public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
-    @Override
-    public void write(JsonWriter out, LocalDateTime value) throws IOException {
-        if (value == null) {
-            out.nullValue();
-        } else {
-            out.value(value.toString());
-        }
-    }
-
-    @Override
-    public LocalDateTime read(JsonReader in) throws IOException {
-        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {
-            in.nextNull();
-            return null;
-        }
-        return LocalDateTime.parse(in.nextString());
-    }
-}
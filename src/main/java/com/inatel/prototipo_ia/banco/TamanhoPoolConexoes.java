@@ -0,0 +1,41 @@
+package com.inatel.prototipo_ia.banco;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Define o tamanho do pool Hikari a partir de api.datasource.pool.tamanho.
+ * Com 0 o tamanho é derivado dos núcleos disponíveis: (núcleos * 2) + 1, a fórmula usual do Postgres.
+ * Os valores por modo de conexão ficam em application-postgres e application-pgbouncer.
+ */
+@Component
+public class TamanhoPoolConexoes implements BeanPostProcessor {
+
+    private final int tamanho;
+
+    public TamanhoPoolConexoes(@Value("${api.datasource.pool.tamanho:0}") int tamanho) {
+        if (tamanho < 0) {
+            throw new IllegalArgumentException("api.datasource.pool.tamanho não pode ser negativo");
+        }
+        this.tamanho = tamanho;
+    }
+
+    static int tamanhoPara(int tamanhoConfigurado, int nucleos) {
+        return tamanhoConfigurado > 0 ? tamanhoConfigurado : nucleos * 2 + 1;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // O pool só abre conexões no primeiro getConnection, então ainda pode ser redimensionado aqui
+        if (bean instanceof HikariDataSource dataSource) {
+            int maximo = tamanhoPara(tamanho, Runtime.getRuntime().availableProcessors());
+            dataSource.setMaximumPoolSize(maximo);
+            if (dataSource.getMinimumIdle() > maximo) {
+                dataSource.setMinimumIdle(maximo);
+            }
+        }
+        return bean;
+    }
+}
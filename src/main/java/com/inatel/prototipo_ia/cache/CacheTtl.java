@@ -0,0 +1,64 @@
+package com.inatel.prototipo_ia.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Mapa com expiração por entrada e capacidade limitada, seguro entre threads.
+ * Ao atingir a capacidade remove as entradas vencidas e, se isso não liberar um décimo da capacidade, descarta
+ * as usadas há mais tempo até liberar (assim a varredura das vencidas não se repete a cada inclusão).
+ */
+public class CacheTtl<K, V> {
+
+    private final int capacidadeMaxima;
+    // Em ordem de acesso: a primeira entrada é a usada há mais tempo
+    private final LinkedHashMap<K, Entrada<V>> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    public CacheTtl(int capacidadeMaxima) {
+        if (capacidadeMaxima < 1) {
+            throw new IllegalArgumentException("A capacidade do cache precisa ser positiva.");
+        }
+        this.capacidadeMaxima = capacidadeMaxima;
+    }
+
+    public synchronized V buscar(K chave) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.expiraEm() <= System.currentTimeMillis()) {
+            entradas.remove(chave);
+            return null;
+        }
+        return entrada.valor();
+    }
+
+    public synchronized void guardar(K chave, V valor, long expiraEm) {
+        if (entradas.size() >= capacidadeMaxima && !entradas.containsKey(chave)) {
+            liberarEspaco();
+        }
+        entradas.put(chave, new Entrada<>(valor, expiraEm));
+    }
+
+    public synchronized void remover(K chave) {
+        entradas.remove(chave);
+    }
+
+    public synchronized int tamanho() {
+        return entradas.size();
+    }
+
+    private void liberarEspaco() {
+        long agora = System.currentTimeMillis();
+        entradas.values().removeIf(e -> e.expiraEm() <= agora);
+        int descartar = Math.max(1, capacidadeMaxima / 10) - (capacidadeMaxima - entradas.size());
+        Iterator<K> menosUsadas = entradas.keySet().iterator();
+        while (descartar-- > 0 && menosUsadas.hasNext()) {
+            menosUsadas.next();
+            menosUsadas.remove();
+        }
+    }
+
+    private record Entrada<V>(V valor, long expiraEm) {
+    }
+}
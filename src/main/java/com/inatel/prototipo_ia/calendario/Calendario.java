@@ -0,0 +1,49 @@
+package com.inatel.prototipo_ia.calendario;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Contrato das consultas de calendário por período.
+ *
+ * - Período [de, ate] com as duas datas inclusive e no máximo {@link #MAX_DIAS} dias (um ano cabe numa chamada).
+ * - Resposta agrupada por dia: objeto JSON com a data ISO como chave, só com os dias que têm itens;
+ *   os itens não repetem a data.
+ */
+public final class Calendario {
+
+    public static final long MAX_DIAS = 366;
+
+    private Calendario() {
+    }
+
+    public static void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("O período deve ter data inicial e final.");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à inicial.");
+        }
+        if (ChronoUnit.DAYS.between(de, ate) >= MAX_DIAS) {
+            throw new IllegalArgumentException("O período não pode passar de " + MAX_DIAS + " dias.");
+        }
+    }
+
+    /**
+     * Agrupa os registros por dia em ordem de data, mantendo a ordem recebida dentro de cada dia.
+     */
+    public static <P, T> SortedMap<LocalDate, List<T>> porDia(Collection<P> registros, Function<P, LocalDate> data,
+                                                             Function<P, T> item) {
+        SortedMap<LocalDate, List<T>> dias = new TreeMap<>();
+        for (P registro : registros) {
+            dias.computeIfAbsent(data.apply(registro), dia -> new ArrayList<>()).add(item.apply(registro));
+        }
+        return dias;
+    }
+}
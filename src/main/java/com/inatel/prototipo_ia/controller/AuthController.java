@@ -3,17 +3,19 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.LoginDtoIn;
 import com.inatel.prototipo_ia.dto.out.TokenDtoOut;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
-import com.inatel.prototipo_ia.repository.ClienteRepository;    
-import com.inatel.prototipo_ia.repository.EspecialistaRepository; 
 import com.inatel.prototipo_ia.service.TokenService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import com.inatel.prototipo_ia.repository.SecretariaRepository;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
@@ -24,21 +26,17 @@ public class AuthController {
 
     @Autowired
     private TokenService tokenService;
-    
-    // Injetamos os repositórios para checar o tipo
-    @Autowired
-    private ClienteRepository clienteRepository;
-    
-    @Autowired
-    private EspecialistaRepository especialistaRepository;
-
-    @Autowired 
-    private SecretariaRepository secretariaRepository;
 
     @PostMapping("/login")
     public ResponseEntity<TokenDtoOut> efetuarLogin(@RequestBody @Valid LoginDtoIn dados) {
         var authenticationToken = new UsernamePasswordAuthenticationToken(dados.getLogin(), dados.getSenha());
-        var authentication = manager.authenticate(authenticationToken);
+        Authentication authentication;
+        try {
+            authentication = manager.authenticate(authenticationToken);
+        } catch (RejectedExecutionException e) {
+            // Pool de hash de senha saturado: cliente tenta de novo em vez de empilhar threads
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
         var usuario = (UsuarioEntity) authentication.getPrincipal();
         var tokenJWT = tokenService.gerarToken(usuario);
 
@@ -47,18 +45,11 @@ public class AuthController {
         tokenDto.setId(usuario.getId());
         tokenDto.setNome(usuario.getNome());
 
-        // --- LÓGICA DE DESCOBERTA DE TIPO ---
-        if (clienteRepository.existsById(usuario.getId())) {
-            tokenDto.setTipoUsuario("CLIENTE");
-        } else if (especialistaRepository.existsById(usuario.getId())) {
-            tokenDto.setTipoUsuario("ESPECIALISTA");
-        } else if (secretariaRepository.existsById(usuario.getId())) {
-            tokenDto.setTipoUsuario("SECRETARIA");
-        } else {
-            tokenDto.setTipoUsuario("ADMIN"); // Fallback
-        }
-        // ------------------------------------
+        // O findByLogin da autenticação já carrega a subclasse concreta (JOINED): o tipo vem dela,
+        // o mesmo valor que vai na claim "papel" do token
+        String papel = usuario.getPapel();
+        tokenDto.setTipoUsuario("USER".equals(papel) ? "ADMIN" : papel);
 
         return ResponseEntity.ok(tokenDto);
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.CertificadoDtoIn;
 import com.inatel.prototipo_ia.dto.out.CertificadoDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.CertificadoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,9 +29,8 @@ public class CertificadoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CertificadoDtoOut>> buscarTodos() {
-        List<CertificadoDtoOut> lista = service.buscarTodos();
-        return ResponseEntity.ok(lista);
+    public ResponseEntity<List<CertificadoDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
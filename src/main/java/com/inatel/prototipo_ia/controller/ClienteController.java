@@ -4,20 +4,31 @@ import com.inatel.prototipo_ia.dto.in.ClienteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
 import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
-import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
 import com.inatel.prototipo_ia.service.ChatService;
 import com.inatel.prototipo_ia.service.ClienteService;
 import com.inatel.prototipo_ia.service.ConsultaService;
 import com.inatel.prototipo_ia.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -52,15 +63,37 @@ public class ClienteController {
         }
     }
 
+    // Importação em massa (CSV ou NDJSON); se alguma linha for inválida nada é gravado e os erros voltam no corpo.
+    // Pool de hash de senha saturado por logins: nada é gravado e o cliente reenvia o arquivo (503)
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacaoDtoOut> importar(@RequestParam("arquivo") MultipartFile arquivo,
+                                                     @RequestParam(defaultValue = "csv") String formato) throws IOException {
+        FormatoArquivo formatoArquivo;
+        try {
+            formatoArquivo = FormatoArquivo.de(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportacaoDtoOut resultado;
+        try {
+            resultado = service.importar(arquivo, formatoArquivo);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        if (resultado.possuiErros()) {
+            return ResponseEntity.badRequest().body(resultado);
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
     // Buscar todos os clientes (DTO Out)
     @GetMapping
-    public ResponseEntity<List<ClienteDtoOut>> buscarTodos() {
-        List<ClienteDtoOut> clientes = service.buscarTodos();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<ClienteDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ClienteDtoOut> me(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<ClienteDtoOut> me(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!clienteRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -77,7 +110,7 @@ public class ClienteController {
     }
 
     @GetMapping("/me/consultas")
-    public ResponseEntity<List<ConsultaDtoOut>> minhasConsultas(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<List<ConsultaDtoOut>> minhasConsultas(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!clienteRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -86,7 +119,7 @@ public class ClienteController {
     }
 
     @GetMapping("/me/chats")
-    public ResponseEntity<List<ChatDtoOut>> meusChats(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<List<ChatDtoOut>> meusChats(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!clienteRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -2,8 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.ConsultaService;
+import com.inatel.prototipo_ia.service.ReservaConsultas;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 
 @RestController
 @RequestMapping("/consultas")
@@ -19,16 +24,23 @@ public class ConsultaController {
     @Autowired
     private ConsultaService service;
 
+    @Autowired
+    private ReservaConsultas reservaConsultas;
+
+    // Horário sobreposto a outra consulta do especialista: 409
     @PostMapping
     public ResponseEntity<ConsultaDtoOut> criar(@RequestBody ConsultaDtoIn consulta) {
-        ConsultaDtoOut criado = service.criar(consulta);
-        return ResponseEntity.ok(criado);
+        try {
+            ConsultaDtoOut criado = reservaConsultas.criar(consulta);
+            return ResponseEntity.ok(criado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<ConsultaDtoOut>> buscarTodos() {
-        List<ConsultaDtoOut> consultas = service.buscarTodos();
-        return ResponseEntity.ok(consultas);
+    public ResponseEntity<List<ConsultaDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
@@ -56,6 +68,16 @@ public class ConsultaController {
         return ResponseEntity.ok(consultas);
     }
 
+    // Consultas entre as datas (inclusive) agrupadas por dia ({"2025-12-15": [...]}), um mês numa chamada
+    @GetMapping("/calendario")
+    public ResponseEntity<SortedMap<LocalDate, List<ConsultaDtoOut>>> buscarCalendario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Long especialistaId,
+            @RequestParam(required = false) Long clienteId) {
+        return ResponseEntity.ok(service.buscarCalendario(de, ate, especialistaId, clienteId));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ConsultaDtoOut>> buscarPorStatus(@PathVariable String status) {
         List<ConsultaDtoOut> consultas = service.buscarPorStatus(status);
@@ -64,8 +86,12 @@ public class ConsultaController {
 
     @PutMapping("/{id}")
     public ResponseEntity<ConsultaDtoOut> atualizar(@PathVariable Long id, @RequestBody ConsultaDtoIn consulta) {
-        ConsultaDtoOut atualizado = service.atualizar(id, consulta);
-        return ResponseEntity.ok(atualizado);
+        try {
+            ConsultaDtoOut atualizado = reservaConsultas.atualizar(id, consulta);
+            return ResponseEntity.ok(atualizado);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
+        }
     }
 
     @DeleteMapping("/{id}")
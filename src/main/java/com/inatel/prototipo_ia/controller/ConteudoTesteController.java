@@ -2,11 +2,19 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.ConteudoTesteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConteudoTesteDtoOut;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.ConteudoTesteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,10 +31,26 @@ public class ConteudoTesteController {
         return ResponseEntity.ok(criado);
     }
 
+    // Importação em massa (CSV ou NDJSON); se alguma linha for inválida nada é gravado e os erros voltam no corpo
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportacaoDtoOut> importar(@RequestParam("arquivo") MultipartFile arquivo,
+                                                     @RequestParam(defaultValue = "csv") String formato) throws IOException {
+        FormatoArquivo formatoArquivo;
+        try {
+            formatoArquivo = FormatoArquivo.de(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ImportacaoDtoOut resultado = service.importar(arquivo, formatoArquivo);
+        if (resultado.possuiErros()) {
+            return ResponseEntity.badRequest().body(resultado);
+        }
+        return ResponseEntity.ok(resultado);
+    }
+
     @GetMapping
-    public ResponseEntity<List<ConteudoTesteDtoOut>> buscarTodos() {
-        List<ConteudoTesteDtoOut> conteudos = service.buscarTodos();
-        return ResponseEntity.ok(conteudos);
+    public ResponseEntity<List<ConteudoTesteDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
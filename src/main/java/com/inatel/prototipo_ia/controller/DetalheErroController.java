@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.DetalheErroDtoIn;
 import com.inatel.prototipo_ia.dto.out.DetalheErroDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.DetalheErroService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,9 +27,8 @@ public class DetalheErroController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DetalheErroDtoOut>> buscarTodos() {
-        List<DetalheErroDtoOut> detalhes = service.buscarTodos();
-        return ResponseEntity.ok(detalhes);
+    public ResponseEntity<List<DetalheErroDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
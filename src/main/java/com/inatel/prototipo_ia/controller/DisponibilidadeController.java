@@ -2,8 +2,12 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.DisponibilidadeDtoIn;
 import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.HorarioLivreDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.DisponibilidadeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 
 @RestController
 @RequestMapping("/disponibilidades")
@@ -26,9 +31,8 @@ public class DisponibilidadeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<DisponibilidadeDtoOut>> buscarTodos() {
-        List<DisponibilidadeDtoOut> disponibilidades = service.buscarTodos();
-        return ResponseEntity.ok(disponibilidades);
+    public ResponseEntity<List<DisponibilidadeDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
@@ -50,6 +54,15 @@ public class DisponibilidadeController {
         return ResponseEntity.ok(disponibilidades);
     }
 
+    // Janelas e ocorrências das recorrentes entre as datas (inclusive), agrupadas por dia
+    @GetMapping("/calendario")
+    public ResponseEntity<SortedMap<LocalDate, List<DisponibilidadeDtoOut>>> buscarCalendario(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(required = false) Long especialistaId) {
+        return ResponseEntity.ok(service.buscarCalendario(de, ate, especialistaId));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<DisponibilidadeDtoOut>> buscarPorStatus(@PathVariable String status) {
         List<DisponibilidadeDtoOut> disponibilidades = service.buscarPorStatus(status);
@@ -62,6 +75,25 @@ public class DisponibilidadeController {
         return ResponseEntity.ok(disponibilidades);
     }
 
+    // Intervalos livres do especialista entre as datas (inclusive), onde cabe ao menos uma consulta
+    @GetMapping("/especialista/{especialistaId}/livres")
+    public ResponseEntity<List<HorarioLivreDtoOut>> buscarHorariosLivres(
+            @PathVariable Long especialistaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(service.buscarHorariosLivres(especialistaId, de, ate));
+    }
+
+    // Primeiro especialista com horário livre entre as datas
+    @GetMapping("/primeiro-livre")
+    public ResponseEntity<HorarioLivreDtoOut> buscarPrimeiroHorarioLivre(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return service.buscarPrimeiroHorarioLivre(de, ate)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DisponibilidadeDtoOut> atualizar(@PathVariable Long id, @RequestBody DisponibilidadeDtoIn disponibilidade) {
         DisponibilidadeDtoOut atualizado = service.atualizar(id, disponibilidade);
@@ -0,0 +1,75 @@
+package com.inatel.prototipo_ia.controller;
+
+import com.inatel.prototipo_ia.dto.in.DisponibilidadeRecorrenteDtoIn;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeRecorrenteDtoOut;
+import com.inatel.prototipo_ia.service.DisponibilidadeRecorrenteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/disponibilidades/recorrentes")
+public class DisponibilidadeRecorrenteController {
+
+    @Autowired
+    private DisponibilidadeRecorrenteService service;
+
+    @PostMapping
+    public ResponseEntity<DisponibilidadeRecorrenteDtoOut> criar(@RequestBody DisponibilidadeRecorrenteDtoIn recorrente) {
+        DisponibilidadeRecorrenteDtoOut criado = service.criar(recorrente);
+        return ResponseEntity.ok(criado);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<DisponibilidadeRecorrenteDtoOut> buscarPorId(@PathVariable Long id) {
+        Optional<DisponibilidadeRecorrenteDtoOut> recorrente = service.buscarPorId(id);
+        return recorrente.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/especialista/{especialistaId}")
+    public ResponseEntity<List<DisponibilidadeRecorrenteDtoOut>> buscarPorEspecialistaId(@PathVariable Long especialistaId) {
+        List<DisponibilidadeRecorrenteDtoOut> recorrentes = service.buscarPorEspecialistaId(especialistaId);
+        return ResponseEntity.ok(recorrentes);
+    }
+
+    // Ocorrências entre as datas (inclusive) no formato de /disponibilidades, com o recorrenteId de origem
+    @GetMapping("/especialista/{especialistaId}/ocorrencias")
+    public ResponseEntity<List<DisponibilidadeDtoOut>> buscarOcorrencias(
+            @PathVariable Long especialistaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        return ResponseEntity.ok(service.buscarOcorrencias(especialistaId, de, ate));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<DisponibilidadeRecorrenteDtoOut> atualizar(@PathVariable Long id, @RequestBody DisponibilidadeRecorrenteDtoIn recorrente) {
+        DisponibilidadeRecorrenteDtoOut atualizado = service.atualizar(id, recorrente);
+        return ResponseEntity.ok(atualizado);
+    }
+
+    @PostMapping("/{id}/excecoes/{data}")
+    public ResponseEntity<DisponibilidadeRecorrenteDtoOut> adicionarExcecao(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        return ResponseEntity.ok(service.adicionarExcecao(id, data));
+    }
+
+    @DeleteMapping("/{id}/excecoes/{data}")
+    public ResponseEntity<DisponibilidadeRecorrenteDtoOut> removerExcecao(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        return ResponseEntity.ok(service.removerExcecao(id, data));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletar(@PathVariable Long id) {
+        service.deletar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
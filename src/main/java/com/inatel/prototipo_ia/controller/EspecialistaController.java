@@ -5,15 +5,23 @@ import com.inatel.prototipo_ia.dto.out.EspecialistaDtoOut;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
-import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
 import com.inatel.prototipo_ia.service.ClienteService;
 import com.inatel.prototipo_ia.service.ConsultaService;
 import com.inatel.prototipo_ia.service.EspecialistaService;
+import com.inatel.prototipo_ia.service.ExportacaoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +45,9 @@ public class EspecialistaController {
     @Autowired
     private com.inatel.prototipo_ia.service.RelatorioService relatorioService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
     @PostMapping
     public ResponseEntity<EspecialistaDtoOut> criar(@RequestBody EspecialistaDtoIn especialista) {
         try {
@@ -50,13 +61,12 @@ public class EspecialistaController {
     }
 
     @GetMapping
-    public ResponseEntity<List<EspecialistaDtoOut>> buscarTodos() {
-        List<EspecialistaDtoOut> especialistas = service.buscarTodos();
-        return ResponseEntity.ok(especialistas);
+    public ResponseEntity<List<EspecialistaDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<EspecialistaDtoOut> me(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<EspecialistaDtoOut> me(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!especialistaRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -71,7 +81,7 @@ public class EspecialistaController {
     }
 
     @GetMapping("/me/consultas")
-    public ResponseEntity<List<ConsultaDtoOut>> minhasConsultas(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<List<ConsultaDtoOut>> minhasConsultas(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!especialistaRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -80,7 +90,7 @@ public class EspecialistaController {
     }
 
     @GetMapping("/me/pacientes")
-    public ResponseEntity<List<ClienteDtoOut>> meusPacientes(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<List<ClienteDtoOut>> meusPacientes(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!especialistaRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -95,7 +105,7 @@ public class EspecialistaController {
     }
 
     @GetMapping("/me/relatorios/cliente/{clienteId}")
-    public ResponseEntity<List<RelatorioDtoOut>> relatoriosDoCliente(@AuthenticationPrincipal UsuarioEntity principal,
+    public ResponseEntity<List<RelatorioDtoOut>> relatoriosDoCliente(@AuthenticationPrincipal UsuarioAutenticado principal,
                                                                      @PathVariable Long clienteId) {
         if (!especialistaRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
@@ -109,6 +119,39 @@ public class EspecialistaController {
         return ResponseEntity.ok(relatorios);
     }
 
+    // Exportação em massa (sessoes, relatorios ou detalhes-erro) escrita em streaming na resposta
+    @GetMapping("/me/exportacoes/{recurso}")
+    public ResponseEntity<StreamingResponseBody> exportar(@AuthenticationPrincipal UsuarioAutenticado principal,
+                                                          @PathVariable String recurso,
+                                                          @RequestParam(defaultValue = "ndjson") String formato) {
+        if (!especialistaRepository.existsById(principal.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+        FormatoArquivo formatoArquivo;
+        try {
+            formatoArquivo = FormatoArquivo.de(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long especialistaId = principal.getId();
+        StreamingResponseBody corpo;
+        switch (recurso) {
+            case "sessoes" -> corpo = saida -> exportacaoService.exportarSessoes(especialistaId, formatoArquivo, saida);
+            case "relatorios" -> corpo = saida -> exportacaoService.exportarRelatorios(especialistaId, formatoArquivo, saida);
+            case "detalhes-erro" -> corpo = saida -> exportacaoService.exportarDetalhesErro(especialistaId, formatoArquivo, saida);
+            default -> {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoArquivo.getMediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + recurso + "." + formatoArquivo.getExtensao() + "\"")
+                .body(corpo);
+    }
+
     @GetMapping("/especialidade/{especialidade}")
     public ResponseEntity<List<EspecialistaDtoOut>> buscarPorEspecialidade(@PathVariable String especialidade) {
         List<EspecialistaDtoOut> especialistas = service.buscarPorEspecialidade(especialidade);
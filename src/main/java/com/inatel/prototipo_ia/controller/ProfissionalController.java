@@ -4,12 +4,15 @@ import com.inatel.prototipo_ia.dto.in.ProfissionalDtoIn;
 import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
 import com.inatel.prototipo_ia.dto.out.ProfissionalDtoOut;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
-import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
 import com.inatel.prototipo_ia.service.ProfissionalService;
 import com.inatel.prototipo_ia.service.ChatService;
 import com.inatel.prototipo_ia.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -42,13 +45,12 @@ public class ProfissionalController {
 
     // Buscar todos os profissionais
     @GetMapping
-    public ResponseEntity<List<ProfissionalDtoOut>> buscarTodos() {
-        List<ProfissionalDtoOut> profissionais = service.buscarTodos();
-        return ResponseEntity.ok(profissionais);
+    public ResponseEntity<List<ProfissionalDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/me")
-    public ResponseEntity<ProfissionalDtoOut> me(@AuthenticationPrincipal UsuarioEntity principal) {
+    public ResponseEntity<ProfissionalDtoOut> me(@AuthenticationPrincipal UsuarioAutenticado principal) {
         if (!profissionalRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
         }
@@ -67,7 +69,7 @@ public class ProfissionalController {
     // Endpoint de chats removido: chats agora pertencem ao Especialista
 
     @GetMapping("/me/relatorios/cliente/{clienteId}")
-    public ResponseEntity<List<RelatorioDtoOut>> relatoriosDoCliente(@AuthenticationPrincipal UsuarioEntity principal,
+    public ResponseEntity<List<RelatorioDtoOut>> relatoriosDoCliente(@AuthenticationPrincipal UsuarioAutenticado principal,
                                                                      @PathVariable Long clienteId) {
         if (!profissionalRepository.existsById(principal.getId())) {
             return ResponseEntity.status(403).build();
@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.RelatorioDtoIn;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.RelatorioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,9 +29,8 @@ public class RelatorioController {
 
     // Buscar todos os relatórios
     @GetMapping
-    public ResponseEntity<List<RelatorioDtoOut>> buscarTodos() {
-        List<RelatorioDtoOut> relatorios = service.buscarTodos();
-        return ResponseEntity.ok(relatorios);
+    public ResponseEntity<List<RelatorioDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     // Buscar relatório por ID
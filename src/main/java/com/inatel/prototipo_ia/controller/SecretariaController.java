@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.SecretariaDtoIn;
 import com.inatel.prototipo_ia.dto.out.SecretariaDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.SecretariaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,9 +33,8 @@ public class SecretariaController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SecretariaDtoOut>> buscarTodos() {
-        List<SecretariaDtoOut> secretarias = service.buscarTodos();
-        return ResponseEntity.ok(secretarias);
+    public ResponseEntity<List<SecretariaDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     @GetMapping("/{id}")
@@ -3,6 +3,7 @@ package com.inatel.prototipo_ia.controller;
 import com.inatel.prototipo_ia.dto.in.SessaoTreinoDtoIn;
 import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
 import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
 import com.inatel.prototipo_ia.service.SessaoTreinoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -29,6 +30,9 @@ public class SessaoTreinoController {
     @Autowired
     private SessaoTreinoService sessaoService;
 
+    @Autowired
+    private Metricas metricas;
+
     /**
      * PASSO 1: Iniciar uma nova sessão de treino
      * POST /api/sessao-treino/iniciar
@@ -94,7 +98,7 @@ public class SessaoTreinoController {
                 return ResponseEntity.badRequest().body(criarErro("Arquivo de áudio é obrigatório"));
             }
 
-            byte[] audioBytes = audioFile.getBytes();
+            byte[] audioBytes = metricas.etapa("leitura-upload").observeChecked(audioFile::getBytes);
             List<MensagemSessaoDtoOut> mensagens = sessaoService.processarAudio(sessaoId, audioBytes, usarGemini);
             return ResponseEntity.ok(mensagens);
 
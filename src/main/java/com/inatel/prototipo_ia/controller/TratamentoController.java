@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.TratamentoDtoIn;
 import com.inatel.prototipo_ia.dto.out.TratamentoDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.TratamentoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,9 +29,8 @@ public class TratamentoController {
 
     // Buscar todos os tratamentos
     @GetMapping
-    public ResponseEntity<List<TratamentoDtoOut>> buscarTodos() {
-        List<TratamentoDtoOut> tratamentos = service.buscarTodos();
-        return ResponseEntity.ok(tratamentos);
+    public ResponseEntity<List<TratamentoDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     // Buscar tratamento por ID
@@ -0,0 +1,27 @@
+package com.inatel.prototipo_ia.controller;
+
+import com.inatel.prototipo_ia.dto.out.UsoIaDtoOut;
+import com.inatel.prototipo_ia.service.ContabilidadeIa;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin/uso-ia")
+public class UsoIaController {
+
+    private static final int DIAS_PADRAO = 30;
+
+    @Autowired
+    private ContabilidadeIa contabilidadeIa;
+
+    // Tokens e latência por operação (desde que a instância subiu) e por cliente (sessões desde a data; padrão 30 dias)
+    @GetMapping
+    public ResponseEntity<UsoIaDtoOut> buscar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde) {
+        return ResponseEntity.ok(contabilidadeIa.relatorio(desde != null ? desde : LocalDate.now().minusDays(DIAS_PADRAO)));
+    }
+}
@@ -2,8 +2,11 @@ package com.inatel.prototipo_ia.controller;
 
 import com.inatel.prototipo_ia.dto.in.UsuarioDtoIn;
 import com.inatel.prototipo_ia.dto.out.UsuarioDtoOut;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,9 +29,8 @@ public class UsuarioController {
 
     // Buscar todos os usuários
     @GetMapping
-    public ResponseEntity<List<UsuarioDtoOut>> buscarTodos() {
-        List<UsuarioDtoOut> usuarios = service.buscarTodos();
-        return ResponseEntity.ok(usuarios);
+    public ResponseEntity<List<UsuarioDtoOut>> buscarTodos(@PageableDefault(size = Paginacao.TAMANHO_PADRAO, sort = "id") Pageable pageable) {
+        return Paginacao.resposta(service.buscarTodos(pageable));
     }
 
     // Buscar usuário por ID
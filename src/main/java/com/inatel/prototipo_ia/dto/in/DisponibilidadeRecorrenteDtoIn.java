@@ -0,0 +1,21 @@
+package com.inatel.prototipo_ia.dto.in;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Getter
+@Setter
+public class DisponibilidadeRecorrenteDtoIn {
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+    private LocalDate vigenciaInicio;
+    private LocalDate vigenciaFim;
+    private Set<LocalDate> excecoes;
+    private Long especialistaId;
+}
@@ -17,4 +17,6 @@ public class DisponibilidadeDtoOut {
     private LocalTime horaFim;
     private String status;
     private Long especialistaId;
+    // Ocorrência gerada de uma janela recorrente (sem id próprio)
+    private Long recorrenteId;
 }
\ No newline at end of file
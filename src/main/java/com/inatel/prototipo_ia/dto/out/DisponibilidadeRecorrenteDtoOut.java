@@ -0,0 +1,24 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DisponibilidadeRecorrenteDtoOut {
+    private Long id;
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+    private LocalDate vigenciaInicio;
+    private LocalDate vigenciaFim;
+    private List<LocalDate> excecoes;
+    private Long especialistaId;
+}
@@ -0,0 +1,17 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+public class HorarioLivreDtoOut {
+    private Long especialistaId;
+    private LocalDate data;
+    private LocalTime horaInicio;
+    private LocalTime horaFim;
+    private Long duracaoConsultaMin; // cabe ao menos uma consulta entre horaInicio e horaFim
+}
@@ -0,0 +1,31 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportacaoDtoOut {
+
+    // Limite de mensagens devolvidas; o total continua sendo contado em totalErros
+    private static final int MAXIMO_MENSAGENS = 100;
+
+    private long linhasLidas;
+    private long importados;
+    private long totalErros;
+    private List<String> erros = new ArrayList<>();
+
+    public void adicionarErro(long linha, String mensagem) {
+        totalErros++;
+        if (erros.size() < MAXIMO_MENSAGENS) {
+            erros.add("Linha " + linha + ": " + mensagem);
+        }
+    }
+
+    public boolean possuiErros() {
+        return totalErros > 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.inatel.prototipo_ia.dto.out;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Consumo de IA para ajuste dos prompts: médias por operação desde que a instância subiu
+ * e totais por cliente (do banco) das sessões iniciadas desde a data pedida.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsoIaDtoOut {
+    private LocalDate desde;
+    private Orcamento orcamento;
+    private List<Operacao> operacoes;
+    private List<Cliente> clientes;
+
+    // Limites configurados; 0 é sem limite
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Orcamento {
+        private Long tokensPorSessao;
+        private Long latenciaPorSessaoMs;
+        private Long tokensPorClienteDia;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Operacao {
+        private String operacao;
+        private Long chamadas;
+        private Long tokensPrompt;
+        private Long tokensResposta;
+        private Double tokensPromptPorChamada;
+        private Double latenciaMediaMs;
+        private Long rebaixamentos; // vezes em que o orçamento desviou para o caminho sem Gemini
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Cliente {
+        private Long clienteId;
+        private String nome;
+        private Long sessoes;
+        private Long chamadas;
+        private Long tokensPrompt;
+        private Long tokensResposta;
+        private Long latenciaMs;
+    }
+}
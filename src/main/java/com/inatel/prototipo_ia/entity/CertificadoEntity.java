@@ -13,7 +13,8 @@ import java.time.LocalDate;
 public class CertificadoEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificado_seq")
+    @SequenceGenerator(name = "certificado_seq", sequenceName = "certificado_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
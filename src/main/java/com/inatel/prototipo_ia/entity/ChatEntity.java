@@ -10,7 +10,8 @@ import lombok.Setter;
 public class ChatEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_seq")
+    @SequenceGenerator(name = "chat_seq", sequenceName = "chat_seq", allocationSize = 50)
     private Long id;
 
     private Integer duracao;
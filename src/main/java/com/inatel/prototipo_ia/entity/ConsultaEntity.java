@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
@@ -14,13 +15,17 @@ import java.time.LocalTime;
 public class ConsultaEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consulta_seq")
+    @SequenceGenerator(name = "consulta_seq", sequenceName = "consulta_seq", allocationSize = 50)
     private Long id;
 
     private LocalDate data;
 
     private LocalTime hora;
 
+    // Fim do horário ocupado (data + hora + duração da consulta); usado pela constraint de exclusão da V14
+    private LocalDateTime fim;
+
     private String tipo;
 
     private String status;
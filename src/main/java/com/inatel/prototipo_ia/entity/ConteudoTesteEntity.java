@@ -12,7 +12,8 @@ import java.util.List;
 public class ConteudoTesteEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conteudoteste_seq")
+    @SequenceGenerator(name = "conteudoteste_seq", sequenceName = "conteudoteste_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "textofrase", columnDefinition = "TEXT")
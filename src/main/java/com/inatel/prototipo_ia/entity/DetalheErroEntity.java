@@ -11,7 +11,8 @@ import lombok.Setter;
 public class DetalheErroEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalheerro_seq")
+    @SequenceGenerator(name = "detalheerro_seq", sequenceName = "detalheerro_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fonemaesperado")
@@ -14,7 +14,8 @@ import java.time.LocalTime;
 public class DisponibilidadeEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disponibilidade_seq")
+    @SequenceGenerator(name = "disponibilidade_seq", sequenceName = "disponibilidade_seq", allocationSize = 50)
     private Long id;
 
     private LocalDate data;
@@ -27,6 +28,10 @@ public class DisponibilidadeEntity {
 
     private String status;
 
+    // Incrementada a cada consulta marcada na janela: reservas concorrentes na mesma janela não passam juntas
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "especialista_id", nullable = false)
     private EspecialistaEntity especialista;
@@ -0,0 +1,81 @@
+package com.inatel.prototipo_ia.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Janela semanal de disponibilidade (um dia da semana, de horaInicio a horaFim) válida de vigenciaInicio
+ * até vigenciaFim (aberta quando nula), menos as datas de exceção. Uma linha no lugar de uma
+ * DisponibilidadeEntity por semana; as ocorrências só são geradas para o período consultado.
+ */
+@Entity
+@Table(name = "disponibilidade_recorrente")
+@Getter
+@Setter
+public class DisponibilidadeRecorrenteEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disponibilidade_recorrente_seq")
+    @SequenceGenerator(name = "disponibilidade_recorrente_seq", sequenceName = "disponibilidade_recorrente_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 10)
+    private DayOfWeek diaSemana;
+
+    @Column(name = "horainicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "horafim", nullable = false)
+    private LocalTime horaFim;
+
+    @Column(name = "vigencia_inicio", nullable = false)
+    private LocalDate vigenciaInicio;
+
+    @Column(name = "vigencia_fim")
+    private LocalDate vigenciaFim;
+
+    // Datas em que a janela não ocorre (feriados, férias)
+    @ElementCollection
+    @CollectionTable(name = "disponibilidade_recorrente_excecao", joinColumns = @JoinColumn(name = "recorrente_id"))
+    @Column(name = "data", nullable = false)
+    private Set<LocalDate> excecoes = new HashSet<>();
+
+    // Como na DisponibilidadeEntity: incrementada a cada consulta marcada numa ocorrência da janela
+    @Version
+    private Long version;
+
+    @ManyToOne
+    @JoinColumn(name = "especialista_id", nullable = false)
+    private EspecialistaEntity especialista;
+
+    public boolean ocorreEm(LocalDate data) {
+        return data.getDayOfWeek() == diaSemana
+                && !data.isBefore(vigenciaInicio)
+                && (vigenciaFim == null || !data.isAfter(vigenciaFim))
+                && !excecoes.contains(data);
+    }
+
+    // Datas em que a janela ocorre entre de e ate (inclusive), indo de semana em semana
+    public List<LocalDate> ocorrenciasEntre(LocalDate de, LocalDate ate) {
+        List<LocalDate> datas = new ArrayList<>();
+        LocalDate inicio = vigenciaInicio.isAfter(de) ? vigenciaInicio : de;
+        LocalDate fim = vigenciaFim != null && vigenciaFim.isBefore(ate) ? vigenciaFim : ate;
+        for (LocalDate data = inicio.with(TemporalAdjusters.nextOrSame(diaSemana)); !data.isAfter(fim); data = data.plusWeeks(1)) {
+            if (!excecoes.contains(data)) {
+                datas.add(data);
+            }
+        }
+        return datas;
+    }
+}
@@ -13,7 +13,8 @@ import java.util.List;
 public class RelatorioEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "relatorio_seq")
+    @SequenceGenerator(name = "relatorio_seq", sequenceName = "relatorio_seq", allocationSize = 50)
     private Long id;
 
     private Float acuracia;
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class SessaoTreinoEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sessaotreino_seq")
+    @SequenceGenerator(name = "sessaotreino_seq", sequenceName = "sessaotreino_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -58,6 +59,19 @@ public class SessaoTreinoEntity {
     @Column(name = "pontuacao_geral")
     private Double pontuacaoGeral;
 
+    // Consumo de IA da sessão (trava-língua e análise do áudio), somado a cada chamada
+    @Column(name = "chamadas_ia", nullable = false)
+    private Integer chamadasIa;
+
+    @Column(name = "tokens_prompt", nullable = false)
+    private Long tokensPrompt;
+
+    @Column(name = "tokens_resposta", nullable = false)
+    private Long tokensResposta;
+
+    @Column(name = "latencia_ia_ms", nullable = false)
+    private Long latenciaIaMs;
+
     // Timestamps
     @Column(name = "data_inicio", nullable = false)
     private LocalDateTime dataInicio;
@@ -84,10 +98,25 @@ public class SessaoTreinoEntity {
         this.totalPalavras = 0;
         this.totalAcertos = 0;
         this.pontuacaoGeral = 0.0;
+        this.chamadasIa = 0;
+        this.tokensPrompt = 0L;
+        this.tokensResposta = 0L;
+        this.latenciaIaMs = 0L;
         this.historicoConversa = "";
     }
 
     // Métodos auxiliares
+    public void registrarUsoIa(int chamadas, long tokensPrompt, long tokensResposta, long latenciaMs) {
+        this.chamadasIa += chamadas;
+        this.tokensPrompt += tokensPrompt;
+        this.tokensResposta += tokensResposta;
+        this.latenciaIaMs += latenciaMs;
+    }
+
+    public long getTokensTotal() {
+        return tokensPrompt + tokensResposta;
+    }
+
     public void adicionarAoHistorico(String remetente, String mensagem) {
         String timestamp = LocalDateTime.now().toString();
         String novaLinha = "[" + timestamp + "] " + remetente + ": " + mensagem + "\n";
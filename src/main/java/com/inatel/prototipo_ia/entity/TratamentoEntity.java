@@ -11,7 +11,8 @@ import lombok.Setter;
 public class TratamentoEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tratamento_seq")
+    @SequenceGenerator(name = "tratamento_seq", sequenceName = "tratamento_seq", allocationSize = 50)
     private Long id;
 
             @Column(name = "quantidadedia")
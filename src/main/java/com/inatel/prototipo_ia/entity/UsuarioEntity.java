@@ -20,7 +20,8 @@ import java.util.List;
 public class UsuarioEntity implements UserDetails { 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+    @SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -45,14 +46,19 @@ public class UsuarioEntity implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + getPapel()));
+    }
+
+    // Papel derivado da subclasse concreta (vai como claim no JWT)
+    public String getPapel() {
         if (this instanceof EspecialistaEntity) {
-            return List.of(new SimpleGrantedAuthority("ROLE_ESPECIALISTA"));
+            return "ESPECIALISTA";
         } else if (this instanceof ClienteEntity) {
-            return List.of(new SimpleGrantedAuthority("ROLE_CLIENTE"));
+            return "CLIENTE";
         } else if (this instanceof SecretariaEntity) {
-            return List.of(new SimpleGrantedAuthority("ROLE_SECRETARIA"));
+            return "SECRETARIA";
         }
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return "USER";
     }
 
     @Override
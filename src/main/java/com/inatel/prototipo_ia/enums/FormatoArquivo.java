@@ -0,0 +1,29 @@
+package com.inatel.prototipo_ia.enums;
+
+import java.util.Locale;
+
+public enum FormatoArquivo {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extensao;
+
+    FormatoArquivo(String mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    // Converte o parâmetro da requisição ("csv", "ndjson"); lança IllegalArgumentException se desconhecido
+    public static FormatoArquivo de(String valor) {
+        return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
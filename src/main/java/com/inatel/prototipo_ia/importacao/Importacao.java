@@ -0,0 +1,167 @@
+package com.inatel.prototipo_ia.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura em streaming dos arquivos de importação em massa (CSV com cabeçalho ou NDJSON).
+ * Cada registro é convertido no DTO de entrada e entregue com o número da linha de origem;
+ * linhas malformadas viram erros no resultado em vez de interromper a leitura.
+ * Os registros são convertidos pelo ObjectMapper do Spring recebido de quem importa.
+ */
+public final class Importacao {
+
+    // Registros gravados por flush/clear: 10 lotes JDBC de hibernate.jdbc.batch_size (50)
+    public static final int TAMANHO_LOTE = 500;
+
+    @FunctionalInterface
+    public interface ConsumidorRegistro<T> {
+        void aceitar(long linha, T registro);
+    }
+
+    private Importacao() {
+    }
+
+    public static <T> void ler(ObjectMapper objectMapper, InputStream entrada, FormatoArquivo formato, Class<T> tipo,
+                               ImportacaoDtoOut resultado, ConsumidorRegistro<T> consumidor) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        if (formato == FormatoArquivo.NDJSON) {
+            lerNdjson(objectMapper, reader, tipo, resultado, consumidor);
+        } else {
+            lerCsv(objectMapper, reader, tipo, resultado, consumidor);
+        }
+    }
+
+    private static <T> void lerNdjson(ObjectMapper objectMapper, BufferedReader reader, Class<T> tipo,
+                                      ImportacaoDtoOut resultado, ConsumidorRegistro<T> consumidor) throws IOException {
+        ObjectReader leitor = objectMapper.readerFor(tipo);
+        long linha = 0;
+        String texto;
+        while ((texto = reader.readLine()) != null) {
+            linha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            resultado.setLinhasLidas(resultado.getLinhasLidas() + 1);
+            T registro;
+            try {
+                registro = leitor.readValue(texto);
+            } catch (JsonProcessingException e) {
+                resultado.adicionarErro(linha, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            consumidor.aceitar(linha, registro);
+        }
+    }
+
+    private static <T> void lerCsv(ObjectMapper objectMapper, BufferedReader reader, Class<T> tipo,
+                                   ImportacaoDtoOut resultado, ConsumidorRegistro<T> consumidor) throws IOException {
+        LeitorCsv csv = new LeitorCsv(reader);
+        List<String> cabecalho = csv.proximo();
+        if (cabecalho == null) {
+            return;
+        }
+        cabecalho.set(0, cabecalho.get(0).replace("\uFEFF", "")); // BOM de planilhas exportadas pelo Excel
+
+        List<String> campos;
+        while ((campos = csv.proximo()) != null) {
+            long linha = csv.linhaDoRegistro();
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            resultado.setLinhasLidas(resultado.getLinhasLidas() + 1);
+            if (campos.size() != cabecalho.size()) {
+                resultado.adicionarErro(linha, "esperadas " + cabecalho.size() + " colunas, encontradas " + campos.size());
+                continue;
+            }
+            Map<String, String> valores = new HashMap<>();
+            for (int i = 0; i < campos.size(); i++) {
+                if (!campos.get(i).isEmpty()) {
+                    valores.put(cabecalho.get(i).trim(), campos.get(i));
+                }
+            }
+            T registro;
+            try {
+                registro = objectMapper.convertValue(valores, tipo);
+            } catch (IllegalArgumentException e) {
+                resultado.adicionarErro(linha, "valor inválido: " + e.getMessage());
+                continue;
+            }
+            consumidor.aceitar(linha, registro);
+        }
+    }
+
+    // Parser RFC 4180: campos entre aspas podem conter vírgulas, aspas duplicadas e quebras de linha
+    private static final class LeitorCsv {
+        private final Reader reader;
+        private long linhaAtual = 1;
+        private long linhaDoRegistro;
+
+        LeitorCsv(Reader reader) {
+            this.reader = reader;
+        }
+
+        long linhaDoRegistro() {
+            return linhaDoRegistro;
+        }
+
+        List<String> proximo() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            linhaDoRegistro = linhaAtual;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            while (true) {
+                if (c == -1) {
+                    campos.add(campo.toString());
+                    return campos;
+                }
+                if (entreAspas) {
+                    if (c == '"') {
+                        int seguinte = reader.read();
+                        if (seguinte != '"') {
+                            entreAspas = false;
+                            c = seguinte;
+                            continue;
+                        }
+                        campo.append('"');
+                    } else {
+                        if (c == '\n') {
+                            linhaAtual++;
+                        }
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n') {
+                    linhaAtual++;
+                    campos.add(campo.toString());
+                    return campos;
+                } else if (c != '\r') {
+                    campo.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+}
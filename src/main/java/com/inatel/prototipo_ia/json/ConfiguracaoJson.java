@@ -0,0 +1,25 @@
+package com.inatel.prototipo_ia.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Ajusta o ObjectMapper criado pela autoconfiguração do Jackson, que é injetado nos services:
+ * respostas HTTP, corpo das chamadas de IA e sessaotreino.resultado usam os mesmos serializadores.
+ * Fixa o que o resultado já gravado exige (datas ISO-8601, campos desconhecidos ignorados);
+ * o restante continua configurável por spring.jackson.*, @JsonComponent e @JsonMixin.
+ */
+@Configuration
+public class ConfiguracaoJson {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer personalizacaoJson() {
+        return builder -> builder.featuresToDisable(
+                SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS,
+                DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,47 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registra no log uma amostra dos comandos SQL (api.log.sql.amostragem, de 0 a 1).
+ * Complementa o log de consultas lentas do Hibernate (hibernate.log_slow_query), que só
+ * registra o que passa do limite; com taxa 0 o inspetor nem é registrado.
+ */
+@Component
+public class AmostragemSql implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(AmostragemSql.class);
+
+    private final double taxa;
+
+    public AmostragemSql(@Value("${api.log.sql.amostragem:0}") double taxa) {
+        if (taxa < 0 || taxa > 1) {
+            throw new IllegalArgumentException("api.log.sql.amostragem deve estar entre 0 e 1");
+        }
+        this.taxa = taxa;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (taxa > 0) {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextDouble() < taxa) {
+            log.info("SQL amostrado: {}", sql);
+        }
+        return sql;
+    }
+}
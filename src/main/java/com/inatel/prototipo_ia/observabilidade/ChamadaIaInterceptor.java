@@ -0,0 +1,73 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import io.micrometer.observation.Observation;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interceptor OkHttp que observa as chamadas a um provedor de IA: latência até a resposta,
+ * status HTTP, bytes enviados e recebidos e, quando o provedor informa, o total de tokens.
+ * Bytes e tokens vão no span e nas distribuições ia.payload e ia.tokens.
+ */
+public class ChamadaIaInterceptor implements Interceptor {
+
+    // usageMetadata.totalTokenCount do Gemini; lido sem desserializar a resposta inteira
+    private static final Pattern TOTAL_TOKENS = Pattern.compile("\"totalTokenCount\"\\s*:\\s*(\\d+)");
+    private static final long LIMITE_LEITURA_TOKENS = 256 * 1024;
+
+    private final Metricas metricas;
+    private final String provedor;
+    private final String operacao;
+
+    public ChamadaIaInterceptor(Metricas metricas, String provedor, String operacao) {
+        this.metricas = metricas;
+        this.provedor = provedor;
+        this.operacao = operacao;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Observation observacao = metricas.chamadaIa(provedor, operacao).start();
+        if (request.body() != null && request.body().contentLength() >= 0) {
+            long enviados = request.body().contentLength();
+            observacao.highCardinalityKeyValue("ia.bytes.enviados", Long.toString(enviados));
+            metricas.payloadIa(provedor, operacao, "enviado", enviados);
+        }
+
+        try (Observation.Scope ignored = observacao.openScope()) {
+            Response response = chain.proceed(request);
+            observacao.lowCardinalityKeyValue("status", Integer.toString(response.code()));
+            if (response.body() != null && response.body().contentLength() >= 0) {
+                long recebidos = response.body().contentLength();
+                observacao.highCardinalityKeyValue("ia.bytes.recebidos", Long.toString(recebidos));
+                metricas.payloadIa(provedor, operacao, "recebido", recebidos);
+            }
+            if (response.isSuccessful()) {
+                String tokens = observacao.isNoop() ? null : totalTokens(response);
+                if (tokens != null) {
+                    observacao.highCardinalityKeyValue("ia.tokens", tokens);
+                    metricas.tokensIa(provedor, operacao, Long.parseLong(tokens));
+                }
+            } else {
+                observacao.error(new IOException(provedor + " respondeu " + response.code()));
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            observacao.error(e);
+            throw e;
+        } finally {
+            observacao.stop();
+        }
+    }
+
+    private static String totalTokens(Response response) throws IOException {
+        Matcher matcher = TOTAL_TOKENS.matcher(response.peekBody(LIMITE_LEITURA_TOKENS).string());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
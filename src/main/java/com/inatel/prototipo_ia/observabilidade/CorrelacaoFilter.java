@@ -0,0 +1,47 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Associa um ID de correlação a cada requisição: reaproveita o cabeçalho X-Correlation-Id
+ * quando válido ou gera um novo. O ID vai para o MDC (aparece em todo log da requisição)
+ * e é devolvido no cabeçalho da resposta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelacaoFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Correlation-Id";
+    public static final String CHAVE_MDC = "correlationId";
+
+    // Evita que um cabeçalho arbitrário injete quebras de linha ou lixo nos logs
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String id = request.getHeader(CABECALHO);
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            id = UUID.randomUUID().toString();
+        }
+
+        MDC.put(CHAVE_MDC, id);
+        response.setHeader(CABECALHO, id);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(CHAVE_MDC);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instrumentação da aplicação pela API de Observation do Micrometer.
+ * Cada observação vira um Timer (contagem, latência e erros) em /actuator/prometheus e, com tracing,
+ * um span filho do span corrente, exportado via OTLP. Tamanhos (bytes, tokens) que não são durações
+ * vão em DistributionSummary direto no MeterRegistry, para somas e percentis por provedor e operação.
+ */
+@Component
+public class Metricas {
+
+    // Composite sem registros: os medidores aceitam os valores e os descartam
+    private static final Metricas DESLIGADAS = new Metricas(ObservationRegistry.NOOP, new CompositeMeterRegistry());
+
+    private final ObservationRegistry registry;
+    private final MeterRegistry medidores;
+
+    @Autowired
+    public Metricas(ObjectProvider<ObservationRegistry> registry, ObjectProvider<MeterRegistry> medidores) {
+        this(registry.getIfAvailable(() -> ObservationRegistry.NOOP), medidores.getIfAvailable(CompositeMeterRegistry::new));
+    }
+
+    Metricas(ObservationRegistry registry, MeterRegistry medidores) {
+        this.registry = registry;
+        this.medidores = medidores;
+    }
+
+    // Para classes montadas fora do Spring (testes unitários)
+    public static Metricas desligadas() {
+        return DESLIGADAS;
+    }
+
+    /**
+     * Chamada HTTP a um provedor de IA (gemini, deepgram); latência e taxa de erro por provedor e operação.
+     */
+    public Observation chamadaIa(String provedor, String operacao) {
+        return Observation.createNotStarted("ia.chamada", registry)
+                .lowCardinalityKeyValue("provedor", provedor)
+                .lowCardinalityKeyValue("operacao", operacao);
+    }
+
+    /**
+     * Bytes do corpo de uma chamada de IA; direcao é "enviado" ou "recebido".
+     */
+    public void payloadIa(String provedor, String operacao, String direcao, long bytes) {
+        DistributionSummary.builder("ia.payload")
+                .baseUnit(BaseUnits.BYTES)
+                .tags("provedor", provedor, "operacao", operacao, "direcao", direcao)
+                .register(medidores)
+                .record(bytes);
+    }
+
+    /**
+     * Total de tokens (prompt + resposta) informado pelo provedor numa chamada de IA.
+     */
+    public void tokensIa(String provedor, String operacao, long tokens) {
+        DistributionSummary.builder("ia.tokens")
+                .baseUnit("tokens")
+                .tags("provedor", provedor, "operacao", operacao)
+                .register(medidores)
+                .record(tokens);
+    }
+
+    /**
+     * Etapa do processamento de áudio de uma sessão (leitura do upload, chamada à IA, persistência...).
+     */
+    public Observation etapa(String nome) {
+        return Observation.createNotStarted("sessao.audio.etapa", registry)
+                .contextualName(nome)
+                .lowCardinalityKeyValue("etapa", nome);
+    }
+
+    /**
+     * Mudança de status de uma sessão de treino.
+     */
+    public void transicaoSessao(StatusSessao de, StatusSessao para) {
+        contar("sessao.transicao", KeyValues.of("de", String.valueOf(de), "para", para.name()));
+    }
+
+    /**
+     * Consulta a um cache em memória; a taxa de acerto sai da contagem por resultado.
+     */
+    public void consultaCache(String cache, boolean acerto) {
+        contar("cache.consulta", KeyValues.of("cache", cache, "resultado", acerto ? "acerto" : "falha"));
+    }
+
+    /**
+     * Lote de áudios enviado numa requisição; reenviados são os que voltaram sem análise e seguiram sozinhos.
+     */
+    public void loteAnaliseAudio(int audios, int reenviados) {
+        contar("ia.lote", KeyValues.of("audios", String.valueOf(audios), "reenviados", String.valueOf(reenviados)));
+    }
+
+    // Eventos sem duração: só a contagem do Timer interessa
+    private void contar(String nome, KeyValues tags) {
+        Observation.createNotStarted(nome, registry).lowCardinalityKeyValues(tags).start().stop();
+    }
+}
@@ -0,0 +1,12 @@
+package com.inatel.prototipo_ia.paginacao;
+
+/**
+ * Campo de ordenação fora da whitelist da listagem (ver {@link Paginacao#normalizar}).
+ * Respondida com 400 por {@link OrdenacaoInvalidaHandler} em qualquer controller.
+ */
+public class OrdenacaoInvalidaException extends IllegalArgumentException {
+
+    public OrdenacaoInvalidaException(String mensagem) {
+        super(mensagem);
+    }
+}
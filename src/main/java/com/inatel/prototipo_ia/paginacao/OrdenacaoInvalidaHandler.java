@@ -0,0 +1,18 @@
+package com.inatel.prototipo_ia.paginacao;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Ordenação por campo não permitido vira 400 em todas as listagens paginadas,
+ * sem cada controller capturar IllegalArgumentException (que também vem de validações dos services).
+ */
+@RestControllerAdvice
+public class OrdenacaoInvalidaHandler {
+
+    @ExceptionHandler(OrdenacaoInvalidaException.class)
+    public ResponseEntity<String> ordenacaoInvalida(OrdenacaoInvalidaException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
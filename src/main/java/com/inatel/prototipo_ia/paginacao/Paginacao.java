@@ -0,0 +1,68 @@
+package com.inatel.prototipo_ia.paginacao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Contrato único de paginação das listagens.
+ *
+ * - Tamanho de página limitado a {@link #TAMANHO_MAXIMO} (nenhuma listagem carrega a tabela inteira).
+ * - Ordenação apenas por campos permitidos por cada service.
+ * - Desempate sempre por "id", para a ordem ser estável entre páginas.
+ *
+ * O corpo da resposta continua sendo uma lista JSON (compatível com o front-end);
+ * os metadados vão nos headers X-Total-Count, X-Total-Pages, X-Page e X-Page-Size.
+ */
+public final class Paginacao {
+
+    public static final int TAMANHO_PADRAO = 50;
+    public static final int TAMANHO_MAXIMO = 200;
+
+    private static final String CAMPO_DESEMPATE = "id";
+
+    private Paginacao() {
+    }
+
+    /**
+     * Valida e normaliza o Pageable recebido: limita o tamanho, rejeita campos de ordenação
+     * fora da whitelist ({@link OrdenacaoInvalidaException}, 400) e acrescenta o desempate por id.
+     */
+    public static Pageable normalizar(Pageable pageable, Set<String> camposOrdenaveis) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, TAMANHO_PADRAO, Sort.by(CAMPO_DESEMPATE));
+        }
+
+        int tamanho = Math.min(Math.max(pageable.getPageSize(), 1), TAMANHO_MAXIMO);
+
+        Sort sort = pageable.getSort();
+        for (Sort.Order ordem : sort) {
+            if (!camposOrdenaveis.contains(ordem.getProperty())) {
+                throw new OrdenacaoInvalidaException("Campo de ordenação não permitido: " + ordem.getProperty()
+                        + ". Permitidos: " + camposOrdenaveis);
+            }
+        }
+        if (sort.getOrderFor(CAMPO_DESEMPATE) == null) {
+            sort = sort.and(Sort.by(CAMPO_DESEMPATE));
+        }
+
+        return PageRequest.of(pageable.getPageNumber(), tamanho, sort);
+    }
+
+    /**
+     * Monta a resposta HTTP de uma página: conteúdo no corpo e metadados nos headers.
+     */
+    public static <T> ResponseEntity<List<T>> resposta(Page<T> pagina) {
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(pagina.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(pagina.getTotalPages()))
+                .header("X-Page", String.valueOf(pagina.getNumber()))
+                .header("X-Page-Size", String.valueOf(pagina.getSize()))
+                .body(pagina.getContent());
+    }
+}
@@ -2,9 +2,13 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.CertificadoEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface CertificadoRepository extends JpaRepository<CertificadoEntity, Long> {
@@ -15,4 +19,7 @@ public interface CertificadoRepository extends JpaRepository<CertificadoEntity,
     List<CertificadoEntity> findByNivelAlcancado(String nivelAlcancado);
 
     List<CertificadoEntity> findByDataEmissaoAfter(LocalDate data);
+
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM CertificadoEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<VinculoIdProjection> findIdsByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
 }
\ No newline at end of file
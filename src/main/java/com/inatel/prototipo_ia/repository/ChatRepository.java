@@ -1,10 +1,13 @@
 package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.ChatEntity;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +23,11 @@ public interface ChatRepository extends JpaRepository<ChatEntity, Long> {
     // Query customizada (mantida, mas ajustada se necessário)
     @Query("SELECT c FROM ChatEntity c WHERE c.duracao > 30")
     List<ChatEntity> findChatsLongos();
+
+    // IDs de chats agrupáveis por cliente/especialista (evita N+1 no mapeamento de DTOs)
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM ChatEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<VinculoIdProjection> findIdsByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Query("SELECT c.especialista.id AS donoId, c.id AS id FROM ChatEntity c WHERE c.especialista.id IN :especialistaIds ORDER BY c.id")
+    List<VinculoIdProjection> findIdsByEspecialistaIdIn(@Param("especialistaIds") Collection<Long> especialistaIds);
 }
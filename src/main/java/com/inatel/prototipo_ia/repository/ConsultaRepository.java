@@ -3,9 +3,14 @@ package com.inatel.prototipo_ia.repository;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface ConsultaRepository extends JpaRepository<ConsultaEntity, Long> {
@@ -22,4 +27,35 @@ public interface ConsultaRepository extends JpaRepository<ConsultaEntity, Long>
     List<ConsultaEntity> findByStatus(String status);
 
     boolean existsByEspecialistaId(Long especialistaId);
+
+    // Consultas gravadas que podem cruzar um horário (verificação de sobreposição em AgendaEspecialistas.reservar);
+    // JPQL fixa em vez de query derivada, que remonta a Criteria a cada chamada
+    @Query("SELECT c FROM ConsultaEntity c WHERE c.especialista.id = :especialistaId AND c.data BETWEEN :de AND :ate")
+    List<ConsultaEntity> findByEspecialistaIdAndDataBetween(@Param("especialistaId") Long especialistaId,
+                                                            @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Calendário por período (ver Calendario): só as colunas do DTO, na ordem da resposta
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, "
+            + "c.cliente.id AS clienteId, c.especialista.id AS especialistaId FROM ConsultaEntity c "
+            + "WHERE c.data BETWEEN :de AND :ate ORDER BY c.data, c.hora, c.id")
+    List<ConsultaCalendarioProjection> findCalendario(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, "
+            + "c.cliente.id AS clienteId, c.especialista.id AS especialistaId FROM ConsultaEntity c "
+            + "WHERE c.especialista.id = :especialistaId AND c.data BETWEEN :de AND :ate ORDER BY c.data, c.hora, c.id")
+    List<ConsultaCalendarioProjection> findCalendarioDoEspecialista(@Param("especialistaId") Long especialistaId,
+                                                                   @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("SELECT c.id AS id, c.data AS data, c.hora AS hora, c.tipo AS tipo, c.status AS status, "
+            + "c.cliente.id AS clienteId, c.especialista.id AS especialistaId FROM ConsultaEntity c "
+            + "WHERE c.cliente.id = :clienteId AND c.data BETWEEN :de AND :ate ORDER BY c.data, c.hora, c.id")
+    List<ConsultaCalendarioProjection> findCalendarioDoCliente(@Param("clienteId") Long clienteId,
+                                                              @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // IDs de consultas agrupáveis por cliente/especialista (evita N+1 no mapeamento de DTOs)
+    @Query("SELECT c.cliente.id AS donoId, c.id AS id FROM ConsultaEntity c WHERE c.cliente.id IN :clienteIds ORDER BY c.id")
+    List<VinculoIdProjection> findIdsByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Query("SELECT c.especialista.id AS donoId, c.id AS id FROM ConsultaEntity c WHERE c.especialista.id IN :especialistaIds ORDER BY c.id")
+    List<VinculoIdProjection> findIdsByEspecialistaIdIn(@Param("especialistaIds") Collection<Long> especialistaIds);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -9,4 +10,8 @@ public interface ConteudoTesteRepository extends JpaRepository<ConteudoTesteEnti
     List<ConteudoTesteEntity> findByDificuldade(String dificuldade);
     List<ConteudoTesteEntity> findByIdioma(String idioma);
     List<ConteudoTesteEntity> findByDificuldadeAndIdioma(String dificuldade, String idioma);
+
+    // Sorteio de uma frase do corpus sem carregar todas: contagem + página de tamanho 1 no deslocamento sorteado
+    long countByDificuldade(String dificuldade);
+    List<ConteudoTesteEntity> findByDificuldadeOrderById(String dificuldade, Pageable pageable);
 }
\ No newline at end of file
@@ -2,9 +2,15 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.DetalheErroEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface DetalheErroRepository extends JpaRepository<DetalheErroEntity, Long> {
     List<DetalheErroEntity> findByRelatorio(RelatorioEntity relatorio);
@@ -14,4 +20,13 @@ public interface DetalheErroRepository extends JpaRepository<DetalheErroEntity,
     List<DetalheErroEntity> findByFonemaEsperado(String fonemaEsperado);
 
     List<DetalheErroEntity> findByScoreDesvioGreaterThan(Float score);
+
+    // Exportação: cursor com fetch size (deve ser consumido dentro de uma transação e fechado)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM DetalheErroEntity d JOIN FETCH d.relatorio r JOIN FETCH r.especialista e JOIN FETCH r.chat c "
+            + "JOIN FETCH c.cliente JOIN FETCH c.especialista WHERE e.id = :especialistaId ORDER BY d.id")
+    Stream<DetalheErroEntity> streamByEspecialistaId(@Param("especialistaId") Long especialistaId);
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.inatel.prototipo_ia.repository;
+
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.repository.projection.VersaoJanelaProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface DisponibilidadeRecorrenteRepository extends JpaRepository<DisponibilidadeRecorrenteEntity, Long> {
+
+    // Janelas com as exceções numa query só (listagem por especialista)
+    @Query("SELECT DISTINCT r FROM DisponibilidadeRecorrenteEntity r LEFT JOIN FETCH r.excecoes "
+            + "WHERE r.especialista.id = :especialistaId ORDER BY r.id")
+    List<DisponibilidadeRecorrenteEntity> findByEspecialistaIdComExcecoes(@Param("especialistaId") Long especialistaId);
+
+    // Janelas do especialista vigentes no período, com as exceções (carga da agenda, ver AgendaEspecialistas)
+    @Query("SELECT DISTINCT r FROM DisponibilidadeRecorrenteEntity r LEFT JOIN FETCH r.excecoes "
+            + "WHERE r.especialista.id = :especialistaId AND r.vigenciaInicio <= :ate "
+            + "AND (r.vigenciaFim IS NULL OR r.vigenciaFim >= :de) ORDER BY r.id")
+    List<DisponibilidadeRecorrenteEntity> findVigentesEntreDoEspecialistaComExcecoes(@Param("especialistaId") Long especialistaId,
+                                                                                   @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Recorrentes de todos os especialistas vigentes no período, com as exceções (calendário sem filtro)
+    @Query("SELECT DISTINCT r FROM DisponibilidadeRecorrenteEntity r LEFT JOIN FETCH r.excecoes "
+            + "WHERE r.vigenciaInicio <= :ate AND (r.vigenciaFim IS NULL OR r.vigenciaFim >= :de) ORDER BY r.id")
+    List<DisponibilidadeRecorrenteEntity> findVigentesEntreComExcecoes(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    boolean existsByEspecialistaId(Long especialistaId);
+
+    // Candidatos da busca pelo primeiro horário livre, junto com os de DisponibilidadeRepository
+    @Query("SELECT DISTINCT r.especialista.id FROM DisponibilidadeRecorrenteEntity r "
+            + "WHERE r.vigenciaInicio <= :ate AND (r.vigenciaFim IS NULL OR r.vigenciaFim >= :de)")
+    List<Long> findEspecialistaIdsComRecorrenciaEntre(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Versões das janelas vigentes na data que cruzam [inicio, fim), em ordem de ID (ver AgendaEspecialistas.reservar).
+    // As exceções não entram: incrementar a versão de uma janela que não ocorre na data só serializa a reserva
+    @Query("SELECT r.id AS id, r.version AS version FROM DisponibilidadeRecorrenteEntity r WHERE r.especialista.id = :especialistaId "
+            + "AND r.diaSemana = :diaSemana AND r.vigenciaInicio <= :data AND (r.vigenciaFim IS NULL OR r.vigenciaFim >= :data) "
+            + "AND r.horaInicio < :fim AND r.horaFim > :inicio ORDER BY r.id")
+    List<VersaoJanelaProjection> findVersoesDasJanelasEntre(@Param("especialistaId") Long especialistaId, @Param("diaSemana") DayOfWeek diaSemana,
+                                                            @Param("data") LocalDate data,
+                                                            @Param("inicio") LocalTime inicio, @Param("fim") LocalTime fim);
+
+    // Mesmo lock otimista de DisponibilidadeRepository.incrementarVersao
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE DisponibilidadeRecorrenteEntity r SET r.version = r.version + 1 WHERE r.id = :id AND r.version = :version")
+    int incrementarVersao(@Param("id") Long id, @Param("version") Long version);
+}
@@ -2,10 +2,20 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
+import com.inatel.prototipo_ia.repository.projection.VersaoJanelaProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface DisponibilidadeRepository extends JpaRepository<DisponibilidadeEntity, Long> {
@@ -17,8 +27,41 @@ public interface DisponibilidadeRepository extends JpaRepository<Disponibilidade
 
     List<DisponibilidadeEntity> findByStatus(String status);
 
-    @Query("SELECT d FROM DisponibilidadeEntity d WHERE d.status = 'disponível'")
+    // Status é texto livre ("disponível", "Disponível" das recorrências...): mesmo predicado do índice parcial da V12
+    @Query("SELECT d FROM DisponibilidadeEntity d WHERE lower(d.status) IN ('disponível', 'disponivel', 'livre') "
+            + "ORDER BY d.data, d.horaInicio")
     List<DisponibilidadeEntity> findDisponibilidadesDisponiveis();
 
     boolean existsByEspecialistaId(Long especialistaId);
+
+    // Candidatos da busca pelo primeiro horário livre (ver AgendaEspecialistas)
+    @Query("SELECT DISTINCT d.especialista.id FROM DisponibilidadeEntity d WHERE d.data BETWEEN :de AND :ate")
+    List<Long> findEspecialistaIdsComDisponibilidadeEntre(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Calendário por período (ver Calendario): só as colunas do DTO, na ordem da resposta
+    @Query("SELECT d.id AS id, d.data AS data, d.horaInicio AS horaInicio, d.horaFim AS horaFim, d.status AS status, "
+            + "d.especialista.id AS especialistaId FROM DisponibilidadeEntity d "
+            + "WHERE d.data BETWEEN :de AND :ate ORDER BY d.data, d.horaInicio, d.id")
+    List<DisponibilidadeCalendarioProjection> findCalendario(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("SELECT d.id AS id, d.data AS data, d.horaInicio AS horaInicio, d.horaFim AS horaFim, d.status AS status, "
+            + "d.especialista.id AS especialistaId FROM DisponibilidadeEntity d "
+            + "WHERE d.especialista.id = :especialistaId AND d.data BETWEEN :de AND :ate ORDER BY d.data, d.horaInicio, d.id")
+    List<DisponibilidadeCalendarioProjection> findCalendarioDoEspecialista(@Param("especialistaId") Long especialistaId,
+                                                                          @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Versões das janelas do dia que cruzam [inicio, fim), em ordem de ID (ver AgendaEspecialistas.reservar)
+    @Query("SELECT d.id AS id, d.version AS version FROM DisponibilidadeEntity d WHERE d.especialista.id = :especialistaId "
+            + "AND d.data = :data AND d.horaInicio < :fim AND d.horaFim > :inicio ORDER BY d.id")
+    List<VersaoJanelaProjection> findVersoesDasJanelasEntre(@Param("especialistaId") Long especialistaId, @Param("data") LocalDate data,
+                                                            @Param("inicio") LocalTime inicio, @Param("fim") LocalTime fim);
+
+    // Lock otimista da reserva: 0 quando outra reserva na janela confirmou depois da leitura da versão
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE DisponibilidadeEntity d SET d.version = d.version + 1 WHERE d.id = :id AND d.version = :version")
+    int incrementarVersao(@Param("id") Long id, @Param("version") Long version);
+
+    @Query("SELECT d.especialista.id AS donoId, d.id AS id FROM DisponibilidadeEntity d WHERE d.especialista.id IN :especialistaIds ORDER BY d.id")
+    List<VinculoIdProjection> findIdsByEspecialistaIdIn(@Param("especialistaIds") Collection<Long> especialistaIds);
 }
\ No newline at end of file
@@ -1,12 +1,20 @@
 package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RelatorioRepository extends JpaRepository<RelatorioEntity, Long> {
@@ -22,4 +30,17 @@ public interface RelatorioRepository extends JpaRepository<RelatorioEntity, Long
 
     // Buscar relatórios por especialista
     java.util.List<RelatorioEntity> findByEspecialistaId(Long especialistaId);
+
+    // IDs de relatórios agrupáveis por especialista (evita N+1 no mapeamento de DTOs)
+    @Query("SELECT r.especialista.id AS donoId, r.id AS id FROM RelatorioEntity r WHERE r.especialista.id IN :especialistaIds ORDER BY r.id")
+    List<VinculoIdProjection> findIdsByEspecialistaIdIn(@Param("especialistaIds") Collection<Long> especialistaIds);
+
+    // Exportação: cursor com fetch size (deve ser consumido dentro de uma transação e fechado)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM RelatorioEntity r JOIN FETCH r.especialista e JOIN FETCH r.chat c JOIN FETCH c.cliente JOIN FETCH c.especialista "
+            + "WHERE e.id = :especialistaId ORDER BY r.id")
+    Stream<RelatorioEntity> streamByEspecialistaId(@Param("especialistaId") Long especialistaId);
 }
@@ -2,12 +2,19 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.repository.projection.UsoIaClienteProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SessaoTreinoRepository extends JpaRepository<SessaoTreinoEntity, Long> {
@@ -33,4 +40,25 @@ public interface SessaoTreinoRepository extends JpaRepository<SessaoTreinoEntity
 
     // Verificar se cliente tem sessão em andamento
     boolean existsByClienteIdAndStatusIn(Long clienteId, List<StatusSessao> statuses);
-}
\ No newline at end of file
+
+    // Exportação: cursor com fetch size (deve ser consumido dentro de uma transação e fechado)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM SessaoTreinoEntity s JOIN FETCH s.cliente JOIN FETCH s.especialista e LEFT JOIN FETCH s.chat ch LEFT JOIN FETCH ch.relatorio "
+            + "WHERE e.id = :especialistaId ORDER BY s.id")
+    Stream<SessaoTreinoEntity> streamByEspecialistaId(@Param("especialistaId") Long especialistaId);
+
+    // Tokens de IA gastos pelo cliente nas sessões iniciadas desde a data (orçamento diário)
+    @Query("SELECT COALESCE(SUM(s.tokensPrompt + s.tokensResposta), 0) FROM SessaoTreinoEntity s "
+            + "WHERE s.cliente.id = :clienteId AND s.dataInicio >= :desde")
+    long somarTokensDoClienteDesde(@Param("clienteId") Long clienteId, @Param("desde") LocalDateTime desde);
+
+    // Consumo de IA por cliente, dos que mais gastaram tokens para os que menos gastaram
+    @Query("SELECT c.id AS clienteId, c.nome AS clienteNome, COUNT(s) AS sessoes, SUM(s.chamadasIa) AS chamadas, "
+            + "SUM(s.tokensPrompt) AS tokensPrompt, SUM(s.tokensResposta) AS tokensResposta, SUM(s.latenciaIaMs) AS latenciaMs "
+            + "FROM SessaoTreinoEntity s JOIN s.cliente c WHERE s.dataInicio >= :desde "
+            + "GROUP BY c.id, c.nome ORDER BY SUM(s.tokensPrompt + s.tokensResposta) DESC")
+    List<UsoIaClienteProjection> somarUsoIaPorClienteDesde(@Param("desde") LocalDateTime desde);
+}
@@ -2,9 +2,14 @@ package com.inatel.prototipo_ia.repository;
 
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails; // <-- Importe isso
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +23,14 @@ public interface UsuarioRepository extends JpaRepository<UsuarioEntity, Long> {
 
     // ⬇️ ADICIONE ESTE MÉTODO PARA O LOGIN FUNCIONAR ⬇️
     UserDetails findByLogin(String login);
+
+    // Logins já cadastrados dentre os informados (validação de importação em lote)
+    @Query("SELECT u.login FROM UsuarioEntity u WHERE u.login IN :logins")
+    List<String> findLoginsExistentes(@Param("logins") Collection<String> logins);
+
+    // Regrava só o hash da senha (rehash no login), sem carregar/mesclar a hierarquia do usuário
+    @Modifying
+    @Transactional
+    @Query("UPDATE UsuarioEntity u SET u.senha = :senha WHERE u.id = :id")
+    int atualizarSenha(@Param("id") Long id, @Param("senha") String senha);
 }
\ No newline at end of file
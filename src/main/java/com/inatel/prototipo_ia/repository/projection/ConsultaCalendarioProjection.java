@@ -0,0 +1,24 @@
+package com.inatel.prototipo_ia.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Colunas de uma consulta no calendário, lidas sem carregar a entidade nem o cliente e o especialista.
+ */
+public interface ConsultaCalendarioProjection {
+
+    Long getId();
+
+    LocalDate getData();
+
+    LocalTime getHora();
+
+    String getTipo();
+
+    String getStatus();
+
+    Long getClienteId();
+
+    Long getEspecialistaId();
+}
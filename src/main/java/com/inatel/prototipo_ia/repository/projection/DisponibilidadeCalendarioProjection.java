@@ -0,0 +1,22 @@
+package com.inatel.prototipo_ia.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Colunas de uma janela de disponibilidade no calendário, lidas sem carregar a entidade.
+ */
+public interface DisponibilidadeCalendarioProjection {
+
+    Long getId();
+
+    LocalDate getData();
+
+    LocalTime getHoraInicio();
+
+    LocalTime getHoraFim();
+
+    String getStatus();
+
+    Long getEspecialistaId();
+}
@@ -0,0 +1,21 @@
+package com.inatel.prototipo_ia.repository.projection;
+
+/**
+ * Soma do consumo de IA das sessões de um cliente (SessaoTreinoRepository.somarUsoIaPorClienteDesde).
+ */
+public interface UsoIaClienteProjection {
+
+    Long getClienteId();
+
+    String getClienteNome();
+
+    Long getSessoes();
+
+    Long getChamadas();
+
+    Long getTokensPrompt();
+
+    Long getTokensResposta();
+
+    Long getLatenciaMs();
+}
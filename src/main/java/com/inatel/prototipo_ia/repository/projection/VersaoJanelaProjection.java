@@ -0,0 +1,12 @@
+package com.inatel.prototipo_ia.repository.projection;
+
+/**
+ * Projeção (id, version) de uma janela de disponibilidade, lida do banco para o lock otimista
+ * das reservas mesmo quando a entidade já está carregada na transação.
+ */
+public interface VersaoJanelaProjection {
+
+    Long getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,31 @@
+package com.inatel.prototipo_ia.repository.projection;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Projeção (donoId, id) usada para carregar em lote os IDs vinculados a vários donos
+ * (cliente ou especialista) sem materializar as entidades completas.
+ */
+public interface VinculoIdProjection {
+
+    Long getDonoId();
+
+    Long getId();
+
+    /**
+     * Agrupa os vínculos por dono, preservando a ordem retornada pela query.
+     */
+    static Map<Long, List<Long>> agruparPorDono(Collection<VinculoIdProjection> vinculos) {
+        if (vinculos == null || vinculos.isEmpty()) {
+            return new HashMap<>();
+        }
+        return vinculos.stream().collect(Collectors.groupingBy(
+                VinculoIdProjection::getDonoId,
+                HashMap::new,
+                Collectors.mapping(VinculoIdProjection::getId, Collectors.toList())));
+    }
+}
@@ -0,0 +1,142 @@
+package com.inatel.prototipo_ia.security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder da aplicação. O hash roda num pool dedicado, do tamanho dos núcleos e com fila
+ * limitada, para que rajadas de login não ocupem todas as threads de requisição com BCrypt;
+ * com a fila cheia a chamada falha na hora com RejectedExecutionException.
+ * Hashes sem prefixo são BCrypt (formato histórico); PBKDF2 é gravado com o prefixo {pbkdf2}.
+ */
+public class CodificadorSenha implements PasswordEncoder, DisposableBean {
+
+    public enum Algoritmo { BCRYPT, PBKDF2 }
+
+    private static final String PREFIXO_BCRYPT = "{bcrypt}";
+    private static final String PREFIXO_PBKDF2 = "{pbkdf2}";
+
+    private final Algoritmo algoritmo;
+    private final BCryptPasswordEncoder bcrypt;
+    private final Pbkdf2PasswordEncoder pbkdf2 = Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+    private final ThreadPoolExecutor executor;
+
+    public CodificadorSenha(Algoritmo algoritmo, int forcaBcrypt, int threads, int capacidadeFila) {
+        this.algoritmo = algoritmo;
+        this.bcrypt = new BCryptPasswordEncoder(forcaBcrypt);
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "senha-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> codificar(senha));
+    }
+
+    /**
+     * Hash de várias senhas (importação em massa), repartidas entre as threads do pool e na ordem recebida;
+     * senha nula vira hash nulo. O lote mantém no máximo uma tarefa por thread submetida, deixando a fila
+     * para os logins; se ela estiver cheia mesmo assim, RejectedExecutionException como no encode.
+     */
+    public List<String> encodeTodas(List<? extends CharSequence> senhas) {
+        int emAndamento = executor.getMaximumPoolSize();
+        List<Future<String>> tarefas = new ArrayList<>(senhas.size());
+        try {
+            for (int i = 0; i < senhas.size(); i++) {
+                if (i >= emAndamento) {
+                    aguardar(tarefas.get(i - emAndamento));
+                }
+                CharSequence senha = senhas.get(i);
+                tarefas.add(senha == null ? null : executor.submit(() -> codificar(senha)));
+            }
+            List<String> hashes = new ArrayList<>(senhas.size());
+            for (Future<String> tarefa : tarefas) {
+                hashes.add(aguardar(tarefa));
+            }
+            return hashes;
+        } catch (RuntimeException e) {
+            tarefas.stream().filter(Objects::nonNull).forEach(tarefa -> tarefa.cancel(false));
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return false;
+        }
+        return executar(() -> {
+            if (hash.startsWith(PREFIXO_PBKDF2)) {
+                return pbkdf2.matches(senha, hash.substring(PREFIXO_PBKDF2.length()));
+            }
+            if (hash.startsWith(PREFIXO_BCRYPT)) {
+                return bcrypt.matches(senha, hash.substring(PREFIXO_BCRYPT.length()));
+            }
+            return bcrypt.matches(senha, hash);
+        });
+    }
+
+    // Após um login válido, true faz o DaoAuthenticationProvider regravar o hash com os parâmetros atuais
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return false;
+        }
+        if (algoritmo == Algoritmo.PBKDF2) {
+            return !hash.startsWith(PREFIXO_PBKDF2);
+        }
+        return hash.startsWith("{") || bcrypt.upgradeEncoding(hash);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private String codificar(CharSequence senha) {
+        return algoritmo == Algoritmo.PBKDF2 ? PREFIXO_PBKDF2 + pbkdf2.encode(senha) : bcrypt.encode(senha);
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        return aguardar(executor.submit(tarefa));
+    }
+
+    private static <T> T aguardar(Future<T> tarefa) {
+        if (tarefa == null) {
+            return null;
+        }
+        try {
+            return tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha ao calcular o hash da senha", e.getCause());
+        }
+    }
+}
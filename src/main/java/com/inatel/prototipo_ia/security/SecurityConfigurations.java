@@ -16,8 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,6 +23,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Locale;
 
 @Configuration
 @EnableWebSecurity
@@ -63,7 +62,12 @@ public class SecurityConfigurations {
                     req.requestMatchers("/chats/**").authenticated();
                     req.requestMatchers("/api/pronunciation/**").permitAll();
                     req.requestMatchers("/relatorios/**").hasRole("ESPECIALISTA");
+                    req.requestMatchers(HttpMethod.POST, "/clientes/importacao", "/conteudos-teste/importacao")
+                            .hasAnyRole("ESPECIALISTA", "SECRETARIA");
+                    req.requestMatchers("/admin/**").hasAnyRole("ESPECIALISTA", "SECRETARIA");
                     req.requestMatchers("/error").permitAll();
+                    // Servidos só na porta de gerenciamento (management.server.port)
+                    req.requestMatchers("/actuator/health", "/actuator/prometheus").permitAll();
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll();
                     req.anyRequest().authenticated();
                 })
@@ -79,6 +83,7 @@ public class SecurityConfigurations {
         configuration.setAllowedOrigins(java.util.Arrays.asList(corsOrigins.split(",")));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Total-Count", "X-Total-Pages", "X-Page", "X-Page-Size"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -99,7 +104,11 @@ public class SecurityConfigurations {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CodificadorSenha passwordEncoder(@Value("${api.security.senha.algoritmo:bcrypt}") String algoritmo,
+                                           @Value("${api.security.senha.bcrypt-forca:10}") int forcaBcrypt,
+                                           @Value("${api.security.senha.threads:0}") int threads,
+                                           @Value("${api.security.senha.fila:256}") int capacidadeFila) {
+        return new CodificadorSenha(CodificadorSenha.Algoritmo.valueOf(algoritmo.trim().toUpperCase(Locale.ROOT)),
+                forcaBcrypt, threads, capacidadeFila);
     }
 }
@@ -1,15 +1,15 @@
 package com.inatel.prototipo_ia.security;
 
-import com.inatel.prototipo_ia.repository.UsuarioRepository;
 import com.inatel.prototipo_ia.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -18,11 +18,13 @@ import java.io.IOException;
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilter.class);
+
     @Autowired
     private TokenService tokenService;
 
     @Autowired
-    private UsuarioRepository repository;
+    private UsuarioAutenticadoCache usuarioCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -30,15 +32,18 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         if (tokenJWT != null) {
             try {
-                var subject = tokenService.getSubject(tokenJWT);
-                UserDetails usuario = repository.findByLogin(subject);
-
-                var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Principal vem das claims do token; só tokens antigos (sem id/papel) consultam o cache/banco
+                var usuario = tokenService.getUsuarioAutenticado(tokenJWT)
+                        .or(() -> usuarioCache.buscarPorLogin(tokenService.getSubject(tokenJWT)));
+
+                if (usuario.isPresent()) {
+                    var authentication = new UsernamePasswordAuthenticationToken(usuario.get(), null, usuario.get().getAuthorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             } catch (Exception e) {
                 // Se o token for inválido, apenas ignoramos e deixamos o request seguir.
                 // Se a rota for protegida, o SecurityConfigurations vai barrar depois.
-                System.out.println("Token inválido ignorado na rota pública: " + e.getMessage());
+                log.debug("Token inválido ignorado: {}", e.getMessage());
             }
         }
 
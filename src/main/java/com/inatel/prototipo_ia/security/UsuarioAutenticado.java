@@ -0,0 +1,50 @@
+package com.inatel.prototipo_ia.security;
+
+import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal das requisições autenticadas por JWT, montado a partir das claims do token
+ * (id, login e papel) sem carregar a hierarquia de UsuarioEntity do banco.
+ */
+@Getter
+public class UsuarioAutenticado implements UserDetails {
+
+    private final Long id;
+    private final String login;
+    private final String papel;
+    private final List<GrantedAuthority> authorities;
+
+    public UsuarioAutenticado(Long id, String login, String papel) {
+        this.id = id;
+        this.login = login;
+        this.papel = papel;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + papel));
+    }
+
+    public static UsuarioAutenticado de(UsuarioEntity usuario) {
+        return new UsuarioAutenticado(usuario.getId(), usuario.getLogin(), usuario.getPapel());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // A senha nunca trafega no token
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return login;
+    }
+}
@@ -0,0 +1,48 @@
+package com.inatel.prototipo_ia.security;
+
+import com.inatel.prototipo_ia.cache.CacheTtl;
+import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.inatel.prototipo_ia.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Cache curto (TTL) de principais carregados do banco pelo login.
+ * Só é consultado quando o token não traz as claims de id/papel (tokens emitidos antes delas).
+ */
+@Component
+public class UsuarioAutenticadoCache {
+
+    private static final int CAPACIDADE_MAXIMA = 10_000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final long ttlMillis;
+    private final Metricas metricas;
+    private final CacheTtl<String, UsuarioAutenticado> cache = new CacheTtl<>(CAPACIDADE_MAXIMA);
+
+    public UsuarioAutenticadoCache(UsuarioRepository usuarioRepository,
+                                   @Value("${api.security.cache-usuario.ttl-segundos:300}") long ttlSegundos,
+                                   Metricas metricas) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttlMillis = ttlSegundos * 1000;
+        this.metricas = metricas;
+    }
+
+    public Optional<UsuarioAutenticado> buscarPorLogin(String login) {
+        UsuarioAutenticado emCache = cache.buscar(login);
+        metricas.consultaCache("usuarios-autenticados", emCache != null);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+
+        if (!(usuarioRepository.findByLogin(login) instanceof UsuarioEntity usuario)) {
+            return Optional.empty();
+        }
+        UsuarioAutenticado autenticado = UsuarioAutenticado.de(usuario);
+        cache.guardar(login, autenticado, System.currentTimeMillis() + ttlMillis);
+        return Optional.of(autenticado);
+    }
+}
@@ -1,33 +1,87 @@
 package com.inatel.prototipo_ia.service;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.inatel.prototipo_ia.observabilidade.ChamadaIaInterceptor;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
 import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class AIWordGeneratorService {
 
+    private static final Logger log = LoggerFactory.getLogger(AIWordGeneratorService.class);
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
-    private final OkHttpClient httpClient;
-    private final Gson gson;
+    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}")
+    private String geminiApiUrl;
 
-    public AIWordGeneratorService() {
+    // Resposta restrita ao esquema {"trava_lingua": "..."}
+    private static final ProtocoloGemini.Configuracao CONFIGURACAO = new ProtocoloGemini.Configuracao(
+            0.9, 40, 0.95, 1024, "application/json",
+            ProtocoloGemini.Esquema.objeto(Map.entry("trava_lingua", ProtocoloGemini.Esquema.tipo("STRING"))));
+
+    private record TravaLingua(@JsonProperty("trava_lingua") String travaLingua) {
+    }
+
+    // Partes fixas dos prompts, enviadas como systemInstruction ou pelo cache de contexto
+    static final String INSTRUCAO_TRAVA_LINGUA =
+            "Você é um fonoaudiólogo especialista em terapia da fala para falantes de português brasileiro. " +
+            "Gere um trava-língua para exercício de pronúncia para o paciente descrito no pedido.\n\n" +
+            "REQUISITOS OBRIGATÓRIOS:\n" +
+            "1. O trava-língua DEVE focar no som/fonema da dificuldade especificada.\n" +
+            "2. O trava-língua deve ser apropriado para a idade (vocabulário e tema que o paciente conhece).\n" +
+            "3. O trava-língua deve ser curto e fácil de memorizar.\n" +
+            "4. Use palavras do cotidiano brasileiro.\n" +
+            "5. Evitar temas muito complexos ou abstratos.\n\n" +
+            "FORMATO DA RESPOSTA:\n" +
+            "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
+            "Formato: {\"trava_lingua\": \"O rato roeu a roupa do rei de Roma.\"}\n" +
+            "NÃO adicione explicações, comentários ou markdown.";
+
+    static final String INSTRUCAO_TRAVA_LINGUA_X =
+            "Você é um roteirista de comédia e especialista em cultura pop brasileira. " +
+            "Gere um trava-língua ENGRAÇADO e curto para exercício de pronúncia com o som de 'X'.\n\n" +
+            "TEMA OBRIGATÓRIO:\n" +
+            "O trava-língua DEVE ser sobre a XUXA e sua filha SASHA.\n\n" +
+            "REQUISITOS OBRIGATÓRIOS:\n" +
+            "1. Deve ser engraçado e usar o som do 'X' e 'CH' (que tem som de X) de forma criativa.\n" +
+            "2. Apropriado para todas as idades.\n" +
+            "3. O resultado deve ser diferente a cada vez que for gerado.\n\n" +
+            "FORMATO DA RESPOSTA:\n" +
+            "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
+            "Formato: {\"trava_lingua\": \"A Xuxa achou o xale da Sasha roxo.\"}\n" +
+            "NÃO adicione explicações, comentários ou markdown.";
+
+    private static final String CACHE_TRAVA_LINGUA = "gerar-trava-lingua";
+    private static final String CACHE_TRAVA_LINGUA_X = "gerar-trava-lingua-x";
+
+    private final OkHttpClient httpClient;
+    private final CacheContextoGemini cacheContexto;
+    private final ObjectReader leitorTravaLingua;
+    private final ProtocoloGemini protocolo;
+
+    public AIWordGeneratorService(Metricas metricas, CacheContextoGemini cacheContexto, ObjectMapper objectMapper) {
+        this.cacheContexto = cacheContexto;
+        this.leitorTravaLingua = objectMapper.readerFor(TravaLingua.class);
+        this.protocolo = new ProtocoloGemini(objectMapper);
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
+                .addInterceptor(new ChamadaIaInterceptor(metricas, "gemini", "gerar-texto"))
                 .build();
-        this.gson = new Gson();
     }
 
     /**
@@ -38,10 +92,21 @@ public class AIWordGeneratorService {
      * @return lista de palavras geradas pela IA
      */
     public List<String> gerarPalavrasComIA(int idade, String dificuldade, int quantidade) {
+        return gerarPalavrasComUso(idade, dificuldade, quantidade).conteudo();
+    }
+
+    /**
+     * gerarPalavrasComIA com os tokens e a latência da chamada, para a contabilidade da sessão.
+     */
+    public RespostaIa<List<String>> gerarPalavrasComUso(int idade, String dificuldade, int quantidade) {
         try {
+            boolean x = "X".equalsIgnoreCase(dificuldade);
+            String chaveCache = x ? CACHE_TRAVA_LINGUA_X : CACHE_TRAVA_LINGUA;
+            String instrucao = x ? INSTRUCAO_TRAVA_LINGUA_X : INSTRUCAO_TRAVA_LINGUA;
             String prompt = construirPromptTravaLingua(idade, dificuldade);
-            String response = chamarGeminiAPI(prompt);
-            return extrairTravaLingua(response);
+            long inicio = System.nanoTime();
+            ProtocoloGemini.Resposta response = chamarGeminiAPI(prompt, instrucao, chaveCache);
+            return new RespostaIa<>(extrairTravaLingua(response.texto()), response.uso(System.nanoTime() - inicio));
 
         } catch (Exception e) {
             throw new RuntimeException("Erro ao gerar trava-língua com IA: " + e.getMessage(), e);
@@ -49,44 +114,20 @@ public class AIWordGeneratorService {
     }
 
     /**
-     * Constrói o prompt personalizado para a IA gerar um trava-língua
+     * Constrói a parte variável do prompt (o perfil do paciente); a tarefa e o formato estão nas instruções fixas
      */
     private String construirPromptTravaLingua(int idade, String dificuldade) {
         if ("X".equalsIgnoreCase(dificuldade)) {
-            return "Você é um roteirista de comédia e especialista em cultura pop brasileira. " +
-                   "Gere um trava-língua ENGRAÇADO e curto para exercício de pronúncia com o som de 'X'.\n\n" +
-                   "TEMA OBRIGATÓRIO:\n" +
-                   "O trava-língua DEVE ser sobre a XUXA e sua filha SASHA.\n\n" +
-                   "REQUISITOS OBRIGATÓRIOS:\n" +
-                   "1. Deve ser engraçado e usar o som do 'X' e 'CH' (que tem som de X) de forma criativa.\n" +
-                   "2. Apropriado para todas as idades.\n" +
-                   "3. O resultado deve ser diferente a cada vez que for gerado.\n\n" +
-                   "FORMATO DA RESPOSTA:\n" +
-                   "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
-                   "Formato: {\"trava_lingua\": \"A Xuxa achou o xale da Sasha roxo.\"}\n" +
-                   "NÃO adicione explicações, comentários ou markdown.\n\n" +
-                   "Gere um trava-língua NOVO e DIFERENTE a cada vez sobre a Xuxa e a Sasha agora:";
+            return "Gere um trava-língua NOVO e DIFERENTE a cada vez sobre a Xuxa e a Sasha agora:";
         }
 
         String faixaEtaria = determinarFaixaEtaria(idade);
         String descricaoDificuldade = descricaoDaDificuldade(dificuldade);
 
         return String.format(
-                "Você é um fonoaudiólogo especialista em terapia da fala para falantes de português brasileiro. " +
-                "Gere um trava-língua para exercício de pronúncia.\n\n" +
                 "PERFIL DO PACIENTE:\n" +
                 "- Idade: %d anos (%s)\n" +
                 "- Dificuldade: %s\n\n" +
-                "REQUISITOS OBRIGATÓRIOS:\n" +
-                "1. O trava-língua DEVE focar no som/fonema da dificuldade especificada.\n" +
-                "2. O trava-língua deve ser apropriado para a idade (vocabulário e tema que o paciente conhece).\n" +
-                "3. O trava-língua deve ser curto e fácil de memorizar.\n" +
-                "4. Use palavras do cotidiano brasileiro.\n" +
-                "5. Evitar temas muito complexos ou abstratos.\n\n" +
-                "FORMATO DA RESPOSTA:\n" +
-                "Retorne APENAS um objeto JSON com uma única chave 'trava_lingua' contendo o texto, SEM nenhum texto adicional antes ou depois.\n" +
-                "Formato: {\"trava_lingua\": \"O rato roeu a roupa do rei de Roma.\"}\n" +
-                "NÃO adicione explicações, comentários ou markdown.\n\n" +
                 "Gere um trava-língua agora:",
                 idade, faixaEtaria, descricaoDificuldade
         );
@@ -95,36 +136,15 @@ public class AIWordGeneratorService {
     /**
      * Chama a API do Google Gemini
      */
-    private String chamarGeminiAPI(String prompt) throws IOException {
-        // Construir corpo da requisição
-        JsonObject requestBody = new JsonObject();
-
-        JsonArray contents = new JsonArray();
-        JsonObject content = new JsonObject();
-
-        JsonArray parts = new JsonArray();
-        JsonObject part = new JsonObject();
-        part.addProperty("text", prompt);
-        parts.add(part);
-
-        content.add("parts", parts);
-        contents.add(content);
-        requestBody.add("contents", contents);
-
-        // Configurações de geração
-        JsonObject generationConfig = new JsonObject();
-        generationConfig.addProperty("temperature", 0.9);
-        generationConfig.addProperty("topK", 40);
-        generationConfig.addProperty("topP", 0.95);
-        generationConfig.addProperty("maxOutputTokens", 1024);
-        requestBody.add("generationConfig", generationConfig);
-
+    private ProtocoloGemini.Resposta chamarGeminiAPI(String prompt, String instrucao, String chaveCache) throws IOException {
+        String cache = cacheContexto.nome(chaveCache, instrucao).orElse(null);
         RequestBody body = RequestBody.create(
-                requestBody.toString(),
+                protocolo.serializar(ProtocoloGemini.Requisicao.de(CONFIGURACAO, ProtocoloGemini.Parte.texto(prompt))
+                        .comInstrucao(instrucao, cache)),
                 MediaType.parse("application/json")
         );
 
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=" + geminiApiKey;
+        String url = geminiApiUrl + "?key=" + geminiApiKey;
 
         Request request = new Request.Builder()
                 .url(url)
@@ -135,61 +155,29 @@ public class AIWordGeneratorService {
         try (Response response = httpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "Sem detalhes";
+                if (cache != null) {
+                    cacheContexto.recusado(chaveCache, cache, response.code());
+                }
                 throw new IOException("Erro na API Gemini: " + response.code() + " - " + errorBody);
             }
 
-            String jsonResponse = response.body().string();
-            JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-
-            // Extrair o texto da resposta do Gemini
-            return json.getAsJsonArray("candidates")
-                    .get(0).getAsJsonObject()
-                    .getAsJsonObject("content")
-                    .getAsJsonArray("parts")
-                    .get(0).getAsJsonObject()
-                    .get("text").getAsString();
+            return protocolo.lerResposta(response.body().charStream());
         }
     }
 
     /**
-     * Extrai as palavras da resposta da IA
+     * Extrai o trava-língua da resposta da IA, que com o responseSchema é sempre JSON
      */
     private List<String> extrairTravaLingua(String response) {
         List<String> travaLinguaList = new ArrayList<>();
         try {
-            // Limpar a resposta
-            response = response.trim();
-
-            if (response.startsWith("```json")) {
-                int startIndex = response.indexOf("{");
-                int endIndex = response.lastIndexOf("}");
-                if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
-                    response = response.substring(startIndex, endIndex + 1);
-                }
-            } else if (response.startsWith("```")) {
-                response = response.substring(3);
-            }
-            if (response.endsWith("```")) {
-                response = response.substring(0, response.length() - 3);
-            }
-            response = response.trim();
-
-            // Tentar parsear como JSON
-            JsonObject jsonObject = JsonParser.parseString(response).getAsJsonObject();
-            if (jsonObject.has("trava_lingua")) {
-                String travaLingua = jsonObject.get("trava_lingua").getAsString();
-                if (!travaLingua.isEmpty()) {
-                    travaLinguaList.add(travaLingua);
-                }
-            }
-
-        } catch (Exception e) {
-            // Fallback: se o JSON falhar, assuma que a resposta é o trava-língua puro
-            System.err.println("Erro ao parsear JSON, tratando a resposta como texto puro: " + e.getMessage());
-            String cleanedResponse = response.replaceAll("[\"'{}]", "").replace("trava_lingua:", "").trim();
-            if (!cleanedResponse.isEmpty()) {
-                travaLinguaList.add(cleanedResponse);
+            TravaLingua resposta = leitorTravaLingua.readValue(response);
+            if (resposta != null && resposta.travaLingua() != null && !resposta.travaLingua().isBlank()) {
+                travaLinguaList.add(resposta.travaLingua().trim());
             }
+        } catch (IOException e) {
+            log.warn("Resposta do Gemini fora do esquema: {}", e.getMessage());
+            log.debug("Resposta do Gemini: {}", response);
         }
 
         return travaLinguaList;
@@ -0,0 +1,588 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.cache.CacheTtl;
+import com.inatel.prototipo_ia.entity.ConsultaEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.VersaoJanelaProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Índice em memória da agenda de cada especialista: janelas de disponibilidade e consultas como intervalos
+ * ordenados pelo início (TreeMap), carregado do banco no primeiro uso e atualizado pelos services a cada escrita.
+ * Janelas não passam da meia-noite e toda consulta dura o mesmo tempo, então o fim dos intervalos cresce com o início
+ * e sobreposição e busca por período saem em O(log n + k), sem árvore aumentada.
+ * As janelas recorrentes ficam como regra (dia da semana, vigência, exceções) e só viram ocorrências
+ * nos dias do período buscado.
+ * A agenda guardada cobre de hoje até agenda.indice.horizonte-dias: só esse trecho é carregado, com queries
+ * limitadas pela data. Períodos fora dele (passado ou futuro distante) são montados do banco a cada busca, sem cache.
+ * O banco continua sendo a fonte da verdade: a agenda é recarregada após o TTL e descartada se a transação
+ * que a alterou não é confirmada.
+ */
+@Component
+public class AgendaEspecialistas {
+
+    // Cheio, o cache descarta as agendas vencidas e depois as usadas há mais tempo; as com reserva em andamento
+    // acabaram de ser usadas e são as últimas a sair
+    private static final int CAPACIDADE_MAXIMA = 10_000;
+
+    // Status (texto livre) das janelas que aceitam consultas e das consultas que não ocupam horário
+    private static final Set<String> STATUS_JANELA_ABERTA = Set.of("disponível", "disponivel", "livre");
+    private static final Set<String> STATUS_CONSULTA_LIVRE = Set.of("cancelada", "cancelado");
+
+    private final DisponibilidadeRepository disponibilidadeRepository;
+    private final DisponibilidadeRecorrenteRepository recorrenteRepository;
+    private final ConsultaRepository consultaRepository;
+    private final Duration duracaoConsulta;
+    private final long horizonteDias;
+    private final long ttlMillis;
+    private final Clock relogio;
+    private final CacheTtl<Long, Agenda> agendas = new CacheTtl<>(CAPACIDADE_MAXIMA);
+    private final Object[] travasDeCarga = new Object[64];
+
+    public AgendaEspecialistas(DisponibilidadeRepository disponibilidadeRepository,
+                               DisponibilidadeRecorrenteRepository recorrenteRepository,
+                               ConsultaRepository consultaRepository,
+                               @Value("${agenda.consulta.duracao-min:50}") long duracaoConsultaMin,
+                               @Value("${agenda.indice.horizonte-dias:90}") long horizonteDias,
+                               @Value("${agenda.indice.ttl-segundos:60}") long ttlSegundos) {
+        this(disponibilidadeRepository, recorrenteRepository, consultaRepository, duracaoConsultaMin, horizonteDias,
+                ttlSegundos, Clock.systemDefaultZone());
+    }
+
+    AgendaEspecialistas(DisponibilidadeRepository disponibilidadeRepository,
+                        DisponibilidadeRecorrenteRepository recorrenteRepository,
+                        ConsultaRepository consultaRepository,
+                        long duracaoConsultaMin, long horizonteDias, long ttlSegundos, Clock relogio) {
+        if (duracaoConsultaMin < 1 || duracaoConsultaMin >= 24 * 60) {
+            throw new IllegalArgumentException("Duração de consulta inválida: " + duracaoConsultaMin + " min");
+        }
+        if (horizonteDias < 0) {
+            throw new IllegalArgumentException("Horizonte da agenda inválido: " + horizonteDias + " dias");
+        }
+        this.disponibilidadeRepository = disponibilidadeRepository;
+        this.recorrenteRepository = recorrenteRepository;
+        this.consultaRepository = consultaRepository;
+        this.duracaoConsulta = Duration.ofMinutes(duracaoConsultaMin);
+        this.horizonteDias = horizonteDias;
+        this.ttlMillis = ttlSegundos * 1000;
+        this.relogio = relogio;
+        Arrays.setAll(travasDeCarga, i -> new Object());
+    }
+
+    /**
+     * Intervalo livre de um especialista em que cabe ao menos uma consulta.
+     */
+    public record HorarioLivre(Long especialistaId, LocalDateTime inicio, LocalDateTime fim) {
+    }
+
+    public Duration getDuracaoConsulta() {
+        return duracaoConsulta;
+    }
+
+    /**
+     * Intervalos livres do especialista entre as datas (inclusive): janelas abertas e ocorrências
+     * das recorrentes menos as consultas.
+     */
+    public List<HorarioLivre> horariosLivres(Long especialistaId, LocalDate de, LocalDate ate) {
+        validarPeriodo(de, ate);
+        return agendaDoPeriodo(especialistaId, de, ate).livres(de.atStartOfDay(), ate.plusDays(1).atStartOfDay(), false);
+    }
+
+    /**
+     * Primeiro horário livre entre as datas entre os especialistas que têm disponibilidade
+     * ou janela recorrente vigente no período.
+     * Não há índice entre especialistas: cada um dos S candidatos é consultado na própria agenda e fica o menor início,
+     * O(S · (log n + k)) com as agendas em memória, mais uma carga por candidato que ainda não estava nela.
+     */
+    public Optional<HorarioLivre> primeiroHorarioLivre(LocalDate de, LocalDate ate) {
+        validarPeriodo(de, ate);
+        Set<Long> candidatos = new TreeSet<>(disponibilidadeRepository.findEspecialistaIdsComDisponibilidadeEntre(de, ate));
+        candidatos.addAll(recorrenteRepository.findEspecialistaIdsComRecorrenciaEntre(de, ate));
+        HorarioLivre primeiro = null;
+        for (Long especialistaId : candidatos) {
+            List<HorarioLivre> livres = agendaDoPeriodo(especialistaId, de, ate)
+                    .livres(de.atStartOfDay(), ate.plusDays(1).atStartOfDay(), true);
+            if (!livres.isEmpty() && (primeiro == null || livres.get(0).inicio().isBefore(primeiro.inicio()))) {
+                primeiro = livres.get(0);
+            }
+        }
+        return Optional.ofNullable(primeiro);
+    }
+
+    /**
+     * Coloca a consulta (nova ou alterada) na agenda do especialista; recusa se o horário
+     * se sobrepõe a outra consulta que ocupa horário. Consultas canceladas só saem da agenda.
+     * Deve rodar na transação que grava a consulta: as janelas (concretas e recorrentes) que ela cruza têm a versão incrementada,
+     * então de duas reservas concorrentes na mesma janela só a primeira confirma (a outra falha com lock otimista
+     * e é repetida por ReservaConsultas, já vendo a primeira no banco).
+     */
+    public void reservar(ConsultaEntity consulta) {
+        Long especialistaId = consulta.getEspecialista().getId();
+        Agenda agenda = agenda(especialistaId);
+        if (!ocupaHorario(consulta)) {
+            descartarSeReverter(especialistaId);
+            agenda.removerConsulta(consulta.getId());
+            return;
+        }
+        LocalDateTime inicio = consulta.getData().atTime(consulta.getHora());
+        // Versões lidas antes da consulta ao banco e incrementadas depois dela: se outra reserva na janela
+        // confirmou no meio, nenhuma linha casa e a reserva é repetida
+        LocalTime fimNoDia = fimNoDia(inicio);
+        List<VersaoJanelaProjection> janelas = disponibilidadeRepository.findVersoesDasJanelasEntre(
+                especialistaId, inicio.toLocalDate(), inicio.toLocalTime(), fimNoDia);
+        List<VersaoJanelaProjection> recorrentes = recorrenteRepository.findVersoesDasJanelasEntre(
+                especialistaId, inicio.getDayOfWeek(), inicio.toLocalDate(), inicio.toLocalTime(), fimNoDia);
+        // O banco vê o que outras instâncias confirmaram; a agenda em memória vê as reservas ainda em andamento nesta
+        if (sobrepostaNoBanco(consulta, inicio, agenda)) {
+            throw sobreposicao(consulta);
+        }
+        if (!agenda.reservar(consulta.getId(), inicio)) {
+            throw sobreposicao(consulta);
+        }
+        // Só a reserva aceita altera a agenda; as recusadas não a descartam
+        descartarSeReverter(especialistaId);
+        for (VersaoJanelaProjection janela : janelas) {
+            if (disponibilidadeRepository.incrementarVersao(janela.getId(), janela.getVersion()) == 0) {
+                throw new ObjectOptimisticLockingFailureException(DisponibilidadeEntity.class, janela.getId());
+            }
+        }
+        for (VersaoJanelaProjection janela : recorrentes) {
+            if (recorrenteRepository.incrementarVersao(janela.getId(), janela.getVersion()) == 0) {
+                throw new ObjectOptimisticLockingFailureException(DisponibilidadeRecorrenteEntity.class, janela.getId());
+            }
+        }
+    }
+
+    public void removerConsulta(Long especialistaId, Long consultaId) {
+        descartarSeReverter(especialistaId);
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda != null) {
+            agenda.removerConsulta(consultaId);
+        }
+    }
+
+    /**
+     * Coloca (ou tira, se o status não está aberto) a janela na agenda do especialista.
+     */
+    public void registrarDisponibilidade(DisponibilidadeEntity disponibilidade) {
+        Long especialistaId = disponibilidade.getEspecialista().getId();
+        descartarSeReverter(especialistaId);
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda != null) {
+            agenda.registrarJanela(disponibilidade);
+        }
+    }
+
+    public void removerDisponibilidade(Long especialistaId, Long disponibilidadeId) {
+        descartarSeReverter(especialistaId);
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda != null) {
+            agenda.removerJanela(disponibilidadeId);
+        }
+    }
+
+    /**
+     * Coloca a janela recorrente (nova ou alterada, com as exceções) na agenda do especialista.
+     */
+    public void registrarRecorrencia(DisponibilidadeRecorrenteEntity recorrente) {
+        Long especialistaId = recorrente.getEspecialista().getId();
+        descartarSeReverter(especialistaId);
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda != null) {
+            agenda.registrarRecorrencia(recorrente);
+        }
+    }
+
+    public void removerRecorrencia(Long especialistaId, Long recorrenteId) {
+        descartarSeReverter(especialistaId);
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda != null) {
+            agenda.removerRecorrencia(recorrenteId);
+        }
+    }
+
+    // Consulta que passa da meia-noite conta as janelas até o fim do dia
+    private LocalTime fimNoDia(LocalDateTime inicio) {
+        LocalDateTime fim = inicio.plus(duracaoConsulta);
+        return fim.toLocalDate().isAfter(inicio.toLocalDate()) ? LocalTime.MAX : fim.toLocalTime();
+    }
+
+    // Consulta confirmada por outra instância que a agenda ainda não tinha entra nela, sem descartá-la
+    private boolean sobrepostaNoBanco(ConsultaEntity consulta, LocalDateTime inicio, Agenda agenda) {
+        List<ConsultaEntity> candidatas = consultaRepository.findByEspecialistaIdAndDataBetween(
+                consulta.getEspecialista().getId(),
+                inicio.minus(duracaoConsulta).toLocalDate(), inicio.plus(duracaoConsulta).toLocalDate());
+        boolean sobreposta = false;
+        for (ConsultaEntity outra : candidatas) {
+            if (!outra.getId().equals(consulta.getId()) && ocupaHorario(outra)) {
+                LocalDateTime inicioOutra = outra.getData().atTime(outra.getHora());
+                if (Duration.between(inicio, inicioOutra).abs().compareTo(duracaoConsulta) < 0) {
+                    agenda.reservarSemVerificar(outra.getId(), inicioOutra);
+                    sobreposta = true;
+                }
+            }
+        }
+        return sobreposta;
+    }
+
+    private static IllegalStateException sobreposicao(ConsultaEntity consulta) {
+        return new IllegalStateException("O especialista já tem consulta que se sobrepõe a "
+                + consulta.getData() + " " + consulta.getHora() + ".");
+    }
+
+    private Agenda agenda(Long especialistaId) {
+        Agenda agenda = agendas.buscar(especialistaId);
+        return agenda != null ? agenda : carregar(especialistaId);
+    }
+
+    // Fora do horizonte da agenda guardada o período é carregado só para esta busca
+    private Agenda agendaDoPeriodo(Long especialistaId, LocalDate de, LocalDate ate) {
+        Agenda agenda = agenda(especialistaId);
+        return agenda.cobre(de, ate) ? agenda : carregarPeriodo(especialistaId, de, ate);
+    }
+
+    // Uma carga por vez para cada especialista: duas cargas simultâneas deixariam reservas na agenda descartada
+    private Agenda carregar(Long especialistaId) {
+        synchronized (travasDeCarga[Math.floorMod(especialistaId.hashCode(), travasDeCarga.length)]) {
+            return carregarSemConcorrencia(especialistaId);
+        }
+    }
+
+    private Agenda carregarSemConcorrencia(Long especialistaId) {
+        Agenda agenda = agendas.buscar(especialistaId);
+        if (agenda == null) {
+            LocalDate hoje = LocalDate.now(relogio);
+            agenda = carregarPeriodo(especialistaId, hoje, hoje.plusDays(horizonteDias));
+            agendas.guardar(especialistaId, agenda, System.currentTimeMillis() + ttlMillis);
+        }
+        return agenda;
+    }
+
+    private Agenda carregarPeriodo(Long especialistaId, LocalDate de, LocalDate ate) {
+        Agenda agenda = new Agenda(especialistaId, de, ate);
+        for (DisponibilidadeCalendarioProjection janela : disponibilidadeRepository.findCalendarioDoEspecialista(especialistaId, de, ate)) {
+            agenda.registrarJanela(janela.getId(), janela.getData(), janela.getHoraInicio(), janela.getHoraFim(), janela.getStatus());
+        }
+        for (DisponibilidadeRecorrenteEntity recorrente
+                : recorrenteRepository.findVigentesEntreDoEspecialistaComExcecoes(especialistaId, de, ate)) {
+            agenda.registrarRecorrencia(recorrente);
+        }
+        // A consulta da véspera pode passar da meia-noite e ocupar o começo do período
+        for (ConsultaCalendarioProjection consulta : consultaRepository.findCalendarioDoEspecialista(especialistaId, de.minusDays(1), ate)) {
+            if (ocupaHorario(consulta.getData(), consulta.getHora(), consulta.getStatus())) {
+                // Consultas já gravadas entram mesmo sobrepostas: a recusa vale só para as novas
+                agenda.reservarSemVerificar(consulta.getId(), consulta.getData().atTime(consulta.getHora()));
+            }
+        }
+        return agenda;
+    }
+
+    // A agenda é alterada antes do commit; se a transação não é confirmada ela é recarregada do banco
+    private void descartarSeReverter(Long especialistaId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        agendas.remover(especialistaId);
+                    }
+                }
+            });
+        }
+    }
+
+    private static boolean ocupaHorario(ConsultaEntity consulta) {
+        return ocupaHorario(consulta.getData(), consulta.getHora(), consulta.getStatus());
+    }
+
+    private static boolean ocupaHorario(LocalDate data, LocalTime hora, String status) {
+        return data != null && hora != null && (status == null || !STATUS_CONSULTA_LIVRE.contains(status.toLowerCase()));
+    }
+
+    private static void validarPeriodo(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null) {
+            throw new IllegalArgumentException("O período deve ter data inicial e final.");
+        }
+        if (ate.isBefore(de)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à inicial.");
+        }
+    }
+
+    // Intervalos com o mesmo início são distinguidos pelo ID
+    private record Chave(LocalDateTime inicio, long id) implements Comparable<Chave> {
+
+        @Override
+        public int compareTo(Chave outra) {
+            int porInicio = inicio.compareTo(outra.inicio);
+            return porInicio != 0 ? porInicio : Long.compare(id, outra.id);
+        }
+    }
+
+    // Cópia da janela recorrente: a entidade pode mudar (ou ter as exceções descarregadas) depois da transação
+    private record Recorrencia(DayOfWeek diaSemana, LocalTime horaInicio, LocalTime horaFim,
+                               LocalDate vigenciaInicio, LocalDate vigenciaFim, Set<LocalDate> excecoes) {
+
+        boolean ocorreEm(LocalDate data) {
+            return data.getDayOfWeek() == diaSemana && !data.isBefore(vigenciaInicio)
+                    && (vigenciaFim == null || !data.isAfter(vigenciaFim)) && !excecoes.contains(data);
+        }
+    }
+
+    private final class Agenda {
+
+        private final Long especialistaId;
+        // Período carregado do banco (inclusive); janelas e consultas registradas depois podem cair fora dele
+        private final LocalDate cobreDe;
+        private final LocalDate cobreAte;
+        private final NavigableMap<Chave, LocalDateTime> janelas = new TreeMap<>();
+        private final Map<Long, Chave> janelaPorId = new HashMap<>();
+        private final NavigableMap<Chave, Long> consultas = new TreeMap<>();
+        private final Map<Long, Chave> consultaPorId = new HashMap<>();
+        // Poucas por especialista: a busca percorre todas a cada dia do período
+        private final Map<Long, Recorrencia> recorrencias = new HashMap<>();
+
+        Agenda(Long especialistaId, LocalDate cobreDe, LocalDate cobreAte) {
+            this.especialistaId = especialistaId;
+            this.cobreDe = cobreDe;
+            this.cobreAte = cobreAte;
+        }
+
+        boolean cobre(LocalDate de, LocalDate ate) {
+            return !de.isBefore(cobreDe) && !ate.isAfter(cobreAte);
+        }
+
+        void registrarJanela(DisponibilidadeEntity disponibilidade) {
+            registrarJanela(disponibilidade.getId(), disponibilidade.getData(), disponibilidade.getHoraInicio(),
+                    disponibilidade.getHoraFim(), disponibilidade.getStatus());
+        }
+
+        synchronized void registrarJanela(Long id, LocalDate data, LocalTime horaInicio, LocalTime horaFim, String status) {
+            removerJanela(id);
+            if (data == null || horaInicio == null || horaFim == null || status == null
+                    || !STATUS_JANELA_ABERTA.contains(status.toLowerCase())) {
+                return;
+            }
+            Chave chave = new Chave(data.atTime(horaInicio), id);
+            janelas.put(chave, data.atTime(horaFim));
+            janelaPorId.put(id, chave);
+        }
+
+        synchronized void removerJanela(Long id) {
+            Chave chave = janelaPorId.remove(id);
+            if (chave != null) {
+                janelas.remove(chave);
+            }
+        }
+
+        synchronized void registrarRecorrencia(DisponibilidadeRecorrenteEntity recorrente) {
+            recorrencias.put(recorrente.getId(), new Recorrencia(recorrente.getDiaSemana(), recorrente.getHoraInicio(),
+                    recorrente.getHoraFim(), recorrente.getVigenciaInicio(), recorrente.getVigenciaFim(),
+                    Set.copyOf(recorrente.getExcecoes())));
+        }
+
+        synchronized void removerRecorrencia(Long id) {
+            recorrencias.remove(id);
+        }
+
+        // Verifica e grava sob o mesmo lock: duas reservas concorrentes no mesmo horário não passam juntas
+        synchronized boolean reservar(Long id, LocalDateTime inicio) {
+            // Sobrepõe quem começa no intervalo aberto (inicio - duração, inicio + duração)
+            for (Long outra : consultas.subMap(new Chave(inicio.minus(duracaoConsulta), Long.MAX_VALUE), false,
+                    new Chave(inicio.plus(duracaoConsulta), Long.MIN_VALUE), false).values()) {
+                if (!outra.equals(id)) {
+                    return false;
+                }
+            }
+            reservarSemVerificar(id, inicio);
+            return true;
+        }
+
+        synchronized void reservarSemVerificar(Long id, LocalDateTime inicio) {
+            removerConsulta(id);
+            Chave chave = new Chave(inicio, id);
+            consultas.put(chave, id);
+            consultaPorId.put(id, chave);
+        }
+
+        synchronized void removerConsulta(Long id) {
+            Chave chave = consultaPorId.remove(id);
+            if (chave != null) {
+                consultas.remove(chave);
+            }
+        }
+
+        /**
+         * União das janelas e das ocorrências das recorrentes em [de, ate) menos as consultas,
+         * só os trechos onde cabe uma consulta. As ocorrências são geradas dia a dia, em ordem de início,
+         * e intercaladas com as janelas do TreeMap; só os dias de vigência de alguma recorrente são percorridos.
+         */
+        synchronized List<HorarioLivre> livres(LocalDateTime de, LocalDateTime ate, boolean soPrimeiro) {
+            Uniao uniao = new Uniao(de, ate, soPrimeiro);
+            // Janelas não passam da meia-noite: as que tocam o período começam a partir do dia de "de"
+            Iterator<Map.Entry<Chave, LocalDateTime>> concretas = janelas.subMap(
+                    new Chave(de.toLocalDate().atStartOfDay(), Long.MIN_VALUE), true, new Chave(ate, Long.MIN_VALUE), false)
+                    .entrySet().iterator();
+            Map.Entry<Chave, LocalDateTime> concreta = concretas.hasNext() ? concretas.next() : null;
+            LocalDate ultimoDia = ultimoDiaDeRecorrencia(ate);
+            for (LocalDate dia = primeiroDiaDeRecorrencia(de); dia != null && !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                for (Recorrencia recorrencia : ocorrenciasEm(dia)) {
+                    LocalDateTime inicio = dia.atTime(recorrencia.horaInicio());
+                    while (concreta != null && !concreta.getKey().inicio().isAfter(inicio)) {
+                        if (uniao.adicionar(concreta.getKey().inicio(), concreta.getValue())) {
+                            return uniao.livres;
+                        }
+                        concreta = concretas.hasNext() ? concretas.next() : null;
+                    }
+                    if (uniao.adicionar(inicio, dia.atTime(recorrencia.horaFim()))) {
+                        return uniao.livres;
+                    }
+                }
+            }
+            while (concreta != null) {
+                if (uniao.adicionar(concreta.getKey().inicio(), concreta.getValue())) {
+                    return uniao.livres;
+                }
+                concreta = concretas.hasNext() ? concretas.next() : null;
+            }
+            return uniao.fechar();
+        }
+
+        // Primeiro dia do período em que alguma recorrente está vigente (null sem recorrentes)
+        private LocalDate primeiroDiaDeRecorrencia(LocalDateTime de) {
+            return recorrencias.values().stream()
+                    .map(Recorrencia::vigenciaInicio)
+                    .min(Comparator.naturalOrder())
+                    .map(vigencia -> vigencia.isAfter(de.toLocalDate()) ? vigencia : de.toLocalDate())
+                    .orElse(null);
+        }
+
+        private LocalDate ultimoDiaDeRecorrencia(LocalDateTime ate) {
+            LocalDate ultimoDoPeriodo = ate.minusNanos(1).toLocalDate();
+            for (Recorrencia recorrencia : recorrencias.values()) {
+                if (recorrencia.vigenciaFim() == null) {
+                    return ultimoDoPeriodo;
+                }
+            }
+            return recorrencias.values().stream()
+                    .map(Recorrencia::vigenciaFim)
+                    .max(Comparator.naturalOrder())
+                    .filter(vigencia -> vigencia.isBefore(ultimoDoPeriodo))
+                    .orElse(ultimoDoPeriodo);
+        }
+
+        private List<Recorrencia> ocorrenciasEm(LocalDate dia) {
+            List<Recorrencia> doDia = new ArrayList<>();
+            for (Recorrencia recorrencia : recorrencias.values()) {
+                if (recorrencia.ocorreEm(dia)) {
+                    doDia.add(recorrencia);
+                }
+            }
+            doDia.sort(Comparator.comparing(Recorrencia::horaInicio));
+            return doDia;
+        }
+
+        // Junta os intervalos recebidos em ordem de início; cada trecho contínuo fechado sai menos as consultas
+        private final class Uniao {
+
+            private final LocalDateTime de;
+            private final LocalDateTime ate;
+            private final boolean soPrimeiro;
+            private final List<HorarioLivre> livres = new ArrayList<>();
+            private LocalDateTime inicioUniao;
+            private LocalDateTime fimUniao;
+
+            Uniao(LocalDateTime de, LocalDateTime ate, boolean soPrimeiro) {
+                this.de = de;
+                this.ate = ate;
+                this.soPrimeiro = soPrimeiro;
+            }
+
+            // true quando já achou o primeiro e soPrimeiro foi pedido
+            boolean adicionar(LocalDateTime inicioJanela, LocalDateTime fimJanela) {
+                LocalDateTime inicio = max(inicioJanela, de);
+                LocalDateTime fim = min(fimJanela, ate);
+                if (!fim.isAfter(inicio)) {
+                    return false;
+                }
+                if (fimUniao != null && !inicio.isAfter(fimUniao)) {
+                    fimUniao = max(fimUniao, fim);
+                    return false;
+                }
+                if (fimUniao != null && subtrairConsultas(inicioUniao, fimUniao, livres, soPrimeiro)) {
+                    return true;
+                }
+                inicioUniao = inicio;
+                fimUniao = fim;
+                return false;
+            }
+
+            List<HorarioLivre> fechar() {
+                if (fimUniao != null) {
+                    subtrairConsultas(inicioUniao, fimUniao, livres, soPrimeiro);
+                }
+                return livres;
+            }
+        }
+
+        // true quando já achou o primeiro e soPrimeiro foi pedido
+        private boolean subtrairConsultas(LocalDateTime inicio, LocalDateTime fim, List<HorarioLivre> livres, boolean soPrimeiro) {
+            LocalDateTime cursor = inicio;
+            for (Chave consulta : consultas.subMap(new Chave(inicio.minus(duracaoConsulta), Long.MAX_VALUE), false,
+                    new Chave(fim, Long.MIN_VALUE), false).keySet()) {
+                if (cabeConsulta(cursor, consulta.inicio())) {
+                    livres.add(new HorarioLivre(especialistaId, cursor, consulta.inicio()));
+                    if (soPrimeiro) {
+                        return true;
+                    }
+                }
+                cursor = max(cursor, consulta.inicio().plus(duracaoConsulta));
+            }
+            if (cabeConsulta(cursor, fim)) {
+                livres.add(new HorarioLivre(especialistaId, cursor, fim));
+                return soPrimeiro;
+            }
+            return false;
+        }
+
+        private boolean cabeConsulta(LocalDateTime inicio, LocalDateTime fim) {
+            return !inicio.plus(duracaoConsulta).isAfter(fim);
+        }
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,151 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-lote das análises de áudio das sessões de treino. Na terapia em grupo várias crianças gravam
+ * quase ao mesmo tempo; os áudios que chegam juntos vão numa única requisição ao Gemini, um inline_data por áudio,
+ * e cada análise volta para a sessão que a pediu.
+ * O primeiro pedido de um lote é o líder: espera até janela-ms ou max-itens pedidos, envia o lote e distribui
+ * as análises, sem thread própria. Áudios sem análise válida na resposta (ou todos, se a chamada falhar)
+ * são reenviados sozinhos, cada um na thread do seu pedido. max-itens=1 desliga o agrupamento.
+ * Deve ser chamado fora de transação: quem espera a janela não pode segurar conexão do pool, senão um pool
+ * menor que max-itens nunca forma o lote (SessaoTreinoService.processarAudio grava antes e depois da análise).
+ */
+@Component
+public class AgrupadorAnaliseAudio {
+
+    private static final Logger log = LoggerFactory.getLogger(AgrupadorAnaliseAudio.class);
+
+    private final GeminiAudioAnalysisService geminiService;
+    private final long janelaNanos;
+    private final int maxItens;
+    private final Metricas metricas;
+
+    // Lote recebendo pedidos; null quando não há nenhum aberto. Protegido pelo monitor do agrupador
+    private Lote aberto;
+
+    public AgrupadorAnaliseAudio(GeminiAudioAnalysisService geminiService,
+                                 @Value("${gemini.lote.janela-ms:150}") long janelaMs,
+                                 @Value("${gemini.lote.max-itens:4}") int maxItens,
+                                 Metricas metricas) {
+        if (janelaMs < 0 || maxItens < 1) {
+            throw new IllegalArgumentException("Lote de análise inválido: janela " + janelaMs + " ms, " + maxItens + " itens");
+        }
+        this.geminiService = geminiService;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.maxItens = maxItens;
+        this.metricas = metricas;
+    }
+
+    private static final class Lote {
+        private final List<Pedido> pedidos = new ArrayList<>();
+    }
+
+    private record Pedido(GeminiAudioAnalysisService.AudioSessao audio, CompletableFuture<Resultado> resultado) {
+    }
+
+    // Análise do áudio no lote (vazia se precisa ser reenviado) e a parte dele no uso da chamada
+    private record Resultado(Optional<BatchPronunciationAnalysisDTO> analise, UsoIa uso) {
+    }
+
+    /**
+     * Mesmo contrato de GeminiAudioAnalysisService.analisarComUso; bloqueia até a análise deste áudio.
+     * O uso inclui a parte deste áudio na chamada do lote e, se houve, o reenvio individual.
+     */
+    public RespostaIa<BatchPronunciationAnalysisDTO> analisar(Long sessaoId, byte[] audio, List<String> palavrasEsperadas) {
+        if (maxItens == 1 || janelaNanos == 0) {
+            return geminiService.analisarComUso(audio, palavrasEsperadas);
+        }
+
+        Pedido pedido = new Pedido(new GeminiAudioAnalysisService.AudioSessao(sessaoId, audio, palavrasEsperadas),
+                new CompletableFuture<>());
+        Lote lote;
+        boolean lider;
+        synchronized (this) {
+            lider = aberto == null;
+            if (lider) {
+                aberto = new Lote();
+            }
+            lote = aberto;
+            lote.pedidos.add(pedido);
+            if (lote.pedidos.size() >= maxItens) {
+                aberto = null;
+                notifyAll();
+            }
+        }
+
+        if (lider) {
+            aguardarFechamento(lote);
+            enviar(lote.pedidos);
+        }
+        // O líder sempre conclui todos os pedidos do lote, no máximo após o timeout do cliente HTTP
+        Resultado resultado = pedido.resultado().join();
+        if (resultado.analise().isPresent()) {
+            return new RespostaIa<>(resultado.analise().get(), resultado.uso());
+        }
+        RespostaIa<BatchPronunciationAnalysisDTO> sozinho = geminiService.analisarComUso(audio, palavrasEsperadas);
+        return new RespostaIa<>(sozinho.conteudo(), resultado.uso().somar(sozinho.uso()));
+    }
+
+    // Até o lote encher (outro pedido o fecha) ou a janela acabar; interrupção só encurta a janela
+    private synchronized void aguardarFechamento(Lote lote) {
+        long prazo = System.nanoTime() + janelaNanos;
+        boolean interrompido = false;
+        long restante;
+        while (aberto == lote && (restante = prazo - System.nanoTime()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, restante);
+            } catch (InterruptedException e) {
+                interrompido = true;
+                break;
+            }
+        }
+        if (aberto == lote) {
+            aberto = null;
+        }
+        if (interrompido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enviar(List<Pedido> pedidos) {
+        List<Optional<BatchPronunciationAnalysisDTO>> analises = Collections.nCopies(pedidos.size(), Optional.empty());
+        UsoIa usoPorAudio = UsoIa.NENHUM;
+        try {
+            // Sozinho na janela: segue pela chamada individual, sem o prompt de vários áudios
+            if (pedidos.size() > 1) {
+                RespostaIa<List<Optional<BatchPronunciationAnalysisDTO>>> lote =
+                        geminiService.analisarVariosAudios(pedidos.stream().map(Pedido::audio).toList());
+                analises = lote.conteudo();
+                usoPorAudio = lote.uso().fracao(pedidos.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Lote de {} áudios falhou; reenviando cada um sozinho", pedidos.size(), e);
+        } finally {
+            int reenviados = 0;
+            for (int i = 0; i < pedidos.size(); i++) {
+                Optional<BatchPronunciationAnalysisDTO> analise = i < analises.size() ? analises.get(i) : Optional.empty();
+                if (analise.isEmpty()) {
+                    reenviados++;
+                }
+                pedidos.get(i).resultado().complete(new Resultado(analise, usoPorAudio));
+            }
+            if (pedidos.size() > 1) {
+                metricas.loteAnaliseAudio(pedidos.size(), reenviados);
+            }
+        }
+    }
+}
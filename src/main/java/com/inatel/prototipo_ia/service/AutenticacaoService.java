@@ -1,14 +1,16 @@
 package com.inatel.prototipo_ia.service;
 
+import com.inatel.prototipo_ia.entity.UsuarioEntity;
 import com.inatel.prototipo_ia.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class AutenticacaoService implements UserDetailsService {
+public class AutenticacaoService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UsuarioRepository repository;
@@ -18,4 +20,14 @@ public class AutenticacaoService implements UserDetailsService {
         // Chama o método que acabamos de criar no Repository
         return repository.findByLogin(username);
     }
-}
\ No newline at end of file
+
+    // Chamado pelo DaoAuthenticationProvider após um login válido cujo hash está desatualizado
+    // (força do BCrypt aumentada ou troca de algoritmo em api.security.senha.*)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UsuarioEntity usuario = (UsuarioEntity) user;
+        repository.atualizarSenha(usuario.getId(), newPassword);
+        usuario.setSenha(newPassword);
+        return usuario;
+    }
+}
@@ -0,0 +1,218 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inatel.prototipo_ia.observabilidade.ChamadaIaInterceptor;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import jakarta.annotation.PreDestroy;
+import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de contexto do Gemini (cachedContents) para as instruções fixas dos prompts. Cada operação registra
+ * sua instrução sob uma chave; enquanto o cache vale, as requisições levam só o nome dele e a parte variável.
+ * O cache é criado no primeiro uso, renovado antes de expirar e trocado quando o texto da instrução muda.
+ * Se o Gemini recusa a criação (instrução abaixo do mínimo de tokens do modelo, por exemplo), a instrução
+ * segue inline em systemInstruction e a criação só é tentada de novo depois de um TTL.
+ */
+@Component
+public class CacheContextoGemini {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheContextoGemini.class);
+
+    // Desligado não chama a API, então o ObjectMapper sem os ajustes do Spring nunca é usado
+    private static final CacheContextoGemini DESLIGADO = new CacheContextoGemini(Metricas.desligadas(), new ObjectMapper(),
+            false, "", "", "", 3600, 300, System::currentTimeMillis);
+
+    private final boolean ativo;
+    private final String urlCache;
+    private final String apiKey;
+    private final String modelo;
+    private final long ttlSegundos;
+    private final long renovarAntesMs;
+    private final LongSupplier relogio;
+    private final OkHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entrada> porChave = new ConcurrentHashMap<>();
+
+    // nome null: a criação falhou e a instrução vai inline até renovarEm
+    private record Entrada(String instrucao, String nome, long expiraEm, long renovarEm) {
+
+        boolean vale(String texto, long agora) {
+            return instrucao.equals(texto) && agora < renovarEm;
+        }
+    }
+
+    @Autowired
+    public CacheContextoGemini(Metricas metricas, ObjectMapper objectMapper,
+                               @Value("${gemini.cache.ativo:false}") boolean ativo,
+                               @Value("${gemini.cache.url:https://generativelanguage.googleapis.com/v1beta/cachedContents}") String urlCache,
+                               @Value("${gemini.api.key}") String apiKey,
+                               @Value("${gemini.cache.modelo:models/gemini-2.0-flash}") String modelo,
+                               @Value("${gemini.cache.ttl-s:3600}") long ttlSegundos,
+                               @Value("${gemini.cache.renovar-antes-s:300}") long renovarAntesSegundos) {
+        this(metricas, objectMapper, ativo, urlCache, apiKey, modelo, ttlSegundos, renovarAntesSegundos, System::currentTimeMillis);
+    }
+
+    CacheContextoGemini(Metricas metricas, ObjectMapper objectMapper, boolean ativo, String urlCache, String apiKey,
+                        String modelo, long ttlSegundos, long renovarAntesSegundos, LongSupplier relogio) {
+        if (renovarAntesSegundos < 0 || ttlSegundos <= renovarAntesSegundos) {
+            throw new IllegalArgumentException("Cache de contexto inválido: TTL de " + ttlSegundos
+                    + " s renovado " + renovarAntesSegundos + " s antes");
+        }
+        this.ativo = ativo;
+        this.urlCache = urlCache;
+        this.apiKey = apiKey;
+        this.modelo = modelo;
+        this.ttlSegundos = ttlSegundos;
+        this.renovarAntesMs = TimeUnit.SECONDS.toMillis(renovarAntesSegundos);
+        this.relogio = relogio;
+        this.objectMapper = objectMapper;
+        this.httpClient = new OkHttpClient.Builder()
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .addInterceptor(new ChamadaIaInterceptor(metricas, "gemini", "cache-contexto"))
+                .build();
+    }
+
+    // Para classes montadas fora do Spring (testes unitários): instrução sempre inline
+    public static CacheContextoGemini desligado() {
+        return DESLIGADO;
+    }
+
+    /**
+     * Nome do cachedContent com a instrução, criando ou renovando se preciso; vazio quando a instrução deve ir inline.
+     */
+    public Optional<String> nome(String chave, String instrucao) {
+        if (!ativo) {
+            return Optional.empty();
+        }
+        Entrada entrada = porChave.get(chave);
+        if (entrada == null || !entrada.vale(instrucao, relogio.getAsLong())) {
+            entrada = atualizar(chave, instrucao);
+        }
+        return Optional.ofNullable(entrada.nome());
+    }
+
+    /**
+     * Descarta o cache que o Gemini recusou numa requisição (excluído ou expirado do lado dele);
+     * o próximo uso cria outro. Erros de outro tipo (503, 429) não dizem nada sobre o cache.
+     */
+    public void recusado(String chave, String nome, int status) {
+        if (status == 400 || status == 403 || status == 404) {
+            porChave.computeIfPresent(chave, (k, entrada) -> nome.equals(entrada.nome()) ? null : entrada);
+        }
+    }
+
+    // Uma atualização por vez: acontecem uma vez por TTL e assim não nascem dois caches para a mesma chave
+    private synchronized Entrada atualizar(String chave, String instrucao) {
+        long agora = relogio.getAsLong();
+        Entrada atual = porChave.get(chave);
+        if (atual != null && atual.vale(instrucao, agora)) {
+            return atual;
+        }
+        Entrada nova = null;
+        if (atual != null && atual.nome() != null) {
+            if (!atual.instrucao().equals(instrucao)) {
+                excluir(atual.nome());
+            } else if (agora < atual.expiraEm()) {
+                nova = renovar(atual, agora);
+            }
+        }
+        if (nova == null) {
+            nova = criar(instrucao, agora);
+        }
+        porChave.put(chave, nova);
+        return nova;
+    }
+
+    private Entrada criar(String instrucao, long agora) {
+        ProtocoloGemini.CriacaoCache criacao =
+                new ProtocoloGemini.CriacaoCache(modelo, ProtocoloGemini.Conteudo.texto(instrucao), ttl());
+        try {
+            JsonNode resposta = enviar(new Request.Builder()
+                    .url(urlCache + "?key=" + apiKey)
+                    .post(corpo(criacao)));
+            String nome = resposta.path("name").asText("");
+            if (nome.isEmpty()) {
+                throw new IOException("Resposta sem name");
+            }
+            log.info("Cache de contexto {} criado por {} s", nome, ttlSegundos);
+            return validoAte(instrucao, nome, agora);
+        } catch (IOException e) {
+            log.warn("Cache de contexto indisponível, instrução segue inline por {} s: {}", ttlSegundos, e.getMessage());
+            return new Entrada(instrucao, null, agora, agora + TimeUnit.SECONDS.toMillis(ttlSegundos));
+        }
+    }
+
+    // null se não deu para renovar; o chamador cria outro
+    private Entrada renovar(Entrada atual, long agora) {
+        try {
+            enviar(new Request.Builder()
+                    .url(urlDe(atual.nome()) + "?updateMask=ttl&key=" + apiKey)
+                    .patch(corpo(new ProtocoloGemini.RenovacaoCache(ttl()))));
+            return validoAte(atual.instrucao(), atual.nome(), agora);
+        } catch (IOException e) {
+            log.warn("Falha ao renovar o cache de contexto {}: {}", atual.nome(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Sem exclusão o cache antigo só deixa de ser cobrado quando o TTL acaba
+    private void excluir(String nome) {
+        try {
+            enviar(new Request.Builder().url(urlDe(nome) + "?key=" + apiKey).delete());
+            log.info("Cache de contexto {} excluído", nome);
+        } catch (IOException e) {
+            log.warn("Falha ao excluir o cache de contexto {}: {}", nome, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        List<String> nomes = porChave.values().stream().map(Entrada::nome).filter(nome -> nome != null).toList();
+        porChave.clear();
+        nomes.forEach(this::excluir);
+    }
+
+    private Entrada validoAte(String instrucao, String nome, long agora) {
+        long expiraEm = agora + TimeUnit.SECONDS.toMillis(ttlSegundos);
+        return new Entrada(instrucao, nome, expiraEm, expiraEm - renovarAntesMs);
+    }
+
+    private String ttl() {
+        return ttlSegundos + "s";
+    }
+
+    // nome é "cachedContents/{id}", relativo à versão da API
+    private String urlDe(String nome) {
+        return urlCache.substring(0, urlCache.lastIndexOf('/') + 1) + nome;
+    }
+
+    private RequestBody corpo(Object valor) throws IOException {
+        return RequestBody.create(objectMapper.writeValueAsBytes(valor), MediaType.parse("application/json"));
+    }
+
+    private JsonNode enviar(Request.Builder requisicao) throws IOException {
+        try (Response response = httpClient.newCall(requisicao.build()).execute()) {
+            String corpo = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("cachedContents respondeu " + response.code() + " " + corpo);
+            }
+            return corpo.isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(corpo);
+        }
+    }
+}
@@ -4,21 +4,27 @@ import com.inatel.prototipo_ia.dto.in.CertificadoDtoIn;
 import com.inatel.prototipo_ia.dto.out.CertificadoDtoOut;
 import com.inatel.prototipo_ia.entity.CertificadoEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.CertificadoRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CertificadoService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "dataEmissao", "nivelAlcancado");
+
     private final CertificadoRepository certificadoRepository;
     private final ClienteRepository clienteRepository;
 
@@ -50,13 +56,10 @@ public class CertificadoService {
     }
 
     /**
-     * Busca todos os certificados e retorna lista de DTOs de saída.
+     * Busca uma página de certificados e retorna os DTOs de saída.
      */
-    public List<CertificadoDtoOut> buscarTodos() {
-        return certificadoRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<CertificadoDtoOut> buscarTodos(Pageable pageable) {
+        return certificadoRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -5,21 +5,27 @@ import com.inatel.prototipo_ia.dto.out.ChatDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ChatService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "duracao");
+
     private final ChatRepository chatRepository;
     private final ClienteRepository clienteRepository;
     private final EspecialistaRepository especialistaRepository;
@@ -73,8 +79,8 @@ public class ChatService {
         chatRepository.deleteById(id);
     }
 
-    public List<ChatDtoOut> buscarTodos() {
-        return chatRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+    public Page<ChatDtoOut> buscarTodos(Pageable pageable) {
+        return chatRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     public Optional<ChatDtoOut> buscarPorId(Long id) {
@@ -1,29 +1,51 @@
 package com.inatel.prototipo_ia.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inatel.prototipo_ia.dto.in.ClienteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.importacao.Importacao;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
+import com.inatel.prototipo_ia.security.CodificadorSenha;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder; // IMPORTANTE
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ClienteService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "idade", "nivel");
+
     private final ClienteRepository clienteRepository;
     private final ChatRepository chatRepository;
     private final com.inatel.prototipo_ia.repository.ConsultaRepository consultaRepository;
     private final com.inatel.prototipo_ia.repository.CertificadoRepository certificadoRepository;
     private final com.inatel.prototipo_ia.repository.UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder; // IMPORTANTE
+    private final CodificadorSenha passwordEncoder; // IMPORTANTE
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
     // Construtor atualizado para injetar o PasswordEncoder
     public ClienteService(ClienteRepository clienteRepository, 
@@ -31,13 +53,17 @@ public class ClienteService {
                           com.inatel.prototipo_ia.repository.ConsultaRepository consultaRepository,
                           com.inatel.prototipo_ia.repository.CertificadoRepository certificadoRepository,
                           com.inatel.prototipo_ia.repository.UsuarioRepository usuarioRepository,
-                          PasswordEncoder passwordEncoder) {
+                          CodificadorSenha passwordEncoder,
+                          EntityManager entityManager,
+                          ObjectMapper objectMapper) {
         this.clienteRepository = clienteRepository;
         this.chatRepository = chatRepository;
         this.consultaRepository = consultaRepository;
         this.certificadoRepository = certificadoRepository;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -67,8 +93,58 @@ public class ClienteService {
         return toDto(salvo);
     }
 
-    public List<ClienteDtoOut> buscarTodos() {
-        return clienteRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+    /**
+     * Importa clientes em massa (CSV ou NDJSON). A primeira leitura valida o arquivo inteiro sem gravar nada
+     * (campos obrigatórios, logins repetidos ou já cadastrados); só sem erros a segunda leitura grava em lotes.
+     */
+    public ImportacaoDtoOut importar(InputStreamSource arquivo, FormatoArquivo formato) throws IOException {
+        ImportacaoDtoOut resultado = new ImportacaoDtoOut();
+        Set<String> loginsDoArquivo = new HashSet<>();
+        Map<String, Long> linhaPorLogin = new HashMap<>();
+
+        try (InputStream entrada = arquivo.getInputStream()) {
+            Importacao.ler(objectMapper, entrada, formato, ClienteDtoIn.class, resultado, (linha, dto) -> {
+                try {
+                    validarClienteDto(dto);
+                } catch (IllegalArgumentException e) {
+                    resultado.adicionarErro(linha, e.getMessage());
+                    return;
+                }
+                String login = dto.getLogin();
+                if (login == null) {
+                    return;
+                }
+                if (!loginsDoArquivo.add(login)) {
+                    resultado.adicionarErro(linha, "Login repetido no arquivo: " + login);
+                    return;
+                }
+                linhaPorLogin.put(login, linha);
+                if (linhaPorLogin.size() == Importacao.TAMANHO_LOTE) {
+                    validarLoginsExistentes(linhaPorLogin, resultado);
+                }
+            });
+        }
+        validarLoginsExistentes(linhaPorLogin, resultado);
+        if (resultado.possuiErros()) {
+            return resultado;
+        }
+
+        List<ClienteDtoIn> lote = new ArrayList<>(Importacao.TAMANHO_LOTE);
+        try (InputStream entrada = arquivo.getInputStream()) {
+            Importacao.ler(objectMapper, entrada, formato, ClienteDtoIn.class, new ImportacaoDtoOut(), (linha, dto) -> {
+                lote.add(dto);
+                if (lote.size() == Importacao.TAMANHO_LOTE) {
+                    gravarLoteImportado(lote, resultado);
+                }
+            });
+        }
+        gravarLoteImportado(lote, resultado);
+        return resultado;
+    }
+
+    public Page<ClienteDtoOut> buscarTodos(Pageable pageable) {
+        Page<ClienteEntity> pagina = clienteRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS));
+        return new PageImpl<>(toDtos(pagina.getContent()), pagina.getPageable(), pagina.getTotalElements());
     }
 
     public Optional<ClienteDtoOut> buscarPorId(Long id) {
@@ -98,20 +174,42 @@ public class ClienteService {
     }
 
     public List<ClienteDtoOut> buscarMaioresDeIdade() {
-        return clienteRepository.findClientesMaioresDeIdade().stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(clienteRepository.findClientesMaioresDeIdade());
     }
 
     public List<ClienteDtoOut> buscarPorNivel(String nivel) {
         if (nivel == null || nivel.isBlank()) {
             throw new IllegalArgumentException("O nível não pode ser vazio.");
         }
-        return clienteRepository.findByNivel(nivel).stream().map(this::toDto).collect(Collectors.toList());
+        return toDtos(clienteRepository.findByNivel(nivel));
     }
 
     private ClienteDtoOut toDto(ClienteEntity cliente) {
-        List<Long> chatIds = chatRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
-        List<Long> consultaIds = consultaRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
-        List<Long> certificadoIds = certificadoRepository.findByClienteId(cliente.getId()).stream().map(c -> c.getId()).collect(Collectors.toList());
+        return toDtos(List.of(cliente)).get(0);
+    }
+
+    /**
+     * Converte uma lista de clientes carregando chats, consultas e certificados em lote
+     * (uma query por associação, independente da quantidade de clientes).
+     */
+    private List<ClienteDtoOut> toDtos(List<ClienteEntity> clientes) {
+        if (clientes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = clientes.stream().map(ClienteEntity::getId).collect(Collectors.toList());
+        Map<Long, List<Long>> chatIds = VinculoIdProjection.agruparPorDono(chatRepository.findIdsByClienteIdIn(ids));
+        Map<Long, List<Long>> consultaIds = VinculoIdProjection.agruparPorDono(consultaRepository.findIdsByClienteIdIn(ids));
+        Map<Long, List<Long>> certificadoIds = VinculoIdProjection.agruparPorDono(certificadoRepository.findIdsByClienteIdIn(ids));
+
+        return clientes.stream()
+                .map(c -> toDto(c,
+                        chatIds.getOrDefault(c.getId(), List.of()),
+                        consultaIds.getOrDefault(c.getId(), List.of()),
+                        certificadoIds.getOrDefault(c.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private ClienteDtoOut toDto(ClienteEntity cliente, List<Long> chatIds, List<Long> consultaIds, List<Long> certificadoIds) {
         ClienteDtoOut dto = new ClienteDtoOut();
         dto.setId(cliente.getId());
         dto.setNome(cliente.getNome());
@@ -124,6 +222,40 @@ public class ClienteService {
         return dto;
     }
 
+    private void validarLoginsExistentes(Map<String, Long> linhaPorLogin, ImportacaoDtoOut resultado) {
+        if (linhaPorLogin.isEmpty()) {
+            return;
+        }
+        for (String login : usuarioRepository.findLoginsExistentes(linhaPorLogin.keySet())) {
+            resultado.adicionarErro(linhaPorLogin.get(login), "Login já cadastrado: " + login);
+        }
+        linhaPorLogin.clear();
+    }
+
+    private void gravarLoteImportado(List<ClienteDtoIn> lote, ImportacaoDtoOut resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        // O CodificadorSenha reparte o lote entre as threads do seu pool. Com o pool tomado por logins,
+        // RejectedExecutionException desfaz a importação inteira (uma transação) e o controller responde 503
+        List<String> senhas = passwordEncoder.encodeTodas(lote.stream().map(ClienteDtoIn::getSenha).toList());
+
+        List<ClienteEntity> novos = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            ClienteEntity novo = new ClienteEntity();
+            aplicarDtoNoEntity(novo, lote.get(i));
+            novo.setLogin(lote.get(i).getLogin());
+            novo.setSenha(senhas.get(i));
+            novos.add(novo);
+        }
+        clienteRepository.saveAll(novos);
+        clienteRepository.flush();
+        entityManager.clear();
+
+        resultado.setImportados(resultado.getImportados() + novos.size());
+        lote.clear();
+    }
+
     private void aplicarDtoNoEntity(ClienteEntity destino, ClienteDtoIn fonte) {
         destino.setNome(fonte.getNome());
         destino.setIdade(fonte.getIdade());
@@ -1,36 +1,48 @@
 package com.inatel.prototipo_ia.service;
 
+import com.inatel.prototipo_ia.calendario.Calendario;
 import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ConsultaService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "data", "hora", "tipo", "status");
+
     private final ConsultaRepository consultaRepository;
     private final ClienteRepository clienteRepository;
     private final EspecialistaRepository especialistaRepository;
+    private final AgendaEspecialistas agenda;
 
     public ConsultaService(ConsultaRepository consultaRepository,
                            ClienteRepository clienteRepository,
-                           EspecialistaRepository especialistaRepository) {
+                           EspecialistaRepository especialistaRepository,
+                           AgendaEspecialistas agenda) {
         this.consultaRepository = consultaRepository;
         this.clienteRepository = clienteRepository;
         this.especialistaRepository = especialistaRepository;
+        this.agenda = agenda;
     }
 
     /**
@@ -61,17 +73,16 @@ public class ConsultaService {
         entity.setEspecialista(especialista);
 
         ConsultaEntity salvo = consultaRepository.save(entity);
+        // Recusa horário sobreposto; a exceção desfaz o INSERT
+        agenda.reservar(salvo);
         return toDto(salvo);
     }
 
     /**
-     * Busca todas as consultas e retorna lista de DTOs de saída.
+     * Busca uma página de consultas e retorna os DTOs de saída.
      */
-    public List<ConsultaDtoOut> buscarTodos() {
-        return consultaRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<ConsultaDtoOut> buscarTodos(Pageable pageable) {
+        return consultaRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -114,6 +125,30 @@ public class ConsultaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Consultas entre as datas (inclusive) agrupadas por dia, filtradas pelo especialista e/ou pelo cliente
+     * quando informados. Uma query por período, só com as colunas do DTO.
+     */
+    @Transactional(readOnly = true)
+    public SortedMap<LocalDate, List<ConsultaDtoOut>> buscarCalendario(LocalDate de, LocalDate ate, Long especialistaId, Long clienteId) {
+        Calendario.validarPeriodo(de, ate);
+        List<ConsultaCalendarioProjection> consultas;
+        if (especialistaId != null) {
+            // A agenda de um especialista no período é pequena: o filtro de cliente vai em memória
+            consultas = consultaRepository.findCalendarioDoEspecialista(especialistaId, de, ate);
+            if (clienteId != null) {
+                consultas = consultas.stream()
+                        .filter(consulta -> clienteId.equals(consulta.getClienteId()))
+                        .collect(Collectors.toList());
+            }
+        } else if (clienteId != null) {
+            consultas = consultaRepository.findCalendarioDoCliente(clienteId, de, ate);
+        } else {
+            consultas = consultaRepository.findCalendario(de, ate);
+        }
+        return Calendario.porDia(consultas, ConsultaCalendarioProjection::getData, this::toItemCalendario);
+    }
+
     /**
      * Busca consultas por status.
      */
@@ -143,6 +178,7 @@ public class ConsultaService {
         // Não permitimos alterar cliente e especialista no update
 
         ConsultaEntity atualizado = consultaRepository.save(existente);
+        agenda.reservar(atualizado);
         return toDto(atualizado);
     }
 
@@ -150,10 +186,24 @@ public class ConsultaService {
      * Deleta uma consulta.
      */
     public void deletar(Long id) {
-        if (!consultaRepository.existsById(id)) {
+        Optional<ConsultaEntity> optionalConsulta = consultaRepository.findById(id);
+        if (optionalConsulta.isEmpty()) {
             throw new EntityNotFoundException("Consulta não encontrada com o ID: " + id);
         }
         consultaRepository.deleteById(id);
+        agenda.removerConsulta(optionalConsulta.get().getEspecialista().getId(), id);
+    }
+
+    // Sem a data, que já é a chave do dia no calendário
+    private ConsultaDtoOut toItemCalendario(ConsultaCalendarioProjection consulta) {
+        ConsultaDtoOut dto = new ConsultaDtoOut();
+        dto.setId(consulta.getId());
+        dto.setHora(consulta.getHora());
+        dto.setTipo(consulta.getTipo());
+        dto.setStatus(consulta.getStatus());
+        dto.setClienteId(consulta.getClienteId());
+        dto.setEspecialistaId(consulta.getEspecialistaId());
+        return dto;
     }
 
     /**
@@ -178,6 +228,7 @@ public class ConsultaService {
     private void aplicarDtoNoEntity(ConsultaEntity destino, ConsultaDtoIn fonte) {
         destino.setData(fonte.getData());
         destino.setHora(fonte.getHora());
+        destino.setFim(fonte.getData().atTime(fonte.getHora()).plus(agenda.getDuracaoConsulta()));
         destino.setTipo(fonte.getTipo());
         destino.setStatus(fonte.getStatus());
         // Nota: clienteId e especialistaId não são atualizados após criação
@@ -0,0 +1,121 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.UsoIaDtoOut;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contabilidade e orçamento do consumo de IA das sessões de treino.
+ * O uso de cada chamada é somado na sessão (persistido; os totais por cliente são a soma das sessões)
+ * e nos acumulados por operação desta instância, que dão as médias por chamada para ajustar os prompts.
+ * Com o orçamento esgotado a sessão segue pelo caminho sem Gemini (trava-língua do corpus, análise pelo Deepgram).
+ */
+@Component
+public class ContabilidadeIa {
+
+    public static final String GERAR_TRAVA_LINGUA = "gerar-trava-lingua";
+    public static final String ANALISAR_AUDIO = "analisar-audio";
+    public static final String TRANSCREVER_AUDIO = "transcrever-audio";
+
+    private final SessaoTreinoRepository sessaoRepository;
+    private final long limiteTokensSessao;
+    private final long limiteLatenciaSessaoMs;
+    private final long limiteTokensClienteDia;
+    private final Map<String, Acumulado> porOperacao = new ConcurrentHashMap<>();
+
+    public ContabilidadeIa(SessaoTreinoRepository sessaoRepository,
+                           @Value("${ia.orcamento.sessao.tokens:0}") long limiteTokensSessao,
+                           @Value("${ia.orcamento.sessao.latencia-ms:0}") long limiteLatenciaSessaoMs,
+                           @Value("${ia.orcamento.cliente.tokens-dia:0}") long limiteTokensClienteDia) {
+        if (limiteTokensSessao < 0 || limiteLatenciaSessaoMs < 0 || limiteTokensClienteDia < 0) {
+            throw new IllegalArgumentException("Limites do orçamento de IA não podem ser negativos");
+        }
+        this.sessaoRepository = sessaoRepository;
+        this.limiteTokensSessao = limiteTokensSessao;
+        this.limiteLatenciaSessaoMs = limiteLatenciaSessaoMs;
+        this.limiteTokensClienteDia = limiteTokensClienteDia;
+    }
+
+    private static final class Acumulado {
+        private final LongAdder chamadas = new LongAdder();
+        private final LongAdder tokensPrompt = new LongAdder();
+        private final LongAdder tokensResposta = new LongAdder();
+        private final LongAdder latenciaMs = new LongAdder();
+        private final LongAdder rebaixamentos = new LongAdder();
+    }
+
+    private Acumulado acumulado(String operacao) {
+        return porOperacao.computeIfAbsent(operacao, o -> new Acumulado());
+    }
+
+    /**
+     * Soma o uso na sessão (gravado junto com ela) e nos acumulados da operação.
+     */
+    public void registrar(SessaoTreinoEntity sessao, String operacao, UsoIa uso) {
+        sessao.registrarUsoIa(uso.chamadas(), uso.tokensPrompt(), uso.tokensResposta(), uso.latenciaMs());
+        Acumulado acumulado = acumulado(operacao);
+        acumulado.chamadas.add(uso.chamadas());
+        acumulado.tokensPrompt.add(uso.tokensPrompt());
+        acumulado.tokensResposta.add(uso.tokensResposta());
+        acumulado.latenciaMs.add(uso.latenciaMs());
+    }
+
+    // A operação seguiu pelo caminho sem Gemini por falta de orçamento
+    public void registrarRebaixamento(String operacao) {
+        acumulado(operacao).rebaixamentos.increment();
+    }
+
+    /**
+     * Se o cliente ainda tem tokens no dia; sem limite configurado não consulta o banco.
+     */
+    public boolean clienteDentroDoOrcamento(Long clienteId, LocalDate hoje) {
+        return limiteTokensClienteDia == 0
+                || sessaoRepository.somarTokensDoClienteDesde(clienteId, hoje.atStartOfDay()) < limiteTokensClienteDia;
+    }
+
+    /**
+     * Se a sessão ainda pode chamar o Gemini: tokens e latência da própria sessão e tokens do cliente no dia.
+     */
+    public boolean sessaoDentroDoOrcamento(SessaoTreinoEntity sessao, LocalDate hoje) {
+        if (limiteTokensSessao > 0 && sessao.getTokensTotal() >= limiteTokensSessao) {
+            return false;
+        }
+        if (limiteLatenciaSessaoMs > 0 && sessao.getLatenciaIaMs() >= limiteLatenciaSessaoMs) {
+            return false;
+        }
+        return clienteDentroDoOrcamento(sessao.getCliente().getId(), hoje);
+    }
+
+    @Transactional(readOnly = true)
+    public UsoIaDtoOut relatorio(LocalDate desde) {
+        List<UsoIaDtoOut.Operacao> operacoes = porOperacao.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> paraOperacao(e.getKey(), e.getValue()))
+                .toList();
+        List<UsoIaDtoOut.Cliente> clientes = sessaoRepository.somarUsoIaPorClienteDesde(desde.atStartOfDay()).stream()
+                .map(c -> new UsoIaDtoOut.Cliente(c.getClienteId(), c.getClienteNome(), c.getSessoes(), c.getChamadas(),
+                        c.getTokensPrompt(), c.getTokensResposta(), c.getLatenciaMs()))
+                .toList();
+        return new UsoIaDtoOut(desde,
+                new UsoIaDtoOut.Orcamento(limiteTokensSessao, limiteLatenciaSessaoMs, limiteTokensClienteDia),
+                operacoes, clientes);
+    }
+
+    private static UsoIaDtoOut.Operacao paraOperacao(String operacao, Acumulado acumulado) {
+        long chamadas = acumulado.chamadas.sum();
+        long tokensPrompt = acumulado.tokensPrompt.sum();
+        return new UsoIaDtoOut.Operacao(operacao, chamadas, tokensPrompt, acumulado.tokensResposta.sum(),
+                chamadas > 0 ? (double) tokensPrompt / chamadas : 0.0,
+                chamadas > 0 ? (double) acumulado.latenciaMs.sum() / chamadas : 0.0,
+                acumulado.rebaixamentos.sum());
+    }
+}
@@ -1,25 +1,45 @@
 package com.inatel.prototipo_ia.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inatel.prototipo_ia.dto.in.ConteudoTesteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ConteudoTesteDtoOut;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.importacao.Importacao;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ConteudoTesteService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "dificuldade", "idioma");
+
     private final ConteudoTesteRepository conteudoTesteRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    public ConteudoTesteService(ConteudoTesteRepository conteudoTesteRepository) {
+    public ConteudoTesteService(ConteudoTesteRepository conteudoTesteRepository, EntityManager entityManager,
+                                ObjectMapper objectMapper) {
         this.conteudoTesteRepository = conteudoTesteRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,13 +56,44 @@ public class ConteudoTesteService {
     }
 
     /**
-     * Busca todos os conteúdos de teste e retorna lista de DTOs de saída.
+     * Importa um corpus de conteúdos de teste (CSV ou NDJSON). O arquivo é validado por inteiro antes
+     * de qualquer gravação; sem erros, os registros são gravados em lotes.
      */
-    public List<ConteudoTesteDtoOut> buscarTodos() {
-        return conteudoTesteRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public ImportacaoDtoOut importar(InputStreamSource arquivo, FormatoArquivo formato) throws IOException {
+        ImportacaoDtoOut resultado = new ImportacaoDtoOut();
+        try (InputStream entrada = arquivo.getInputStream()) {
+            Importacao.ler(objectMapper, entrada, formato, ConteudoTesteDtoIn.class, resultado, (linha, dto) -> {
+                try {
+                    validarConteudoDto(dto);
+                } catch (IllegalArgumentException e) {
+                    resultado.adicionarErro(linha, e.getMessage());
+                }
+            });
+        }
+        if (resultado.possuiErros()) {
+            return resultado;
+        }
+
+        List<ConteudoTesteEntity> lote = new ArrayList<>(Importacao.TAMANHO_LOTE);
+        try (InputStream entrada = arquivo.getInputStream()) {
+            Importacao.ler(objectMapper, entrada, formato, ConteudoTesteDtoIn.class, new ImportacaoDtoOut(), (linha, dto) -> {
+                ConteudoTesteEntity entity = new ConteudoTesteEntity();
+                aplicarDtoNoEntity(entity, dto);
+                lote.add(entity);
+                if (lote.size() == Importacao.TAMANHO_LOTE) {
+                    gravarLoteImportado(lote, resultado);
+                }
+            });
+        }
+        gravarLoteImportado(lote, resultado);
+        return resultado;
+    }
+
+    /**
+     * Busca uma página de conteúdos de teste e retorna os DTOs de saída.
+     */
+    public Page<ConteudoTesteDtoOut> buscarTodos(Pageable pageable) {
+        return conteudoTesteRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -135,6 +186,19 @@ public class ConteudoTesteService {
         return dto;
     }
 
+    // Grava um lote da importação e limpa o contexto de persistência antes do próximo
+    private void gravarLoteImportado(List<ConteudoTesteEntity> lote, ImportacaoDtoOut resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        conteudoTesteRepository.saveAll(lote);
+        conteudoTesteRepository.flush();
+        entityManager.clear();
+
+        resultado.setImportados(resultado.getImportados() + lote.size());
+        lote.clear();
+    }
+
     /**
      * Aplica os campos do DTO In na entidade (create/update).
      */
@@ -4,20 +4,26 @@ import com.inatel.prototipo_ia.dto.in.DetalheErroDtoIn;
 import com.inatel.prototipo_ia.dto.out.DetalheErroDtoOut;
 import com.inatel.prototipo_ia.entity.DetalheErroEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.DetalheErroRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DetalheErroService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "fonemaEsperado", "fonemaProduzido", "scoreDesvio");
+
     private final DetalheErroRepository detalheErroRepository;
     private final RelatorioRepository relatorioRepository;
 
@@ -50,13 +56,10 @@ public class DetalheErroService {
     }
 
     /**
-     * Busca todos os detalhes de erro e retorna lista de DTOs de saída.
+     * Busca uma página de detalhes de erro e retorna os DTOs de saída.
      */
-    public List<DetalheErroDtoOut> buscarTodos() {
-        return detalheErroRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<DetalheErroDtoOut> buscarTodos(Pageable pageable) {
+        return detalheErroRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -0,0 +1,231 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.calendario.Calendario;
+import com.inatel.prototipo_ia.dto.in.DisponibilidadeRecorrenteDtoIn;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeRecorrenteDtoOut;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class DisponibilidadeRecorrenteService {
+
+    // Status das ocorrências geradas: abertas para consultas, como "Disponível" nas janelas concretas
+    static final String STATUS_OCORRENCIA = "Disponível";
+
+    private final DisponibilidadeRecorrenteRepository recorrenteRepository;
+    private final EspecialistaRepository especialistaRepository;
+    private final AgendaEspecialistas agenda;
+
+    public DisponibilidadeRecorrenteService(DisponibilidadeRecorrenteRepository recorrenteRepository,
+                                            EspecialistaRepository especialistaRepository,
+                                            AgendaEspecialistas agenda) {
+        this.recorrenteRepository = recorrenteRepository;
+        this.especialistaRepository = especialistaRepository;
+        this.agenda = agenda;
+    }
+
+    /**
+     * Cria uma janela recorrente a partir de DTO In e retorna DTO Out.
+     */
+    public DisponibilidadeRecorrenteDtoOut criar(DisponibilidadeRecorrenteDtoIn recorrenteDto) {
+        validarRecorrenteDto(recorrenteDto);
+
+        Long especialistaId = recorrenteDto.getEspecialistaId();
+        Optional<EspecialistaEntity> optionalEspecialista = especialistaRepository.findById(especialistaId);
+        if (optionalEspecialista.isEmpty()) {
+            throw new EntityNotFoundException("Não é possível criar a disponibilidade recorrente pois o especialista com ID " + especialistaId + " não foi encontrado.");
+        }
+
+        DisponibilidadeRecorrenteEntity entity = new DisponibilidadeRecorrenteEntity();
+        aplicarDtoNoEntity(entity, recorrenteDto);
+        entity.setEspecialista(optionalEspecialista.get());
+
+        DisponibilidadeRecorrenteEntity salvo = recorrenteRepository.save(entity);
+        agenda.registrarRecorrencia(salvo);
+        return toDto(salvo);
+    }
+
+    /**
+     * Busca uma janela recorrente pelo seu ID e retorna DTO de saída.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DisponibilidadeRecorrenteDtoOut> buscarPorId(Long id) {
+        return recorrenteRepository.findById(id).map(this::toDto);
+    }
+
+    /**
+     * Busca as janelas recorrentes de um especialista (com as exceções numa query só).
+     */
+    @Transactional(readOnly = true)
+    public List<DisponibilidadeRecorrenteDtoOut> buscarPorEspecialistaId(Long especialistaId) {
+        return recorrenteRepository.findByEspecialistaIdComExcecoes(especialistaId)
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ocorrências das janelas recorrentes do especialista entre as datas (inclusive), no formato das
+     * disponibilidades concretas. Geradas na hora: nada é gravado.
+     */
+    @Transactional(readOnly = true)
+    public List<DisponibilidadeDtoOut> buscarOcorrencias(Long especialistaId, LocalDate de, LocalDate ate) {
+        Calendario.validarPeriodo(de, ate);
+        List<DisponibilidadeDtoOut> ocorrencias = new ArrayList<>();
+        for (DisponibilidadeRecorrenteEntity recorrente : recorrenteRepository.findByEspecialistaIdComExcecoes(especialistaId)) {
+            for (LocalDate dia : recorrente.ocorrenciasEntre(de, ate)) {
+                DisponibilidadeDtoOut ocorrencia = toOcorrencia(recorrente);
+                ocorrencia.setData(dia);
+                ocorrencias.add(ocorrencia);
+            }
+        }
+        ocorrencias.sort(Comparator.comparing(DisponibilidadeDtoOut::getData).thenComparing(DisponibilidadeDtoOut::getHoraInicio));
+        return ocorrencias;
+    }
+
+    /**
+     * Atualiza os dados de uma janela recorrente existente via DTO In e retorna DTO Out.
+     * Exceções nulas no DTO mantêm as atuais.
+     */
+    public DisponibilidadeRecorrenteDtoOut atualizar(Long id, DisponibilidadeRecorrenteDtoIn recorrenteDto) {
+        DisponibilidadeRecorrenteEntity existente = buscarEntity(id);
+
+        validarRecorrenteDto(recorrenteDto);
+
+        aplicarDtoNoEntity(existente, recorrenteDto);
+        // Não permitimos alterar o especialista no update
+
+        DisponibilidadeRecorrenteEntity atualizado = recorrenteRepository.save(existente);
+        agenda.registrarRecorrencia(atualizado);
+        return toDto(atualizado);
+    }
+
+    /**
+     * Tira uma data da janela recorrente (feriado, férias).
+     */
+    public DisponibilidadeRecorrenteDtoOut adicionarExcecao(Long id, LocalDate data) {
+        DisponibilidadeRecorrenteEntity existente = buscarEntity(id);
+        if (data == null) {
+            throw new IllegalArgumentException("A data da exceção é obrigatória.");
+        }
+        if (data.getDayOfWeek() != existente.getDiaSemana()) {
+            throw new IllegalArgumentException("A data " + data + " não cai em " + existente.getDiaSemana() + ".");
+        }
+        existente.getExcecoes().add(data);
+        agenda.registrarRecorrencia(existente);
+        return toDto(existente);
+    }
+
+    /**
+     * Devolve uma data antes tirada da janela recorrente.
+     */
+    public DisponibilidadeRecorrenteDtoOut removerExcecao(Long id, LocalDate data) {
+        DisponibilidadeRecorrenteEntity existente = buscarEntity(id);
+        existente.getExcecoes().remove(data);
+        agenda.registrarRecorrencia(existente);
+        return toDto(existente);
+    }
+
+    /**
+     * Deleta uma janela recorrente (com as exceções).
+     */
+    public void deletar(Long id) {
+        DisponibilidadeRecorrenteEntity existente = buscarEntity(id);
+        recorrenteRepository.delete(existente);
+        agenda.removerRecorrencia(existente.getEspecialista().getId(), id);
+    }
+
+    private DisponibilidadeRecorrenteEntity buscarEntity(Long id) {
+        return recorrenteRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Disponibilidade recorrente não encontrada com o ID: " + id));
+    }
+
+    /**
+     * Conversor de Entidade -> DTO Out.
+     */
+    private DisponibilidadeRecorrenteDtoOut toDto(DisponibilidadeRecorrenteEntity entity) {
+        DisponibilidadeRecorrenteDtoOut dto = new DisponibilidadeRecorrenteDtoOut();
+        dto.setId(entity.getId());
+        dto.setDiaSemana(entity.getDiaSemana());
+        dto.setHoraInicio(entity.getHoraInicio());
+        dto.setHoraFim(entity.getHoraFim());
+        dto.setVigenciaInicio(entity.getVigenciaInicio());
+        dto.setVigenciaFim(entity.getVigenciaFim());
+        dto.setExcecoes(entity.getExcecoes().stream().sorted().collect(Collectors.toList()));
+        dto.setEspecialistaId(entity.getEspecialista().getId());
+        return dto;
+    }
+
+    /**
+     * Ocorrência da janela recorrente sem a data (o calendário agrupa por dia).
+     */
+    static DisponibilidadeDtoOut toOcorrencia(DisponibilidadeRecorrenteEntity recorrente) {
+        DisponibilidadeDtoOut dto = new DisponibilidadeDtoOut();
+        dto.setHoraInicio(recorrente.getHoraInicio());
+        dto.setHoraFim(recorrente.getHoraFim());
+        dto.setStatus(STATUS_OCORRENCIA);
+        dto.setEspecialistaId(recorrente.getEspecialista().getId());
+        dto.setRecorrenteId(recorrente.getId());
+        return dto;
+    }
+
+    /**
+     * Aplica os campos do DTO In na entidade (create/update).
+     * Não altera o especialista no update.
+     */
+    private void aplicarDtoNoEntity(DisponibilidadeRecorrenteEntity destino, DisponibilidadeRecorrenteDtoIn fonte) {
+        destino.setDiaSemana(fonte.getDiaSemana());
+        destino.setHoraInicio(fonte.getHoraInicio());
+        destino.setHoraFim(fonte.getHoraFim());
+        destino.setVigenciaInicio(fonte.getVigenciaInicio());
+        destino.setVigenciaFim(fonte.getVigenciaFim());
+        if (fonte.getExcecoes() != null) {
+            destino.setExcecoes(new HashSet<>(fonte.getExcecoes()));
+        }
+    }
+
+    /**
+     * Validação do DTO de entrada.
+     */
+    private void validarRecorrenteDto(DisponibilidadeRecorrenteDtoIn recorrente) {
+        if (recorrente == null) {
+            throw new IllegalArgumentException("O objeto de disponibilidade recorrente não pode ser nulo.");
+        }
+        if (recorrente.getEspecialistaId() == null) {
+            throw new IllegalArgumentException("A disponibilidade recorrente deve estar associada a um especialista.");
+        }
+        if (recorrente.getDiaSemana() == null) {
+            throw new IllegalArgumentException("O dia da semana é obrigatório.");
+        }
+        if (recorrente.getHoraInicio() == null) {
+            throw new IllegalArgumentException("A hora de início é obrigatória.");
+        }
+        if (recorrente.getHoraFim() == null) {
+            throw new IllegalArgumentException("A hora de fim é obrigatória.");
+        }
+        if (!recorrente.getHoraInicio().isBefore(recorrente.getHoraFim())) {
+            throw new IllegalArgumentException("A hora de início deve ser anterior à hora de fim.");
+        }
+        if (recorrente.getVigenciaInicio() == null) {
+            throw new IllegalArgumentException("O início da vigência é obrigatório.");
+        }
+        if (recorrente.getVigenciaFim() != null && recorrente.getVigenciaFim().isBefore(recorrente.getVigenciaInicio())) {
+            throw new IllegalArgumentException("O fim da vigência não pode ser anterior ao início.");
+        }
+    }
+}
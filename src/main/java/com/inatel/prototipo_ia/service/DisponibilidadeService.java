@@ -1,31 +1,51 @@
 package com.inatel.prototipo_ia.service;
 
+import com.inatel.prototipo_ia.calendario.Calendario;
 import com.inatel.prototipo_ia.dto.in.DisponibilidadeDtoIn;
 import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.HorarioLivreDtoOut;
 import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DisponibilidadeService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "data", "horaInicio", "horaFim", "status");
+
     private final DisponibilidadeRepository disponibilidadeRepository;
+    private final DisponibilidadeRecorrenteRepository recorrenteRepository;
     private final EspecialistaRepository especialistaRepository;
+    private final AgendaEspecialistas agenda;
 
     public DisponibilidadeService(DisponibilidadeRepository disponibilidadeRepository,
-                                  EspecialistaRepository especialistaRepository) {
+                                  DisponibilidadeRecorrenteRepository recorrenteRepository,
+                                  EspecialistaRepository especialistaRepository,
+                                  AgendaEspecialistas agenda) {
         this.disponibilidadeRepository = disponibilidadeRepository;
+        this.recorrenteRepository = recorrenteRepository;
         this.especialistaRepository = especialistaRepository;
+        this.agenda = agenda;
     }
 
     /**
@@ -47,17 +67,15 @@ public class DisponibilidadeService {
         entity.setEspecialista(especialista);
 
         DisponibilidadeEntity salvo = disponibilidadeRepository.save(entity);
+        agenda.registrarDisponibilidade(salvo);
         return toDto(salvo);
     }
 
     /**
-     * Busca todas as disponibilidades e retorna lista de DTOs de saída.
+     * Busca uma página de disponibilidades e retorna os DTOs de saída.
      */
-    public List<DisponibilidadeDtoOut> buscarTodos() {
-        return disponibilidadeRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<DisponibilidadeDtoOut> buscarTodos(Pageable pageable) {
+        return disponibilidadeRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -104,7 +122,7 @@ public class DisponibilidadeService {
     }
 
     /**
-     * Busca disponibilidades disponíveis (status "disponível").
+     * Busca disponibilidades disponíveis (status "disponível", "disponivel" ou "livre", sem diferenciar maiúsculas).
      */
     public List<DisponibilidadeDtoOut> buscarDisponiveis() {
         return disponibilidadeRepository.findDisponibilidadesDisponiveis()
@@ -113,6 +131,34 @@ public class DisponibilidadeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Janelas entre as datas (inclusive) agrupadas por dia, junto das ocorrências das janelas recorrentes
+     * (com recorrenteId e sem id), de um especialista ou de todos.
+     */
+    @Transactional(readOnly = true)
+    public SortedMap<LocalDate, List<DisponibilidadeDtoOut>> buscarCalendario(LocalDate de, LocalDate ate, Long especialistaId) {
+        Calendario.validarPeriodo(de, ate);
+        List<DisponibilidadeCalendarioProjection> janelas = especialistaId != null
+                ? disponibilidadeRepository.findCalendarioDoEspecialista(especialistaId, de, ate)
+                : disponibilidadeRepository.findCalendario(de, ate);
+        SortedMap<LocalDate, List<DisponibilidadeDtoOut>> dias =
+                Calendario.porDia(janelas, DisponibilidadeCalendarioProjection::getData, this::toItemCalendario);
+
+        List<DisponibilidadeRecorrenteEntity> recorrentes = especialistaId != null
+                ? recorrenteRepository.findByEspecialistaIdComExcecoes(especialistaId)
+                : recorrenteRepository.findVigentesEntreComExcecoes(de, ate);
+        if (!recorrentes.isEmpty()) {
+            for (DisponibilidadeRecorrenteEntity recorrente : recorrentes) {
+                for (LocalDate dia : recorrente.ocorrenciasEntre(de, ate)) {
+                    dias.computeIfAbsent(dia, d -> new ArrayList<>())
+                            .add(DisponibilidadeRecorrenteService.toOcorrencia(recorrente));
+                }
+            }
+            dias.values().forEach(doDia -> doDia.sort(Comparator.comparing(DisponibilidadeDtoOut::getHoraInicio)));
+        }
+        return dias;
+    }
+
     /**
      * Atualiza os dados de uma disponibilidade existente via DTO In e retorna DTO Out.
      */
@@ -129,6 +175,7 @@ public class DisponibilidadeService {
         // Não permitimos alterar o especialista no update
 
         DisponibilidadeEntity atualizado = disponibilidadeRepository.save(existente);
+        agenda.registrarDisponibilidade(atualizado);
         return toDto(atualizado);
     }
 
@@ -136,10 +183,52 @@ public class DisponibilidadeService {
      * Deleta uma disponibilidade.
      */
     public void deletar(Long id) {
-        if (!disponibilidadeRepository.existsById(id)) {
+        Optional<DisponibilidadeEntity> optionalDisponibilidade = disponibilidadeRepository.findById(id);
+        if (optionalDisponibilidade.isEmpty()) {
             throw new EntityNotFoundException("Disponibilidade não encontrada com o ID: " + id);
         }
         disponibilidadeRepository.deleteById(id);
+        agenda.removerDisponibilidade(optionalDisponibilidade.get().getEspecialista().getId(), id);
+    }
+
+    /**
+     * Intervalos livres do especialista no período (janelas disponíveis menos as consultas marcadas).
+     */
+    @Transactional(readOnly = true)
+    public List<HorarioLivreDtoOut> buscarHorariosLivres(Long especialistaId, LocalDate de, LocalDate ate) {
+        return agenda.horariosLivres(especialistaId, de, ate)
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Primeiro horário livre no período entre todos os especialistas.
+     */
+    @Transactional(readOnly = true)
+    public Optional<HorarioLivreDtoOut> buscarPrimeiroHorarioLivre(LocalDate de, LocalDate ate) {
+        return agenda.primeiroHorarioLivre(de, ate).map(this::toDto);
+    }
+
+    private HorarioLivreDtoOut toDto(AgendaEspecialistas.HorarioLivre livre) {
+        HorarioLivreDtoOut dto = new HorarioLivreDtoOut();
+        dto.setEspecialistaId(livre.especialistaId());
+        dto.setData(livre.inicio().toLocalDate());
+        dto.setHoraInicio(livre.inicio().toLocalTime());
+        dto.setHoraFim(livre.fim().toLocalTime());
+        dto.setDuracaoConsultaMin(agenda.getDuracaoConsulta().toMinutes());
+        return dto;
+    }
+
+    // Sem a data, que já é a chave do dia no calendário
+    private DisponibilidadeDtoOut toItemCalendario(DisponibilidadeCalendarioProjection janela) {
+        DisponibilidadeDtoOut dto = new DisponibilidadeDtoOut();
+        dto.setId(janela.getId());
+        dto.setHoraInicio(janela.getHoraInicio());
+        dto.setHoraFim(janela.getHoraFim());
+        dto.setStatus(janela.getStatus());
+        dto.setEspecialistaId(janela.getEspecialistaId());
+        return dto;
     }
 
     /**
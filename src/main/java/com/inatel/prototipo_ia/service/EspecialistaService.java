@@ -3,27 +3,39 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.EspecialistaDtoIn;
 import com.inatel.prototipo_ia.dto.out.EspecialistaDtoOut;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.projection.VinculoIdProjection;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EspecialistaService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "idade", "especialidade", "crmFono");
+
     private final EspecialistaRepository especialistaRepository;
     private final ConsultaRepository consultaRepository;
     private final DisponibilidadeRepository disponibilidadeRepository;
+    private final DisponibilidadeRecorrenteRepository disponibilidadeRecorrenteRepository;
     private final ChatRepository chatRepository;
     private final RelatorioRepository relatorioRepository;
     private final com.inatel.prototipo_ia.repository.UsuarioRepository usuarioRepository;
@@ -32,6 +44,7 @@ public class EspecialistaService {
     public EspecialistaService(EspecialistaRepository especialistaRepository,
                                ConsultaRepository consultaRepository,
                                DisponibilidadeRepository disponibilidadeRepository,
+                               DisponibilidadeRecorrenteRepository disponibilidadeRecorrenteRepository,
                                ChatRepository chatRepository,
                                RelatorioRepository relatorioRepository,
                                com.inatel.prototipo_ia.repository.UsuarioRepository usuarioRepository,
@@ -39,6 +52,7 @@ public class EspecialistaService {
         this.especialistaRepository = especialistaRepository;
         this.consultaRepository = consultaRepository;
         this.disponibilidadeRepository = disponibilidadeRepository;
+        this.disponibilidadeRecorrenteRepository = disponibilidadeRecorrenteRepository;
         this.chatRepository = chatRepository;
         this.relatorioRepository = relatorioRepository;
         this.usuarioRepository = usuarioRepository;
@@ -67,11 +81,9 @@ public class EspecialistaService {
         return toDto(salvo);
     }
 
-    public List<EspecialistaDtoOut> buscarTodos() {
-        return especialistaRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<EspecialistaDtoOut> buscarTodos(Pageable pageable) {
+        Page<EspecialistaEntity> pagina = especialistaRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS));
+        return new PageImpl<>(toDtos(pagina.getContent()), pagina.getPageable(), pagina.getTotalElements());
     }
 
     public Optional<EspecialistaDtoOut> buscarPorId(Long id) {
@@ -82,10 +94,7 @@ public class EspecialistaService {
         if (especialidade == null || especialidade.isBlank()) {
             throw new IllegalArgumentException("A especialidade não pode ser vazia.");
         }
-        return especialistaRepository.findByEspecialidade(especialidade)
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return toDtos(especialistaRepository.findByEspecialidade(especialidade));
     }
 
     public Optional<EspecialistaDtoOut> buscarPorCrmFono(String crmFono) {
@@ -96,10 +105,7 @@ public class EspecialistaService {
     }
 
     public List<EspecialistaDtoOut> buscarMaioresDeIdade() {
-        return especialistaRepository.findEspecialistasMaioresDeIdade()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return toDtos(especialistaRepository.findEspecialistasMaioresDeIdade());
     }
 
     public EspecialistaDtoOut atualizar(Long id, EspecialistaDtoIn especialistaDto) {
@@ -123,7 +129,8 @@ public class EspecialistaService {
         }
 
         boolean emUsoEmConsulta = consultaRepository.existsByEspecialistaId(id);
-        boolean emUsoEmDisponibilidade = disponibilidadeRepository.existsByEspecialistaId(id);
+        boolean emUsoEmDisponibilidade = disponibilidadeRepository.existsByEspecialistaId(id)
+                || disponibilidadeRecorrenteRepository.existsByEspecialistaId(id);
 
         if (emUsoEmConsulta || emUsoEmDisponibilidade) {
             throw new IllegalStateException("Não é possível deletar o especialista pois ele está associado a consultas ou disponibilidades existentes.");
@@ -133,6 +140,34 @@ public class EspecialistaService {
     }
 
     private EspecialistaDtoOut toDto(EspecialistaEntity entity) {
+        return toDtos(List.of(entity)).get(0);
+    }
+
+    /**
+     * Converte uma lista de especialistas carregando os IDs vinculados em lote:
+     * uma query por associação, independente da quantidade de especialistas.
+     */
+    private List<EspecialistaDtoOut> toDtos(List<EspecialistaEntity> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = entities.stream().map(EspecialistaEntity::getId).collect(Collectors.toList());
+        Map<Long, List<Long>> consultaIds = VinculoIdProjection.agruparPorDono(consultaRepository.findIdsByEspecialistaIdIn(ids));
+        Map<Long, List<Long>> disponibilidadeIds = VinculoIdProjection.agruparPorDono(disponibilidadeRepository.findIdsByEspecialistaIdIn(ids));
+        Map<Long, List<Long>> chatIds = VinculoIdProjection.agruparPorDono(chatRepository.findIdsByEspecialistaIdIn(ids));
+        Map<Long, List<Long>> relatorioIds = VinculoIdProjection.agruparPorDono(relatorioRepository.findIdsByEspecialistaIdIn(ids));
+
+        return entities.stream()
+                .map(e -> toDto(e,
+                        consultaIds.getOrDefault(e.getId(), List.of()),
+                        disponibilidadeIds.getOrDefault(e.getId(), List.of()),
+                        chatIds.getOrDefault(e.getId(), List.of()),
+                        relatorioIds.getOrDefault(e.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private EspecialistaDtoOut toDto(EspecialistaEntity entity, List<Long> consultaIds, List<Long> disponibilidadeIds,
+                                     List<Long> chatIds, List<Long> relatorioIds) {
         EspecialistaDtoOut dto = new EspecialistaDtoOut();
         dto.setId(entity.getId());
         dto.setNome(entity.getNome());
@@ -140,10 +175,10 @@ public class EspecialistaService {
         dto.setEndereco(entity.getEndereco());
         dto.setCrmFono(entity.getCrmFono());
         dto.setEspecialidade(entity.getEspecialidade());
-        dto.setConsultaIds(consultaRepository.findByEspecialistaId(entity.getId()).stream().map(c -> c.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setDisponibilidadeIds(disponibilidadeRepository.findByEspecialistaId(entity.getId()).stream().map(d -> d.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setChatIds(chatRepository.findByEspecialistaId(entity.getId()).stream().map(ch -> ch.getId()).collect(java.util.stream.Collectors.toList()));
-        dto.setRelatorioIds(relatorioRepository.findByEspecialistaId(entity.getId()).stream().map(r -> r.getId()).collect(java.util.stream.Collectors.toList()));
+        dto.setConsultaIds(consultaIds);
+        dto.setDisponibilidadeIds(disponibilidadeIds);
+        dto.setChatIds(chatIds);
+        dto.setRelatorioIds(relatorioIds);
         return dto;
     }
 
@@ -0,0 +1,192 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.inatel.prototipo_ia.entity.DetalheErroEntity;
+import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.repository.DetalheErroRepository;
+import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exporta em massa os dados clínicos de um especialista (NDJSON ou CSV).
+ * As linhas são lidas por cursor e escritas direto na resposta, sem montar a lista inteira em memória.
+ */
+@Service
+public class ExportacaoService {
+
+    // A cada quantas linhas o contexto de persistência é limpo e o buffer enviado ao cliente
+    static final int LOTE_EXPORTACAO = 500;
+
+    private static final List<Coluna<SessaoTreinoEntity>> COLUNAS_SESSAO = List.of(
+            new Coluna<>("id", SessaoTreinoEntity::getId),
+            new Coluna<>("clienteId", s -> s.getCliente().getId()),
+            new Coluna<>("clienteNome", s -> s.getCliente().getNome()),
+            new Coluna<>("chatId", s -> s.getChat() != null ? s.getChat().getId() : null),
+            new Coluna<>("dificuldade", SessaoTreinoEntity::getDificuldade),
+            new Coluna<>("idadeCliente", SessaoTreinoEntity::getIdadeCliente),
+            new Coluna<>("status", SessaoTreinoEntity::getStatus),
+            new Coluna<>("totalPalavras", SessaoTreinoEntity::getTotalPalavras),
+            new Coluna<>("totalAcertos", SessaoTreinoEntity::getTotalAcertos),
+            new Coluna<>("pontuacaoGeral", SessaoTreinoEntity::getPontuacaoGeral),
+            new Coluna<>("dataInicio", SessaoTreinoEntity::getDataInicio),
+            new Coluna<>("dataFim", SessaoTreinoEntity::getDataFim)
+    );
+
+    private static final List<Coluna<RelatorioEntity>> COLUNAS_RELATORIO = List.of(
+            new Coluna<>("id", RelatorioEntity::getId),
+            new Coluna<>("chatId", r -> r.getChat().getId()),
+            new Coluna<>("clienteId", r -> r.getChat().getCliente().getId()),
+            new Coluna<>("clienteNome", r -> r.getChat().getCliente().getNome()),
+            new Coluna<>("acuracia", RelatorioEntity::getAcuracia),
+            new Coluna<>("analiseFono", RelatorioEntity::getAnaliseFono)
+    );
+
+    private static final List<Coluna<DetalheErroEntity>> COLUNAS_DETALHE_ERRO = List.of(
+            new Coluna<>("id", DetalheErroEntity::getId),
+            new Coluna<>("relatorioId", d -> d.getRelatorio().getId()),
+            new Coluna<>("clienteId", d -> d.getRelatorio().getChat().getCliente().getId()),
+            new Coluna<>("fonemaEsperado", DetalheErroEntity::getFonemaEsperado),
+            new Coluna<>("fonemaProduzido", DetalheErroEntity::getFonemaProduzido),
+            new Coluna<>("scoreDesvio", DetalheErroEntity::getScoreDesvio)
+    );
+
+    private final SessaoTreinoRepository sessaoRepository;
+    private final RelatorioRepository relatorioRepository;
+    private final DetalheErroRepository detalheErroRepository;
+    private final EntityManager entityManager;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExportacaoService(SessaoTreinoRepository sessaoRepository,
+                             RelatorioRepository relatorioRepository,
+                             DetalheErroRepository detalheErroRepository,
+                             EntityManager entityManager) {
+        this.sessaoRepository = sessaoRepository;
+        this.relatorioRepository = relatorioRepository;
+        this.detalheErroRepository = detalheErroRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Escreve as sessões de treino do especialista no formato pedido.
+     */
+    @Transactional(readOnly = true)
+    public void exportarSessoes(Long especialistaId, FormatoArquivo formato, OutputStream saida) throws IOException {
+        try (Stream<SessaoTreinoEntity> sessoes = sessaoRepository.streamByEspecialistaId(especialistaId)) {
+            escrever(sessoes, COLUNAS_SESSAO, formato, saida);
+        }
+    }
+
+    /**
+     * Escreve os relatórios do especialista no formato pedido.
+     */
+    @Transactional(readOnly = true)
+    public void exportarRelatorios(Long especialistaId, FormatoArquivo formato, OutputStream saida) throws IOException {
+        try (Stream<RelatorioEntity> relatorios = relatorioRepository.streamByEspecialistaId(especialistaId)) {
+            escrever(relatorios, COLUNAS_RELATORIO, formato, saida);
+        }
+    }
+
+    /**
+     * Escreve os detalhes de erro dos relatórios do especialista no formato pedido.
+     */
+    @Transactional(readOnly = true)
+    public void exportarDetalhesErro(Long especialistaId, FormatoArquivo formato, OutputStream saida) throws IOException {
+        try (Stream<DetalheErroEntity> detalhes = detalheErroRepository.streamByEspecialistaId(especialistaId)) {
+            escrever(detalhes, COLUNAS_DETALHE_ERRO, formato, saida);
+        }
+    }
+
+    private <T> void escrever(Stream<T> linhas, List<Coluna<T>> colunas, FormatoArquivo formato, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (formato == FormatoArquivo.NDJSON) {
+            json = jsonFactory.createGenerator(writer);
+            json.setRootValueSeparator(null); // a quebra de linha é escrita após cada objeto
+        }
+
+        if (formato == FormatoArquivo.CSV) {
+            for (int i = 0; i < colunas.size(); i++) {
+                if (i > 0) writer.write(',');
+                writer.write(colunas.get(i).nome());
+            }
+            writer.write('\n');
+        }
+
+        int escritas = 0;
+        Iterator<T> iterator = linhas.iterator();
+        while (iterator.hasNext()) {
+            T linha = iterator.next();
+            if (json != null) {
+                escreverJson(json, linha, colunas);
+            } else {
+                escreverCsv(writer, linha, colunas);
+            }
+            entityManager.detach(linha);
+
+            if (++escritas % LOTE_EXPORTACAO == 0) {
+                if (json != null) json.flush();
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+
+        if (json != null) json.flush();
+        writer.flush();
+    }
+
+    private <T> void escreverJson(JsonGenerator json, T linha, List<Coluna<T>> colunas) throws IOException {
+        json.writeStartObject();
+        for (Coluna<T> coluna : colunas) {
+            Object valor = coluna.valor().apply(linha);
+            json.writeFieldName(coluna.nome());
+            if (valor == null) {
+                json.writeNull();
+            } else if (valor instanceof Number numero) {
+                json.writeNumber(numero.toString());
+            } else {
+                json.writeString(valor.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private <T> void escreverCsv(Writer writer, T linha, List<Coluna<T>> colunas) throws IOException {
+        for (int i = 0; i < colunas.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object valor = colunas.get(i).valor().apply(linha);
+            if (valor != null) {
+                writer.write(escaparCsv(valor.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: aspas quando há separador, aspas ou quebra de linha no valor
+    static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    private record Coluna<T>(String nome, Function<T, Object> valor) {
+    }
+}
@@ -1,84 +1,156 @@
 package com.inatel.prototipo_ia.service;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.observabilidade.ChamadaIaInterceptor;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import java.util.stream.Collectors;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Service
 public class GeminiAudioAnalysisService {
 
+    private static final Logger log = LoggerFactory.getLogger(GeminiAudioAnalysisService.class);
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}")
+    private String geminiApiUrl;
+
+    // Mesmos nomes dos campos de BatchPronunciationAnalysisDTO, que recebe a resposta sem cópia campo a campo
+    private static final ProtocoloGemini.Esquema ESQUEMA_ANALISE = ProtocoloGemini.Esquema.objeto(
+            Map.entry("resultados", ProtocoloGemini.Esquema.lista(ProtocoloGemini.Esquema.objeto(
+                    Map.entry("palavraEsperada", ProtocoloGemini.Esquema.tipo("STRING")),
+                    Map.entry("palavraTranscrita", ProtocoloGemini.Esquema.tipo("STRING")),
+                    Map.entry("acertou", ProtocoloGemini.Esquema.tipo("BOOLEAN")),
+                    Map.entry("similaridade", ProtocoloGemini.Esquema.tipo("NUMBER")),
+                    Map.entry("feedback", ProtocoloGemini.Esquema.tipo("STRING"))))),
+            Map.entry("feedbackGeral", ProtocoloGemini.Esquema.tipo("STRING")),
+            Map.entry("pontuacaoGeral", ProtocoloGemini.Esquema.tipo("NUMBER")));
+
+    // Vários áudios numa requisição: uma análise por áudio, identificada pelo índice da instrução (1..n)
+    private static final ProtocoloGemini.Esquema ESQUEMA_ANALISES_LOTE = ProtocoloGemini.Esquema.objeto(
+            Map.entry("analises", ProtocoloGemini.Esquema.lista(ProtocoloGemini.Esquema.objeto(
+                    Map.entry("indice", ProtocoloGemini.Esquema.tipo("INTEGER")),
+                    Map.entry("resultados", ESQUEMA_ANALISE.properties().get("resultados")),
+                    Map.entry("feedbackGeral", ProtocoloGemini.Esquema.tipo("STRING")),
+                    Map.entry("pontuacaoGeral", ProtocoloGemini.Esquema.tipo("NUMBER"))))));
+
+    // Partes fixas dos prompts, enviadas como systemInstruction ou pelo cache de contexto; o formato vem do responseSchema
+    static final String INSTRUCAO_ANALISE = "Analise a pronúncia em PT-BR das palavras esperadas no áudio. "
+            + "Responda APENAS JSON com um resultado por palavra esperada, na mesma ordem, similaridade de 0 a 100.";
+    static final String INSTRUCAO_ANALISE_LOTE = "Analise a pronúncia em PT-BR de vários áudios, cada um de uma "
+            + "criança diferente e precedido das suas palavras esperadas. Responda APENAS JSON com uma análise por áudio, "
+            + "com o índice do áudio, e nela um resultado por palavra esperada, na mesma ordem, similaridade de 0 a 100.";
+    private static final String CACHE_ANALISE = "analisar-audio";
+    private static final String CACHE_ANALISE_LOTE = "analisar-varios-audios";
+
+    /**
+     * Áudio de uma sessão de treino com as palavras do trava-língua, para análise junto com outros.
+     */
+    public record AudioSessao(Long sessaoId, byte[] audio, List<String> palavrasEsperadas) {
+    }
+
+    // Resposta no formato de ESQUEMA_ANALISES_LOTE
+    private record AnalisesLote(List<AnaliseDoAudio> analises) {
+    }
+
+    private record AnaliseDoAudio(Integer indice, List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados,
+                                  String feedbackGeral, Double pontuacaoGeral) {
+    }
+
     private final OkHttpClient httpClient;
+    private final Metricas metricas;
+    private final CacheContextoGemini cacheContexto;
+    private final ObjectReader leitorAnalise;
+    private final ObjectReader leitorAnalisesLote;
+    private final ProtocoloGemini protocolo;
 
-    public GeminiAudioAnalysisService() {
+    public GeminiAudioAnalysisService(Metricas metricas, CacheContextoGemini cacheContexto, ObjectMapper objectMapper) {
+        this.metricas = metricas;
+        this.cacheContexto = cacheContexto;
+        this.leitorAnalise = objectMapper.readerFor(BatchPronunciationAnalysisDTO.class);
+        this.leitorAnalisesLote = objectMapper.readerFor(AnalisesLote.class);
+        this.protocolo = new ProtocoloGemini(objectMapper);
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(60, TimeUnit.SECONDS)
                 .readTimeout(60, TimeUnit.SECONDS)
+                .addInterceptor(new ChamadaIaInterceptor(metricas, "gemini", "analisar-audio"))
                 .build();
     }
 
     public BatchPronunciationAnalysisDTO analisarPronunciaEmLote(byte[] audioBytes, List<String> palavrasEsperadas) {
-        System.out.println(">>> TENTATIVA NA API DE PRODUÇÃO (v1) <<<");
-        System.out.println("Tamanho do áudio: " + audioBytes.length + " bytes");
+        return analisarComUso(audioBytes, palavrasEsperadas).conteudo();
+    }
+
+    /**
+     * analisarPronunciaEmLote com os tokens e a latência da chamada, para a contabilidade da sessão.
+     */
+    public RespostaIa<BatchPronunciationAnalysisDTO> analisarComUso(byte[] audioBytes, List<String> palavrasEsperadas) {
+        log.debug("Análise de pronúncia em lote: {} palavras, áudio de {} bytes", palavrasEsperadas.size(), audioBytes.length);
         
         try {
-            String audioBase64 = Base64.getEncoder().encodeToString(audioBytes);
+            // O Base64 do áudio é gerado durante a escrita do JSON
             String prompt = construirPromptBatch(palavrasEsperadas);
-            String respostaGemini = chamarGeminiComAudio(prompt, audioBase64);
+            String cache = cacheContexto.nome(CACHE_ANALISE, INSTRUCAO_ANALISE).orElse(null);
+            byte[] corpo = metricas.etapa("serializacao-requisicao")
+                    .observeChecked(() -> protocolo.serializar(construirRequisicao(prompt, audioBytes, cache)));
+            RespostaIa<String> respostaGemini = metricas.etapa("requisicao-ia")
+                    .observeChecked(() -> chamarGeminiComAudio(corpo, CACHE_ANALISE, cache));
 
-            return parsearRespostaBatch(respostaGemini, palavrasEsperadas);
+            BatchPronunciationAnalysisDTO analise = metricas.etapa("parse-resposta-ia")
+                    .observeChecked(() -> parsearRespostaBatch(respostaGemini.conteudo(), palavrasEsperadas));
+            return new RespostaIa<>(analise, respostaGemini.uso());
 
         } catch (Exception e) {
-            e.printStackTrace();
             throw new RuntimeException("Erro IA: " + e.getMessage(), e);
         }
     }
 
-    private String chamarGeminiComAudio(String prompt, String audioBase64) throws IOException {
-        JsonObject requestBody = new JsonObject();
-        JsonArray contents = new JsonArray();
-        JsonObject content = new JsonObject();
-        JsonArray parts = new JsonArray();
-
-        JsonObject textPart = new JsonObject();
-        textPart.addProperty("text", prompt);
-        parts.add(textPart);
+    /**
+     * Analisa os áudios de várias sessões numa única requisição e devolve as análises na ordem recebida.
+     * Posições vazias são áudios sem análise utilizável na resposta, que o chamador deve reenviar sozinhos;
+     * falhas da chamada em si sobem como RuntimeException, como em analisarPronunciaEmLote.
+     * O uso devolvido é o da chamada inteira.
+     */
+    public RespostaIa<List<Optional<BatchPronunciationAnalysisDTO>>> analisarVariosAudios(List<AudioSessao> audios) {
+        log.debug("Análise de {} áudios numa requisição", audios.size());
 
-        JsonObject audioPart = new JsonObject();
-        JsonObject inlineData = new JsonObject();
-        inlineData.addProperty("mime_type", "audio/mp3");
-        inlineData.addProperty("data", audioBase64);
-        audioPart.add("inline_data", inlineData);
-        parts.add(audioPart);
+        try {
+            String cache = cacheContexto.nome(CACHE_ANALISE_LOTE, INSTRUCAO_ANALISE_LOTE).orElse(null);
+            byte[] corpo = metricas.etapa("serializacao-requisicao")
+                    .observeChecked(() -> protocolo.serializar(construirRequisicaoVariosAudios(audios, cache)));
+            RespostaIa<String> respostaGemini = metricas.etapa("requisicao-ia")
+                    .observeChecked(() -> chamarGeminiComAudio(corpo, CACHE_ANALISE_LOTE, cache));
 
-        content.add("parts", parts);
-        contents.add(content);
-        requestBody.add("contents", contents);
+            List<Optional<BatchPronunciationAnalysisDTO>> analises = metricas.etapa("parse-resposta-ia")
+                    .observeChecked(() -> parsearRespostaVariosAudios(respostaGemini.conteudo(), audios));
+            return new RespostaIa<>(analises, respostaGemini.uso());
 
-        JsonObject generationConfig = new JsonObject();
-        generationConfig.addProperty("temperature", 0.4);
-        requestBody.add("generationConfig", generationConfig);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro IA: " + e.getMessage(), e);
+        }
+    }
 
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json")
-        );
+    // cache é o cachedContent usado no corpo (null se a instrução foi inline)
+    private RespostaIa<String> chamarGeminiComAudio(byte[] corpo, String chaveCache, String cache) throws IOException {
+        long inicio = System.nanoTime();
+        RequestBody body = RequestBody.create(corpo, MediaType.parse("application/json"));
 
-        // --- MUDANÇA CRÍTICA: USANDO A VERSÃO v1 (PRODUÇÃO) ---
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=" + geminiApiKey;
+        String url = geminiApiUrl + "?key=" + geminiApiKey;
 
         Request request = new Request.Builder()
                 .url(url)
@@ -86,106 +158,132 @@ public class GeminiAudioAnalysisService {
                 .post(body)
                 .build();
 
-        System.out.println("Enviando para URL v1: " + url.substring(0, 55) + "...");
-
         try (Response response = httpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "Sem detalhes";
-                System.err.println(">>> ERRO GEMINI v1 (CODE " + response.code() + "): " + errorBody);
+                log.warn("Gemini respondeu {}", response.code());
+                if (cache != null) {
+                    cacheContexto.recusado(chaveCache, cache, response.code());
+                }
                 throw new IOException("Google API Error: " + response.code() + " " + errorBody);
             }
 
-            String jsonResponse = response.body().string();
-            System.out.println(">>> SUCESSO! Resposta recebida.");
-            
-            JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-
-            try {
-                return json.getAsJsonArray("candidates")
-                        .get(0).getAsJsonObject()
-                        .getAsJsonObject("content")
-                        .getAsJsonArray("parts")
-                        .get(0).getAsJsonObject()
-                        .get("text").getAsString();
-            } catch (Exception e) {
-                System.err.println("JSON inesperado: " + jsonResponse);
-                throw e;
-            }
+            ProtocoloGemini.Resposta resposta = protocolo.lerResposta(response.body().charStream());
+            return new RespostaIa<>(resposta.texto(), resposta.uso(System.nanoTime() - inicio));
+        }
+    }
+
+    ProtocoloGemini.Requisicao construirRequisicao(String prompt, byte[] audio, String cache) {
+        return ProtocoloGemini.Requisicao.de(
+                ProtocoloGemini.Configuracao.json(0.4, ESQUEMA_ANALISE),
+                ProtocoloGemini.Parte.texto(prompt),
+                ProtocoloGemini.Parte.audio("audio/mp3", audio))
+                .comInstrucao(INSTRUCAO_ANALISE, cache);
+    }
+
+    // A quantidade de áudios e, para cada um, as palavras esperadas seguidas do próprio áudio
+    ProtocoloGemini.Requisicao construirRequisicaoVariosAudios(List<AudioSessao> audios, String cache) {
+        ProtocoloGemini.Parte[] partes = new ProtocoloGemini.Parte[1 + audios.size() * 2];
+        partes[0] = ProtocoloGemini.Parte.texto(audios.size() + " áudios.");
+        for (int i = 0; i < audios.size(); i++) {
+            AudioSessao audio = audios.get(i);
+            partes[1 + i * 2] = ProtocoloGemini.Parte.texto(
+                    "Áudio " + (i + 1) + ": " + String.join(", ", audio.palavrasEsperadas()) + ".");
+            partes[2 + i * 2] = ProtocoloGemini.Parte.audio("audio/mp3", audio.audio());
         }
+        return ProtocoloGemini.Requisicao.de(ProtocoloGemini.Configuracao.json(0.4, ESQUEMA_ANALISES_LOTE), partes)
+                .comInstrucao(INSTRUCAO_ANALISE_LOTE, cache);
     }
 
-    private String construirPromptBatch(List<String> palavrasEsperadas) {
-        String listaPalavras = String.join(", ", palavrasEsperadas);
-        return "Analise a pronúncia em PT-BR: " + listaPalavras + 
-               ". Responda APENAS JSON: { \"resultados\": [ { \"palavraEsperada\": \"...\", \"palavraTranscrita\": \"...\", \"acertou\": true, \"similaridade\": 100, \"feedback\": \"...\" } ], \"feedbackGeral\": \"...\", \"pontuacaoGeral\": 100.0 }";
+    // Só a parte variável; a tarefa está em INSTRUCAO_ANALISE
+    String construirPromptBatch(List<String> palavrasEsperadas) {
+        return "Palavras esperadas: " + String.join(", ", palavrasEsperadas) + ".";
     }
 
-    private BatchPronunciationAnalysisDTO parsearRespostaBatch(String respostaGemini, List<String> palavrasEsperadas) {
+    /**
+     * Com responseSchema o texto já é o JSON da análise: decodificado direto no DTO, sem árvore intermediária.
+     * Resposta vazia ou fora do esquema sobe como IOException, para o chamador tratar como falha da chamada.
+     */
+    BatchPronunciationAnalysisDTO parsearRespostaBatch(String respostaGemini, List<String> palavrasEsperadas) throws IOException {
+        BatchPronunciationAnalysisDTO dto;
         try {
-            String jsonLimpo = respostaGemini.trim();
-            if (jsonLimpo.startsWith("```json")) {
-                int startIndex = jsonLimpo.indexOf("{");
-                int endIndex = jsonLimpo.lastIndexOf("}");
-                if (startIndex != -1 && endIndex != -1 && endIndex > startIndex) {
-                    jsonLimpo = jsonLimpo.substring(startIndex, endIndex + 1);
-                }
-            } else if (jsonLimpo.startsWith("```")) {
-                jsonLimpo = jsonLimpo.substring(3);
+            dto = leitorAnalise.readValue(respostaGemini);
+        } catch (IOException e) {
+            log.debug("Resposta do Gemini: {}", respostaGemini);
+            throw e;
+        }
+        if (dto == null) {
+            throw new IOException("Resposta do Gemini vazia");
+        }
+        return completarAnalise(dto, palavrasEsperadas);
+    }
+
+    /**
+     * Resposta fora do esquema sobe como IOException (o agrupador reenvia cada áudio sozinho);
+     * análises de índice inválido, repetido ou com quantidade de resultados diferente ficam vazias.
+     */
+    List<Optional<BatchPronunciationAnalysisDTO>> parsearRespostaVariosAudios(String respostaGemini, List<AudioSessao> audios)
+            throws IOException {
+        AnalisesLote lote;
+        try {
+            lote = leitorAnalisesLote.readValue(respostaGemini);
+        } catch (IOException e) {
+            log.debug("Resposta do Gemini com {} áudios: {}", audios.size(), respostaGemini);
+            throw e;
+        }
+        List<Optional<BatchPronunciationAnalysisDTO>> porAudio = new ArrayList<>(Collections.nCopies(audios.size(), Optional.empty()));
+        if (lote == null || lote.analises() == null) {
+            return porAudio;
+        }
+        for (AnaliseDoAudio analise : lote.analises()) {
+            int indice = analise.indice() != null ? analise.indice() : 0;
+            if (indice < 1 || indice > audios.size() || porAudio.get(indice - 1).isPresent()) {
+                continue;
             }
-            if (jsonLimpo.endsWith("```")) {
-                jsonLimpo = jsonLimpo.substring(0, jsonLimpo.length() - 3);
+            // Quantidade de resultados diferente das palavras indica análise trocada ou truncada: o áudio é reenviado
+            List<String> palavrasEsperadas = audios.get(indice - 1).palavrasEsperadas();
+            if (analise.resultados() == null || analise.resultados().size() != palavrasEsperadas.size()) {
+                continue;
             }
-            
-            JsonObject json = JsonParser.parseString(jsonLimpo).getAsJsonObject();
             BatchPronunciationAnalysisDTO dto = new BatchPronunciationAnalysisDTO();
-            
-            dto.setPalavrasEsperadas(palavrasEsperadas);
-            dto.setFeedbackGeral(json.has("feedbackGeral") ? json.get("feedbackGeral").getAsString() : "Análise ok");
-            dto.setPontuacaoGeral(json.has("pontuacaoGeral") ? json.get("pontuacaoGeral").getAsDouble() : 0.0);
-            
-            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
-            int totalAcertos = 0;
-            int totalPalavras = 0;
-
-            if (json.has("resultados") && json.get("resultados").isJsonArray()) {
-                JsonArray resultadosArray = json.getAsJsonArray("resultados");
-                totalPalavras = resultadosArray.size();
-
-                for (int i = 0; i < resultadosArray.size(); i++) {
-                    JsonObject resultadoJson = resultadosArray.get(i).getAsJsonObject();
-                    BatchPronunciationAnalysisDTO.ResultadoPalavra resultadoPalavra = new BatchPronunciationAnalysisDTO.ResultadoPalavra();
-
-                    resultadoPalavra.setPalavraEsperada(resultadoJson.has("palavraEsperada") ? resultadoJson.get("palavraEsperada").getAsString() : "");
-                    resultadoPalavra.setPalavraTranscrita(resultadoJson.has("palavraTranscrita") ? resultadoJson.get("palavraTranscrita").getAsString() : "");
-                    resultadoPalavra.setAcertou(resultadoJson.has("acertou") ? resultadoJson.get("acertou").getAsBoolean() : false);
-                    resultadoPalavra.setSimilaridade(resultadoJson.has("similaridade") ? resultadoJson.get("similaridade").getAsDouble() : 0.0);
-                    resultadoPalavra.setFeedback(resultadoJson.has("feedback") ? resultadoJson.get("feedback").getAsString() : "");
-                    
-                    if (resultadoPalavra.getAcertou()) {
-                        totalAcertos++;
-                    }
-                    resultados.add(resultadoPalavra);
-                }
-            }
-            dto.setResultados(resultados);
-            dto.setTotalAcertos(totalAcertos);
-            dto.setTotalPalavras(totalPalavras);
-            dto.setPorcentagemAcerto(totalPalavras > 0 ? (double) totalAcertos / totalPalavras * 100.0 : 0.0);
-            
-            // Assuming transcricaoCompleta is not directly provided by Gemini for now.
-            // It could be constructed by joining individual palavraTranscrita if needed.
-            dto.setTranscricaoCompleta(palavrasEsperadas.stream().collect(Collectors.joining(" ")));
+            dto.setResultados(analise.resultados());
+            dto.setFeedbackGeral(analise.feedbackGeral());
+            dto.setPontuacaoGeral(analise.pontuacaoGeral());
+            porAudio.set(indice - 1, Optional.of(completarAnalise(dto, palavrasEsperadas)));
+        }
+        return porAudio;
+    }
 
+    // Totais e valores padrão calculados aqui, não pelo modelo
+    private BatchPronunciationAnalysisDTO completarAnalise(BatchPronunciationAnalysisDTO dto, List<String> palavrasEsperadas) {
+        List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados =
+                dto.getResultados() != null ? dto.getResultados() : new ArrayList<>();
+        int totalAcertos = 0;
+        for (BatchPronunciationAnalysisDTO.ResultadoPalavra resultado : resultados) {
+            if (resultado.getAcertou() == null) {
+                resultado.setAcertou(false);
+            }
+            if (resultado.getAcertou()) {
+                totalAcertos++;
+            }
+        }
+        int totalPalavras = resultados.size();
 
-            return dto;
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Erro ao parsear resposta Gemini: " + respostaGemini);
-            // In case of parsing error, return a DTO with error feedback
-            BatchPronunciationAnalysisDTO errorDto = new BatchPronunciationAnalysisDTO();
-            errorDto.setFeedbackGeral("Erro ao processar a resposta da IA: " + e.getMessage());
-            errorDto.setResultados(new ArrayList<>());
-            return errorDto;
+        dto.setPalavrasEsperadas(palavrasEsperadas);
+        dto.setResultados(resultados);
+        if (dto.getFeedbackGeral() == null) {
+            dto.setFeedbackGeral("Análise ok");
+        }
+        if (dto.getPontuacaoGeral() == null) {
+            dto.setPontuacaoGeral(0.0);
         }
+        dto.setTotalAcertos(totalAcertos);
+        dto.setTotalPalavras(totalPalavras);
+        dto.setPorcentagemAcerto(totalPalavras > 0 ? (double) totalAcertos / totalPalavras * 100.0 : 0.0);
+        
+        // O Gemini não devolve a transcrição inteira, só a de cada palavra
+        dto.setTranscricaoCompleta(String.join(" ", palavrasEsperadas));
+
+        return dto;
     }
-}
\ No newline at end of file
+}
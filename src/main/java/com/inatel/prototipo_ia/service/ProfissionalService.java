@@ -3,21 +3,27 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.ProfissionalDtoIn;
 import com.inatel.prototipo_ia.dto.out.ProfissionalDtoOut;
 import com.inatel.prototipo_ia.entity.ProfissionalEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
 import com.inatel.prototipo_ia.repository.TratamentoRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProfissionalService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "idade", "experiencia");
+
     private final ProfissionalRepository profissionalRepository;
     private final TratamentoRepository tratamentoRepository;
     private final PasswordEncoder passwordEncoder;
@@ -47,13 +53,10 @@ public class ProfissionalService {
     }
 
     /**
-     * Busca todos os profissionais e retorna lista de DTOs de saída.
+     * Busca uma página de profissionais e retorna os DTOs de saída.
      */
-    public List<ProfissionalDtoOut> buscarTodos() {
-        return profissionalRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<ProfissionalDtoOut> buscarTodos(Pageable pageable) {
+        return profissionalRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -1,10 +1,13 @@
 package com.inatel.prototipo_ia.service;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.observabilidade.ChamadaIaInterceptor;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
 import okhttp3.*;
 import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -21,16 +24,24 @@ import java.util.stream.Collectors;
 @Service
 public class PronunciationAnalysisService {
 
+    private static final Logger log = LoggerFactory.getLogger(PronunciationAnalysisService.class);
+
     @Value("${deepgram.api.key}")
     private String deepgramApiKey;
 
+    @Value("${deepgram.api.url:https://api.deepgram.com/v1/listen}")
+    private String deepgramApiUrl;
+
     private final OkHttpClient httpClient;
     private final LevenshteinDistance levenshtein;
+    private final ObjectMapper objectMapper;
 
-    public PronunciationAnalysisService() {
+    public PronunciationAnalysisService(Metricas metricas, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
+                .addInterceptor(new ChamadaIaInterceptor(metricas, "deepgram", "transcrever-audio"))
                 .build();
         this.levenshtein = new LevenshteinDistance();
     }
@@ -39,104 +50,107 @@ public class PronunciationAnalysisService {
         try {
             // 1. Transcrição (Agora com menos viés)
             String transcricaoCompleta = transcreverAudio(audioBytes, palavrasEsperadas);
-            System.out.println("📝 Transcrição IA (O que ela ouviu): " + transcricaoCompleta);
+            log.debug("Transcrição: {}", transcricaoCompleta);
 
-            // 2. Normalização
-            List<String> palavrasTranscritas = Arrays.stream(transcricaoCompleta.split("\\s+"))
-                    .map(this::normalizarTexto)
-                    .filter(p -> !p.isEmpty())
-                    .collect(Collectors.toList());
+            return avaliarTranscricao(transcricaoCompleta, palavrasEsperadas);
 
-            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
-            int acertos = 0;
-            double somaSimilaridades = 0.0;
+        } catch (Exception e) {
+            throw new RuntimeException("Erro análise: " + e.getMessage(), e);
+        }
+    }
 
-            boolean[] palavrasUsadas = new boolean[palavrasTranscritas.size()];
+    // Normalização e pontuação da transcrição contra as palavras esperadas (sem I/O)
+    private BatchPronunciationAnalysisDTO avaliarTranscricao(String transcricaoCompleta, List<String> palavrasEsperadas) {
+        // 2. Normalização
+        List<String> palavrasTranscritas = Arrays.stream(transcricaoCompleta.split("\\s+"))
+                .map(this::normalizarTexto)
+                .filter(p -> !p.isEmpty())
+                .collect(Collectors.toList());
 
-            for (String palavraEsperada : palavrasEsperadas) {
-                String pEsperadaNorm = normalizarTexto(palavraEsperada);
-                
-                String melhorPalavraEncontrada = "";
-                double melhorScore = 0.0;
-                int indiceMelhorMatch = -1;
-
-                // Busca a melhor correspondência na frase falada
-                for (int i = 0; i < palavrasTranscritas.size(); i++) {
-                    if (palavrasUsadas[i]) continue;
-
-                    String pTranscrita = palavrasTranscritas.get(i);
-                    
-                    // Agora usamos comparação direta e fonética leve
-                    double scoreOrtografico = calcularSimilaridade(pEsperadaNorm, pTranscrita);
-                    double scoreFonetico = calcularSimilaridade(fonetizarTexto(pEsperadaNorm), fonetizarTexto(pTranscrita));
-                    
-                    // Pega o melhor dos dois mundos, mas sem exagerar
-                    double score = Math.max(scoreOrtografico, scoreFonetico);
-
-                    if (score > melhorScore) {
-                        melhorScore = score;
-                        melhorPalavraEncontrada = pTranscrita;
-                        indiceMelhorMatch = i;
-                    }
-                }
+        List<BatchPronunciationAnalysisDTO.ResultadoPalavra> resultados = new ArrayList<>();
+        int acertos = 0;
+        double somaSimilaridades = 0.0;
 
-                System.out.printf("🔍 '%s' vs '%s' -> Score: %.2f%%%n", 
-                        palavraEsperada, melhorPalavraEncontrada, melhorScore * 100);
+        boolean[] palavrasUsadas = new boolean[palavrasTranscritas.size()];
 
-                // --- CRITÉRIOS MAIS RIGOROSOS ---
-                // Só marca como usada se tiver certeza (score alto)
-                if (indiceMelhorMatch != -1 && melhorScore >= 0.6) {
-                    palavrasUsadas[indiceMelhorMatch] = true;
-                }
+        for (String palavraEsperada : palavrasEsperadas) {
+            String pEsperadaNorm = normalizarTexto(palavraEsperada);
+            
+            String melhorPalavraEncontrada = "";
+            double melhorScore = 0.0;
+            int indiceMelhorMatch = -1;
 
-                // Nota final sem arredondamento bonzinho
-                double scoreFinal = melhorScore * 100;
+            // Busca a melhor correspondência na frase falada
+            for (int i = 0; i < palavrasTranscritas.size(); i++) {
+                if (palavrasUsadas[i]) continue;
 
-                // Régua de aprovação: precisa de 80% para "Acertou"
-                boolean acertou = scoreFinal >= 80.0;
+                String pTranscrita = palavrasTranscritas.get(i);
+                
+                // Agora usamos comparação direta e fonética leve
+                double scoreOrtografico = calcularSimilaridade(pEsperadaNorm, pTranscrita);
+                double scoreFonetico = calcularSimilaridade(fonetizarTexto(pEsperadaNorm), fonetizarTexto(pTranscrita));
                 
-                if (acertou) acertos++;
-                somaSimilaridades += scoreFinal;
-
-                String feedback = gerarFeedbackPalavra(scoreFinal, palavraEsperada, melhorPalavraEncontrada);
-
-                resultados.add(new BatchPronunciationAnalysisDTO.ResultadoPalavra(
-                        palavraEsperada,
-                        melhorPalavraEncontrada.isEmpty() ? "(não identifiquei)" : melhorPalavraEncontrada,
-                        acertou,
-                        scoreFinal,
-                        feedback
-                ));
+                // Pega o melhor dos dois mundos, mas sem exagerar
+                double score = Math.max(scoreOrtografico, scoreFonetico);
+
+                if (score > melhorScore) {
+                    melhorScore = score;
+                    melhorPalavraEncontrada = pTranscrita;
+                    indiceMelhorMatch = i;
+                }
             }
 
-            double pontuacaoGeral = palavrasEsperadas.isEmpty() ? 0.0 : (somaSimilaridades / palavrasEsperadas.size());
-            double porcentagemAcerto = palavrasEsperadas.isEmpty() ? 0.0 : ((double) acertos / palavrasEsperadas.size()) * 100;
+            log.debug("'{}' vs '{}' -> score {}", palavraEsperada, melhorPalavraEncontrada, melhorScore);
 
-            String feedbackGeral = gerarFeedbackGeral(acertos, palavrasEsperadas.size(), pontuacaoGeral);
+            // --- CRITÉRIOS MAIS RIGOROSOS ---
+            // Só marca como usada se tiver certeza (score alto)
+            if (indiceMelhorMatch != -1 && melhorScore >= 0.6) {
+                palavrasUsadas[indiceMelhorMatch] = true;
+            }
 
-            BatchPronunciationAnalysisDTO resultado = new BatchPronunciationAnalysisDTO();
-            resultado.setPalavrasEsperadas(palavrasEsperadas);
-            resultado.setTranscricaoCompleta(transcricaoCompleta);
-            resultado.setResultados(resultados);
-            resultado.setPontuacaoGeral(pontuacaoGeral);
-            resultado.setTotalAcertos(acertos);
-            resultado.setTotalPalavras(palavrasEsperadas.size());
-            resultado.setPorcentagemAcerto(porcentagemAcerto);
-            resultado.setFeedbackGeral(feedbackGeral);
+            // Nota final sem arredondamento bonzinho
+            double scoreFinal = melhorScore * 100;
 
-            return resultado;
+            // Régua de aprovação: precisa de 80% para "Acertou"
+            boolean acertou = scoreFinal >= 80.0;
+            
+            if (acertou) acertos++;
+            somaSimilaridades += scoreFinal;
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Erro análise: " + e.getMessage(), e);
+            String feedback = gerarFeedbackPalavra(scoreFinal, palavraEsperada, melhorPalavraEncontrada);
+
+            resultados.add(new BatchPronunciationAnalysisDTO.ResultadoPalavra(
+                    palavraEsperada,
+                    melhorPalavraEncontrada.isEmpty() ? "(não identifiquei)" : melhorPalavraEncontrada,
+                    acertou,
+                    scoreFinal,
+                    feedback
+            ));
         }
+
+        double pontuacaoGeral = palavrasEsperadas.isEmpty() ? 0.0 : (somaSimilaridades / palavrasEsperadas.size());
+        double porcentagemAcerto = palavrasEsperadas.isEmpty() ? 0.0 : ((double) acertos / palavrasEsperadas.size()) * 100;
+
+        String feedbackGeral = gerarFeedbackGeral(acertos, palavrasEsperadas.size(), pontuacaoGeral);
+
+        BatchPronunciationAnalysisDTO resultado = new BatchPronunciationAnalysisDTO();
+        resultado.setPalavrasEsperadas(palavrasEsperadas);
+        resultado.setTranscricaoCompleta(transcricaoCompleta);
+        resultado.setResultados(resultados);
+        resultado.setPontuacaoGeral(pontuacaoGeral);
+        resultado.setTotalAcertos(acertos);
+        resultado.setTotalPalavras(palavrasEsperadas.size());
+        resultado.setPorcentagemAcerto(porcentagemAcerto);
+        resultado.setFeedbackGeral(feedbackGeral);
+
+        return resultado;
     }
 
     private String transcreverAudio(byte[] audioBytes, List<String> palavrasChave) throws IOException {
         RequestBody body = RequestBody.create(audioBytes, MediaType.parse("audio/*"));
         
         // Reduzimos o Boost para 3.0 (ajuda a identificar, mas não força alucinação)
-        StringBuilder urlBuilder = new StringBuilder("https://api.deepgram.com/v1/listen?model=nova-2&language=pt-BR&smart_format=true&punctuate=false&diarize=false");
+        StringBuilder urlBuilder = new StringBuilder(deepgramApiUrl).append("?model=nova-2&language=pt-BR&smart_format=true&punctuate=false&diarize=false");
         
         if (palavrasChave != null) {
             for (String palavra : palavrasChave) {
@@ -158,15 +172,10 @@ public class PronunciationAnalysisService {
 
         try (Response response = httpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) throw new IOException("Erro API: " + response.code());
-            String jsonResponse = response.body().string();
-            JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-            if (!json.has("results")) return "";
-            try {
-                 return json.getAsJsonObject("results")
-                    .getAsJsonArray("channels").get(0).getAsJsonObject()
-                    .getAsJsonArray("alternatives").get(0).getAsJsonObject()
-                    .get("transcript").getAsString();
-            } catch (Exception e) { return ""; }
+            return objectMapper.readTree(response.body().charStream())
+                    .path("results").path("channels").path(0)
+                    .path("alternatives").path(0)
+                    .path("transcript").asText("");
         }
     }
 
@@ -0,0 +1,216 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partes do protocolo generateContent comuns aos services do Gemini: o corpo da requisição com
+ * saída estruturada (responseMimeType + responseSchema) e a leitura do texto e dos tokens da resposta sem montar a árvore JSON.
+ * A instrução fixa de cada operação vai em systemInstruction ou, com o cache de contexto, só pelo nome do cachedContent.
+ * Cada service monta o seu a partir do ObjectMapper do Spring.
+ */
+final class ProtocoloGemini {
+
+    private final ObjectWriter escritorRequisicao;
+    private final JsonFactory fabrica;
+
+    ProtocoloGemini(ObjectMapper objectMapper) {
+        this.escritorRequisicao = objectMapper.writerFor(Requisicao.class);
+        this.fabrica = objectMapper.getFactory();
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Requisicao(String cachedContent, Conteudo systemInstruction, List<Conteudo> contents,
+                      Configuracao generationConfig) {
+
+        static Requisicao de(Configuracao configuracao, Parte... partes) {
+            return new Requisicao(null, null, List.of(new Conteudo(List.of(partes))), configuracao);
+        }
+
+        /**
+         * Com o nome de um cachedContent a instrução já está no Gemini e não é reenviada
+         * (o Gemini recusa systemInstruction junto com cachedContent); sem ele vai inline.
+         */
+        Requisicao comInstrucao(String instrucao, String cache) {
+            return cache != null
+                    ? new Requisicao(cache, null, contents, generationConfig)
+                    : new Requisicao(null, Conteudo.texto(instrucao), contents, generationConfig);
+        }
+    }
+
+    record Conteudo(List<Parte> parts) {
+
+        static Conteudo texto(String texto) {
+            return new Conteudo(List.of(Parte.texto(texto)));
+        }
+    }
+
+    /**
+     * Corpo do POST em cachedContents: a instrução fixa guardada no Gemini por ttl ("3600s").
+     */
+    record CriacaoCache(String model, Conteudo systemInstruction, String ttl) {
+    }
+
+    // Corpo do PATCH em cachedContents/{nome}?updateMask=ttl
+    record RenovacaoCache(String ttl) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Parte(String text, @JsonProperty("inline_data") DadosInline inlineData) {
+
+        static Parte texto(String texto) {
+            return new Parte(texto, null);
+        }
+
+        static Parte audio(String mimeType, byte[] audio) {
+            return new Parte(null, new DadosInline(mimeType, audio));
+        }
+    }
+
+    // byte[] é escrito em Base64 pelo Jackson direto no corpo, sem a String intermediária
+    record DadosInline(@JsonProperty("mime_type") String mimeType, byte[] data) {
+    }
+
+    /**
+     * generationConfig que obriga o modelo a responder só JSON no formato do esquema.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Configuracao(Double temperature, Integer topK, Double topP, Integer maxOutputTokens,
+                        String responseMimeType, Esquema responseSchema) {
+
+        static Configuracao json(double temperatura, Esquema esquema) {
+            return new Configuracao(temperatura, null, null, null, "application/json", esquema);
+        }
+    }
+
+    /**
+     * Esquema da resposta (subconjunto OpenAPI aceito pelo Gemini).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Esquema(String type, Map<String, Esquema> properties, List<String> required,
+                   List<String> propertyOrdering, Esquema items) {
+
+        static Esquema tipo(String tipo) {
+            return new Esquema(tipo, null, null, null, null);
+        }
+
+        static Esquema lista(Esquema itens) {
+            return new Esquema("ARRAY", null, null, null, itens);
+        }
+
+        /**
+         * Todas as propriedades são obrigatórias e seguem a ordem de declaração, a mesma dos campos lidos depois.
+         */
+        @SafeVarargs
+        static Esquema objeto(Map.Entry<String, Esquema>... propriedades) {
+            Map<String, Esquema> porNome = new LinkedHashMap<>();
+            for (Map.Entry<String, Esquema> propriedade : propriedades) {
+                porNome.put(propriedade.getKey(), propriedade.getValue());
+            }
+            List<String> nomes = List.copyOf(porNome.keySet());
+            return new Esquema("OBJECT", porNome, nomes, nomes, null);
+        }
+    }
+
+    byte[] serializar(Requisicao requisicao) throws IOException {
+        return escritorRequisicao.writeValueAsBytes(requisicao);
+    }
+
+    /**
+     * Texto do primeiro candidato e os tokens informados em usageMetadata (zero quando ausentes).
+     */
+    record Resposta(String texto, long tokensPrompt, long tokensResposta) {
+
+        UsoIa uso(long latenciaNanos) {
+            return UsoIa.chamada(tokensPrompt, tokensResposta, TimeUnit.NANOSECONDS.toMillis(latenciaNanos));
+        }
+    }
+
+    /**
+     * Lê candidates[0].content.parts[0].text e usageMetadata direto do corpo HTTP, pulando os demais campos
+     * (safetyRatings, outros candidatos...) sem materializá-los.
+     */
+    Resposta lerResposta(Reader corpo) throws IOException {
+        try (JsonParser leitor = fabrica.createParser(corpo)) {
+            if (leitor.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Resposta do Gemini não é um objeto JSON");
+            }
+            JsonStreamContext raiz = leitor.getParsingContext();
+            String texto = null;
+            long tokensPrompt = 0;
+            long tokensResposta = 0;
+            while (leitor.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = leitor.currentName();
+                leitor.nextToken();
+                if ("candidates".equals(campo)) {
+                    texto = lerTextoDoPrimeiroCandidato(leitor);
+                    // Sai de parts/content/candidato e pula os outros candidatos
+                    while (leitor.getParsingContext() != raiz) {
+                        leitor.nextToken();
+                    }
+                } else if ("usageMetadata".equals(campo) && leitor.currentToken() == JsonToken.START_OBJECT) {
+                    while (leitor.nextToken() == JsonToken.FIELD_NAME) {
+                        String contador = leitor.currentName();
+                        leitor.nextToken();
+                        if ("promptTokenCount".equals(contador)) {
+                            tokensPrompt = leitor.getValueAsLong();
+                        } else if ("candidatesTokenCount".equals(contador)) {
+                            tokensResposta = leitor.getValueAsLong();
+                        } else {
+                            leitor.skipChildren();
+                        }
+                    }
+                } else {
+                    leitor.skipChildren();
+                }
+            }
+            if (texto == null) {
+                throw new IOException("Resposta do Gemini sem candidates");
+            }
+            return new Resposta(texto, tokensPrompt, tokensResposta);
+        }
+    }
+
+    // Com o parser no início do array candidates
+    private static String lerTextoDoPrimeiroCandidato(JsonParser leitor) throws IOException {
+        if (leitor.currentToken() != JsonToken.START_ARRAY || leitor.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Resposta do Gemini com candidates vazio");
+        }
+        if (!avancarAte(leitor, "content") || leitor.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Candidato do Gemini sem content");
+        }
+        if (!avancarAte(leitor, "parts") || leitor.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Candidato do Gemini sem parts");
+        }
+        if (leitor.nextToken() != JsonToken.START_OBJECT || !avancarAte(leitor, "text")
+                || leitor.nextToken() != JsonToken.VALUE_STRING) {
+            throw new IOException("Candidato do Gemini sem text");
+        }
+        return leitor.getText();
+    }
+
+    // Avança dentro do objeto atual até o nome do campo, pulando os valores dos demais
+    private static boolean avancarAte(JsonParser leitor, String campo) throws IOException {
+        while (leitor.nextToken() == JsonToken.FIELD_NAME) {
+            if (campo.equals(leitor.currentName())) {
+                return true;
+            }
+            leitor.nextToken();
+            leitor.skipChildren();
+        }
+        return false;
+    }
+}
@@ -4,22 +4,28 @@ import com.inatel.prototipo_ia.dto.in.RelatorioDtoIn;
 import com.inatel.prototipo_ia.dto.out.RelatorioDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.RelatorioRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class RelatorioService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "acuracia");
+
     private final RelatorioRepository relatorioRepository;
     private final ChatRepository chatRepository;
     private final EspecialistaRepository especialistaRepository;
@@ -68,13 +74,10 @@ public class RelatorioService {
     }
 
     /**
-     * Busca todos os relatórios e retorna lista de DTOs de saída.
+     * Busca uma página de relatórios e retorna os DTOs de saída.
      */
-    public List<RelatorioDtoOut> buscarTodos() {
-        return relatorioRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<RelatorioDtoOut> buscarTodos(Pageable pageable) {
+        return relatorioRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     public List<RelatorioDtoOut> buscarPorClienteId(Long clienteId) {
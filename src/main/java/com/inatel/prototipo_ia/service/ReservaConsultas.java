@@ -0,0 +1,78 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
+import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Marca e remarca consultas cada uma na sua transação, repetindo quando outra reserva na mesma janela
+ * confirmou antes (lock otimista da DisponibilidadeEntity). A nova tentativa já vê a outra consulta no banco
+ * e então marca o horário ou recusa a sobreposição com IllegalStateException.
+ * A constraint de exclusão da V14 (PostgreSQL) cobre também as consultas fora das janelas.
+ */
+@Component
+public class ReservaConsultas {
+
+    static final String CONSTRAINT_SOBREPOSICAO = "ex_consulta_especialista_horario";
+
+    private final ConsultaService consultaService;
+    private final TransactionTemplate transacao;
+    private final int tentativas;
+
+    public ReservaConsultas(ConsultaService consultaService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${agenda.reserva.tentativas:5}") int tentativas) {
+        if (tentativas < 1) {
+            throw new IllegalArgumentException("A reserva precisa de ao menos uma tentativa.");
+        }
+        this.consultaService = consultaService;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tentativas = tentativas;
+    }
+
+    public ConsultaDtoOut criar(ConsultaDtoIn consulta) {
+        return comRetentativa(() -> consultaService.criar(consulta));
+    }
+
+    public ConsultaDtoOut atualizar(Long id, ConsultaDtoIn consulta) {
+        return comRetentativa(() -> consultaService.atualizar(id, consulta));
+    }
+
+    private ConsultaDtoOut comRetentativa(Supplier<ConsultaDtoOut> reserva) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transacao.execute(status -> reserva.get());
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    throw new IllegalStateException("Horário disputado por outras reservas; tente novamente.", e);
+                }
+                esperar(tentativa);
+            } catch (DataIntegrityViolationException e) {
+                String causa = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                if (causa != null && causa.contains(CONSTRAINT_SOBREPOSICAO)) {
+                    throw new IllegalStateException("O especialista já tem consulta que se sobrepõe a este horário.", e);
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Espera aleatória e crescente para as reservas que disputam a mesma janela não colidirem de novo
+    private static void esperar(int tentativa) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * tentativa + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reserva interrompida.", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.inatel.prototipo_ia.service;
+
+/**
+ * Resultado de uma chamada de IA junto com o que ela consumiu, para a contabilidade por sessão.
+ */
+public record RespostaIa<T>(T conteudo, UsoIa uso) {
+}
@@ -3,20 +3,26 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.SecretariaDtoIn;
 import com.inatel.prototipo_ia.dto.out.SecretariaDtoOut;
 import com.inatel.prototipo_ia.entity.SecretariaEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.SecretariaRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder; // Importante
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class SecretariaService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "idade", "email");
+
     private final SecretariaRepository secretariaRepository;
     private final com.inatel.prototipo_ia.repository.UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder; // Campo declarado
@@ -82,8 +88,8 @@ public class SecretariaService {
     }
     
     // Métodos de busca para evitar erros de compilação no Controller
-    public List<SecretariaDtoOut> buscarTodos() {
-        return secretariaRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+    public Page<SecretariaDtoOut> buscarTodos(Pageable pageable) {
+        return secretariaRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
     public Optional<SecretariaDtoOut> buscarPorId(Long id) {
         return secretariaRepository.findById(id).map(this::toDto);
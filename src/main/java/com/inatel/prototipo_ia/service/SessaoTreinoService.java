@@ -1,8 +1,9 @@
 package com.inatel.prototipo_ia.service;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.inatel.prototipo_ia.adapter.LocalDateTimeAdapter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.inatel.prototipo_ia.dto.in.SessaoTreinoDtoIn;
 import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
 import com.inatel.prototipo_ia.dto.out.DashboardDtoOut;
@@ -10,15 +11,24 @@ import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
 import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut.ResumoSessao;
 import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
 import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -27,33 +37,56 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class SessaoTreinoService {
 
+    private static final Logger log = LoggerFactory.getLogger(SessaoTreinoService.class);
+
+    // Corpus sem frase para a dificuldade e orçamento de IA esgotado
+    private static final String TRAVA_LINGUA_PADRAO = "O rato roeu a roupa do rei de Roma.";
+
     private final SessaoTreinoRepository sessaoRepository;
     private final ClienteRepository clienteRepository;
     private final EspecialistaRepository especialistaRepository;
     private final AIWordGeneratorService wordGeneratorService;
-    private final GeminiAudioAnalysisService geminiService;
-    private final Gson gson;
+    private final AgrupadorAnaliseAudio agrupadorAnalise;
+    private final PronunciationAnalysisService pronunciationService;
+    private final ConteudoTesteRepository conteudoTesteRepository;
+    private final ContabilidadeIa contabilidadeIa;
+    private final Metricas metricas;
+    private final ObjectReader leitorAnalise;
+    private final ObjectWriter escritorAnalise;
+    private final TransactionTemplate transacao;
 
     public SessaoTreinoService(
             SessaoTreinoRepository sessaoRepository,
             ClienteRepository clienteRepository,
             EspecialistaRepository especialistaRepository,
             AIWordGeneratorService wordGeneratorService,
-            GeminiAudioAnalysisService geminiService) {
+            AgrupadorAnaliseAudio agrupadorAnalise,
+            PronunciationAnalysisService pronunciationService,
+            ConteudoTesteRepository conteudoTesteRepository,
+            ContabilidadeIa contabilidadeIa,
+            Metricas metricas,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
         this.sessaoRepository = sessaoRepository;
         this.clienteRepository = clienteRepository;
         this.especialistaRepository = especialistaRepository;
         this.wordGeneratorService = wordGeneratorService;
-        this.geminiService = geminiService;
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .create();
+        this.agrupadorAnalise = agrupadorAnalise;
+        this.pronunciationService = pronunciationService;
+        this.conteudoTesteRepository = conteudoTesteRepository;
+        this.contabilidadeIa = contabilidadeIa;
+        this.metricas = metricas;
+        this.leitorAnalise = objectMapper.readerFor(BatchPronunciationAnalysisDTO.class);
+        this.escritorAnalise = objectMapper.writerFor(BatchPronunciationAnalysisDTO.class);
+        this.transacao = new TransactionTemplate(transactionManager);
     }
 
     // ... (campos e construtor iguais)
@@ -65,7 +98,11 @@ public class SessaoTreinoService {
         // Buscar todas as sessões finalizadas do cliente
         List<SessaoTreinoEntity> sessoes = sessaoRepository.findByClienteIdAndStatus(
                 clienteId, StatusSessao.FINALIZADA);
+        return montarDashboard(sessoes, LocalDate.now());
+    }
 
+    // Agregação do dashboard sobre as sessões finalizadas (ordena a lista recebida)
+    private static DashboardDtoOut montarDashboard(List<SessaoTreinoEntity> sessoes, LocalDate hoje) {
         // Ordenar por data (mais antiga -> mais recente)
         sessoes.sort(Comparator.comparing(SessaoTreinoEntity::getDataInicio));
 
@@ -102,7 +139,6 @@ public class SessaoTreinoService {
                     .sorted(Comparator.reverseOrder())
                     .collect(Collectors.toList());
 
-            LocalDate hoje = LocalDate.now();
             LocalDate ontem = hoje.minusDays(1);
             LocalDate ultimaData = datasTreino.get(0);
 
@@ -169,12 +205,20 @@ public class SessaoTreinoService {
         sessao.setDificuldade(dto.getDificuldade() != null ? dto.getDificuldade() : "GERAL");
         sessao.setIdadeCliente(dto.getIdade() != null ? dto.getIdade() : cliente.getIdade());
 
-        // Gera um trava-língua
-        List<String> travaLinguaList = wordGeneratorService.gerarPalavrasComIA(
-                sessao.getIdadeCliente(),
-                sessao.getDificuldade(),
-                1 // Quantidade é ignorada, mas passamos 1 por clareza
-        );
+        // Gera um trava-língua; com o orçamento de IA do cliente esgotado, sorteia uma frase do corpus
+        List<String> travaLinguaList;
+        if (contabilidadeIa.clienteDentroDoOrcamento(cliente.getId(), LocalDate.now())) {
+            RespostaIa<List<String>> gerado = wordGeneratorService.gerarPalavrasComUso(
+                    sessao.getIdadeCliente(),
+                    sessao.getDificuldade(),
+                    1 // Quantidade é ignorada, mas passamos 1 por clareza
+            );
+            contabilidadeIa.registrar(sessao, ContabilidadeIa.GERAR_TRAVA_LINGUA, gerado.uso());
+            travaLinguaList = gerado.conteudo();
+        } else {
+            contabilidadeIa.registrarRebaixamento(ContabilidadeIa.GERAR_TRAVA_LINGUA);
+            travaLinguaList = List.of(sortearFraseDoCorpus(sessao.getDificuldade()));
+        }
 
         if (travaLinguaList == null || travaLinguaList.isEmpty()) {
             throw new IllegalStateException("A IA não conseguiu gerar um trava-língua.");
@@ -202,56 +246,127 @@ public class SessaoTreinoService {
         MensagemSessaoDtoOut aguardando = MensagemSessaoDtoOut.aguardandoAudio(sessao.getId(), 1, 1);
         mensagens.add(aguardando);
 
-        sessao.setStatus(StatusSessao.AGUARDANDO_AUDIO);
+        alterarStatus(sessao, StatusSessao.AGUARDANDO_AUDIO);
         sessaoRepository.save(sessao);
 
         return mensagens;
     }
 
+    // Sessão trocada para PROCESSANDO na primeira transação, com o que a análise precisa dela
+    private record AudioEmAnalise(StatusSessao statusAnterior, List<String> palavrasEsperadas, boolean comGemini) {
+    }
+
+    // Resultado da análise fora da transação e a operação em que o uso é contabilizado
+    private record AnaliseAudio(BatchPronunciationAnalysisDTO resultado, String operacao, UsoIa uso) {
+    }
+
     /**
      * Processa o áudio do trava-língua e finaliza a sessão.
+     * A análise (janela do agrupador + chamada de IA) roda fora de transação, sem prender conexão do pool:
+     * uma transação troca a sessão para PROCESSANDO e outra grava o resultado (ou devolve para AGUARDANDO_AUDIO).
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<MensagemSessaoDtoOut> processarAudio(Long sessaoId, byte[] audioBytes, boolean usarGemini) {
-        SessaoTreinoEntity sessao = sessaoRepository.findById(sessaoId)
-                .orElseThrow(() -> new EntityNotFoundException("Sessão não encontrada: " + sessaoId));
+        AudioEmAnalise emAnalise = transacao.execute(status -> iniciarProcessamento(sessaoId));
+        if (emAnalise.statusAnterior() != StatusSessao.AGUARDANDO_AUDIO) {
+            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Sessão não está aguardando áudio. Status atual: " + emAnalise.statusAnterior()));
+        }
+
+        try {
+            // Analisa a pronúncia, junto com os áudios de outras sessões que chegarem na mesma janela
+            AnaliseAudio analise = analisarPronuncia(sessaoId, audioBytes, emAnalise);
+            return transacao.execute(status -> concluirProcessamento(sessaoId, emAnalise, analise));
 
-        if (sessao.getStatus() != StatusSessao.AGUARDANDO_AUDIO) {
-            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Sessão não está aguardando áudio. Status atual: " + sessao.getStatus()));
+        } catch (Exception e) {
+            transacao.executeWithoutResult(status -> {
+                SessaoTreinoEntity sessao = carregarSessao(sessaoId);
+                alterarStatus(sessao, StatusSessao.AGUARDANDO_AUDIO); // Volta para aguardando
+                sessaoRepository.save(sessao);
+            });
+            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Erro ao processar áudio: " + e.getMessage() + ". Por favor, tente enviar novamente."));
         }
+    }
 
-        sessao.setStatus(StatusSessao.PROCESSANDO);
+    private SessaoTreinoEntity carregarSessao(Long sessaoId) {
+        // Cada etapa vira um span filho da requisição; os comandos SQL aparecem como spans JDBC no commit
+        return metricas.etapa("carregar-sessao").observe(() -> sessaoRepository.findById(sessaoId))
+                .orElseThrow(() -> new EntityNotFoundException("Sessão não encontrada: " + sessaoId));
+    }
+
+    // Reserva a sessão para a análise e decide o caminho pelo orçamento (consulta o banco)
+    private AudioEmAnalise iniciarProcessamento(Long sessaoId) {
+        SessaoTreinoEntity sessao = carregarSessao(sessaoId);
+        StatusSessao statusAnterior = sessao.getStatus();
+        if (statusAnterior != StatusSessao.AGUARDANDO_AUDIO) {
+            return new AudioEmAnalise(statusAnterior, List.of(), false);
+        }
+        alterarStatus(sessao, StatusSessao.PROCESSANDO);
         sessaoRepository.save(sessao);
 
+        // Pega o trava-língua e quebra em palavras para análise
+        String travaLingua = sessao.getTravaLingua();
+        List<String> palavrasEsperadas = metricas.etapa("preprocessamento").observe(() ->
+                Arrays.asList(travaLingua.replaceAll("[^\\p{L}\\s]", "").toLowerCase().split("\\s+")));
+        return new AudioEmAnalise(statusAnterior, palavrasEsperadas,
+                contabilidadeIa.sessaoDentroDoOrcamento(sessao, LocalDate.now()));
+    }
+
+    // Gemini enquanto houver orçamento; depois Deepgram com a pontuação local, sem tokens
+    private AnaliseAudio analisarPronuncia(Long sessaoId, byte[] audioBytes, AudioEmAnalise emAnalise) {
+        List<String> palavrasEsperadas = emAnalise.palavrasEsperadas();
+        if (emAnalise.comGemini()) {
+            RespostaIa<BatchPronunciationAnalysisDTO> analise = agrupadorAnalise.analisar(sessaoId, audioBytes, palavrasEsperadas);
+            return new AnaliseAudio(analise.conteudo(), ContabilidadeIa.ANALISAR_AUDIO, analise.uso());
+        }
+
+        contabilidadeIa.registrarRebaixamento(ContabilidadeIa.ANALISAR_AUDIO);
+        long inicio = System.nanoTime();
+        BatchPronunciationAnalysisDTO analise = pronunciationService.analisarPronunciaEmLote(audioBytes, palavrasEsperadas);
+        return new AnaliseAudio(analise, ContabilidadeIa.TRANSCREVER_AUDIO,
+                UsoIa.chamada(0, 0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)));
+    }
+
+    private List<MensagemSessaoDtoOut> concluirProcessamento(Long sessaoId, AudioEmAnalise emAnalise, AnaliseAudio analise) {
+        SessaoTreinoEntity sessao = carregarSessao(sessaoId);
+        BatchPronunciationAnalysisDTO resultado = analise.resultado();
+        contabilidadeIa.registrar(sessao, analise.operacao(), analise.uso());
+        if (!emAnalise.comGemini()) {
+            sessao.adicionarAoHistorico("SISTEMA", "Orçamento de IA esgotado: análise pela transcrição");
+        }
+
+        sessao.adicionarAoHistorico("CLIENTE", "[ÁUDIO ENVIADO]");
         try {
-            // Pega o trava-língua e quebra em palavras para análise
-            String travaLingua = sessao.getTravaLingua();
-            List<String> palavrasEsperadas = Arrays.asList(travaLingua.replaceAll("[^\\p{L}\\s]", "").toLowerCase().split("\\s+"));
+            sessao.setResultado(metricas.etapa("serializacao-resultado").observeChecked(() -> escritorAnalise.writeValueAsString(resultado)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resultado da análise não serializável", e);
+        }
 
-            // Analisa a pronúncia
-            BatchPronunciationAnalysisDTO resultado = geminiService.analisarPronunciaEmLote(audioBytes, palavrasEsperadas);
+        // Atualiza totais
+        sessao.setTotalPalavras(resultado.getTotalPalavras() != null ? resultado.getTotalPalavras() : 0);
+        sessao.setTotalAcertos(resultado.getTotalAcertos() != null ? resultado.getTotalAcertos() : 0);
 
-            sessao.adicionarAoHistorico("CLIENTE", "[ÁUDIO ENVIADO]");
-            sessao.setResultado(gson.toJson(resultado));
-            
-            // Atualiza totais
-            sessao.setTotalPalavras(resultado.getTotalPalavras() != null ? resultado.getTotalPalavras() : 0);
-            sessao.setTotalAcertos(resultado.getTotalAcertos() != null ? resultado.getTotalAcertos() : 0);
-            
-            // Finaliza a sessão com o resultado
-            return finalizarSessao(sessao, resultado);
+        // Finaliza a sessão com o resultado
+        return metricas.etapa("finalizacao").observe(() -> finalizarSessao(sessao, resultado));
+    }
 
-        } catch (Exception e) {
-            sessao.setStatus(StatusSessao.AGUARDANDO_AUDIO); // Volta para aguardando
-            sessaoRepository.save(sessao);
-            return Collections.singletonList(MensagemSessaoDtoOut.erro(sessaoId, "Erro ao processar áudio: " + e.getMessage() + ". Por favor, tente enviar novamente."));
+    private String sortearFraseDoCorpus(String dificuldade) {
+        long total = conteudoTesteRepository.countByDificuldade(dificuldade);
+        if (total == 0) {
+            return TRAVA_LINGUA_PADRAO;
         }
+        int sorteada = (int) ThreadLocalRandom.current().nextLong(total);
+        return conteudoTesteRepository.findByDificuldadeOrderById(dificuldade, PageRequest.of(sorteada, 1)).stream()
+                .map(ConteudoTesteEntity::getTextoFrase)
+                .filter(frase -> frase != null && !frase.isBlank())
+                .findFirst()
+                .orElse(TRAVA_LINGUA_PADRAO);
     }
 
     /**
      * Finaliza a sessão e retorna o resumo.
      */
     private List<MensagemSessaoDtoOut> finalizarSessao(SessaoTreinoEntity sessao, BatchPronunciationAnalysisDTO resultadoAnalise) {
-        sessao.setStatus(StatusSessao.FINALIZADA);
+        alterarStatus(sessao, StatusSessao.FINALIZADA);
         sessao.setDataFim(LocalDateTime.now());
 
         double pontuacaoGeral = resultadoAnalise.getPontuacaoGeral() != null ? resultadoAnalise.getPontuacaoGeral() : 0.0;
@@ -344,7 +459,7 @@ public class SessaoTreinoService {
         SessaoTreinoEntity sessao = sessaoRepository.findById(sessaoId)
                 .orElseThrow(() -> new EntityNotFoundException("Sessão não encontrada: " + sessaoId));
 
-        sessao.setStatus(StatusSessao.CANCELADA);
+        alterarStatus(sessao, StatusSessao.CANCELADA);
         sessao.setDataFim(LocalDateTime.now());
         sessao.adicionarAoHistorico("SISTEMA", "Sessão cancelada pelo usuário");
         sessaoRepository.save(sessao);
@@ -359,42 +474,52 @@ public class SessaoTreinoService {
 
     public List<SessaoTreinoHistoryDtoOut> buscarHistoricoPorCliente(Long clienteId) {
         List<SessaoTreinoEntity> sessoes = sessaoRepository.findByClienteId(clienteId);
-        List<SessaoTreinoHistoryDtoOut> historico = new ArrayList<>();
+        List<SessaoTreinoHistoryDtoOut> historico = new ArrayList<>(sessoes.size());
         for (SessaoTreinoEntity s : sessoes) {
-            String feedback = null;
-            List<BatchPronunciationAnalysisDTO.ResultadoPalavra> detalhes = null;
-
-            if (s.getResultado() != null && !s.getResultado().isEmpty()) {
-                try {
-                    BatchPronunciationAnalysisDTO analise = gson.fromJson(s.getResultado(), BatchPronunciationAnalysisDTO.class);
-                    feedback = analise.getFeedbackGeral();
-                    detalhes = analise.getResultados();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    feedback = "Erro ao processar detalhes da sessão.";
-                    detalhes = new ArrayList<>();
-                    BatchPronunciationAnalysisDTO.ResultadoPalavra erro = new BatchPronunciationAnalysisDTO.ResultadoPalavra();
-                    erro.setPalavraEsperada("ERRO_SISTEMA");
-                    erro.setPalavraTranscrita("JSON Inválido");
-                    erro.setAcertou(false);
-                    erro.setFeedback("Erro: " + e.getMessage() + " | JSON: " + (s.getResultado().length() > 50 ? s.getResultado().substring(0, 50) + "..." : s.getResultado()));
-                    detalhes.add(erro);
-                }
-            }
-
-            historico.add(new SessaoTreinoHistoryDtoOut(
-                    s.getId(),
-                    s.getDataInicio(),
-                    s.getDataFim(),
-                    s.getPontuacaoGeral(),
-                    s.getTotalAcertos(),
-                    s.getTotalPalavras(),
-                    s.getDificuldade(),
-                    s.getStatus().name(),
-                    feedback,
-                    detalhes
-            ));
+            historico.add(paraHistorico(s));
         }
         return historico;
     }
+
+    // Lê o resultado gravado (JSON) de uma sessão
+    private SessaoTreinoHistoryDtoOut paraHistorico(SessaoTreinoEntity s) {
+        String feedback = null;
+        List<BatchPronunciationAnalysisDTO.ResultadoPalavra> detalhes = null;
+
+        if (s.getResultado() != null && !s.getResultado().isEmpty()) {
+            try {
+                BatchPronunciationAnalysisDTO analise = leitorAnalise.readValue(s.getResultado());
+                feedback = analise.getFeedbackGeral();
+                detalhes = analise.getResultados();
+            } catch (Exception e) {
+                log.warn("Erro ao ler o resultado da sessão {}", s.getId(), e);
+                feedback = "Erro ao processar detalhes da sessão.";
+                detalhes = new ArrayList<>();
+                BatchPronunciationAnalysisDTO.ResultadoPalavra erro = new BatchPronunciationAnalysisDTO.ResultadoPalavra();
+                erro.setPalavraEsperada("ERRO_SISTEMA");
+                erro.setPalavraTranscrita("JSON Inválido");
+                erro.setAcertou(false);
+                erro.setFeedback("Erro: " + e.getMessage() + " | JSON: " + (s.getResultado().length() > 50 ? s.getResultado().substring(0, 50) + "..." : s.getResultado()));
+                detalhes.add(erro);
+            }
+        }
+
+        return new SessaoTreinoHistoryDtoOut(
+                s.getId(),
+                s.getDataInicio(),
+                s.getDataFim(),
+                s.getPontuacaoGeral(),
+                s.getTotalAcertos(),
+                s.getTotalPalavras(),
+                s.getDificuldade(),
+                s.getStatus().name(),
+                feedback,
+                detalhes
+        );
+    }
+
+    private void alterarStatus(SessaoTreinoEntity sessao, StatusSessao novoStatus) {
+        metricas.transicaoSessao(sessao.getStatus(), novoStatus);
+        sessao.setStatus(novoStatus);
+    }
 }
@@ -4,50 +4,94 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 @Service
 public class TokenService {
 
+    private static final String EMISSOR = "API Prototipo IA";
+
     @Value("${api.security.token.secret}")
     private String secret;
     
     @Value("${api.security.token.expiration}")
     private Long expiration;
 
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados na primeira utilização e reaproveitados
+    private volatile Algorithm algoritmo;
+    private volatile JWTVerifier verificador;
+
     public String gerarToken(UsuarioEntity usuario) {
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("API Prototipo IA")
+                    .withIssuer(EMISSOR)
                     .withSubject(usuario.getLogin()) // Salva o login no token
                     .withClaim("id", usuario.getId()) // Salva o ID também
+                    .withClaim("papel", usuario.getPapel()) // Papel para montar o principal sem ir ao banco
                     .withExpiresAt(dataExpiracao())
-                    .sign(algoritmo);
+                    .sign(algoritmo());
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao gerar token JWT", exception);
         }
     }
 
     public String getSubject(String tokenJWT) {
+        return verificar(tokenJWT).getSubject();
+    }
+
+    /**
+     * Verifica o token e monta o principal direto das claims.
+     * Retorna vazio para tokens emitidos antes das claims de id/papel (precisam do usuário do banco).
+     */
+    public Optional<UsuarioAutenticado> getUsuarioAutenticado(String tokenJWT) {
+        DecodedJWT jwt = verificar(tokenJWT);
+        Claim id = jwt.getClaim("id");
+        Claim papel = jwt.getClaim("papel");
+        if (id.isMissing() || id.isNull() || papel.isMissing() || papel.isNull()) {
+            return Optional.empty();
+        }
+        return Optional.of(new UsuarioAutenticado(id.asLong(), jwt.getSubject(), papel.asString()));
+    }
+
+    // Sem cache de tokens verificados: o HMAC-SHA256 de um token curto custa o mesmo SHA-256 que
+    // seria preciso para achar a entrada no cache; o que pesava era montar o verificador a cada chamada
+    private DecodedJWT verificar(String tokenJWT) {
         try {
-            Algorithm algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("API Prototipo IA")
-                    .build()
-                    .verify(tokenJWT)
-                    .getSubject();
+            return verificador().verify(tokenJWT);
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Token JWT inválido ou expirado!");
         }
     }
 
+    private Algorithm algoritmo() {
+        Algorithm atual = algoritmo;
+        if (atual == null) {
+            atual = Algorithm.HMAC256(secret);
+            algoritmo = atual;
+        }
+        return atual;
+    }
+
+    private JWTVerifier verificador() {
+        JWTVerifier atual = verificador;
+        if (atual == null) {
+            atual = JWT.require(algoritmo()).withIssuer(EMISSOR).build();
+            verificador = atual;
+        }
+        return atual;
+    }
+
     private Instant dataExpiracao() {
         return LocalDateTime.now().plusSeconds(expiration / 1000).toInstant(ZoneOffset.of("-03:00"));
     }
@@ -5,21 +5,27 @@ import com.inatel.prototipo_ia.dto.out.TratamentoDtoOut;
 import com.inatel.prototipo_ia.entity.ConteudoTesteEntity;
 import com.inatel.prototipo_ia.entity.ProfissionalEntity;
 import com.inatel.prototipo_ia.entity.TratamentoEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
 import com.inatel.prototipo_ia.repository.TratamentoRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TratamentoService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "tipoTratamento", "quantidadeDia");
+
     private final TratamentoRepository tratamentoRepository;
     private final ProfissionalRepository profissionalRepository;
     private final ConteudoTesteRepository conteudoTesteRepository;
@@ -66,13 +72,10 @@ public class TratamentoService {
     }
 
     /**
-     * Busca todos os tratamentos e retorna lista de DTOs de saída.
+     * Busca uma página de tratamentos e retorna os DTOs de saída.
      */
-    public List<TratamentoDtoOut> buscarTodos() {
-        return tratamentoRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<TratamentoDtoOut> buscarTodos(Pageable pageable) {
+        return tratamentoRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.inatel.prototipo_ia.service;
+
+/**
+ * Consumo de uma ou mais chamadas a um provedor de IA: tokens do usageMetadata do Gemini
+ * (zero para o Deepgram) e o tempo esperando a resposta.
+ */
+public record UsoIa(int chamadas, long tokensPrompt, long tokensResposta, long latenciaMs) {
+
+    public static final UsoIa NENHUM = new UsoIa(0, 0, 0, 0);
+
+    public static UsoIa chamada(long tokensPrompt, long tokensResposta, long latenciaMs) {
+        return new UsoIa(1, tokensPrompt, tokensResposta, latenciaMs);
+    }
+
+    public long tokensTotal() {
+        return tokensPrompt + tokensResposta;
+    }
+
+    public UsoIa somar(UsoIa outro) {
+        return new UsoIa(chamadas + outro.chamadas, tokensPrompt + outro.tokensPrompt,
+                tokensResposta + outro.tokensResposta, latenciaMs + outro.latenciaMs);
+    }
+
+    /**
+     * Parte de uma chamada com vários áudios: os tokens são divididos (arredondando para cima, para não
+     * sumirem na divisão) e a latência fica inteira, pois cada sessão esperou a chamada toda.
+     */
+    public UsoIa fracao(int partes) {
+        if (partes < 1) {
+            throw new IllegalArgumentException("Partes deve ser positivo: " + partes);
+        }
+        return new UsoIa(chamadas, (tokensPrompt + partes - 1) / partes, (tokensResposta + partes - 1) / partes, latenciaMs);
+    }
+}
@@ -3,21 +3,27 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.UsuarioDtoIn;
 import com.inatel.prototipo_ia.dto.out.UsuarioDtoOut;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.paginacao.Paginacao;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ProfissionalRepository;
 import com.inatel.prototipo_ia.repository.UsuarioRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UsuarioService {
 
+    private static final Set<String> CAMPOS_ORDENAVEIS = Set.of("id", "nome", "idade");
+
     private final UsuarioRepository usuarioRepository;
     private final ClienteRepository clienteRepository;
     private final ProfissionalRepository profissionalRepository;
@@ -42,13 +48,10 @@ public class UsuarioService {
     }
 
     /**
-     * Busca todos os usuários e retorna lista de DTOs de saída.
+     * Busca uma página de usuários e retorna os DTOs de saída.
      */
-    public List<UsuarioDtoOut> buscarTodos() {
-        return usuarioRepository.findAll()
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public Page<UsuarioDtoOut> buscarTodos(Pageable pageable) {
+        return usuarioRepository.findAll(Paginacao.normalizar(pageable, CAMPOS_ORDENAVEIS)).map(this::toDto);
     }
 
     /**
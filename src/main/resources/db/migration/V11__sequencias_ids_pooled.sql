@@ -0,0 +1,23 @@
+-- V11: IDs gerados por sequências com incremento 50 (otimizador pooled-lo do Hibernate),
+-- o que libera o batch de INSERT que o IDENTITY/BIGSERIAL impedia.
+-- Com pooled-lo o valor da sequência é o início do bloco reservado pela aplicação, então
+-- INSERTs manuais que usam o DEFAULT (nextval) continuam seguros: cada um consome um bloco inteiro.
+DO $$
+DECLARE
+    tabela TEXT;
+    proximo BIGINT;
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['usuario', 'chat', 'relatorio', 'tratamento', 'disponibilidade',
+                                  'consulta', 'conteudoteste', 'certificado', 'detalheerro', 'sessaotreino']
+    LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_class WHERE relkind = 'S' AND relname = tabela || '_seq') THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) + 1 FROM %I', tabela) INTO proximo;
+            EXECUTE format('CREATE SEQUENCE %I START WITH %s INCREMENT BY 50', tabela || '_seq', proximo);
+        END IF;
+
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tabela, tabela || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', tabela || '_seq', tabela);
+        EXECUTE format('DROP SEQUENCE IF EXISTS %I', tabela || '_id_seq');
+    END LOOP;
+END
+$$;
@@ -0,0 +1,50 @@
+-- V12: Índices para as FKs e filtros usados pelos repositórios
+-- Os índices (dono_id, id) atendem os carregamentos em lote findIdsBy...In (WHERE dono IN ... ORDER BY id)
+-- com index-only scan e substituem os índices de coluna única criados nas migrações anteriores.
+-- Usuario.login já é coberto pela constraint uk_usuario_login e Relatorio.chat_id pela UNIQUE da coluna.
+
+-- Chat: findByClienteId, existsByClienteId, findIdsByClienteIdIn / findIdsByEspecialistaIdIn
+CREATE INDEX IF NOT EXISTS idx_chat_cliente_id ON Chat (cliente_id, id);
+CREATE INDEX IF NOT EXISTS idx_chat_especialista_id ON Chat (especialista_id, id);
+DROP INDEX IF EXISTS idx_chat_especialista;
+
+-- Consulta: agenda por cliente/especialista (findBy...Id, existsByEspecialistaId) e carregamentos em lote
+CREATE INDEX IF NOT EXISTS idx_consulta_cliente_id ON Consulta (cliente_id, id);
+CREATE INDEX IF NOT EXISTS idx_consulta_especialista_data ON Consulta (especialista_id, data, hora);
+DROP INDEX IF EXISTS idx_consulta_cliente;
+DROP INDEX IF EXISTS idx_consulta_especialista;
+
+-- Disponibilidade: grade do especialista e busca de horários livres (findDisponibilidadesDisponiveis)
+CREATE INDEX IF NOT EXISTS idx_disponibilidade_especialista_data ON Disponibilidade (especialista_id, data, horainicio);
+-- O predicado repete o WHERE da consulta (status é texto livre, gravado também como "Disponível")
+CREATE INDEX IF NOT EXISTS idx_disponibilidade_livre ON Disponibilidade (data, horainicio)
+    WHERE lower(status) IN ('disponível', 'disponivel', 'livre');
+DROP INDEX IF EXISTS idx_disponibilidade_especialista;
+
+-- Relatorio e Certificado: carregamentos em lote por dono
+CREATE INDEX IF NOT EXISTS idx_relatorio_especialista_id ON Relatorio (especialista_id, id);
+CREATE INDEX IF NOT EXISTS idx_certificado_cliente_id ON Certificado (cliente_id, id);
+DROP INDEX IF EXISTS idx_relatorio_especialista;
+DROP INDEX IF EXISTS idx_certificado_cliente;
+
+-- DetalheErro: findByFonemaEsperado (relatorio_id já indexado na V2)
+CREATE INDEX IF NOT EXISTS idx_detalhe_erro_fonema_esperado ON DetalheErro (fonemaesperado);
+
+-- Tratamento: findByProfissionalId, existsByProfissionalId e filtro por tipo
+CREATE INDEX IF NOT EXISTS idx_tratamento_profissional ON Tratamento (profissional_id);
+CREATE INDEX IF NOT EXISTS idx_tratamento_tipo ON Tratamento (tipotratamento);
+
+-- ConteudoTeste e Cliente: filtros de catálogo
+CREATE INDEX IF NOT EXISTS idx_conteudoteste_dificuldade_idioma ON conteudoteste (dificuldade, idioma);
+CREATE INDEX IF NOT EXISTS idx_cliente_nivel ON Cliente (nivel);
+
+-- sessaotreino: última sessão e histórico do cliente (findTopByClienteIdOrderByDataInicioDesc, findByClienteIdAndStatus)
+CREATE INDEX IF NOT EXISTS idx_sessao_cliente_data ON sessaotreino (cliente_id, data_inicio DESC);
+-- Sessões em andamento são poucas: índice parcial para findSessoesAtivasByClienteId (mesmo NOT IN da consulta)
+CREATE INDEX IF NOT EXISTS idx_sessao_cliente_ativa ON sessaotreino (cliente_id, data_inicio DESC)
+    WHERE status NOT IN ('FINALIZADA', 'CANCELADA');
+CREATE INDEX IF NOT EXISTS idx_sessao_especialista_id ON sessaotreino (especialista_id, id);
+DROP INDEX IF EXISTS idx_sessao_cliente;
+DROP INDEX IF EXISTS idx_sessao_especialista;
+-- Renomeada para data_inicio na V10; substituída pelos compostos acima
+DROP INDEX IF EXISTS idx_sessao_datainicio;
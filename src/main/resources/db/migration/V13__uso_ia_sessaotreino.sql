@@ -0,0 +1,7 @@
+-- V13: Consumo de IA por sessão (tokens do usageMetadata do Gemini e latência das chamadas)
+-- Os totais por cliente saem da soma destas colunas (ContabilidadeIa), via idx_sessao_cliente_data
+
+ALTER TABLE sessaotreino ADD COLUMN IF NOT EXISTS chamadas_ia INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE sessaotreino ADD COLUMN IF NOT EXISTS tokens_prompt BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE sessaotreino ADD COLUMN IF NOT EXISTS tokens_resposta BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE sessaotreino ADD COLUMN IF NOT EXISTS latencia_ia_ms BIGINT NOT NULL DEFAULT 0;
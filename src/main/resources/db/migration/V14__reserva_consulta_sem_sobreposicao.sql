@@ -0,0 +1,24 @@
+-- V14: Reserva de consultas sem sobreposição
+-- Consulta.fim guarda o fim do horário ocupado (data + hora + agenda.consulta.duracao-min) e a constraint de exclusão
+-- impede, no próprio INSERT/UPDATE, dois intervalos sobrepostos do mesmo especialista. Consultas canceladas liberam
+-- o horário; o coalesce mantém na constraint uma linha sem status (a coluna é NOT NULL, mas lower(NULL) NOT IN (...)
+-- seria NULL e a deixaria de fora). Intervalos [inicio, fim) encostados não se sobrepõem.
+-- Se a migração falhar na constraint há consultas sobrepostas gravadas; elas aparecem com:
+--   SELECT a.id, b.id FROM consulta a JOIN consulta b ON a.especialista_id = b.especialista_id AND a.id < b.id
+--    AND tsrange(a.data + a.hora, a.fim) && tsrange(b.data + b.hora, b.fim)
+--    AND coalesce(lower(a.status), '') NOT IN ('cancelada', 'cancelado')
+--    AND coalesce(lower(b.status), '') NOT IN ('cancelada', 'cancelado');
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE consulta ADD COLUMN IF NOT EXISTS fim TIMESTAMP;
+-- Consultas já gravadas com a duração configurada (agenda.consulta.duracao-min, placeholder do Flyway)
+UPDATE consulta SET fim = data + hora + INTERVAL '${agenda_duracao_consulta_min} minutes'
+WHERE fim IS NULL AND data IS NOT NULL AND hora IS NOT NULL;
+
+ALTER TABLE consulta ADD CONSTRAINT ex_consulta_especialista_horario
+    EXCLUDE USING gist (especialista_id WITH =, tsrange(data + hora, fim) WITH &&)
+    WHERE (fim IS NOT NULL AND coalesce(lower(status), '') NOT IN ('cancelada', 'cancelado'));
+
+-- Versão da janela para o lock otimista das reservas (DisponibilidadeEntity.version)
+ALTER TABLE disponibilidade ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
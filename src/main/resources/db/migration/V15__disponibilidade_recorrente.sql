@@ -0,0 +1,31 @@
+-- V15: Disponibilidade recorrente
+-- Uma linha por janela semanal (dia da semana + horário) com vigência, no lugar de uma linha de Disponibilidade
+-- por dia; as datas em que a janela não ocorre ficam em disponibilidade_recorrente_excecao.
+-- As ocorrências são geradas pela aplicação só para o período consultado (ver AgendaEspecialistas).
+
+CREATE SEQUENCE IF NOT EXISTS disponibilidade_recorrente_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS disponibilidade_recorrente (
+    id BIGINT PRIMARY KEY DEFAULT nextval('disponibilidade_recorrente_seq'),
+    especialista_id BIGINT NOT NULL,
+    dia_semana VARCHAR(10) NOT NULL,
+    horainicio TIME NOT NULL,
+    horafim TIME NOT NULL,
+    vigencia_inicio DATE NOT NULL,
+    vigencia_fim DATE,
+    version BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (especialista_id) REFERENCES Especialista(usuario_id),
+    CONSTRAINT ck_disponibilidade_recorrente_horario CHECK (horainicio < horafim),
+    CONSTRAINT ck_disponibilidade_recorrente_vigencia CHECK (vigencia_fim IS NULL OR vigencia_fim >= vigencia_inicio)
+);
+ALTER SEQUENCE disponibilidade_recorrente_seq OWNED BY disponibilidade_recorrente.id;
+
+-- Carga da agenda por especialista e versões das janelas de um dia da semana na reserva
+CREATE INDEX IF NOT EXISTS idx_disponibilidade_recorrente_especialista
+    ON disponibilidade_recorrente (especialista_id, dia_semana);
+
+CREATE TABLE IF NOT EXISTS disponibilidade_recorrente_excecao (
+    recorrente_id BIGINT NOT NULL REFERENCES disponibilidade_recorrente(id) ON DELETE CASCADE,
+    data DATE NOT NULL,
+    PRIMARY KEY (recorrente_id, data)
+);
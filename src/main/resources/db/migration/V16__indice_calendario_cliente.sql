@@ -0,0 +1,7 @@
+-- V16: Calendário por período (ConsultaRepository.findCalendario*, DisponibilidadeRepository.findCalendario*)
+-- Por especialista os índices (especialista_id, data, hora/horainicio) da V12 já atendem o período na ordem da resposta;
+-- sem filtro, idx_consulta_data e idx_disponibilidade_data da V2. Faltava o período da agenda do cliente.
+CREATE INDEX IF NOT EXISTS idx_consulta_cliente_data ON Consulta (cliente_id, data, hora);
+
+-- Recorrentes vigentes no período sem filtro de especialista (DisponibilidadeRecorrenteRepository.findVigentesEntreComExcecoes)
+CREATE INDEX IF NOT EXISTS idx_disponibilidade_recorrente_vigencia ON disponibilidade_recorrente (vigencia_inicio);
@@ -0,0 +1,47 @@
+package com.inatel.prototipo_ia.banco;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - TamanhoPoolConexoes
+ * Valida o tamanho do pool configurado ou derivado dos núcleos
+ */
+class TamanhoPoolConexoesTest {
+
+    @Test
+    @DisplayName("Deve derivar o tamanho dos núcleos quando configurado com 0")
+    void deveDerivarDosNucleos() {
+        assertThat(TamanhoPoolConexoes.tamanhoPara(0, 4)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Deve usar o tamanho configurado quando positivo")
+    void deveUsarTamanhoConfigurado() {
+        assertThat(TamanhoPoolConexoes.tamanhoPara(3, 16)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve ajustar o pool Hikari e limitar o mínimo ocioso ao máximo")
+    void deveAjustarPoolHikari() {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMinimumIdle(10);
+
+            new TamanhoPoolConexoes(3).postProcessBeforeInitialization(dataSource, "dataSource");
+
+            assertThat(dataSource.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(dataSource.getMinimumIdle()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tamanho negativo")
+    void deveRejeitarTamanhoNegativo() {
+        assertThatThrownBy(() -> new TamanhoPoolConexoes(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
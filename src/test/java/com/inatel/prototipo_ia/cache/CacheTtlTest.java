@@ -0,0 +1,108 @@
+package com.inatel.prototipo_ia.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - CacheTtl
+ * Valida expiração por entrada e o limite de capacidade (vencidas primeiro, depois as menos usadas)
+ */
+class CacheTtlTest {
+
+    @Test
+    @DisplayName("Deve retornar valor enquanto não expirado")
+    void deveRetornarValorNaoExpirado() {
+        CacheTtl<String, String> cache = new CacheTtl<>(10);
+        cache.guardar("a", "valor", System.currentTimeMillis() + 60_000);
+
+        assertThat(cache.buscar("a")).isEqualTo("valor");
+    }
+
+    @Test
+    @DisplayName("Deve descartar valor expirado na busca")
+    void deveDescartarValorExpirado() {
+        CacheTtl<String, String> cache = new CacheTtl<>(10);
+        cache.guardar("a", "valor", System.currentTimeMillis() - 1);
+
+        assertThat(cache.buscar("a")).isNull();
+        assertThat(cache.tamanho()).isZero();
+    }
+
+    @Test
+    @DisplayName("Não deve passar da capacidade máxima")
+    void naoDevePassarDaCapacidade() {
+        CacheTtl<Integer, Integer> cache = new CacheTtl<>(3);
+        long futuro = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 10; i++) {
+            cache.guardar(i, i, futuro);
+        }
+
+        assertThat(cache.tamanho()).isLessThanOrEqualTo(3);
+        assertThat(cache.buscar(9)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Deve liberar espaço removendo primeiro as entradas vencidas")
+    void deveRemoverVencidasAoEncher() {
+        CacheTtl<String, String> cache = new CacheTtl<>(2);
+        cache.guardar("vencida", "x", System.currentTimeMillis() - 1);
+        cache.guardar("valida", "y", System.currentTimeMillis() + 60_000);
+
+        cache.guardar("nova", "z", System.currentTimeMillis() + 60_000);
+
+        assertThat(cache.buscar("valida")).isEqualTo("y");
+        assertThat(cache.buscar("nova")).isEqualTo("z");
+    }
+
+    @Test
+    @DisplayName("Deve descartar só a entrada usada há mais tempo quando cheio de entradas válidas")
+    void deveDescartarMenosUsadaAoEncher() {
+        CacheTtl<String, String> cache = new CacheTtl<>(3);
+        long futuro = System.currentTimeMillis() + 60_000;
+        cache.guardar("a", "1", futuro);
+        cache.guardar("b", "2", futuro);
+        cache.guardar("c", "3", futuro);
+        cache.buscar("a");
+
+        cache.guardar("d", "4", futuro);
+
+        assertThat(cache.buscar("b")).isNull();
+        assertThat(cache.buscar("a")).isEqualTo("1");
+        assertThat(cache.buscar("c")).isEqualTo("3");
+        assertThat(cache.buscar("d")).isEqualTo("4");
+    }
+
+    @Test
+    @DisplayName("Deve liberar um décimo da capacidade de uma vez, mantendo as usadas recentemente")
+    void deveLiberarUmDecimoDaCapacidade() {
+        CacheTtl<Integer, Integer> cache = new CacheTtl<>(100);
+        long futuro = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 100; i++) {
+            cache.guardar(i, i, futuro);
+        }
+
+        cache.guardar(100, 100, futuro);
+
+        assertThat(cache.tamanho()).isEqualTo(91);
+        assertThat(cache.buscar(9)).isNull();
+        assertThat(cache.buscar(10)).isEqualTo(10);
+        assertThat(cache.buscar(100)).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Não deve descartar nada ao atualizar uma chave existente com o cache cheio")
+    void naoDeveDescartarAoAtualizarChaveExistente() {
+        CacheTtl<String, String> cache = new CacheTtl<>(2);
+        long futuro = System.currentTimeMillis() + 60_000;
+        cache.guardar("a", "1", futuro);
+        cache.guardar("b", "2", futuro);
+
+        cache.guardar("a", "novo", futuro);
+
+        assertThat(cache.tamanho()).isEqualTo(2);
+        assertThat(cache.buscar("a")).isEqualTo("novo");
+        assertThat(cache.buscar("b")).isEqualTo("2");
+    }
+}
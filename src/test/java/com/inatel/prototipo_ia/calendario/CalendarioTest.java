@@ -0,0 +1,63 @@
+package com.inatel.prototipo_ia.calendario;
+
+import com.inatel.prototipo_ia.json.JsonTestes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - Calendario
+ * Valida o limite do período, o agrupamento por dia e o JSON com a data como chave
+ */
+class CalendarioTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 12, 1);
+
+    @Test
+    @DisplayName("Deve aceitar de um dia até um ano")
+    void deveAceitarPeriodoValido() {
+        assertThatCode(() -> Calendario.validarPeriodo(DIA, DIA)).doesNotThrowAnyException();
+        assertThatCode(() -> Calendario.validarPeriodo(DIA, DIA.plusDays(Calendario.MAX_DIAS - 1))).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período sem datas, invertido ou longo demais")
+    void deveRejeitarPeriodoInvalido() {
+        assertThatThrownBy(() -> Calendario.validarPeriodo(null, DIA)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Calendario.validarPeriodo(DIA, DIA.minusDays(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Calendario.validarPeriodo(DIA, DIA.plusDays(Calendario.MAX_DIAS)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("366");
+    }
+
+    @Test
+    @DisplayName("Deve agrupar por dia em ordem de data, mantendo a ordem dentro do dia")
+    void deveAgruparPorDia() {
+        record Registro(LocalDate data, String nome) {
+        }
+        List<Registro> registros = List.of(
+                new Registro(DIA.plusDays(2), "c"),
+                new Registro(DIA, "a"),
+                new Registro(DIA, "b"));
+
+        SortedMap<LocalDate, List<String>> dias = Calendario.porDia(registros, Registro::data, Registro::nome);
+
+        assertThat(dias.keySet()).containsExactly(DIA, DIA.plusDays(2));
+        assertThat(dias.get(DIA)).containsExactly("a", "b");
+    }
+
+    @Test
+    @DisplayName("Deve serializar os dias como chaves ISO do objeto JSON")
+    void deveSerializarDiasComoChavesIso() throws Exception {
+        SortedMap<LocalDate, List<String>> dias = Calendario.porDia(List.of(DIA), dia -> dia, dia -> "a");
+
+        assertThat(JsonTestes.OBJECT_MAPPER.writeValueAsString(dias)).isEqualTo("{\"2025-12-01\":[\"a\"]}");
+    }
+}
@@ -0,0 +1,232 @@
+package com.inatel.prototipo_ia.carga;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servidor local que imita o Gemini e o Deepgram para os testes de carga (ver carga/README.md).
+ * Cada provedor tem latência lognormal (mediana e p99) e uma taxa de erro 503, configuradas por
+ * propriedades de sistema: stub.gemini.mediana-ms, stub.gemini.p99-ms, stub.gemini.taxa-erro e o mesmo para deepgram.
+ * A aplicação usa os stubs com GEMINI_API_URL=http://localhost:8089/gemini e DEEPGRAM_API_URL=http://localhost:8089/deepgram.
+ */
+public final class StubsIa {
+
+    static final String TRAVA_LINGUA = "O rato roeu a roupa do rei de Roma";
+
+    // Lista de palavras do prompt de GeminiAudioAnalysisService.construirPromptBatch
+    private static final Pattern PALAVRAS_PROMPT = Pattern.compile("Palavras esperadas: ([^\"]*)\\.\"");
+
+    // Instrução de cada áudio de GeminiAudioAnalysisService.construirRequisicaoVariosAudios
+    private static final Pattern PALAVRAS_AUDIO = Pattern.compile("Áudio (\\d+): ([^\"]*)\\.\"");
+
+    private static final AtomicInteger CACHES_CRIADOS = new AtomicInteger();
+
+    // z de 0,99 na normal padrão: p99 = mediana * e^(sigma * z)
+    private static final double Z_P99 = 2.326;
+
+    private StubsIa() {
+    }
+
+    /**
+     * Latência e erros simulados de um provedor.
+     */
+    record Perfil(double medianaMs, double p99Ms, double taxaErro) {
+
+        Perfil {
+            if (medianaMs < 0 || p99Ms < medianaMs) {
+                throw new IllegalArgumentException("Latência inválida: mediana " + medianaMs + " ms, p99 " + p99Ms + " ms");
+            }
+            if (taxaErro < 0 || taxaErro > 1) {
+                throw new IllegalArgumentException("Taxa de erro deve estar entre 0 e 1: " + taxaErro);
+            }
+        }
+
+        static Perfil dasPropriedades(String provedor, double medianaPadrao, double p99Padrao) {
+            return new Perfil(
+                    Double.parseDouble(System.getProperty("stub." + provedor + ".mediana-ms", String.valueOf(medianaPadrao))),
+                    Double.parseDouble(System.getProperty("stub." + provedor + ".p99-ms", String.valueOf(p99Padrao))),
+                    Double.parseDouble(System.getProperty("stub." + provedor + ".taxa-erro", "0")));
+        }
+
+        long sortearLatenciaMs(Random random) {
+            if (medianaMs == 0) {
+                return 0;
+            }
+            double sigma = Math.log(p99Ms / medianaMs) / Z_P99;
+            return Math.round(medianaMs * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        boolean sortearErro(Random random) {
+            return taxaErro > 0 && random.nextDouble() < taxaErro;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mediana %.0f ms, p99 %.0f ms, erro %.1f%%", medianaMs, p99Ms, taxaErro * 100);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int porta = Integer.getInteger("stub.porta", 8089);
+        Perfil gemini = Perfil.dasPropriedades("gemini", 1500, 6000);
+        Perfil deepgram = Perfil.dasPropriedades("deepgram", 400, 1500);
+        HttpServer servidor = iniciar(porta, gemini, deepgram);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> servidor.stop(0)));
+        System.out.println("Stubs de IA em http://localhost:" + servidor.getAddress().getPort());
+        System.out.println("  /gemini   (" + gemini + ")");
+        System.out.println("  /deepgram (" + deepgram + ")");
+    }
+
+    /**
+     * Sobe o servidor na porta indicada (0 escolhe uma porta livre).
+     */
+    static HttpServer iniciar(int porta, Perfil gemini, Perfil deepgram) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress(porta), 0);
+        servidor.createContext("/gemini", troca -> responder(troca, gemini, StubsIa::respostaGemini));
+        servidor.createContext("/deepgram", troca -> responder(troca, deepgram, corpo -> respostaDeepgram()));
+        // Cache de contexto (GEMINI_CACHE_URL=.../gemini/cachedContents): criar, renovar e excluir sempre dão certo
+        servidor.createContext("/gemini/cachedContents", troca -> responder(troca, new Perfil(0, 0, 0), corpo -> respostaCache()));
+        // As respostas dormem pela latência sorteada, então cada requisição em voo ocupa uma thread
+        servidor.setExecutor(Executors.newFixedThreadPool(Integer.getInteger("stub.threads", 256)));
+        servidor.start();
+        return servidor;
+    }
+
+    private interface Resposta {
+        ObjectNode para(String corpoRequisicao);
+    }
+
+    private static void responder(HttpExchange troca, Perfil perfil, Resposta resposta) throws IOException {
+        try (troca) {
+            String corpo;
+            try (InputStream entrada = troca.getRequestBody()) {
+                corpo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Random random = ThreadLocalRandom.current();
+            Thread.sleep(perfil.sortearLatenciaMs(random));
+
+            int status = 200;
+            ObjectNode json;
+            if (perfil.sortearErro(random)) {
+                status = 503;
+                json = JsonTestes.OBJECT_MAPPER.createObjectNode().put("error", "stub: erro simulado");
+            } else {
+                json = resposta.para(corpo);
+            }
+
+            byte[] bytes = JsonTestes.OBJECT_MAPPER.writeValueAsBytes(json);
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(status, bytes.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requisições com áudio (inline_data) recebem a análise em lote, uma por áudio quando há vários;
+     * as demais, um trava-língua.
+     */
+    static ObjectNode respostaGemini(String corpoRequisicao) {
+        String texto;
+        Map<Integer, List<String>> palavrasPorAudio = palavrasPorAudio(corpoRequisicao);
+        if (!palavrasPorAudio.isEmpty()) {
+            ObjectNode lote = JsonTestes.OBJECT_MAPPER.createObjectNode();
+            ArrayNode analises = lote.putArray("analises");
+            palavrasPorAudio.forEach((indice, palavras) -> analises.addObject().put("indice", indice)
+                    .setAll(analiseEmLote(palavras)));
+            texto = lote.toString();
+        } else if (corpoRequisicao.contains("\"inline_data\"")) {
+            texto = analiseEmLote(palavrasDoPrompt(corpoRequisicao)).toString();
+        } else {
+            texto = JsonTestes.OBJECT_MAPPER.createObjectNode().put("trava_lingua", TRAVA_LINGUA).toString();
+        }
+
+        ObjectNode resposta = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        ObjectNode candidato = resposta.putArray("candidates").addObject();
+        ObjectNode conteudo = candidato.putObject("content");
+        conteudo.putArray("parts").addObject().put("text", texto);
+        conteudo.put("role", "model");
+        candidato.put("finishReason", "STOP");
+        resposta.putObject("usageMetadata")
+                .put("promptTokenCount", corpoRequisicao.length() / 4)
+                .put("candidatesTokenCount", texto.length() / 4)
+                .put("totalTokenCount", (corpoRequisicao.length() + texto.length()) / 4);
+        return resposta;
+    }
+
+    static List<String> palavrasDoPrompt(String corpoRequisicao) {
+        List<String> palavras = new ArrayList<>();
+        Matcher matcher = PALAVRAS_PROMPT.matcher(corpoRequisicao);
+        if (matcher.find()) {
+            for (String palavra : matcher.group(1).split(", ")) {
+                palavras.add(palavra.trim());
+            }
+        }
+        return palavras;
+    }
+
+    static Map<Integer, List<String>> palavrasPorAudio(String corpoRequisicao) {
+        Map<Integer, List<String>> palavrasPorAudio = new LinkedHashMap<>();
+        Matcher matcher = PALAVRAS_AUDIO.matcher(corpoRequisicao);
+        while (matcher.find()) {
+            palavrasPorAudio.put(Integer.parseInt(matcher.group(1)), List.of(matcher.group(2).split(", ")));
+        }
+        return palavrasPorAudio;
+    }
+
+    private static ObjectNode analiseEmLote(List<String> palavras) {
+        Random random = ThreadLocalRandom.current();
+        ObjectNode analise = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        ArrayNode resultados = analise.putArray("resultados");
+        double soma = 0;
+        for (String palavra : palavras) {
+            boolean acertou = random.nextDouble() < 0.8;
+            int similaridade = acertou ? 80 + random.nextInt(21) : 30 + random.nextInt(50);
+            soma += similaridade;
+            resultados.addObject()
+                    .put("palavraEsperada", palavra)
+                    .put("palavraTranscrita", palavra)
+                    .put("acertou", acertou)
+                    .put("similaridade", similaridade)
+                    .put("feedback", acertou ? "Muito bom!" : "Tente novamente");
+        }
+        analise.put("feedbackGeral", "Análise simulada");
+        analise.put("pontuacaoGeral", palavras.isEmpty() ? 0.0 : soma / palavras.size());
+        return analise;
+    }
+
+    private static ObjectNode respostaCache() {
+        return JsonTestes.OBJECT_MAPPER.createObjectNode().put("name", "cachedContents/stub-" + CACHES_CRIADOS.incrementAndGet());
+    }
+
+    private static ObjectNode respostaDeepgram() {
+        ObjectNode resposta = JsonTestes.OBJECT_MAPPER.createObjectNode();
+        resposta.putObject("results").putArray("channels").addObject()
+                .putArray("alternatives").addObject()
+                .put("transcript", TRAVA_LINGUA.toLowerCase())
+                .put("confidence", 0.93);
+        return resposta;
+    }
+}
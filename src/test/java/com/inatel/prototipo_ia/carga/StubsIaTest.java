@@ -0,0 +1,160 @@
+package com.inatel.prototipo_ia.carga;
+
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.inatel.prototipo_ia.service.AIWordGeneratorService;
+import com.inatel.prototipo_ia.service.CacheContextoGemini;
+import com.inatel.prototipo_ia.service.GeminiAudioAnalysisService;
+import com.inatel.prototipo_ia.service.PronunciationAnalysisService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Testes Unitários - StubsIa
+ * Valida que os services de IA funcionam contra os stubs usados nos testes de carga
+ */
+class StubsIaTest {
+
+    private static final StubsIa.Perfil SEM_LATENCIA = new StubsIa.Perfil(0, 0, 0);
+
+    private HttpServer servidor;
+
+    @AfterEach
+    void tearDown() {
+        if (servidor != null) {
+            servidor.stop(0);
+        }
+    }
+
+    private String subir(StubsIa.Perfil gemini, StubsIa.Perfil deepgram) throws IOException {
+        servidor = StubsIa.iniciar(0, gemini, deepgram);
+        return "http://localhost:" + servidor.getAddress().getPort();
+    }
+
+    @Test
+    @DisplayName("Deve responder a análise em lote do Gemini com as palavras do prompt")
+    void deveResponderAnaliseEmLoteDoGemini() throws IOException {
+        String url = subir(SEM_LATENCIA, SEM_LATENCIA);
+        GeminiAudioAnalysisService service = new GeminiAudioAnalysisService(Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "geminiApiUrl", url + "/gemini");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "stub");
+
+        BatchPronunciationAnalysisDTO resultado = service.analisarPronunciaEmLote(new byte[64], List.of("rato", "roupa", "rei"));
+
+        assertThat(resultado.getTotalPalavras()).isEqualTo(3);
+        assertThat(resultado.getResultados())
+                .extracting(BatchPronunciationAnalysisDTO.ResultadoPalavra::getPalavraEsperada)
+                .containsExactly("rato", "roupa", "rei");
+    }
+
+    @Test
+    @DisplayName("Deve responder uma análise por áudio quando a requisição traz vários")
+    void deveResponderUmaAnalisePorAudio() throws IOException {
+        String url = subir(SEM_LATENCIA, SEM_LATENCIA);
+        GeminiAudioAnalysisService service = new GeminiAudioAnalysisService(Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "geminiApiUrl", url + "/gemini");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "stub");
+
+        List<Optional<BatchPronunciationAnalysisDTO>> analises = service.analisarVariosAudios(List.of(
+                new GeminiAudioAnalysisService.AudioSessao(1L, new byte[64], List.of("rato", "roupa")),
+                new GeminiAudioAnalysisService.AudioSessao(2L, new byte[64], List.of("rei", "de", "roma")))).conteudo();
+
+        assertThat(analises).allMatch(Optional::isPresent);
+        assertThat(analises.get(0).get().getPalavrasEsperadas()).containsExactly("rato", "roupa");
+        assertThat(analises.get(1).get().getResultados())
+                .extracting(BatchPronunciationAnalysisDTO.ResultadoPalavra::getPalavraEsperada)
+                .containsExactly("rei", "de", "roma");
+    }
+
+    @Test
+    @DisplayName("Deve responder um trava-língua às requisições de texto do Gemini")
+    void deveResponderTravaLingua() throws IOException {
+        String url = subir(SEM_LATENCIA, SEM_LATENCIA);
+        AIWordGeneratorService service = new AIWordGeneratorService(Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "geminiApiUrl", url + "/gemini");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "stub");
+
+        assertThat(service.gerarPalavrasComIA(8, "R", 5)).containsExactly(StubsIa.TRAVA_LINGUA);
+    }
+
+    @Test
+    @DisplayName("Deve criar o cache de contexto e analisar com ele")
+    void deveAnalisarComCacheDeContexto() throws IOException {
+        String url = subir(SEM_LATENCIA, SEM_LATENCIA);
+        CacheContextoGemini cache = new CacheContextoGemini(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, true,
+                url + "/gemini/cachedContents", "stub", "models/gemini-2.0-flash", 3600, 300);
+        GeminiAudioAnalysisService service = new GeminiAudioAnalysisService(Metricas.desligadas(), cache, JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "geminiApiUrl", url + "/gemini");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "stub");
+
+        BatchPronunciationAnalysisDTO resultado = service.analisarPronunciaEmLote(new byte[64], List.of("rato", "rei"));
+
+        assertThat(resultado.getTotalPalavras()).isEqualTo(2);
+        assertThat(cache.nome("gerar-trava-lingua", "instrução"))
+                .hasValueSatisfying(nome -> assertThat(nome).startsWith("cachedContents/stub-"));
+    }
+
+    @Test
+    @DisplayName("Deve responder a transcrição do Deepgram")
+    void deveResponderTranscricaoDoDeepgram() throws IOException {
+        String url = subir(SEM_LATENCIA, SEM_LATENCIA);
+        PronunciationAnalysisService service = new PronunciationAnalysisService(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "deepgramApiUrl", url + "/deepgram");
+        ReflectionTestUtils.setField(service, "deepgramApiKey", "stub");
+
+        BatchPronunciationAnalysisDTO resultado = service.analisarPronunciaEmLote(new byte[64], List.of("rato", "rei"));
+
+        assertThat(resultado.getTotalAcertos()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve devolver 503 conforme a taxa de erro configurada")
+    void deveDevolverErroSimulado() throws IOException {
+        String url = subir(new StubsIa.Perfil(0, 0, 1.0), SEM_LATENCIA);
+        AIWordGeneratorService service = new AIWordGeneratorService(Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+        ReflectionTestUtils.setField(service, "geminiApiUrl", url + "/gemini");
+        ReflectionTestUtils.setField(service, "geminiApiKey", "stub");
+
+        assertThatThrownBy(() -> service.gerarPalavrasComIA(8, "R", 5))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("503");
+    }
+
+    @Test
+    @DisplayName("Deve sortear latências com a mediana e o p99 configurados")
+    void deveSortearLatenciasLognormais() {
+        StubsIa.Perfil perfil = new StubsIa.Perfil(100, 800, 0);
+        Random random = new Random(42);
+        long[] amostras = new long[20_000];
+        for (int i = 0; i < amostras.length; i++) {
+            amostras[i] = perfil.sortearLatenciaMs(random);
+        }
+        Arrays.sort(amostras);
+
+        assertThat((double) amostras[amostras.length / 2]).isCloseTo(100, within(5.0));
+        assertThat((double) amostras[(int) (amostras.length * 0.99)]).isCloseTo(800, within(80.0));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar perfis inválidos")
+    void deveRejeitarPerfisInvalidos() {
+        assertThatThrownBy(() -> new StubsIa.Perfil(500, 100, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StubsIa.Perfil(100, 500, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
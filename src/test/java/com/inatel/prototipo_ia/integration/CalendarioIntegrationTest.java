@@ -0,0 +1,163 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.ConsultaEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de Integração - Calendário por período
+ *
+ * Valida no H2 as queries de período com projeção: limites inclusivos, filtros por especialista/cliente,
+ * ordem por data e hora e as recorrentes vigentes no período.
+ */
+@DisplayName("Testes de Integração - Calendário por período")
+class CalendarioIntegrationTest extends BaseIntegrationTest {
+
+    private static final LocalDate INICIO_DO_MES = LocalDate.of(2025, 12, 1);
+    private static final LocalDate FIM_DO_MES = LocalDate.of(2025, 12, 31);
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    private ClienteEntity cliente;
+    private ClienteEntity outroCliente;
+    private EspecialistaEntity especialista;
+    private EspecialistaEntity outroEspecialista;
+
+    @BeforeEach
+    void setUp() {
+        cliente = salvarCliente("cliente@teste.com");
+        outroCliente = salvarCliente("outro.cliente@teste.com");
+        especialista = salvarEspecialista("especialista@teste.com");
+        outroEspecialista = salvarEspecialista("outro.especialista@teste.com");
+    }
+
+    @Test
+    @DisplayName("Deve devolver as consultas do período com os limites inclusivos, em ordem de data e hora")
+    void deveDevolverConsultasDoPeriodo() {
+        salvarConsulta(cliente, especialista, FIM_DO_MES, "08:00");
+        salvarConsulta(cliente, especialista, INICIO_DO_MES, "15:00");
+        salvarConsulta(outroCliente, especialista, INICIO_DO_MES, "09:00");
+        salvarConsulta(cliente, outroEspecialista, INICIO_DO_MES.plusDays(3), "10:00");
+        salvarConsulta(cliente, especialista, INICIO_DO_MES.minusDays(1), "10:00");
+        salvarConsulta(cliente, especialista, FIM_DO_MES.plusDays(1), "10:00");
+
+        List<ConsultaCalendarioProjection> todas = consultaRepository.findCalendario(INICIO_DO_MES, FIM_DO_MES);
+        List<ConsultaCalendarioProjection> doEspecialista =
+                consultaRepository.findCalendarioDoEspecialista(especialista.getId(), INICIO_DO_MES, FIM_DO_MES);
+        List<ConsultaCalendarioProjection> doCliente =
+                consultaRepository.findCalendarioDoCliente(cliente.getId(), INICIO_DO_MES, FIM_DO_MES);
+
+        assertThat(todas).extracting(consulta -> consulta.getData() + " " + consulta.getHora()).containsExactly(
+                INICIO_DO_MES + " 09:00", INICIO_DO_MES + " 15:00", INICIO_DO_MES.plusDays(3) + " 10:00", FIM_DO_MES + " 08:00");
+        assertThat(doEspecialista).hasSize(3).allMatch(consulta -> consulta.getEspecialistaId().equals(especialista.getId()));
+        assertThat(doCliente).hasSize(3).allMatch(consulta -> consulta.getClienteId().equals(cliente.getId()));
+        assertThat(todas.get(0).getTipo()).isEqualTo("Avaliação");
+        assertThat(todas.get(0).getStatus()).isEqualTo("Agendada");
+    }
+
+    @Test
+    @DisplayName("Deve devolver as janelas do período e as recorrentes vigentes nele")
+    void deveDevolverJanelasERecorrentesDoPeriodo() {
+        salvarJanela(especialista, INICIO_DO_MES.plusDays(1), "14:00", "18:00");
+        salvarJanela(especialista, INICIO_DO_MES.plusDays(1), "08:00", "12:00");
+        salvarJanela(outroEspecialista, INICIO_DO_MES.plusDays(2), "08:00", "12:00");
+        salvarJanela(especialista, FIM_DO_MES.plusDays(1), "08:00", "12:00");
+        salvarRecorrente(especialista, INICIO_DO_MES.minusMonths(6), null);
+        salvarRecorrente(outroEspecialista, INICIO_DO_MES.minusMonths(6), INICIO_DO_MES.minusDays(1));
+        salvarRecorrente(outroEspecialista, FIM_DO_MES, null);
+
+        List<DisponibilidadeCalendarioProjection> doEspecialista =
+                disponibilidadeRepository.findCalendarioDoEspecialista(especialista.getId(), INICIO_DO_MES, FIM_DO_MES);
+        List<DisponibilidadeRecorrenteEntity> vigentes = recorrenteRepository.findVigentesEntreComExcecoes(INICIO_DO_MES, FIM_DO_MES);
+
+        assertThat(doEspecialista).extracting(DisponibilidadeCalendarioProjection::getHoraInicio)
+                .containsExactly(LocalTime.of(8, 0), LocalTime.of(14, 0));
+        assertThat(disponibilidadeRepository.findCalendario(INICIO_DO_MES, FIM_DO_MES)).hasSize(3);
+        // A que terminou antes do mês fica de fora; a que começa no último dia entra
+        assertThat(vigentes).hasSize(2);
+    }
+
+    // Métodos auxiliares
+    private ClienteEntity salvarCliente(String login) {
+        ClienteEntity novo = new ClienteEntity();
+        novo.setNome("Cliente Teste");
+        novo.setLogin(login);
+        novo.setSenha("senha123");
+        novo.setIdade(8);
+        return clienteRepository.save(novo);
+    }
+
+    private EspecialistaEntity salvarEspecialista(String login) {
+        EspecialistaEntity novo = new EspecialistaEntity();
+        novo.setNome("Dr. Especialista");
+        novo.setLogin(login);
+        novo.setSenha("senha123");
+        novo.setEspecialidade("Fonoaudiologia");
+        return especialistaRepository.save(novo);
+    }
+
+    private void salvarConsulta(ClienteEntity dono, EspecialistaEntity responsavel, LocalDate data, String hora) {
+        ConsultaEntity consulta = new ConsultaEntity();
+        consulta.setCliente(dono);
+        consulta.setEspecialista(responsavel);
+        consulta.setData(data);
+        consulta.setHora(LocalTime.parse(hora));
+        consulta.setTipo("Avaliação");
+        consulta.setStatus("Agendada");
+        consultaRepository.save(consulta);
+    }
+
+    private void salvarJanela(EspecialistaEntity responsavel, LocalDate data, String inicio, String fim) {
+        DisponibilidadeEntity janela = new DisponibilidadeEntity();
+        janela.setEspecialista(responsavel);
+        janela.setData(data);
+        janela.setHoraInicio(LocalTime.parse(inicio));
+        janela.setHoraFim(LocalTime.parse(fim));
+        janela.setStatus("Disponível");
+        disponibilidadeRepository.save(janela);
+    }
+
+    private void salvarRecorrente(EspecialistaEntity responsavel, LocalDate vigenciaInicio, LocalDate vigenciaFim) {
+        DisponibilidadeRecorrenteEntity recorrente = new DisponibilidadeRecorrenteEntity();
+        recorrente.setEspecialista(responsavel);
+        recorrente.setDiaSemana(DayOfWeek.MONDAY);
+        recorrente.setHoraInicio(LocalTime.of(8, 0));
+        recorrente.setHoraFim(LocalTime.of(12, 0));
+        recorrente.setVigenciaInicio(vigenciaInicio);
+        recorrente.setVigenciaFim(vigenciaFim);
+        recorrenteRepository.save(recorrente);
+    }
+}
@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 
@@ -144,7 +145,7 @@ class ChatServiceIntegrationTest extends BaseIntegrationTest {
             criarEPersistirChat(45, "Conversa 2");
             criarEPersistirChat(60, "Conversa 3");
 
-            List<ChatDtoOut> resultados = chatService.buscarTodos();
+            List<ChatDtoOut> resultados = chatService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(3);
         }
@@ -1,17 +1,22 @@
 package com.inatel.prototipo_ia.integration;
 
+import com.inatel.prototipo_ia.json.JsonTestes;
 import com.inatel.prototipo_ia.dto.in.ClienteDtoIn;
 import com.inatel.prototipo_ia.dto.out.ClienteDtoOut;
+import com.inatel.prototipo_ia.dto.out.ImportacaoDtoOut;
 import com.inatel.prototipo_ia.entity.ChatEntity;
 import com.inatel.prototipo_ia.entity.ClienteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
 import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.CertificadoRepository;
 import com.inatel.prototipo_ia.repository.UsuarioRepository;
+import com.inatel.prototipo_ia.security.CodificadorSenha;
 import com.inatel.prototipo_ia.service.ClienteService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,9 +25,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,12 +53,12 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 class ClienteServiceIntegrationTest extends BaseIntegrationTest {
 
     // @DataJpaTest não sobe todos os beans - precisa criar services manualmente
-    // Criando PasswordEncoder e ClienteService via @TestConfiguration
+    // Criando CodificadorSenha e ClienteService via @TestConfiguration
     @TestConfiguration
     static class ClienteServiceTestConfiguration {
         @Bean
-        public PasswordEncoder passwordEncoder() {
-            return new BCryptPasswordEncoder();
+        public CodificadorSenha passwordEncoder() {
+            return new CodificadorSenha(CodificadorSenha.Algoritmo.BCRYPT, 4, 2, 16);
         }
 
         @Bean
@@ -61,8 +67,9 @@ class ClienteServiceIntegrationTest extends BaseIntegrationTest {
                                              ConsultaRepository consultaRepository,
                                              CertificadoRepository certificadoRepository,
                                              UsuarioRepository usuarioRepository,
-                                             PasswordEncoder passwordEncoder) {
-            return new ClienteService(clienteRepository, chatRepository, consultaRepository, certificadoRepository, usuarioRepository, passwordEncoder);
+                                             CodificadorSenha passwordEncoder,
+                                             EntityManager entityManager) {
+            return new ClienteService(clienteRepository, chatRepository, consultaRepository, certificadoRepository, usuarioRepository, passwordEncoder, entityManager, JsonTestes.OBJECT_MAPPER);
         }
     }
 
@@ -148,13 +155,47 @@ class ClienteServiceIntegrationTest extends BaseIntegrationTest {
             clienteRepository.save(criarClienteEntity("Cliente 2", "cliente2@teste.com"));
             clienteRepository.save(criarClienteEntity("Cliente 3", "cliente3@teste.com"));
 
-            List<ClienteDtoOut> resultados = clienteService.buscarTodos();
+            List<ClienteDtoOut> resultados = clienteService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(3);
             assertThat(resultados).extracting(ClienteDtoOut::getNome)
                     .containsExactlyInAnyOrder("Cliente 1", "Cliente 2", "Cliente 3");
         }
 
+        @Test
+        @DisplayName("Deve agrupar os IDs de chats de cada cliente na busca em lote")
+        void deveAgruparChatsPorClienteNaBuscaEmLote() {
+            ClienteEntity cliente1 = clienteRepository.save(criarClienteEntity("Cliente 1", "cliente1@teste.com"));
+            ClienteEntity cliente2 = clienteRepository.save(criarClienteEntity("Cliente 2", "cliente2@teste.com"));
+
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setNome("Especialista Teste");
+            especialista.setLogin("esp@teste.com");
+            especialista.setSenha("senha");
+            especialista.setCrmFono("CRFa 000");
+            especialista.setEspecialidade("Fono");
+            especialista = especialistaRepository.save(especialista);
+
+            ChatEntity chat1 = new ChatEntity();
+            chat1.setCliente(cliente1);
+            chat1.setEspecialista(especialista);
+            chat1 = chatRepository.save(chat1);
+
+            ChatEntity chat2 = new ChatEntity();
+            chat2.setCliente(cliente1);
+            chat2.setEspecialista(especialista);
+            chat2 = chatRepository.save(chat2);
+
+            List<ClienteDtoOut> resultados = clienteService.buscarTodos(PageRequest.of(0, 20)).getContent();
+
+            ClienteDtoOut dto1 = resultados.stream().filter(c -> c.getId().equals(cliente1.getId())).findFirst().get();
+            ClienteDtoOut dto2 = resultados.stream().filter(c -> c.getId().equals(cliente2.getId())).findFirst().get();
+            assertThat(dto1.getChatIds()).containsExactly(chat1.getId(), chat2.getId());
+            assertThat(dto2.getChatIds()).isEmpty();
+            assertThat(dto2.getConsultaIds()).isEmpty();
+            assertThat(dto2.getCertificadoIds()).isEmpty();
+        }
+
         @Test
         @DisplayName("Deve buscar cliente por ID do banco")
         void deveBuscarClientePorId() {
@@ -293,6 +334,53 @@ class ClienteServiceIntegrationTest extends BaseIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Testes de Importação em Massa com Banco de Dados")
+    class ImportacaoIntegracaoTests {
+
+        @Test
+        @DisplayName("Deve importar clientes de CSV com senhas criptografadas")
+        void deveImportarClientesDeCsv() throws Exception {
+            String csv = "nome,idade,nivel,login,senha\n"
+                    + "\"Silva, Ana\",8,Básico,ana@teste.com,senha1\n"
+                    + "Bruno,10,Intermediário,bruno@teste.com,senha2\n";
+
+            ImportacaoDtoOut resultado = clienteService.importar(arquivo(csv), FormatoArquivo.CSV);
+
+            assertThat(resultado.possuiErros()).isFalse();
+            assertThat(resultado.getImportados()).isEqualTo(2);
+            List<ClienteEntity> clientes = clienteRepository.findAll();
+            assertThat(clientes).extracting(ClienteEntity::getNome).containsExactlyInAnyOrder("Silva, Ana", "Bruno");
+            assertThat(clientes).allMatch(c -> c.getSenha().startsWith("$2"));
+        }
+
+        @Test
+        @DisplayName("Não deve gravar nada quando alguma linha do NDJSON for inválida")
+        void naoDeveGravarQuandoLinhaInvalida() throws Exception {
+            clienteRepository.save(criarClienteEntity("Existente", "existente@teste.com"));
+            String ndjson = "{\"nome\":\"Carla\",\"login\":\"carla@teste.com\",\"senha\":\"x\"}\n"
+                    + "{\"nome\":\"\",\"login\":\"vazio@teste.com\"}\n"
+                    + "{\"nome\":\"Outra\",\"login\":\"existente@teste.com\"}\n"
+                    + "{\"nome\":\"Repetida\",\"login\":\"carla@teste.com\"}\n"
+                    + "{nao e json}\n";
+
+            ImportacaoDtoOut resultado = clienteService.importar(arquivo(ndjson), FormatoArquivo.NDJSON);
+
+            assertThat(resultado.getImportados()).isZero();
+            assertThat(resultado.getLinhasLidas()).isEqualTo(5);
+            assertThat(resultado.getErros()).hasSize(4);
+            assertThat(resultado.getErros()).anyMatch(e -> e.startsWith("Linha 2:"));
+            assertThat(resultado.getErros()).anyMatch(e -> e.equals("Linha 3: Login já cadastrado: existente@teste.com"));
+            assertThat(resultado.getErros()).anyMatch(e -> e.equals("Linha 4: Login repetido no arquivo: carla@teste.com"));
+            assertThat(resultado.getErros()).anyMatch(e -> e.startsWith("Linha 5: JSON inválido"));
+            assertThat(clienteRepository.count()).isEqualTo(1);
+        }
+
+        private ByteArrayResource arquivo(String conteudo) {
+            return new ByteArrayResource(conteudo.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
     // ===== Métodos auxiliares para criar dados de teste =====
     private ClienteDtoIn criarClienteDto(String nome, String login) {
         ClienteDtoIn dto = new ClienteDtoIn();
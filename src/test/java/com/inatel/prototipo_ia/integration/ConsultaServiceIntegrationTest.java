@@ -7,7 +7,10 @@ import com.inatel.prototipo_ia.entity.ConsultaEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.service.AgendaEspecialistas;
 import com.inatel.prototipo_ia.service.ConsultaService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -46,8 +50,11 @@ class ConsultaServiceIntegrationTest extends BaseIntegrationTest {
         @Bean
         public ConsultaService consultaService(ConsultaRepository consultaRepository,
                                                 ClienteRepository clienteRepository,
-                                                EspecialistaRepository especialistaRepository) {
-            return new ConsultaService(consultaRepository, clienteRepository, especialistaRepository);
+                                                EspecialistaRepository especialistaRepository,
+                                                DisponibilidadeRepository disponibilidadeRepository,
+                                                DisponibilidadeRecorrenteRepository recorrenteRepository) {
+            return new ConsultaService(consultaRepository, clienteRepository, especialistaRepository,
+                    new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, 50, 90, 60));
         }
     }
 
@@ -148,7 +155,7 @@ class ConsultaServiceIntegrationTest extends BaseIntegrationTest {
             criarEPersistirConsulta(LocalDate.now().plusDays(1), "Confirmada");
             criarEPersistirConsulta(LocalDate.now().plusDays(2), "Realizada");
 
-            List<ConsultaDtoOut> resultados = consultaService.buscarTodos();
+            List<ConsultaDtoOut> resultados = consultaService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(3);
         }
@@ -0,0 +1,184 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.dto.out.UsoIaDtoOut;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import com.inatel.prototipo_ia.service.ContabilidadeIa;
+import com.inatel.prototipo_ia.service.UsoIa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes de Integração - ContabilidadeIa
+ *
+ * Valida:
+ * - Uso de IA somado e gravado na sessão de treino
+ * - Soma dos tokens do cliente no dia (orçamento diário)
+ * - Relatório por cliente agregado pelas sessões
+ */
+@DisplayName("Testes de Integração - ContabilidadeIa")
+class ContabilidadeIaIntegrationTest extends BaseIntegrationTest {
+
+    @TestConfiguration
+    static class ContabilidadeIaTestConfiguration {
+        // Orçamento: 1000 tokens ou 5 s de IA por sessão, 1500 tokens por cliente no dia
+        @Bean
+        public ContabilidadeIa contabilidadeIa(SessaoTreinoRepository sessaoRepository) {
+            return new ContabilidadeIa(sessaoRepository, 1000, 5000, 1500);
+        }
+    }
+
+    @Autowired
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private ContabilidadeIa contabilidadeIa;
+
+    private ClienteEntity clientePadrao;
+    private EspecialistaEntity especialistaPadrao;
+
+    private final LocalDate hoje = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        sessaoRepository.deleteAll();
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+
+        clientePadrao = criarEPersistirCliente("Cliente Teste", "cliente@teste.com");
+        especialistaPadrao = criarEPersistirEspecialista("Dr. Especialista", "especialista@teste.com");
+    }
+
+    @Test
+    @DisplayName("Deve somar o uso das chamadas na sessão")
+    void deveSomarUsoNaSessao() {
+        SessaoTreinoEntity sessao = criarSessao(clientePadrao, hoje.atTime(9, 0));
+
+        contabilidadeIa.registrar(sessao, ContabilidadeIa.GERAR_TRAVA_LINGUA, UsoIa.chamada(200, 40, 800));
+        contabilidadeIa.registrar(sessao, ContabilidadeIa.ANALISAR_AUDIO, UsoIa.chamada(300, 60, 1200));
+        SessaoTreinoEntity salva = sessaoRepository.save(sessao);
+
+        SessaoTreinoEntity lida = sessaoRepository.findById(salva.getId()).orElseThrow();
+        assertThat(lida.getChamadasIa()).isEqualTo(2);
+        assertThat(lida.getTokensPrompt()).isEqualTo(500L);
+        assertThat(lida.getTokensResposta()).isEqualTo(100L);
+        assertThat(lida.getLatenciaIaMs()).isEqualTo(2000L);
+    }
+
+    @Test
+    @DisplayName("Deve barrar a sessão que esgotou os tokens ou a latência")
+    void deveBarrarSessaoQueEsgotouOrcamento() {
+        SessaoTreinoEntity porTokens = criarSessao(clientePadrao, hoje.atTime(9, 0));
+        porTokens.registrarUsoIa(3, 800, 200, 3000);
+        SessaoTreinoEntity porLatencia = criarSessao(clientePadrao, hoje.atTime(9, 0));
+        porLatencia.registrarUsoIa(2, 100, 20, 5000);
+        SessaoTreinoEntity folgada = criarSessao(clientePadrao, hoje.atTime(9, 0));
+
+        assertThat(contabilidadeIa.sessaoDentroDoOrcamento(porTokens, hoje)).isFalse();
+        assertThat(contabilidadeIa.sessaoDentroDoOrcamento(porLatencia, hoje)).isFalse();
+        assertThat(contabilidadeIa.sessaoDentroDoOrcamento(folgada, hoje)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve barrar o cliente que esgotou os tokens do dia, sem contar dias anteriores")
+    void deveBarrarClienteQueEsgotouTokensDoDia() {
+        ClienteEntity outro = criarEPersistirCliente("Outro Cliente", "outro@teste.com");
+        persistirSessaoComUso(clientePadrao, hoje.minusDays(1).atTime(15, 0), 5000, 1000);
+        persistirSessaoComUso(clientePadrao, hoje.atTime(9, 0), 700, 100);
+
+        assertThat(sessaoRepository.somarTokensDoClienteDesde(clientePadrao.getId(), hoje.atStartOfDay())).isEqualTo(800L);
+        assertThat(contabilidadeIa.clienteDentroDoOrcamento(clientePadrao.getId(), hoje)).isTrue();
+        assertThat(contabilidadeIa.clienteDentroDoOrcamento(outro.getId(), hoje)).isTrue();
+
+        persistirSessaoComUso(clientePadrao, hoje.atTime(10, 0), 600, 100);
+
+        assertThat(contabilidadeIa.clienteDentroDoOrcamento(clientePadrao.getId(), hoje)).isFalse();
+        assertThat(contabilidadeIa.clienteDentroDoOrcamento(outro.getId(), hoje)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve agregar o uso por cliente no relatório, do maior consumo para o menor")
+    void deveAgregarUsoPorClienteNoRelatorio() {
+        ClienteEntity outro = criarEPersistirCliente("Outro Cliente", "outro@teste.com");
+        persistirSessaoComUso(clientePadrao, hoje.atTime(9, 0), 100, 20);
+        persistirSessaoComUso(clientePadrao, hoje.atTime(10, 0), 200, 40);
+        persistirSessaoComUso(outro, hoje.atTime(9, 0), 900, 100);
+        persistirSessaoComUso(outro, hoje.minusDays(10).atTime(9, 0), 5000, 500);
+
+        contabilidadeIa.registrarRebaixamento(ContabilidadeIa.ANALISAR_AUDIO);
+        UsoIaDtoOut relatorio = contabilidadeIa.relatorio(hoje.minusDays(1));
+
+        assertThat(relatorio.getOrcamento().getTokensPorClienteDia()).isEqualTo(1500L);
+        assertThat(relatorio.getClientes()).extracting(UsoIaDtoOut.Cliente::getNome)
+                .containsExactly("Outro Cliente", "Cliente Teste");
+        UsoIaDtoOut.Cliente cliente = relatorio.getClientes().get(1);
+        assertThat(cliente.getSessoes()).isEqualTo(2L);
+        assertThat(cliente.getTokensPrompt()).isEqualTo(300L);
+        assertThat(cliente.getTokensResposta()).isEqualTo(60L);
+        assertThat(relatorio.getOperacoes()).extracting(UsoIaDtoOut.Operacao::getOperacao)
+                .contains(ContabilidadeIa.ANALISAR_AUDIO);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar limites negativos")
+    void deveRejeitarLimitesNegativos() {
+        assertThatThrownBy(() -> new ContabilidadeIa(sessaoRepository, -1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Métodos auxiliares
+    private SessaoTreinoEntity criarSessao(ClienteEntity cliente, LocalDateTime inicio) {
+        SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+        sessao.setCliente(cliente);
+        sessao.setEspecialista(especialistaPadrao);
+        sessao.setDificuldade("facil");
+        sessao.setIdadeCliente(8);
+        sessao.setDataInicio(inicio);
+        return sessao;
+    }
+
+    private SessaoTreinoEntity persistirSessaoComUso(ClienteEntity cliente, LocalDateTime inicio,
+                                                     long tokensPrompt, long tokensResposta) {
+        SessaoTreinoEntity sessao = criarSessao(cliente, inicio);
+        sessao.registrarUsoIa(1, tokensPrompt, tokensResposta, 1000);
+        return sessaoRepository.save(sessao);
+    }
+
+    private ClienteEntity criarEPersistirCliente(String nome, String login) {
+        ClienteEntity cliente = new ClienteEntity();
+        cliente.setNome(nome);
+        cliente.setLogin(login);
+        cliente.setSenha("senha123");
+        cliente.setIdade(8);
+        return clienteRepository.save(cliente);
+    }
+
+    private EspecialistaEntity criarEPersistirEspecialista(String nome, String login) {
+        EspecialistaEntity especialista = new EspecialistaEntity();
+        especialista.setNome(nome);
+        especialista.setLogin(login);
+        especialista.setSenha("senha123");
+        especialista.setEspecialidade("Fonoaudiologia");
+        return especialistaRepository.save(especialista);
+    }
+}
@@ -0,0 +1,126 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.VersaoJanelaProjection;
+import com.inatel.prototipo_ia.service.AgendaEspecialistas;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de Integração - Disponibilidade recorrente
+ *
+ * Valida no H2:
+ * - Carga das recorrentes com as exceções numa query só
+ * - Versões das recorrentes que cobrem um horário (lock otimista da reserva)
+ * - Agenda gerando as ocorrências a partir das linhas gravadas
+ */
+@DisplayName("Testes de Integração - Disponibilidade recorrente")
+class DisponibilidadeRecorrenteIntegrationTest extends BaseIntegrationTest {
+
+    // Segunda-feira
+    private static final LocalDate SEGUNDA = LocalDate.of(2025, 12, 15);
+
+    @Autowired
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private EspecialistaEntity especialista;
+
+    @BeforeEach
+    void setUp() {
+        especialista = new EspecialistaEntity();
+        especialista.setNome("Dr. Especialista");
+        especialista.setLogin("especialista@teste.com");
+        especialista.setSenha("senha123");
+        especialista.setEspecialidade("Fonoaudiologia");
+        especialista = especialistaRepository.save(especialista);
+    }
+
+    private DisponibilidadeRecorrenteEntity salvar(DayOfWeek diaSemana, String inicio, String fim, LocalDate vigenciaFim, LocalDate... excecoes) {
+        DisponibilidadeRecorrenteEntity recorrente = new DisponibilidadeRecorrenteEntity();
+        recorrente.setEspecialista(especialista);
+        recorrente.setDiaSemana(diaSemana);
+        recorrente.setHoraInicio(LocalTime.parse(inicio));
+        recorrente.setHoraFim(LocalTime.parse(fim));
+        recorrente.setVigenciaInicio(SEGUNDA);
+        recorrente.setVigenciaFim(vigenciaFim);
+        recorrente.getExcecoes().addAll(List.of(excecoes));
+        return recorrenteRepository.save(recorrente);
+    }
+
+    @Test
+    @DisplayName("Deve carregar as recorrentes do especialista com as exceções")
+    void deveCarregarRecorrentesComExcecoes() {
+        salvar(DayOfWeek.MONDAY, "08:00", "12:00", null, SEGUNDA.plusWeeks(1), SEGUNDA.plusWeeks(2));
+        salvar(DayOfWeek.WEDNESDAY, "14:00", "18:00", SEGUNDA.plusWeeks(4));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DisponibilidadeRecorrenteEntity> recorrentes = recorrenteRepository.findByEspecialistaIdComExcecoes(especialista.getId());
+
+        assertThat(recorrentes).hasSize(2);
+        assertThat(recorrentes.get(0).getExcecoes()).containsExactlyInAnyOrder(SEGUNDA.plusWeeks(1), SEGUNDA.plusWeeks(2));
+        assertThat(recorrentes.get(1).getExcecoes()).isEmpty();
+        assertThat(recorrenteRepository.findEspecialistaIdsComRecorrenciaEntre(SEGUNDA.plusWeeks(8), SEGUNDA.plusWeeks(9)))
+                .containsExactly(especialista.getId());
+        assertThat(recorrenteRepository.findEspecialistaIdsComRecorrenciaEntre(SEGUNDA.minusWeeks(2), SEGUNDA.minusDays(1)))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve achar só as recorrentes vigentes no dia da semana que cruzam o horário")
+    void deveAcharVersoesDasRecorrentesQueCobremOHorario() {
+        DisponibilidadeRecorrenteEntity manha = salvar(DayOfWeek.MONDAY, "08:00", "12:00", null);
+        salvar(DayOfWeek.MONDAY, "14:00", "18:00", null);
+        salvar(DayOfWeek.TUESDAY, "08:00", "12:00", null);
+        entityManager.flush();
+
+        List<VersaoJanelaProjection> versoes = recorrenteRepository.findVersoesDasJanelasEntre(
+                especialista.getId(), DayOfWeek.MONDAY, SEGUNDA.plusWeeks(3), LocalTime.of(11, 30), LocalTime.of(12, 20));
+
+        assertThat(versoes).extracting(VersaoJanelaProjection::getId).containsExactly(manha.getId());
+        assertThat(recorrenteRepository.incrementarVersao(manha.getId(), versoes.get(0).getVersion())).isEqualTo(1);
+        assertThat(recorrenteRepository.incrementarVersao(manha.getId(), versoes.get(0).getVersion())).isZero();
+        assertThat(recorrenteRepository.findVersoesDasJanelasEntre(
+                especialista.getId(), DayOfWeek.MONDAY, SEGUNDA.minusWeeks(1), LocalTime.of(9, 0), LocalTime.of(9, 50))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve gerar os horários livres das recorrentes gravadas, sem as exceções")
+    void deveGerarHorariosLivresDasRecorrentes() {
+        salvar(DayOfWeek.MONDAY, "08:00", "10:00", null, SEGUNDA.plusWeeks(1));
+        entityManager.flush();
+        entityManager.clear();
+        AgendaEspecialistas agenda = new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, 50, 90, 60);
+
+        List<AgendaEspecialistas.HorarioLivre> livres = agenda.horariosLivres(especialista.getId(), SEGUNDA, SEGUNDA.plusWeeks(2));
+
+        assertThat(livres).extracting(livre -> livre.inicio().toLocalDate()).containsExactly(SEGUNDA, SEGUNDA.plusWeeks(2));
+    }
+}
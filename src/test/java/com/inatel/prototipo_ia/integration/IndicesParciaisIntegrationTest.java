@@ -0,0 +1,136 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de Integração - índices da V12 nas consultas dos repositórios
+ *
+ * Valida, com EXPLAIN no SQL que o Hibernate gera para o repositório:
+ * - Predicado dos índices parciais casando com o WHERE da consulta (senão o planner não pode usá-los)
+ * - Status gravados com acento e maiúsculas pelos serviços ("Disponível") cobertos pela consulta e pelo índice
+ *
+ * Tabelas com milhares de linhas e estatísticas atualizadas: o plano é o que o Postgres escolheria em produção.
+ */
+@DisplayName("Testes de Integração - Índices parciais no PostgreSQL")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.inatel.prototipo_ia.integration.SqlCapturado")
+class IndicesParciaisIntegrationTest extends BasePostgresIntegrationTest {
+
+    private static final int LINHAS = 20_000;
+    private static final long PRIMEIRO_ID = 1_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    private ClienteEntity cliente;
+    private EspecialistaEntity especialista;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new ClienteEntity();
+        cliente.setNome("Cliente Teste");
+        cliente.setLogin("cliente.indices@teste.com");
+        cliente.setSenha("senha123");
+        cliente.setIdade(8);
+        cliente = clienteRepository.save(cliente);
+
+        especialista = new EspecialistaEntity();
+        especialista.setNome("Dr. Índices");
+        especialista.setLogin("especialista.indices@teste.com");
+        especialista.setSenha("senha123");
+        especialista.setEspecialidade("Fonoaudiologia");
+        especialista = especialistaRepository.save(especialista);
+
+        // Histórico longo do cliente, só as 3 últimas sessões ainda em andamento
+        jdbcTemplate.update("INSERT INTO sessaotreino (id, cliente_id, especialista_id, dificuldade, idade_cliente, status, data_inicio) "
+                        + "SELECT ? + g, ?, ?, 'FACIL', 8, "
+                        + "CASE WHEN g > ? - 3 THEN 'AGUARDANDO_AUDIO' WHEN g % 10 = 0 THEN 'CANCELADA' ELSE 'FINALIZADA' END, "
+                        + "TIMESTAMP '2025-01-01' + g * INTERVAL '1 hour' FROM generate_series(1, ?) g",
+                PRIMEIRO_ID, cliente.getId(), especialista.getId(), LINHAS, LINHAS);
+        // Grade quase toda ocupada; as janelas abertas com a grafia de cada origem (serviço, recorrência, legado)
+        jdbcTemplate.update("INSERT INTO disponibilidade (id, especialista_id, data, horainicio, horafim, status) "
+                        + "SELECT ? + g, ?, DATE '2025-01-01' + g / 10, TIME '08:00' + (g % 10) * INTERVAL '1 hour', "
+                        + "TIME '09:00' + (g % 10) * INTERVAL '1 hour', "
+                        + "CASE g WHEN 1 THEN 'disponível' WHEN 2 THEN 'Disponível' WHEN 3 THEN 'disponivel' WHEN 4 THEN 'Livre' "
+                        + "ELSE 'Ocupada' END FROM generate_series(1, ?) g",
+                PRIMEIRO_ID, especialista.getId(), LINHAS);
+        jdbcTemplate.execute("ANALYZE sessaotreino");
+        jdbcTemplate.execute("ANALYZE disponibilidade");
+        SqlCapturado.limpar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM sessaotreino WHERE cliente_id = ?", cliente.getId());
+        jdbcTemplate.update("DELETE FROM disponibilidade WHERE especialista_id = ?", especialista.getId());
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Sessões ativas do cliente devem usar o índice parcial idx_sessao_cliente_ativa")
+    void sessoesAtivasDevemUsarIndiceParcial() {
+        List<SessaoTreinoEntity> ativas = sessaoRepository.findSessoesAtivasByClienteId(cliente.getId());
+
+        assertThat(ativas).hasSize(3);
+        assertThat(plano(SqlCapturado.primeiroSelect(), cliente.getId())).contains("idx_sessao_cliente_ativa");
+    }
+
+    @Test
+    @DisplayName("Última sessão do cliente deve usar o índice idx_sessao_cliente_data")
+    void ultimaSessaoDeveUsarIndiceDoCliente() {
+        Optional<SessaoTreinoEntity> ultima = sessaoRepository.findTopByClienteIdOrderByDataInicioDesc(cliente.getId());
+
+        assertThat(ultima).map(SessaoTreinoEntity::getId).contains(PRIMEIRO_ID + LINHAS);
+        assertThat(plano(SqlCapturado.primeiroSelect(), cliente.getId(), 1)).contains("idx_sessao_cliente_data");
+    }
+
+    @Test
+    @DisplayName("Janelas disponíveis devem vir em qualquer grafia do status e usar o índice parcial idx_disponibilidade_livre")
+    void janelasDisponiveisDevemUsarIndiceParcial() {
+        List<DisponibilidadeEntity> disponiveis = disponibilidadeRepository.findDisponibilidadesDisponiveis();
+
+        assertThat(disponiveis).extracting(DisponibilidadeEntity::getStatus)
+                .containsExactlyInAnyOrder("disponível", "Disponível", "disponivel", "Livre");
+        assertThat(plano(SqlCapturado.primeiroSelect())).contains("idx_disponibilidade_livre");
+    }
+
+    // Métodos auxiliares
+    private String plano(String sql, Object... parametros) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+    }
+}
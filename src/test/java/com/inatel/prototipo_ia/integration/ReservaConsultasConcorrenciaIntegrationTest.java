@@ -0,0 +1,318 @@
+package com.inatel.prototipo_ia.integration;
+
+import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.ConsultaEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.service.AgendaEspecialistas;
+import com.inatel.prototipo_ia.service.ConsultaService;
+import com.inatel.prototipo_ia.service.ReservaConsultas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes de Integração - ReservaConsultas sob concorrência
+ *
+ * Valida:
+ * - Duas "instâncias" da aplicação (cada uma com sua agenda em memória) reservando no mesmo banco
+ * - Milhares de reservas paralelas sem nenhuma consulta sobreposta gravada
+ * - Agenda desatualizada de uma instância não deixa passar horário já confirmado pela outra
+ * - Constraint de exclusão da V14 recusando a sobreposição que não passou pela agenda
+ *
+ * No PostgreSQL com as migrações, não no H2: a constraint de exclusão só existe lá.
+ * Sem a transação do @DataJpaTest: cada reserva confirma na sua, como na aplicação.
+ */
+@DisplayName("Testes de Integração - ReservaConsultas sob concorrência")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservaConsultasConcorrenciaIntegrationTest extends BasePostgresIntegrationTest {
+
+    private static final int DURACAO_MIN = 50;
+    private static final LocalDate DIA = LocalDate.now().plusDays(7);
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EspecialistaRepository especialistaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReservaConsultas instanciaA;
+    private ReservaConsultas instanciaB;
+    private AgendaEspecialistas agendaB;
+
+    private ClienteEntity cliente;
+    private final List<EspecialistaEntity> especialistas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        limpar();
+        AgendaEspecialistas agendaA = novaAgenda();
+        agendaB = novaAgenda();
+        instanciaA = novaInstancia(agendaA);
+        instanciaB = novaInstancia(agendaB);
+
+        cliente = new ClienteEntity();
+        cliente.setNome("Cliente Teste");
+        cliente.setLogin("cliente@teste.com");
+        cliente.setSenha("senha123");
+        cliente.setIdade(8);
+        cliente = clienteRepository.save(cliente);
+
+        especialistas.clear();
+        for (int i = 0; i < 8; i++) {
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setNome("Dr. Especialista " + i);
+            especialista.setLogin("especialista" + i + "@teste.com");
+            especialista.setSenha("senha123");
+            especialista.setEspecialidade("Fonoaudiologia");
+            especialista = especialistaRepository.save(especialista);
+            especialistas.add(especialista);
+            // Duas janelas encostadas: consultas perto das 12:00 cruzam as duas
+            salvarJanela(especialista, "08:00", "12:00");
+            salvarJanela(especialista, "12:00", "18:00");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    private void limpar() {
+        consultaRepository.deleteAll();
+        disponibilidadeRepository.deleteAll();
+        especialistaRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    private AgendaEspecialistas novaAgenda() {
+        return new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, DURACAO_MIN, 90, 60);
+    }
+
+    private ReservaConsultas novaInstancia(AgendaEspecialistas agenda) {
+        ConsultaService consultaService = new ConsultaService(consultaRepository, clienteRepository, especialistaRepository, agenda);
+        return new ReservaConsultas(consultaService, transactionManager, 50);
+    }
+
+    @Test
+    @DisplayName("Deve confirmar só uma de muitas reservas simultâneas no mesmo horário")
+    void deveConfirmarSoUmaReservaNoMesmoHorario() throws Exception {
+        EspecialistaEntity especialista = especialistas.get(0);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Callable<Boolean>> reservas = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ReservaConsultas instancia = i % 2 == 0 ? instanciaA : instanciaB;
+            reservas.add(() -> {
+                largada.await();
+                return reservar(instancia, especialista, LocalTime.of(10, 0));
+            });
+        }
+
+        List<Boolean> resultados = executar(reservas, 16, largada);
+
+        assertThat(resultados).filteredOn(Boolean::booleanValue).hasSize(1);
+        assertThat(consultaRepository.findByEspecialistaId(especialista.getId())).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Não deve gravar consultas sobrepostas em milhares de reservas paralelas")
+    void naoDeveGravarConsultasSobrepostas() throws Exception {
+        Random aleatorio = new Random(42);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Callable<Boolean>> reservas = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            ReservaConsultas instancia = i % 2 == 0 ? instanciaA : instanciaB;
+            EspecialistaEntity especialista = especialistas.get(aleatorio.nextInt(especialistas.size()));
+            // Inícios de 10 em 10 minutos entre 08:00 e 17:10: a maioria se sobrepõe a outra
+            LocalTime hora = LocalTime.of(8, 0).plusMinutes(10L * aleatorio.nextInt(56));
+            reservas.add(() -> {
+                largada.await();
+                return reservar(instancia, especialista, hora);
+            });
+        }
+
+        List<Boolean> resultados = executar(reservas, 16, largada);
+
+        long confirmadas = resultados.stream().filter(Boolean::booleanValue).count();
+        List<ConsultaEntity> gravadas = consultaRepository.findAll();
+        assertThat(gravadas).hasSize((int) confirmadas);
+        assertThat(confirmadas).isGreaterThanOrEqualTo(especialistas.size());
+        assertThat(sobrepostas(gravadas)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve recusar horário confirmado por outra instância mesmo com a agenda desatualizada")
+    void deveRecusarHorarioConfirmadoPorOutraInstancia() {
+        EspecialistaEntity especialista = especialistas.get(0);
+        // Instância B carrega a agenda antes da reserva da instância A
+        assertThat(agendaB.horariosLivres(especialista.getId(), DIA, DIA)).hasSize(1);
+
+        assertThat(reservar(instanciaA, especialista, LocalTime.of(10, 0))).isTrue();
+
+        assertThatThrownBy(() -> instanciaB.criar(consulta(especialista, LocalTime.of(10, 20))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sobrepõe");
+        assertThat(reservar(instanciaB, especialista, LocalTime.of(10, 50))).isTrue();
+        assertThat(consultaRepository.findByEspecialistaId(especialista.getId())).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Banco deve recusar consulta sobreposta gravada sem passar pela agenda")
+    void bancoDeveRecusarConsultaSobreposta() {
+        EspecialistaEntity especialista = especialistas.get(0);
+        consultaRepository.saveAndFlush(consultaGravada(especialista, LocalTime.of(10, 0), "Agendada"));
+
+        assertThatThrownBy(() -> consultaRepository.saveAndFlush(consultaGravada(especialista, LocalTime.of(10, 20), "Agendada")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("ex_consulta_especialista_horario");
+        // Outro especialista, horário encostado e consulta cancelada não ocupam o mesmo horário
+        consultaRepository.saveAndFlush(consultaGravada(especialistas.get(1), LocalTime.of(10, 20), "Agendada"));
+        consultaRepository.saveAndFlush(consultaGravada(especialista, LocalTime.of(10, 50), "Agendada"));
+        consultaRepository.saveAndFlush(consultaGravada(especialista, LocalTime.of(10, 20), "Cancelada"));
+        assertThat(consultaRepository.findByEspecialistaId(especialista.getId())).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Deve recusar com IllegalStateException a sobreposição barrada só pelo banco")
+    void deveRecusarSobreposicaoBarradaPeloBanco() {
+        // Agenda que aceita tudo: só a constraint de exclusão impede a segunda reserva
+        AgendaEspecialistas agendaPermissiva = mock(AgendaEspecialistas.class);
+        when(agendaPermissiva.getDuracaoConsulta()).thenReturn(Duration.ofMinutes(DURACAO_MIN));
+        ReservaConsultas instancia = novaInstancia(agendaPermissiva);
+        EspecialistaEntity especialista = especialistas.get(0);
+
+        assertThat(reservar(instancia, especialista, LocalTime.of(10, 0))).isTrue();
+
+        assertThatThrownBy(() -> instancia.criar(consulta(especialista, LocalTime.of(10, 20))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sobrepõe")
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(consultaRepository.findByEspecialistaId(especialista.getId())).hasSize(1);
+    }
+
+    // Métodos auxiliares
+    private boolean reservar(ReservaConsultas instancia, EspecialistaEntity especialista, LocalTime hora) {
+        try {
+            instancia.criar(consulta(especialista, hora));
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private ConsultaDtoIn consulta(EspecialistaEntity especialista, LocalTime hora) {
+        ConsultaDtoIn dto = new ConsultaDtoIn();
+        dto.setClienteId(cliente.getId());
+        dto.setEspecialistaId(especialista.getId());
+        dto.setData(DIA);
+        dto.setHora(hora);
+        dto.setTipo("Avaliação");
+        dto.setStatus("Agendada");
+        return dto;
+    }
+
+    private ConsultaEntity consultaGravada(EspecialistaEntity especialista, LocalTime hora, String status) {
+        ConsultaEntity consulta = new ConsultaEntity();
+        consulta.setCliente(cliente);
+        consulta.setEspecialista(especialista);
+        consulta.setData(DIA);
+        consulta.setHora(hora);
+        consulta.setFim(DIA.atTime(hora).plusMinutes(DURACAO_MIN));
+        consulta.setTipo("Avaliação");
+        consulta.setStatus(status);
+        return consulta;
+    }
+
+    private void salvarJanela(EspecialistaEntity especialista, String inicio, String fim) {
+        DisponibilidadeEntity janela = new DisponibilidadeEntity();
+        janela.setEspecialista(especialista);
+        janela.setData(DIA);
+        janela.setHoraInicio(LocalTime.parse(inicio));
+        janela.setHoraFim(LocalTime.parse(fim));
+        janela.setStatus("Disponível");
+        disponibilidadeRepository.save(janela);
+    }
+
+    // Qualquer exceção que não seja a recusa de IllegalStateException falha o teste no get()
+    private static List<Boolean> executar(List<Callable<Boolean>> tarefas, int threads, CountDownLatch largada) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futuros = new ArrayList<>();
+            for (Callable<Boolean> tarefa : tarefas) {
+                futuros.add(executor.submit(tarefa));
+            }
+            largada.countDown();
+            List<Boolean> resultados = new ArrayList<>();
+            for (Future<Boolean> futuro : futuros) {
+                resultados.add(futuro.get(60, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Pares de consultas do mesmo especialista que começam a menos de uma consulta de distância
+    private static List<String> sobrepostas(List<ConsultaEntity> consultas) {
+        Map<Long, List<LocalDateTime>> porEspecialista = consultas.stream().collect(Collectors.groupingBy(
+                consulta -> consulta.getEspecialista().getId(),
+                Collectors.mapping(consulta -> consulta.getData().atTime(consulta.getHora()), Collectors.toList())));
+        List<String> sobrepostas = new ArrayList<>();
+        porEspecialista.forEach((especialistaId, inicios) -> {
+            inicios.sort(Comparator.naturalOrder());
+            for (int i = 1; i < inicios.size(); i++) {
+                if (inicios.get(i - 1).plusMinutes(DURACAO_MIN).isAfter(inicios.get(i))) {
+                    sobrepostas.add(especialistaId + ": " + inicios.get(i - 1) + " e " + inicios.get(i));
+                }
+            }
+        });
+        return Collections.unmodifiableList(sobrepostas);
+    }
+}
@@ -0,0 +1,33 @@
+package com.inatel.prototipo_ia.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL que o Hibernate gera, para os testes rodarem EXPLAIN na consulta exata de um repositório.
+ * Registrado por hibernate.session_factory.statement_inspector no teste que o usa.
+ */
+public class SqlCapturado implements StatementInspector {
+
+    private static final List<String> COMANDOS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        COMANDOS.add(sql);
+        return sql;
+    }
+
+    public static void limpar() {
+        COMANDOS.clear();
+    }
+
+    // Primeiro SELECT desde o último limpar(): a consulta do repositório, antes dos carregamentos das associações
+    public static String primeiroSelect() {
+        return COMANDOS.stream()
+                .filter(sql -> sql.startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Nenhum SELECT capturado: " + COMANDOS));
+    }
+}
@@ -0,0 +1,84 @@
+package com.inatel.prototipo_ia.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.dto.out.SessaoTreinoHistoryDtoOut;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - ConfiguracaoJson
+ * Valida o formato do ObjectMapper do Spring e a leitura dos resultados já gravados em sessaotreino.resultado
+ */
+class JsonTest {
+
+    private final ObjectMapper objectMapper = JsonTestes.objectMapper();
+
+    @Test
+    @DisplayName("Deve manter as propriedades spring.jackson.* no ObjectMapper do Spring")
+    void deveManterPropriedadesDoSpring() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+                .withUserConfiguration(ConfiguracaoJson.class)
+                .withPropertyValues("spring.jackson.serialization.indent-output=true")
+                .run(contexto -> {
+                    ObjectMapper doSpring = contexto.getBean(ObjectMapper.class);
+                    assertThat(doSpring.isEnabled(SerializationFeature.INDENT_OUTPUT)).isTrue();
+                    assertThat(doSpring.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).isFalse();
+                });
+    }
+
+    @Test
+    @DisplayName("Deve escrever datas em ISO-8601 e não como timestamp")
+    void deveEscreverDatasEmIso() throws IOException {
+        SessaoTreinoHistoryDtoOut historico = new SessaoTreinoHistoryDtoOut(1L, LocalDateTime.of(2025, 1, 10, 14, 30, 15),
+                null, 90.0, 9, 10, "R", "FINALIZADA", "Ótimo", List.of());
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(historico));
+
+        assertThat(json.path("dataInicio").asText()).isEqualTo("2025-01-10T14:30:15");
+        assertThat(json.path("dificuldade").asText()).isEqualTo("R");
+    }
+
+    @Test
+    @DisplayName("Deve ler resultados gravados no formato antigo (Gson) e ignorar campos desconhecidos")
+    void deveLerResultadoNoFormatoAntigo() throws IOException {
+        String gravado = "{\"palavrasEsperadas\":[\"rato\"],\"resultados\":[{\"palavraEsperada\":\"rato\","
+                + "\"palavraTranscrita\":\"lato\",\"acertou\":false,\"similaridade\":75.0,\"feedback\":\"Atenção ao R\"}],"
+                + "\"pontuacaoGeral\":75.0,\"totalAcertos\":0,\"totalPalavras\":1,\"porcentagemAcerto\":0.0,"
+                + "\"feedbackGeral\":\"Vamos treinar\",\"dataAnalise\":\"2025-01-10T14:30\",\"campoNovo\":1}";
+
+        BatchPronunciationAnalysisDTO analise = objectMapper.readValue(gravado, BatchPronunciationAnalysisDTO.class);
+
+        assertThat(analise.getFeedbackGeral()).isEqualTo("Vamos treinar");
+        assertThat(analise.getResultados()).extracting(BatchPronunciationAnalysisDTO.ResultadoPalavra::getPalavraTranscrita)
+                .containsExactly("lato");
+        assertThat(analise.getDataAnalise()).isEqualTo(LocalDateTime.of(2025, 1, 10, 14, 30));
+    }
+
+    @Test
+    @DisplayName("Deve fazer a ida e volta do resultado da análise")
+    void deveFazerIdaEVoltaDaAnalise() throws IOException {
+        BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+        analise.setResultados(List.of(new BatchPronunciationAnalysisDTO.ResultadoPalavra("rei", "rei", true, 100.0, "Perfeito!")));
+        analise.setPontuacaoGeral(100.0);
+
+        BatchPronunciationAnalysisDTO lida = objectMapper.readValue(objectMapper.writeValueAsString(analise),
+                BatchPronunciationAnalysisDTO.class);
+
+        assertThat(lida.getPontuacaoGeral()).isEqualTo(100.0);
+        assertThat(lida.getResultados().get(0).getAcertou()).isTrue();
+        assertThat(lida.getDataAnalise()).isEqualTo(analise.getDataAnalise());
+    }
+}
@@ -0,0 +1,22 @@
+package com.inatel.prototipo_ia.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * ObjectMapper montado como a autoconfiguração do Jackson monta (Jackson2ObjectMapperBuilder com os ajustes
+ * de {@link ConfiguracaoJson}), para testes unitários e benchmarks que criam os services fora do Spring.
+ */
+public final class JsonTestes {
+
+    public static final ObjectMapper OBJECT_MAPPER = objectMapper();
+
+    private JsonTestes() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new ConfiguracaoJson().personalizacaoJson().customize(builder);
+        return builder.build();
+    }
+}
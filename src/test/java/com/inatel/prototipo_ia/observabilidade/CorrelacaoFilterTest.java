@@ -0,0 +1,53 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - CorrelacaoFilter
+ * Valida a propagação do ID de correlação no MDC e na resposta
+ */
+class CorrelacaoFilterTest {
+
+    private final CorrelacaoFilter filter = new CorrelacaoFilter();
+
+    private String executar(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> idNoMdc = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> idNoMdc.set(MDC.get(CorrelacaoFilter.CHAVE_MDC)));
+        return idNoMdc.get();
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o ID recebido no cabeçalho")
+    void deveReaproveitarIdRecebido() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelacaoFilter.CABECALHO, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String id = executar(request, response);
+
+        assertThat(id).isEqualTo("abc-123");
+        assertThat(response.getHeader(CorrelacaoFilter.CABECALHO)).isEqualTo("abc-123");
+        assertThat(MDC.get(CorrelacaoFilter.CHAVE_MDC)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve gerar um novo ID quando o cabeçalho for ausente ou inválido")
+    void deveGerarIdQuandoInvalido() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelacaoFilter.CABECALHO, "linha\nforjada");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String id = executar(request, response);
+
+        assertThat(id).hasSize(36).isNotEqualTo("linha\nforjada");
+        assertThat(response.getHeader(CorrelacaoFilter.CABECALHO)).isEqualTo(id);
+    }
+}
@@ -0,0 +1,142 @@
+package com.inatel.prototipo_ia.observabilidade;
+
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - Metricas
+ * Valida os nomes e as tags das observações registradas
+ */
+class MetricasTest {
+
+    private final List<Observation.Context> finalizadas = new ArrayList<>();
+    private final SimpleMeterRegistry medidores = new SimpleMeterRegistry();
+    private Metricas metricas;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                finalizadas.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        metricas = new Metricas(registry, medidores);
+    }
+
+    private String tag(Observation.Context context, String chave) {
+        KeyValue valor = context.getLowCardinalityKeyValue(chave);
+        return valor != null ? valor.getValue() : null;
+    }
+
+    @Test
+    @DisplayName("Deve registrar a transição de status da sessão")
+    void deveRegistrarTransicaoSessao() {
+        metricas.transicaoSessao(StatusSessao.PROCESSANDO, StatusSessao.FINALIZADA);
+
+        assertThat(finalizadas).hasSize(1);
+        assertThat(finalizadas.get(0).getName()).isEqualTo("sessao.transicao");
+        assertThat(tag(finalizadas.get(0), "de")).isEqualTo("PROCESSANDO");
+        assertThat(tag(finalizadas.get(0), "para")).isEqualTo("FINALIZADA");
+    }
+
+    @Test
+    @DisplayName("Deve registrar acerto e falha de cache")
+    void deveRegistrarConsultaCache() {
+        metricas.consultaCache("tokens-jwt", true);
+        metricas.consultaCache("tokens-jwt", false);
+
+        assertThat(finalizadas).extracting(c -> tag(c, "resultado")).containsExactly("acerto", "falha");
+        assertThat(finalizadas).extracting(c -> tag(c, "cache")).containsOnly("tokens-jwt");
+    }
+
+    @Test
+    @DisplayName("Deve registrar o tamanho do lote de áudios e os reenviados")
+    void deveRegistrarLoteAnaliseAudio() {
+        metricas.loteAnaliseAudio(4, 1);
+
+        assertThat(finalizadas).hasSize(1);
+        assertThat(finalizadas.get(0).getName()).isEqualTo("ia.lote");
+        assertThat(tag(finalizadas.get(0), "audios")).isEqualTo("4");
+        assertThat(tag(finalizadas.get(0), "reenviados")).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("Deve marcar o provedor e a operação da chamada de IA")
+    void deveMarcarChamadaIa() {
+        metricas.chamadaIa("gemini", "analisar-audio").observe(() -> { });
+
+        assertThat(finalizadas).hasSize(1);
+        assertThat(finalizadas.get(0).getName()).isEqualTo("ia.chamada");
+        assertThat(tag(finalizadas.get(0), "provedor")).isEqualTo("gemini");
+        assertThat(tag(finalizadas.get(0), "operacao")).isEqualTo("analisar-audio");
+    }
+
+    @Test
+    @DisplayName("Deve aninhar a chamada de IA na etapa corrente")
+    void deveAninharChamadaIaNaEtapa() {
+        String resultado = metricas.etapa("requisicao-ia")
+                .observe(() -> metricas.chamadaIa("gemini", "analisar-audio").observe(() -> "ok"));
+
+        assertThat(resultado).isEqualTo("ok");
+        assertThat(finalizadas).extracting(Observation.Context::getName).containsExactly("ia.chamada", "sessao.audio.etapa");
+        assertThat(finalizadas.get(0).getParentObservation().getContextView().getContextualName()).isEqualTo("requisicao-ia");
+    }
+
+    @Test
+    @DisplayName("Deve acumular os bytes da chamada de IA por direção numa distribuição")
+    void deveRegistrarPayloadIa() {
+        metricas.payloadIa("gemini", "analisar-audio", "enviado", 4096);
+        metricas.payloadIa("gemini", "analisar-audio", "enviado", 1024);
+        metricas.payloadIa("gemini", "analisar-audio", "recebido", 512);
+
+        DistributionSummary enviados = medidores.get("ia.payload")
+                .tags("provedor", "gemini", "operacao", "analisar-audio", "direcao", "enviado").summary();
+        assertThat(enviados.count()).isEqualTo(2);
+        assertThat(enviados.totalAmount()).isEqualTo(5120);
+        assertThat(enviados.getId().getBaseUnit()).isEqualTo("bytes");
+        assertThat(medidores.get("ia.payload").tag("direcao", "recebido").summary().max()).isEqualTo(512);
+    }
+
+    @Test
+    @DisplayName("Deve acumular os tokens da chamada de IA numa distribuição")
+    void deveRegistrarTokensIa() {
+        metricas.tokensIa("gemini", "gerar-texto", 150);
+        metricas.tokensIa("gemini", "gerar-texto", 250);
+
+        DistributionSummary tokens = medidores.get("ia.tokens").tags("provedor", "gemini", "operacao", "gerar-texto").summary();
+        assertThat(tokens.count()).isEqualTo(2);
+        assertThat(tokens.mean()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Não deve falhar sem registro configurado")
+    void naoDeveFalharSemRegistro() {
+        Metricas.desligadas().consultaCache("tokens-jwt", true);
+        Metricas.desligadas().transicaoSessao(null, StatusSessao.INICIADA);
+        Metricas.desligadas().payloadIa("gemini", "analisar-audio", "enviado", 10);
+        Metricas.desligadas().tokensIa("gemini", "analisar-audio", 10);
+
+        assertThat(finalizadas).isEmpty();
+        assertThat(medidores.getMeters()).isEmpty();
+    }
+}
@@ -0,0 +1,76 @@
+package com.inatel.prototipo_ia.paginacao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes Unitários - OrdenacaoInvalidaHandler
+ * Valida o 400 para ordenação fora da whitelist sem mascarar outros IllegalArgumentException
+ */
+class OrdenacaoInvalidaHandlerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ListagemTeste())
+                .setControllerAdvice(new OrdenacaoInvalidaHandler())
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 com a mensagem para campo de ordenação não permitido")
+    void deveResponder400ParaOrdenacaoInvalida() throws Exception {
+        mockMvc.perform(get("/listagem").param("sort", "senha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("senha")));
+    }
+
+    @Test
+    @DisplayName("Deve responder 200 para campo de ordenação permitido")
+    void deveResponder200ParaOrdenacaoPermitida() throws Exception {
+        mockMvc.perform(get("/listagem").param("sort", "nome,desc"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Não deve transformar IllegalArgumentException de outra origem em 400 de ordenação")
+    void naoDeveTratarOutrosIllegalArgument() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/listagem/erro")))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("erro do service");
+    }
+
+    @RestController
+    static class ListagemTeste {
+
+        @GetMapping("/listagem")
+        ResponseEntity<List<String>> listar(Pageable pageable) {
+            Paginacao.normalizar(pageable, Set.of("id", "nome"));
+            return ResponseEntity.ok(List.of());
+        }
+
+        @GetMapping("/listagem/erro")
+        ResponseEntity<List<String>> falhar(Pageable pageable) {
+            throw new IllegalArgumentException("erro do service");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.inatel.prototipo_ia.paginacao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - Paginacao
+ * Valida limite de tamanho, whitelist de ordenação e headers de resposta
+ */
+class PaginacaoTest {
+
+    private static final Set<String> CAMPOS = Set.of("id", "nome");
+
+    @Test
+    @DisplayName("Deve usar página padrão ordenada por id quando não paginado")
+    void deveUsarPaginaPadraoQuandoNaoPaginado() {
+        Pageable resultado = Paginacao.normalizar(Pageable.unpaged(), CAMPOS);
+
+        assertThat(resultado.getPageNumber()).isZero();
+        assertThat(resultado.getPageSize()).isEqualTo(Paginacao.TAMANHO_PADRAO);
+        assertThat(resultado.getSort()).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tamanho da página ao máximo permitido")
+    void deveLimitarTamanhoDaPagina() {
+        Pageable resultado = Paginacao.normalizar(PageRequest.of(2, 10_000), CAMPOS);
+
+        assertThat(resultado.getPageNumber()).isEqualTo(2);
+        assertThat(resultado.getPageSize()).isEqualTo(Paginacao.TAMANHO_MAXIMO);
+    }
+
+    @Test
+    @DisplayName("Deve acrescentar desempate por id à ordenação pedida")
+    void deveAcrescentarDesempatePorId() {
+        Pageable resultado = Paginacao.normalizar(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "nome")), CAMPOS);
+
+        assertThat(resultado.getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "nome").and(Sort.by("id")));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar campo de ordenação fora da whitelist")
+    void deveRejeitarCampoNaoPermitido() {
+        assertThatThrownBy(() -> Paginacao.normalizar(PageRequest.of(0, 10, Sort.by("senha")), CAMPOS))
+                .isInstanceOf(OrdenacaoInvalidaException.class)
+                .hasMessageContaining("senha");
+    }
+
+    @Test
+    @DisplayName("Deve devolver o conteúdo no corpo e os metadados nos headers")
+    void deveMontarRespostaComHeaders() {
+        PageImpl<String> pagina = new PageImpl<>(List.of("a", "b"), PageRequest.of(1, 2), 5);
+
+        ResponseEntity<List<String>> resposta = Paginacao.resposta(pagina);
+
+        assertThat(resposta.getBody()).containsExactly("a", "b");
+        assertThat(resposta.getHeaders().getFirst("X-Total-Count")).isEqualTo("5");
+        assertThat(resposta.getHeaders().getFirst("X-Total-Pages")).isEqualTo("3");
+        assertThat(resposta.getHeaders().getFirst("X-Page")).isEqualTo("1");
+    }
+}
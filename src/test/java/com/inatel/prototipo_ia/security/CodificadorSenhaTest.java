@@ -0,0 +1,99 @@
+package com.inatel.prototipo_ia.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes Unitários - CodificadorSenha
+ * Valida formatos de hash, compatibilidade com hashes antigos e a regra de rehash no login
+ */
+class CodificadorSenhaTest {
+
+    private final List<CodificadorSenha> criados = new ArrayList<>();
+
+    private CodificadorSenha codificador(CodificadorSenha.Algoritmo algoritmo, int forca) {
+        CodificadorSenha codificador = new CodificadorSenha(algoritmo, forca, 2, 16);
+        criados.add(codificador);
+        return codificador;
+    }
+
+    @AfterEach
+    void encerrar() {
+        criados.forEach(CodificadorSenha::destroy);
+    }
+
+    @Test
+    @DisplayName("Deve gerar BCrypt sem prefixo e validar a senha")
+    void deveGerarBcryptSemPrefixo() {
+        CodificadorSenha codificador = codificador(CodificadorSenha.Algoritmo.BCRYPT, 4);
+
+        String hash = codificador.encode("senha123");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(codificador.matches("senha123", hash)).isTrue();
+        assertThat(codificador.matches("outra", hash)).isFalse();
+        assertThat(codificador.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve pedir rehash quando a força do BCrypt aumentar")
+    void devePedirRehashQuandoForcaAumentar() {
+        String hashAntigo = codificador(CodificadorSenha.Algoritmo.BCRYPT, 4).encode("senha123");
+        CodificadorSenha atual = codificador(CodificadorSenha.Algoritmo.BCRYPT, 5);
+
+        assertThat(atual.matches("senha123", hashAntigo)).isTrue();
+        assertThat(atual.upgradeEncoding(hashAntigo)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar BCrypt antigo e migrar para PBKDF2 quando configurado")
+    void deveMigrarBcryptParaPbkdf2() {
+        String hashBcrypt = codificador(CodificadorSenha.Algoritmo.BCRYPT, 4).encode("senha123");
+        CodificadorSenha pbkdf2 = codificador(CodificadorSenha.Algoritmo.PBKDF2, 4);
+
+        assertThat(pbkdf2.matches("senha123", hashBcrypt)).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(hashBcrypt)).isTrue();
+
+        String hashNovo = pbkdf2.encode("senha123");
+        assertThat(hashNovo).startsWith("{pbkdf2}");
+        assertThat(pbkdf2.matches("senha123", hashNovo)).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(hashNovo)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve validar hash vazio ou nulo")
+    void naoDeveValidarHashVazio() {
+        CodificadorSenha codificador = codificador(CodificadorSenha.Algoritmo.BCRYPT, 4);
+
+        assertThat(codificador.matches("senha123", null)).isFalse();
+        assertThat(codificador.matches("senha123", "")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve gerar os hashes de um lote na ordem recebida, mantendo senhas nulas")
+    void deveGerarHashesDoLoteNaOrdem() {
+        CodificadorSenha codificador = codificador(CodificadorSenha.Algoritmo.BCRYPT, 4);
+        // Mais senhas que 2 threads + 16 de fila: submetidas de uma vez, parte do lote seria recusada
+        List<String> senhas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            senhas.add("senha" + i);
+        }
+        senhas.set(7, null);
+
+        List<String> hashes = codificador.encodeTodas(senhas);
+
+        assertThat(hashes).hasSize(20);
+        assertThat(hashes.get(7)).isNull();
+        for (int i = 0; i < 20; i++) {
+            if (i != 7) {
+                assertThat(codificador.matches("senha" + i, hashes.get(i))).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ConsultaEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
+import com.inatel.prototipo_ia.repository.projection.VersaoJanelaProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - AgendaEspecialistas
+ * Valida a recusa de consultas sobrepostas e a busca de horários livres (janelas e recorrentes menos consultas)
+ */
+@ExtendWith(MockitoExtension.class)
+class AgendaEspecialistasTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 12, 15);
+    private static final int HORIZONTE_DIAS = 90;
+    private static final ProjectionFactory PROJECOES = new SpelAwareProxyProjectionFactory();
+
+    @Mock
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Mock
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
+    @Mock
+    private ConsultaRepository consultaRepository;
+
+    private AgendaEspecialistas agenda;
+
+    private final List<DisponibilidadeEntity> janelas = new ArrayList<>();
+    private final List<DisponibilidadeRecorrenteEntity> recorrentes = new ArrayList<>();
+    private final List<ConsultaEntity> consultas = new ArrayList<>();
+    private long proximoId = 1;
+
+    @BeforeEach
+    void setUp() {
+        // Consultas de 50 minutos, hoje é DIA
+        agenda = new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, 50, HORIZONTE_DIAS, 60,
+                Clock.fixed(DIA.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        // Os repositórios respondem como as queries: só o especialista e o período pedidos
+        lenient().when(disponibilidadeRepository.findCalendarioDoEspecialista(anyLong(), any(), any())).thenAnswer(chamada ->
+                janelas.stream()
+                        .filter(janela -> janela.getEspecialista().getId().equals(chamada.getArgument(0))
+                                && entre(janela.getData(), chamada.getArgument(1), chamada.getArgument(2)))
+                        .map(AgendaEspecialistasTest::projecao)
+                        .toList());
+        lenient().when(recorrenteRepository.findVigentesEntreDoEspecialistaComExcecoes(anyLong(), any(), any())).thenAnswer(chamada ->
+                recorrentes.stream()
+                        .filter(recorrente -> recorrente.getEspecialista().getId().equals(chamada.getArgument(0))
+                                && !recorrente.getVigenciaInicio().isAfter(chamada.getArgument(2))
+                                && (recorrente.getVigenciaFim() == null || !recorrente.getVigenciaFim().isBefore(chamada.getArgument(1))))
+                        .toList());
+        lenient().when(consultaRepository.findCalendarioDoEspecialista(anyLong(), any(), any())).thenAnswer(chamada ->
+                consultas.stream()
+                        .filter(consulta -> consulta.getEspecialista().getId().equals(chamada.getArgument(0))
+                                && entre(consulta.getData(), chamada.getArgument(1), chamada.getArgument(2)))
+                        .map(AgendaEspecialistasTest::projecao)
+                        .toList());
+    }
+
+    private static boolean entre(LocalDate data, LocalDate de, LocalDate ate) {
+        return !data.isBefore(de) && !data.isAfter(ate);
+    }
+
+    private static DisponibilidadeCalendarioProjection projecao(DisponibilidadeEntity janela) {
+        Map<String, Object> colunas = new HashMap<>();
+        colunas.put("id", janela.getId());
+        colunas.put("data", janela.getData());
+        colunas.put("horaInicio", janela.getHoraInicio());
+        colunas.put("horaFim", janela.getHoraFim());
+        colunas.put("status", janela.getStatus());
+        colunas.put("especialistaId", janela.getEspecialista().getId());
+        return PROJECOES.createProjection(DisponibilidadeCalendarioProjection.class, colunas);
+    }
+
+    private static ConsultaCalendarioProjection projecao(ConsultaEntity consulta) {
+        Map<String, Object> colunas = new HashMap<>();
+        colunas.put("id", consulta.getId());
+        colunas.put("data", consulta.getData());
+        colunas.put("hora", consulta.getHora());
+        colunas.put("status", consulta.getStatus());
+        colunas.put("especialistaId", consulta.getEspecialista().getId());
+        return PROJECOES.createProjection(ConsultaCalendarioProjection.class, colunas);
+    }
+
+    private static EspecialistaEntity especialista(Long id) {
+        EspecialistaEntity especialista = new EspecialistaEntity();
+        especialista.setId(id);
+        return especialista;
+    }
+
+    private DisponibilidadeEntity janela(Long especialistaId, LocalDate data, String inicio, String fim, String status) {
+        DisponibilidadeEntity janela = new DisponibilidadeEntity();
+        janela.setId(proximoId++);
+        janela.setEspecialista(especialista(especialistaId));
+        janela.setData(data);
+        janela.setHoraInicio(LocalTime.parse(inicio));
+        janela.setHoraFim(LocalTime.parse(fim));
+        janela.setStatus(status);
+        return janela;
+    }
+
+    private DisponibilidadeRecorrenteEntity recorrente(Long especialistaId, DayOfWeek diaSemana, String inicio, String fim,
+                                                      LocalDate vigenciaInicio, LocalDate vigenciaFim) {
+        DisponibilidadeRecorrenteEntity recorrente = new DisponibilidadeRecorrenteEntity();
+        recorrente.setId(proximoId++);
+        recorrente.setEspecialista(especialista(especialistaId));
+        recorrente.setDiaSemana(diaSemana);
+        recorrente.setHoraInicio(LocalTime.parse(inicio));
+        recorrente.setHoraFim(LocalTime.parse(fim));
+        recorrente.setVigenciaInicio(vigenciaInicio);
+        recorrente.setVigenciaFim(vigenciaFim);
+        return recorrente;
+    }
+
+    private ConsultaEntity consulta(Long especialistaId, String hora, String status) {
+        ConsultaEntity consulta = new ConsultaEntity();
+        consulta.setId(proximoId++);
+        consulta.setEspecialista(especialista(especialistaId));
+        consulta.setData(DIA);
+        consulta.setHora(LocalTime.parse(hora));
+        consulta.setStatus(status);
+        return consulta;
+    }
+
+    private static String intervalo(AgendaEspecialistas.HorarioLivre livre) {
+        return livre.inicio().toLocalTime() + "-" + livre.fim().toLocalTime();
+    }
+
+    private static String intervaloComData(AgendaEspecialistas.HorarioLivre livre) {
+        return livre.inicio().toLocalDate() + " " + intervalo(livre);
+    }
+
+    @Test
+    @DisplayName("Deve recusar consulta que se sobrepõe a outra do mesmo especialista")
+    void deveRecusarConsultaSobreposta() {
+        agenda.reservar(consulta(1L, "14:00", "Agendada"));
+
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "14:30", "Agendada")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sobrepõe");
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "13:20", "Agendada")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar consultas encostadas, de outro especialista ou a mesma consulta remarcada")
+    void deveAceitarConsultasSemSobreposicao() {
+        ConsultaEntity primeira = consulta(1L, "14:00", "Agendada");
+        agenda.reservar(primeira);
+
+        agenda.reservar(consulta(1L, "14:50", "Agendada"));
+        agenda.reservar(consulta(1L, "13:10", "Agendada"));
+        agenda.reservar(consulta(2L, "14:00", "Agendada"));
+        primeira.setHora(LocalTime.of(14, 10));
+        assertThatThrownBy(() -> agenda.reservar(primeira)).isInstanceOf(IllegalStateException.class);
+        primeira.setHora(LocalTime.of(14, 0));
+        agenda.reservar(primeira);
+    }
+
+    @Test
+    @DisplayName("Deve liberar o horário da consulta cancelada ou removida")
+    void deveLiberarHorarioDaConsultaCancelada() {
+        ConsultaEntity cancelada = consulta(1L, "14:00", "Agendada");
+        agenda.reservar(cancelada);
+        cancelada.setStatus("Cancelada");
+        agenda.reservar(cancelada);
+        ConsultaEntity removida = consulta(1L, "14:00", "Agendada");
+        agenda.reservar(removida);
+        agenda.removerConsulta(1L, removida.getId());
+
+        agenda.reservar(consulta(1L, "14:00", "Confirmada"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar horário já confirmado no banco que a agenda em memória não conhecia")
+    void deveRecusarHorarioConfirmadoSoNoBanco() {
+        agenda.horariosLivres(1L, DIA, DIA);
+        ConsultaEntity deOutraInstancia = consulta(1L, "10:00", "Agendada");
+        when(consultaRepository.findByEspecialistaIdAndDataBetween(1L, DIA, DIA)).thenReturn(List.of(deOutraInstancia));
+
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "10:20", "Agendada")))
+                .isInstanceOf(IllegalStateException.class);
+
+        // A consulta encontrada no banco passa a constar na agenda
+        when(consultaRepository.findByEspecialistaIdAndDataBetween(1L, DIA, DIA)).thenReturn(List.of());
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "09:30", "Agendada")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Deve falhar com lock otimista quando a janela mudou de versão durante a reserva")
+    void deveFalharQuandoJanelaMudouDeVersao() {
+        VersaoJanelaProjection janela = mock(VersaoJanelaProjection.class);
+        when(janela.getId()).thenReturn(7L);
+        when(janela.getVersion()).thenReturn(3L);
+        when(disponibilidadeRepository.findVersoesDasJanelasEntre(eq(1L), eq(DIA), any(), any())).thenReturn(List.of(janela));
+        // A segunda reserva leu a mesma versão, mas outra reserva na janela confirmou antes dela
+        when(disponibilidadeRepository.incrementarVersao(7L, 3L)).thenReturn(1, 0);
+
+        agenda.reservar(consulta(1L, "10:00", "Agendada"));
+
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "11:00", "Agendada")))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Deve devolver as janelas disponíveis menos as consultas, unindo janelas sobrepostas")
+    void deveDevolverJanelasMenosConsultas() {
+        janelas.add(janela(1L, DIA, "08:00", "10:00", "Disponível"));
+        janelas.add(janela(1L, DIA, "09:30", "12:00", "disponível"));
+        janelas.add(janela(1L, DIA, "14:00", "15:00", "Ocupado"));
+        janelas.add(janela(1L, DIA.plusDays(1), "08:00", "09:00", "Disponível"));
+        consultas.add(consulta(1L, "09:00", "Agendada"));
+        consultas.add(consulta(1L, "11:20", "Cancelada"));
+
+        List<AgendaEspecialistas.HorarioLivre> livres = agenda.horariosLivres(1L, DIA, DIA);
+
+        // 08:00-09:00 e 09:50-12:00; a janela ocupada e o outro dia ficam de fora
+        assertThat(livres).extracting(AgendaEspecialistasTest::intervalo).containsExactly("08:00-09:00", "09:50-12:00");
+        assertThat(livres).allMatch(livre -> livre.especialistaId().equals(1L));
+    }
+
+    @Test
+    @DisplayName("Não deve devolver trechos menores que uma consulta")
+    void naoDeveDevolverTrechosMenoresQueUmaConsulta() {
+        janelas.add(janela(1L, DIA, "08:00", "10:30", "Disponível"));
+        consultas.add(consulta(1L, "08:30", "Agendada"));
+
+        // 08:00-08:30 tem só 30 minutos
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).extracting(AgendaEspecialistasTest::intervalo)
+                .containsExactly("09:20-10:30");
+    }
+
+    @Test
+    @DisplayName("Deve refletir janelas criadas e removidas depois da carga")
+    void deveRefletirJanelasAlteradas() {
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).isEmpty();
+
+        DisponibilidadeEntity nova = janela(1L, DIA, "08:00", "09:00", "Disponível");
+        agenda.registrarDisponibilidade(nova);
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).extracting(AgendaEspecialistasTest::intervalo).containsExactly("08:00-09:00");
+
+        agenda.removerDisponibilidade(1L, nova.getId());
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).isEmpty();
+        verify(disponibilidadeRepository, times(1)).findCalendarioDoEspecialista(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve achar o especialista com o primeiro horário livre")
+    void deveAcharPrimeiroHorarioLivre() {
+        janelas.add(janela(2L, DIA, "09:00", "12:00", "Disponível"));
+        janelas.add(janela(1L, DIA, "08:00", "09:00", "Disponível"));
+        consultas.add(consulta(1L, "08:00", "Agendada"));
+        when(disponibilidadeRepository.findEspecialistaIdsComDisponibilidadeEntre(DIA, DIA.plusDays(6))).thenReturn(List.of(1L, 2L));
+
+        AgendaEspecialistas.HorarioLivre primeiro = agenda.primeiroHorarioLivre(DIA, DIA.plusDays(6)).orElseThrow();
+
+        assertThat(primeiro.especialistaId()).isEqualTo(2L);
+        assertThat(primeiro.inicio()).isEqualTo(LocalDateTime.of(DIA, LocalTime.of(9, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve gerar as ocorrências das recorrentes só no período, sem as exceções, unidas às janelas")
+    void deveGerarOcorrenciasDasRecorrentes() {
+        // DIA é segunda-feira
+        DisponibilidadeRecorrenteEntity segundas = recorrente(1L, DayOfWeek.MONDAY, "08:00", "10:00", DIA.minusWeeks(4), null);
+        segundas.getExcecoes().add(DIA.plusWeeks(1));
+        recorrentes.add(segundas);
+        recorrentes.add(recorrente(1L, DayOfWeek.TUESDAY, "14:00", "16:00", DIA, DIA));
+        janelas.add(janela(1L, DIA, "09:30", "12:00", "Disponível"));
+        consultas.add(consulta(1L, "10:00", "Agendada"));
+
+        List<AgendaEspecialistas.HorarioLivre> livres = agenda.horariosLivres(1L, DIA, DIA.plusWeeks(2));
+
+        // A terça fica fora da vigência, a segunda seguinte é exceção
+        assertThat(livres).extracting(AgendaEspecialistasTest::intervaloComData).containsExactly(
+                DIA + " 08:00-10:00", DIA + " 10:50-12:00", DIA.plusWeeks(2) + " 08:00-10:00");
+    }
+
+    @Test
+    @DisplayName("Deve refletir recorrentes e exceções alteradas depois da carga")
+    void deveRefletirRecorrentesAlteradas() {
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).isEmpty();
+
+        DisponibilidadeRecorrenteEntity segundas = recorrente(1L, DayOfWeek.MONDAY, "08:00", "09:00", DIA, null);
+        agenda.registrarRecorrencia(segundas);
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).extracting(AgendaEspecialistasTest::intervalo).containsExactly("08:00-09:00");
+
+        segundas.getExcecoes().add(DIA);
+        agenda.registrarRecorrencia(segundas);
+        assertThat(agenda.horariosLivres(1L, DIA, DIA)).isEmpty();
+
+        agenda.removerRecorrencia(1L, segundas.getId());
+        assertThat(agenda.horariosLivres(1L, DIA, DIA.plusWeeks(1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve achar o primeiro horário livre de especialista que só tem recorrentes")
+    void deveAcharPrimeiroHorarioLivreEmRecorrente() {
+        recorrentes.add(recorrente(2L, DayOfWeek.WEDNESDAY, "13:00", "17:00", DIA.minusYears(1), null));
+        when(disponibilidadeRepository.findEspecialistaIdsComDisponibilidadeEntre(DIA, DIA.plusDays(6))).thenReturn(List.of());
+        when(recorrenteRepository.findEspecialistaIdsComRecorrenciaEntre(DIA, DIA.plusDays(6))).thenReturn(List.of(2L));
+
+        AgendaEspecialistas.HorarioLivre primeiro = agenda.primeiroHorarioLivre(DIA, DIA.plusDays(6)).orElseThrow();
+
+        assertThat(primeiro.especialistaId()).isEqualTo(2L);
+        assertThat(primeiro.inicio()).isEqualTo(LocalDateTime.of(DIA.plusDays(2), LocalTime.of(13, 0)));
+    }
+
+    @Test
+    @DisplayName("Deve falhar com lock otimista quando a recorrente mudou de versão durante a reserva")
+    void deveFalharQuandoRecorrenteMudouDeVersao() {
+        VersaoJanelaProjection segundas = mock(VersaoJanelaProjection.class);
+        when(segundas.getId()).thenReturn(9L);
+        when(segundas.getVersion()).thenReturn(1L);
+        when(recorrenteRepository.findVersoesDasJanelasEntre(eq(1L), eq(DayOfWeek.MONDAY), eq(DIA), any(), any()))
+                .thenReturn(List.of(segundas));
+        when(recorrenteRepository.incrementarVersao(9L, 1L)).thenReturn(0);
+
+        assertThatThrownBy(() -> agenda.reservar(consulta(1L, "10:00", "Agendada")))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Deve carregar só de hoje até o horizonte, com a véspera nas consultas")
+    void deveCarregarSoAteOHorizonte() {
+        agenda.horariosLivres(1L, DIA, DIA);
+
+        verify(disponibilidadeRepository).findCalendarioDoEspecialista(1L, DIA, DIA.plusDays(HORIZONTE_DIAS));
+        verify(recorrenteRepository).findVigentesEntreDoEspecialistaComExcecoes(1L, DIA, DIA.plusDays(HORIZONTE_DIAS));
+        verify(consultaRepository).findCalendarioDoEspecialista(1L, DIA.minusDays(1), DIA.plusDays(HORIZONTE_DIAS));
+    }
+
+    @Test
+    @DisplayName("Deve montar do banco, sem guardar, o período fora do horizonte")
+    void deveMontarPeriodoForaDoHorizonte() {
+        LocalDate distante = DIA.plusDays(HORIZONTE_DIAS + 10);
+        janelas.add(janela(1L, distante, "08:00", "10:00", "Disponível"));
+        janelas.add(janela(1L, DIA.minusDays(3), "14:00", "15:00", "Disponível"));
+        ConsultaEntity noDistante = consulta(1L, "08:00", "Agendada");
+        noDistante.setData(distante);
+        consultas.add(noDistante);
+
+        assertThat(agenda.horariosLivres(1L, distante, distante)).extracting(AgendaEspecialistasTest::intervalo)
+                .containsExactly("08:50-10:00");
+        assertThat(agenda.horariosLivres(1L, DIA.minusDays(3), DIA.minusDays(3))).extracting(AgendaEspecialistasTest::intervalo)
+                .containsExactly("14:00-15:00");
+        assertThat(agenda.horariosLivres(1L, DIA, DIA.plusDays(HORIZONTE_DIAS))).isEmpty();
+        verify(disponibilidadeRepository).findCalendarioDoEspecialista(1L, distante, distante);
+        verify(disponibilidadeRepository, times(1)).findCalendarioDoEspecialista(1L, DIA, DIA.plusDays(HORIZONTE_DIAS));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar período invertido e duração inválida")
+    void deveRejeitarParametrosInvalidos() {
+        assertThatThrownBy(() -> agenda.horariosLivres(1L, DIA, DIA.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, 0, 90, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AgendaEspecialistas(disponibilidadeRepository, recorrenteRepository, consultaRepository, 50, -1, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
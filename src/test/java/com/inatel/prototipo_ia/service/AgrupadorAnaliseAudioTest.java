@@ -0,0 +1,160 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - AgrupadorAnaliseAudio
+ * Valida o agrupamento dos áudios concorrentes numa requisição e o reenvio individual
+ */
+@ExtendWith(MockitoExtension.class)
+class AgrupadorAnaliseAudioTest {
+
+    @Mock
+    private GeminiAudioAnalysisService geminiService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static final UsoIa USO_LOTE = UsoIa.chamada(900, 300, 2000);
+    private static final UsoIa USO_SOZINHO = UsoIa.chamada(400, 100, 1500);
+
+    private static BatchPronunciationAnalysisDTO analise(String feedback) {
+        BatchPronunciationAnalysisDTO dto = new BatchPronunciationAnalysisDTO();
+        dto.setFeedbackGeral(feedback);
+        return dto;
+    }
+
+    private static RespostaIa<BatchPronunciationAnalysisDTO> sozinho(String feedback) {
+        return new RespostaIa<>(analise(feedback), USO_SOZINHO);
+    }
+
+    // Três sessões enviando o áudio ao mesmo tempo; com max-itens 3 o lote fecha sem depender da janela
+    private List<RespostaIa<BatchPronunciationAnalysisDTO>> analisarTresSessoes(AgrupadorAnaliseAudio agrupador) throws Exception {
+        List<Future<RespostaIa<BatchPronunciationAnalysisDTO>>> pedidos = new ArrayList<>();
+        for (long sessao = 1; sessao <= 3; sessao++) {
+            long id = sessao;
+            pedidos.add(executor.submit(() -> agrupador.analisar(id, new byte[]{(byte) id}, List.of("palavra" + id))));
+        }
+        List<RespostaIa<BatchPronunciationAnalysisDTO>> respostas = new ArrayList<>();
+        for (Future<RespostaIa<BatchPronunciationAnalysisDTO>> pedido : pedidos) {
+            respostas.add(pedido.get());
+        }
+        return respostas;
+    }
+
+    private static List<String> feedbacks(List<RespostaIa<BatchPronunciationAnalysisDTO>> respostas) {
+        return respostas.stream().map(resposta -> resposta.conteudo().getFeedbackGeral()).toList();
+    }
+
+    @Test
+    @DisplayName("Deve enviar os áudios concorrentes numa requisição e devolver a análise de cada sessão")
+    void deveEnviarAudiosConcorrentesNumaRequisicao() throws Exception {
+        AgrupadorAnaliseAudio agrupador = new AgrupadorAnaliseAudio(geminiService, 10_000, 3, Metricas.desligadas());
+        when(geminiService.analisarVariosAudios(anyList())).thenAnswer(invocacao -> {
+            List<GeminiAudioAnalysisService.AudioSessao> audios = invocacao.getArgument(0);
+            return new RespostaIa<>(audios.stream().map(audio -> Optional.of(analise("sessao " + audio.sessaoId()))).toList(),
+                    USO_LOTE);
+        });
+
+        List<RespostaIa<BatchPronunciationAnalysisDTO>> respostas = analisarTresSessoes(agrupador);
+
+        assertThat(feedbacks(respostas)).containsExactly("sessao 1", "sessao 2", "sessao 3");
+        // Tokens da chamada divididos entre as sessões; a latência é a da chamada inteira
+        assertThat(respostas).extracting(RespostaIa::uso).containsOnly(new UsoIa(1, 300, 100, 2000));
+        verify(geminiService, times(1)).analisarVariosAudios(anyList());
+        verify(geminiService, never()).analisarComUso(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reenviar sozinhos os áudios que voltaram sem análise")
+    void deveReenviarAudiosSemAnalise() throws Exception {
+        AgrupadorAnaliseAudio agrupador = new AgrupadorAnaliseAudio(geminiService, 10_000, 3, Metricas.desligadas());
+        when(geminiService.analisarVariosAudios(anyList())).thenAnswer(invocacao -> {
+            List<GeminiAudioAnalysisService.AudioSessao> audios = invocacao.getArgument(0);
+            return new RespostaIa<>(audios.stream()
+                    .map(audio -> audio.sessaoId() == 2L ? Optional.<BatchPronunciationAnalysisDTO>empty()
+                            : Optional.of(analise("lote " + audio.sessaoId())))
+                    .toList(), USO_LOTE);
+        });
+        when(geminiService.analisarComUso(any(), eq(List.of("palavra2")))).thenReturn(sozinho("sozinho 2"));
+
+        List<RespostaIa<BatchPronunciationAnalysisDTO>> respostas = analisarTresSessoes(agrupador);
+
+        assertThat(feedbacks(respostas)).containsExactly("lote 1", "sozinho 2", "lote 3");
+        // O reenviado paga a parte dele no lote e a chamada individual
+        assertThat(respostas.get(1).uso()).isEqualTo(new UsoIa(2, 700, 200, 3500));
+        verify(geminiService, times(1)).analisarComUso(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve reenviar todos sozinhos quando a requisição do lote falha")
+    void deveReenviarTodosQuandoLoteFalha() throws Exception {
+        AgrupadorAnaliseAudio agrupador = new AgrupadorAnaliseAudio(geminiService, 10_000, 3, Metricas.desligadas());
+        when(geminiService.analisarVariosAudios(anyList())).thenThrow(new RuntimeException("Erro IA: 503"));
+        when(geminiService.analisarComUso(any(), anyList()))
+                .thenAnswer(invocacao -> sozinho("sozinho " + invocacao.<List<String>>getArgument(1).get(0)));
+
+        List<RespostaIa<BatchPronunciationAnalysisDTO>> respostas = analisarTresSessoes(agrupador);
+
+        assertThat(feedbacks(respostas)).containsExactly("sozinho palavra1", "sozinho palavra2", "sozinho palavra3");
+        assertThat(respostas).extracting(RespostaIa::uso).containsOnly(USO_SOZINHO);
+        verify(geminiService, times(3)).analisarComUso(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve seguir pela chamada individual quando o áudio fica sozinho na janela")
+    void deveChamarIndividualmenteQuandoSozinhoNaJanela() {
+        AgrupadorAnaliseAudio agrupador = new AgrupadorAnaliseAudio(geminiService, 5, 4, Metricas.desligadas());
+        when(geminiService.analisarComUso(any(), anyList())).thenReturn(sozinho("sozinho"));
+
+        RespostaIa<BatchPronunciationAnalysisDTO> resposta = agrupador.analisar(1L, new byte[0], List.of("rato"));
+
+        assertThat(resposta.conteudo().getFeedbackGeral()).isEqualTo("sozinho");
+        assertThat(resposta.uso()).isEqualTo(USO_SOZINHO);
+        verify(geminiService, never()).analisarVariosAudios(anyList());
+    }
+
+    @Test
+    @DisplayName("Não deve agrupar com max-itens 1")
+    void naoDeveAgruparComMaxItensUm() {
+        AgrupadorAnaliseAudio agrupador = new AgrupadorAnaliseAudio(geminiService, 10_000, 1, Metricas.desligadas());
+        when(geminiService.analisarComUso(any(), anyList())).thenReturn(sozinho("direto"));
+
+        assertThat(agrupador.analisar(1L, new byte[0], List.of("rato")).conteudo().getFeedbackGeral()).isEqualTo("direto");
+        verify(geminiService, never()).analisarVariosAudios(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar configuração inválida")
+    void deveRejeitarConfiguracaoInvalida() {
+        assertThatThrownBy(() -> new AgrupadorAnaliseAudio(geminiService, 100, 0, Metricas.desligadas()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AgrupadorAnaliseAudio(geminiService, -1, 4, Metricas.desligadas()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
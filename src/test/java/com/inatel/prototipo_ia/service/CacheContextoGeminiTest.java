@@ -0,0 +1,188 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes Unitários - CacheContextoGemini
+ * Valida criação, renovação antes do TTL, troca quando a instrução muda e o modo inline quando o Gemini recusa
+ */
+class CacheContextoGeminiTest {
+
+    private static final long TTL_S = 3600;
+    private static final long RENOVAR_ANTES_S = 300;
+
+    // Requisição recebida pelo servidor falso: "POST /v1beta/cachedContents?key=k" e o corpo
+    private record Chamada(String linha, String corpo) {
+    }
+
+    private final List<Chamada> chamadas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger statusCriacao = new AtomicInteger(200);
+    private final AtomicInteger criados = new AtomicInteger();
+    private final AtomicLong agora = new AtomicLong(1_000_000);
+
+    private HttpServer servidor;
+    private CacheContextoGemini cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(0), 0);
+        servidor.createContext("/v1beta/cachedContents", this::responder);
+        servidor.start();
+        cache = criarCache(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    private CacheContextoGemini criarCache(boolean ativo) {
+        return new CacheContextoGemini(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, ativo,
+                "http://localhost:" + servidor.getAddress().getPort() + "/v1beta/cachedContents",
+                "k", "models/gemini-2.0-flash", TTL_S, RENOVAR_ANTES_S, agora::get);
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        try (troca) {
+            String corpo = new String(troca.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String linha = troca.getRequestMethod() + " " + troca.getRequestURI();
+            chamadas.add(new Chamada(linha, corpo));
+
+            int status = 200;
+            String resposta = "{}";
+            if (linha.startsWith("POST")) {
+                status = statusCriacao.get();
+                resposta = status == 200
+                        ? "{\"name\":\"cachedContents/c" + criados.incrementAndGet() + "\"}"
+                        : "{\"error\":{\"message\":\"Cached content is too small\"}}";
+            }
+            byte[] bytes = resposta.getBytes(StandardCharsets.UTF_8);
+            troca.sendResponseHeaders(status, bytes.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(bytes);
+            }
+        }
+    }
+
+    private void avancarSegundos(long segundos) {
+        agora.addAndGet(TimeUnit.SECONDS.toMillis(segundos));
+    }
+
+    private List<String> linhas() {
+        return chamadas.stream().map(Chamada::linha).toList();
+    }
+
+    @Test
+    @DisplayName("Deve criar o cache no primeiro uso e reaproveitá-lo nos seguintes")
+    void deveCriarNoPrimeiroUsoEReaproveitar() throws IOException {
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c1");
+        avancarSegundos(60);
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c1");
+
+        assertThat(linhas()).containsExactly("POST /v1beta/cachedContents?key=k");
+        JsonNode criacao = JsonTestes.OBJECT_MAPPER.readTree(chamadas.get(0).corpo());
+        assertThat(criacao.path("model").asText()).isEqualTo("models/gemini-2.0-flash");
+        assertThat(criacao.path("systemInstruction").path("parts").path(0).path("text").asText()).isEqualTo("instrução fixa");
+        assertThat(criacao.path("ttl").asText()).isEqualTo("3600s");
+    }
+
+    @Test
+    @DisplayName("Deve renovar o TTL antes de o cache expirar, mantendo o nome")
+    void deveRenovarAntesDeExpirar() throws IOException {
+        cache.nome("analise", "instrução fixa");
+        avancarSegundos(TTL_S - RENOVAR_ANTES_S);
+
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c1");
+        assertThat(linhas()).containsExactly(
+                "POST /v1beta/cachedContents?key=k",
+                "PATCH /v1beta/cachedContents/c1?updateMask=ttl&key=k");
+        assertThat(JsonTestes.OBJECT_MAPPER.readTree(chamadas.get(1).corpo()).path("ttl").asText()).isEqualTo("3600s");
+    }
+
+    @Test
+    @DisplayName("Deve criar outro cache quando o anterior já expirou")
+    void deveCriarOutroQuandoExpirou() {
+        cache.nome("analise", "instrução fixa");
+        avancarSegundos(TTL_S + 1);
+
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c2");
+        assertThat(linhas()).containsExactly("POST /v1beta/cachedContents?key=k", "POST /v1beta/cachedContents?key=k");
+    }
+
+    @Test
+    @DisplayName("Deve excluir o cache e criar outro quando a instrução muda")
+    void deveTrocarCacheQuandoInstrucaoMuda() {
+        cache.nome("analise", "instrução v1");
+
+        assertThat(cache.nome("analise", "instrução v2")).contains("cachedContents/c2");
+        assertThat(linhas()).containsExactly(
+                "POST /v1beta/cachedContents?key=k",
+                "DELETE /v1beta/cachedContents/c1?key=k",
+                "POST /v1beta/cachedContents?key=k");
+    }
+
+    @Test
+    @DisplayName("Deve seguir inline quando o Gemini recusa o cache e só tentar de novo depois do TTL")
+    void deveSeguirInlineQuandoRecusado() {
+        statusCriacao.set(400);
+
+        assertThat(cache.nome("analise", "instrução curta")).isEmpty();
+        avancarSegundos(60);
+        assertThat(cache.nome("analise", "instrução curta")).isEmpty();
+        assertThat(chamadas).hasSize(1);
+
+        statusCriacao.set(200);
+        avancarSegundos(TTL_S);
+        assertThat(cache.nome("analise", "instrução curta")).contains("cachedContents/c1");
+    }
+
+    @Test
+    @DisplayName("Deve descartar o cache recusado numa requisição, mas não por erro transitório")
+    void deveDescartarCacheRecusado() {
+        cache.nome("analise", "instrução fixa");
+
+        cache.recusado("analise", "cachedContents/c1", 503);
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c1");
+
+        cache.recusado("analise", "cachedContents/c1", 404);
+        assertThat(cache.nome("analise", "instrução fixa")).contains("cachedContents/c2");
+    }
+
+    @Test
+    @DisplayName("Não deve chamar o Gemini com o cache desligado")
+    void naoDeveChamarComCacheDesligado() {
+        assertThat(criarCache(false).nome("analise", "instrução fixa")).isEmpty();
+        assertThat(CacheContextoGemini.desligado().nome("analise", "instrução fixa")).isEmpty();
+        assertThat(chamadas).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar renovação que não cabe no TTL")
+    void deveRejeitarConfiguracaoInvalida() {
+        assertThatThrownBy(() -> new CacheContextoGemini(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, true, "", "", "", 300, 300))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CacheContextoGemini(Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, true, "", "", "", 3600, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -14,6 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -192,14 +195,14 @@ class CertificadoServiceTest {
             cert2.setCliente(cliente);
             cert2.setNome("Certificado 2");
 
-            when(certificadoRepository.findAll()).thenReturn(Arrays.asList(cert1, cert2));
+            when(certificadoRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(cert1, cert2)));
 
-            List<CertificadoDtoOut> resultados = certificadoService.buscarTodos();
+            List<CertificadoDtoOut> resultados = certificadoService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("Certificado 1");
             assertThat(resultados.get(1).getNome()).isEqualTo("Certificado 2");
-            verify(certificadoRepository, times(1)).findAll();
+            verify(certificadoRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
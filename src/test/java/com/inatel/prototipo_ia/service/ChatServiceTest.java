@@ -16,6 +16,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -197,14 +200,14 @@ class ChatServiceTest {
             chat2.setEspecialista(especialista);
             chat2.setDuracao(30);
 
-            when(chatRepository.findAll()).thenReturn(Arrays.asList(chat1, chat2));
+            when(chatRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(chat1, chat2)));
 
-            List<ChatDtoOut> resultados = chatService.buscarTodos();
+            List<ChatDtoOut> resultados = chatService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getId()).isEqualTo(1L);
             assertThat(resultados.get(1).getId()).isEqualTo(2L);
-            verify(chatRepository, times(1)).findAll();
+            verify(chatRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
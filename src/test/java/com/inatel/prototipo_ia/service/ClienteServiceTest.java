@@ -7,6 +7,7 @@ import com.inatel.prototipo_ia.repository.ChatRepository;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.CertificadoRepository;
+import com.inatel.prototipo_ia.security.CodificadorSenha;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,7 +16,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,7 +44,7 @@ class ClienteServiceTest {
     private CertificadoRepository certificadoRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private CodificadorSenha passwordEncoder;
 
     @InjectMocks
     private ClienteService clienteService;
@@ -125,14 +128,14 @@ class ClienteServiceTest {
             cliente2.setIdade(30);
             cliente2.setNivel("Avançado");
 
-            when(clienteRepository.findAll()).thenReturn(Arrays.asList(cliente1, cliente2));
+            when(clienteRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(cliente1, cliente2)));
 
-            List<ClienteDtoOut> resultados = clienteService.buscarTodos();
+            List<ClienteDtoOut> resultados = clienteService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("Cliente 1");
             assertThat(resultados.get(1).getNome()).isEqualTo("Cliente 2");
-            verify(clienteRepository, times(1)).findAll();
+            verify(clienteRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -8,6 +8,7 @@ import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ClienteRepository;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.ConsultaCalendarioProjection;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,12 +17,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,6 +50,9 @@ class ConsultaServiceTest {
     @Mock
     private EspecialistaRepository especialistaRepository;
 
+    @Mock
+    private AgendaEspecialistas agenda;
+
     @InjectMocks
     private ConsultaService consultaService;
 
@@ -94,6 +102,29 @@ class ConsultaServiceTest {
             assertThat(resultado.getStatus()).isEqualTo("Agendada");
 
             verify(consultaRepository, times(1)).save(any(ConsultaEntity.class));
+            verify(agenda).reservar(consultaSalva);
+        }
+
+        @Test
+        @DisplayName("Deve recusar consulta sobreposta a outra do especialista")
+        void deveRecusarConsultaSobreposta() {
+            ConsultaDtoIn consultaDto = new ConsultaDtoIn();
+            consultaDto.setClienteId(1L);
+            consultaDto.setEspecialistaId(2L);
+            consultaDto.setData(LocalDate.of(2025, 12, 15));
+            consultaDto.setHora(LocalTime.of(14, 30));
+            consultaDto.setTipo("Avaliação");
+            consultaDto.setStatus("Agendada");
+
+            when(clienteRepository.findById(1L)).thenReturn(Optional.of(new ClienteEntity()));
+            when(especialistaRepository.findById(2L)).thenReturn(Optional.of(new EspecialistaEntity()));
+            when(consultaRepository.save(any(ConsultaEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(new IllegalStateException("O especialista já tem consulta que se sobrepõe a 2025-12-15 14:30."))
+                .when(agenda).reservar(any(ConsultaEntity.class));
+
+            assertThatThrownBy(() -> consultaService.criar(consultaDto))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sobrepõe");
         }
 
         @Test
@@ -284,14 +315,14 @@ class ConsultaServiceTest {
             consulta2.setCliente(cliente);
             consulta2.setEspecialista(especialista);
 
-            when(consultaRepository.findAll()).thenReturn(Arrays.asList(consulta1, consulta2));
+            when(consultaRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(consulta1, consulta2)));
 
-            List<ConsultaDtoOut> resultados = consultaService.buscarTodos();
+            List<ConsultaDtoOut> resultados = consultaService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getId()).isEqualTo(1L);
             assertThat(resultados.get(1).getId()).isEqualTo(2L);
-            verify(consultaRepository, times(1)).findAll();
+            verify(consultaRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -446,6 +477,74 @@ class ConsultaServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Testes de Calendário de Consultas")
+    class CalendarioConsultaTests {
+
+        private final LocalDate inicioDoMes = LocalDate.of(2025, 12, 1);
+        private final LocalDate fimDoMes = LocalDate.of(2025, 12, 31);
+
+        private ConsultaCalendarioProjection consulta(Long id, LocalDate data, String hora, Long clienteId) {
+            ConsultaCalendarioProjection consulta = mock(ConsultaCalendarioProjection.class);
+            lenient().when(consulta.getId()).thenReturn(id);
+            lenient().when(consulta.getData()).thenReturn(data);
+            lenient().when(consulta.getHora()).thenReturn(LocalTime.parse(hora));
+            lenient().when(consulta.getClienteId()).thenReturn(clienteId);
+            lenient().when(consulta.getEspecialistaId()).thenReturn(2L);
+            return consulta;
+        }
+
+        @Test
+        @DisplayName("Deve agrupar as consultas do período por dia, sem repetir a data")
+        void deveAgruparConsultasPorDia() {
+            List<ConsultaCalendarioProjection> doMes = List.of(
+                    consulta(1L, inicioDoMes, "09:00", 1L),
+                    consulta(2L, inicioDoMes, "10:00", 3L),
+                    consulta(3L, fimDoMes, "08:00", 1L));
+            when(consultaRepository.findCalendario(inicioDoMes, fimDoMes)).thenReturn(doMes);
+
+            SortedMap<LocalDate, List<ConsultaDtoOut>> calendario = consultaService.buscarCalendario(inicioDoMes, fimDoMes, null, null);
+
+            assertThat(calendario.keySet()).containsExactly(inicioDoMes, fimDoMes);
+            assertThat(calendario.get(inicioDoMes)).extracting(ConsultaDtoOut::getId).containsExactly(1L, 2L);
+            assertThat(calendario.get(inicioDoMes)).allSatisfy(consulta -> assertThat(consulta.getData()).isNull());
+            verify(consultaRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Deve usar a query do especialista e filtrar o cliente quando os dois são informados")
+        void deveFiltrarPorEspecialistaECliente() {
+            List<ConsultaCalendarioProjection> doEspecialista = List.of(
+                    consulta(1L, inicioDoMes, "09:00", 1L),
+                    consulta(2L, inicioDoMes, "10:00", 3L));
+            when(consultaRepository.findCalendarioDoEspecialista(2L, inicioDoMes, fimDoMes)).thenReturn(doEspecialista);
+
+            SortedMap<LocalDate, List<ConsultaDtoOut>> calendario = consultaService.buscarCalendario(inicioDoMes, fimDoMes, 2L, 1L);
+
+            assertThat(calendario.get(inicioDoMes)).extracting(ConsultaDtoOut::getId).containsExactly(1L);
+            verify(consultaRepository, never()).findCalendarioDoCliente(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve usar a query do cliente quando só ele é informado")
+        void deveFiltrarPorCliente() {
+            when(consultaRepository.findCalendarioDoCliente(1L, inicioDoMes, fimDoMes)).thenReturn(List.of());
+
+            assertThat(consultaService.buscarCalendario(inicioDoMes, fimDoMes, null, 1L)).isEmpty();
+            verify(consultaRepository, never()).findCalendario(any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar período sem datas ou longo demais")
+        void deveRejeitarPeriodoInvalido() {
+            assertThatThrownBy(() -> consultaService.buscarCalendario(null, fimDoMes, null, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> consultaService.buscarCalendario(inicioDoMes, inicioDoMes.plusYears(2), null, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(consultaRepository);
+        }
+    }
+
     @Nested
     @DisplayName("Testes de Atualização de Consulta")
     class AtualizacaoConsultaTests {
@@ -518,17 +617,23 @@ class ConsultaServiceTest {
         @Test
         @DisplayName("Deve deletar consulta com sucesso")
         void deveDeletarConsultaComSucesso() {
-            when(consultaRepository.existsById(10L)).thenReturn(true);
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setId(2L);
+            ConsultaEntity consulta = new ConsultaEntity();
+            consulta.setId(10L);
+            consulta.setEspecialista(especialista);
+            when(consultaRepository.findById(10L)).thenReturn(Optional.of(consulta));
 
             consultaService.deletar(10L);
 
             verify(consultaRepository, times(1)).deleteById(10L);
+            verify(agenda).removerConsulta(2L, 10L);
         }
 
         @Test
         @DisplayName("Deve lançar exceção ao deletar consulta inexistente")
         void deveLancarExcecao_QuandoDeletarConsultaInexistente() {
-            when(consultaRepository.existsById(999L)).thenReturn(false);
+            when(consultaRepository.findById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> consultaService.deletar(999L))
                 .isInstanceOf(EntityNotFoundException.class)
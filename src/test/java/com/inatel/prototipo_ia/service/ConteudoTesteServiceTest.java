@@ -12,6 +12,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -160,14 +163,14 @@ class ConteudoTesteServiceTest {
             conteudo2.setTextoFrase("Frase 2");
             conteudo2.setDificuldade("Avançado");
 
-            when(conteudoTesteRepository.findAll()).thenReturn(Arrays.asList(conteudo1, conteudo2));
+            when(conteudoTesteRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(conteudo1, conteudo2)));
 
-            List<ConteudoTesteDtoOut> resultados = conteudoTesteService.buscarTodos();
+            List<ConteudoTesteDtoOut> resultados = conteudoTesteService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getTextoFrase()).isEqualTo("Frase 1");
             assertThat(resultados.get(1).getTextoFrase()).isEqualTo("Frase 2");
-            verify(conteudoTesteRepository, times(1)).findAll();
+            verify(conteudoTesteRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
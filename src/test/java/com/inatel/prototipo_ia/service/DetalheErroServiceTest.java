@@ -14,6 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -191,14 +194,14 @@ class DetalheErroServiceTest {
             detalhe2.setRelatorio(relatorio);
             detalhe2.setFonemaEsperado("S");
 
-            when(detalheErroRepository.findAll()).thenReturn(Arrays.asList(detalhe1, detalhe2));
+            when(detalheErroRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(detalhe1, detalhe2)));
 
-            List<DetalheErroDtoOut> resultados = detalheErroService.buscarTodos();
+            List<DetalheErroDtoOut> resultados = detalheErroService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getFonemaEsperado()).isEqualTo("R");
             assertThat(resultados.get(1).getFonemaEsperado()).isEqualTo("S");
-            verify(detalheErroRepository, times(1)).findAll();
+            verify(detalheErroRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
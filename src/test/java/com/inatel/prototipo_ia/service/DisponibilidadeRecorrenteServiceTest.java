@@ -0,0 +1,212 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.in.DisponibilidadeRecorrenteDtoIn;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
+import com.inatel.prototipo_ia.dto.out.DisponibilidadeRecorrenteDtoOut;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - DisponibilidadeRecorrenteService
+ * Valida as janelas semanais com exceções e a geração das ocorrências só para o período pedido
+ */
+@ExtendWith(MockitoExtension.class)
+class DisponibilidadeRecorrenteServiceTest {
+
+    // Segunda-feira
+    private static final LocalDate SEGUNDA = LocalDate.of(2025, 12, 15);
+
+    @Mock
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
+    @Mock
+    private EspecialistaRepository especialistaRepository;
+
+    @Mock
+    private AgendaEspecialistas agenda;
+
+    @InjectMocks
+    private DisponibilidadeRecorrenteService recorrenteService;
+
+    private static EspecialistaEntity especialista() {
+        EspecialistaEntity especialista = new EspecialistaEntity();
+        especialista.setId(1L);
+        return especialista;
+    }
+
+    private static DisponibilidadeRecorrenteDtoIn dtoValido() {
+        DisponibilidadeRecorrenteDtoIn dto = new DisponibilidadeRecorrenteDtoIn();
+        dto.setEspecialistaId(1L);
+        dto.setDiaSemana(DayOfWeek.MONDAY);
+        dto.setHoraInicio(LocalTime.of(8, 0));
+        dto.setHoraFim(LocalTime.of(12, 0));
+        dto.setVigenciaInicio(SEGUNDA);
+        return dto;
+    }
+
+    private static DisponibilidadeRecorrenteEntity segundas(Long id) {
+        DisponibilidadeRecorrenteEntity recorrente = new DisponibilidadeRecorrenteEntity();
+        recorrente.setId(id);
+        recorrente.setEspecialista(especialista());
+        recorrente.setDiaSemana(DayOfWeek.MONDAY);
+        recorrente.setHoraInicio(LocalTime.of(8, 0));
+        recorrente.setHoraFim(LocalTime.of(12, 0));
+        recorrente.setVigenciaInicio(SEGUNDA);
+        return recorrente;
+    }
+
+    @Nested
+    @DisplayName("Testes de Criação de Disponibilidade Recorrente")
+    class CriacaoTests {
+
+        @Test
+        @DisplayName("Deve criar a janela recorrente e registrá-la na agenda")
+        void deveCriarRecorrenteComSucesso() {
+            DisponibilidadeRecorrenteDtoIn dto = dtoValido();
+            dto.setExcecoes(Set.of(SEGUNDA.plusWeeks(1)));
+            when(especialistaRepository.findById(1L)).thenReturn(Optional.of(especialista()));
+            when(recorrenteRepository.save(any(DisponibilidadeRecorrenteEntity.class))).thenAnswer(invocacao -> {
+                DisponibilidadeRecorrenteEntity salvo = invocacao.getArgument(0);
+                salvo.setId(10L);
+                return salvo;
+            });
+
+            DisponibilidadeRecorrenteDtoOut resultado = recorrenteService.criar(dto);
+
+            assertThat(resultado.getId()).isEqualTo(10L);
+            assertThat(resultado.getDiaSemana()).isEqualTo(DayOfWeek.MONDAY);
+            assertThat(resultado.getExcecoes()).containsExactly(SEGUNDA.plusWeeks(1));
+            verify(agenda).registrarRecorrencia(any(DisponibilidadeRecorrenteEntity.class));
+        }
+
+        @Test
+        @DisplayName("Deve lançar exceção quando o especialista não existe")
+        void deveLancarExcecao_QuandoEspecialistaNaoExiste() {
+            when(especialistaRepository.findById(1L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> recorrenteService.criar(dtoValido()))
+                    .isInstanceOf(EntityNotFoundException.class);
+            verify(recorrenteRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar horário invertido, sem dia da semana ou vigência invertida")
+        void deveRejeitarDtoInvalido() {
+            DisponibilidadeRecorrenteDtoIn invertido = dtoValido();
+            invertido.setHoraFim(LocalTime.of(8, 0));
+            DisponibilidadeRecorrenteDtoIn semDia = dtoValido();
+            semDia.setDiaSemana(null);
+            DisponibilidadeRecorrenteDtoIn vigenciaInvertida = dtoValido();
+            vigenciaInvertida.setVigenciaFim(SEGUNDA.minusDays(1));
+
+            assertThatThrownBy(() -> recorrenteService.criar(invertido)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> recorrenteService.criar(semDia)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> recorrenteService.criar(vigenciaInvertida)).isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(recorrenteRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Ocorrências")
+    class OcorrenciasTests {
+
+        @Test
+        @DisplayName("Deve gerar só as ocorrências do período, dentro da vigência e sem as exceções")
+        void deveGerarOcorrenciasDoPeriodo() {
+            DisponibilidadeRecorrenteEntity recorrente = segundas(10L);
+            recorrente.setVigenciaFim(SEGUNDA.plusWeeks(3));
+            recorrente.getExcecoes().add(SEGUNDA.plusWeeks(1));
+            when(recorrenteRepository.findByEspecialistaIdComExcecoes(1L)).thenReturn(List.of(recorrente));
+
+            List<DisponibilidadeDtoOut> ocorrencias = recorrenteService.buscarOcorrencias(1L, SEGUNDA.minusWeeks(2), SEGUNDA.plusWeeks(8));
+
+            assertThat(ocorrencias).extracting(DisponibilidadeDtoOut::getData)
+                    .containsExactly(SEGUNDA, SEGUNDA.plusWeeks(2), SEGUNDA.plusWeeks(3));
+            assertThat(ocorrencias).allSatisfy(ocorrencia -> {
+                assertThat(ocorrencia.getId()).isNull();
+                assertThat(ocorrencia.getRecorrenteId()).isEqualTo(10L);
+                assertThat(ocorrencia.getHoraInicio()).isEqualTo(LocalTime.of(8, 0));
+                assertThat(ocorrencia.getStatus()).isEqualTo("Disponível");
+            });
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar período invertido ou longo demais")
+        void deveRejeitarPeriodoInvalido() {
+            assertThatThrownBy(() -> recorrenteService.buscarOcorrencias(1L, SEGUNDA, SEGUNDA.minusDays(1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> recorrenteService.buscarOcorrencias(1L, SEGUNDA, SEGUNDA.plusYears(2)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(recorrenteRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Exceções e Deleção")
+    class ExcecoesTests {
+
+        @Test
+        @DisplayName("Deve adicionar e remover exceção, atualizando a agenda")
+        void deveAdicionarERemoverExcecao() {
+            DisponibilidadeRecorrenteEntity recorrente = segundas(10L);
+            when(recorrenteRepository.findById(10L)).thenReturn(Optional.of(recorrente));
+
+            assertThat(recorrenteService.adicionarExcecao(10L, SEGUNDA.plusWeeks(1)).getExcecoes()).containsExactly(SEGUNDA.plusWeeks(1));
+            assertThat(recorrenteService.removerExcecao(10L, SEGUNDA.plusWeeks(1)).getExcecoes()).isEmpty();
+            verify(agenda, times(2)).registrarRecorrencia(recorrente);
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar exceção em data de outro dia da semana")
+        void deveRejeitarExcecaoEmOutroDiaDaSemana() {
+            when(recorrenteRepository.findById(10L)).thenReturn(Optional.of(segundas(10L)));
+
+            assertThatThrownBy(() -> recorrenteService.adicionarExcecao(10L, SEGUNDA.plusDays(1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(agenda);
+        }
+
+        @Test
+        @DisplayName("Deve deletar a recorrente e tirá-la da agenda")
+        void deveDeletarRecorrente() {
+            DisponibilidadeRecorrenteEntity recorrente = segundas(10L);
+            when(recorrenteRepository.findById(10L)).thenReturn(Optional.of(recorrente));
+
+            recorrenteService.deletar(10L);
+
+            verify(recorrenteRepository).delete(recorrente);
+            verify(agenda).removerRecorrencia(1L, 10L);
+        }
+
+        @Test
+        @DisplayName("Deve lançar exceção ao deletar recorrente inexistente")
+        void deveLancarExcecao_QuandoDeletarInexistente() {
+            when(recorrenteRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> recorrenteService.deletar(99L))
+                    .isInstanceOf(EntityNotFoundException.class)
+                    .hasMessageContaining("99");
+        }
+    }
+}
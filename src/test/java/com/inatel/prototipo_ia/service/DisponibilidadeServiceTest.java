@@ -3,9 +3,12 @@ package com.inatel.prototipo_ia.service;
 import com.inatel.prototipo_ia.dto.in.DisponibilidadeDtoIn;
 import com.inatel.prototipo_ia.dto.out.DisponibilidadeDtoOut;
 import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import com.inatel.prototipo_ia.entity.DisponibilidadeRecorrenteEntity;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.projection.DisponibilidadeCalendarioProjection;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,12 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,9 +43,15 @@ class DisponibilidadeServiceTest {
     @Mock
     private DisponibilidadeRepository disponibilidadeRepository;
 
+    @Mock
+    private DisponibilidadeRecorrenteRepository recorrenteRepository;
+
     @Mock
     private EspecialistaRepository especialistaRepository;
 
+    @Mock
+    private AgendaEspecialistas agenda;
+
     @InjectMocks
     private DisponibilidadeService disponibilidadeService;
 
@@ -202,14 +216,14 @@ class DisponibilidadeServiceTest {
             disp2.setId(2L);
             disp2.setEspecialista(especialista);
 
-            when(disponibilidadeRepository.findAll()).thenReturn(Arrays.asList(disp1, disp2));
+            when(disponibilidadeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(disp1, disp2)));
 
-            List<DisponibilidadeDtoOut> resultados = disponibilidadeService.buscarTodos();
+            List<DisponibilidadeDtoOut> resultados = disponibilidadeService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getId()).isEqualTo(1L);
             assertThat(resultados.get(1).getId()).isEqualTo(2L);
-            verify(disponibilidadeRepository, times(1)).findAll();
+            verify(disponibilidadeRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -334,6 +348,57 @@ class DisponibilidadeServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Testes de Calendário de Disponibilidades")
+    class CalendarioDisponibilidadeTests {
+
+        // Segunda-feira
+        private final LocalDate segunda = LocalDate.of(2025, 12, 15);
+
+        @Test
+        @DisplayName("Deve juntar janelas e ocorrências das recorrentes no dia, em ordem de início")
+        void deveJuntarJanelasEOcorrenciasPorDia() {
+            DisponibilidadeCalendarioProjection janela = mock(DisponibilidadeCalendarioProjection.class);
+            when(janela.getId()).thenReturn(5L);
+            when(janela.getData()).thenReturn(segunda);
+            when(janela.getHoraInicio()).thenReturn(LocalTime.of(14, 0));
+            when(janela.getEspecialistaId()).thenReturn(1L);
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setId(1L);
+            DisponibilidadeRecorrenteEntity segundas = new DisponibilidadeRecorrenteEntity();
+            segundas.setId(9L);
+            segundas.setEspecialista(especialista);
+            segundas.setDiaSemana(DayOfWeek.MONDAY);
+            segundas.setHoraInicio(LocalTime.of(8, 0));
+            segundas.setHoraFim(LocalTime.of(12, 0));
+            segundas.setVigenciaInicio(segunda.minusWeeks(4));
+            segundas.getExcecoes().add(segunda.plusWeeks(1));
+            when(disponibilidadeRepository.findCalendarioDoEspecialista(1L, segunda, segunda.plusDays(13))).thenReturn(List.of(janela));
+            when(recorrenteRepository.findByEspecialistaIdComExcecoes(1L)).thenReturn(List.of(segundas));
+
+            SortedMap<LocalDate, List<DisponibilidadeDtoOut>> calendario =
+                    disponibilidadeService.buscarCalendario(segunda, segunda.plusDays(13), 1L);
+
+            // A segunda seguinte é exceção
+            assertThat(calendario.keySet()).containsExactly(segunda);
+            assertThat(calendario.get(segunda)).extracting(DisponibilidadeDtoOut::getHoraInicio)
+                    .containsExactly(LocalTime.of(8, 0), LocalTime.of(14, 0));
+            assertThat(calendario.get(segunda).get(0).getRecorrenteId()).isEqualTo(9L);
+            assertThat(calendario.get(segunda).get(0).getId()).isNull();
+            assertThat(calendario.get(segunda).get(1).getId()).isEqualTo(5L);
+        }
+
+        @Test
+        @DisplayName("Deve buscar as recorrentes vigentes de todos os especialistas sem filtro")
+        void deveBuscarRecorrentesVigentesSemFiltro() {
+            when(disponibilidadeRepository.findCalendario(segunda, segunda)).thenReturn(List.of());
+            when(recorrenteRepository.findVigentesEntreComExcecoes(segunda, segunda)).thenReturn(List.of());
+
+            assertThat(disponibilidadeService.buscarCalendario(segunda, segunda, null)).isEmpty();
+            verify(recorrenteRepository, never()).findByEspecialistaIdComExcecoes(any());
+        }
+    }
+
     @Nested
     @DisplayName("Testes de Atualização de Disponibilidade")
     class AtualizacaoDisponibilidadeTests {
@@ -399,17 +464,23 @@ class DisponibilidadeServiceTest {
         @Test
         @DisplayName("Deve deletar disponibilidade com sucesso")
         void deveDeletarDisponibilidadeComSucesso() {
-            when(disponibilidadeRepository.existsById(10L)).thenReturn(true);
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setId(2L);
+            DisponibilidadeEntity disponibilidade = new DisponibilidadeEntity();
+            disponibilidade.setId(10L);
+            disponibilidade.setEspecialista(especialista);
+            when(disponibilidadeRepository.findById(10L)).thenReturn(Optional.of(disponibilidade));
 
             disponibilidadeService.deletar(10L);
 
             verify(disponibilidadeRepository, times(1)).deleteById(10L);
+            verify(agenda).removerDisponibilidade(2L, 10L);
         }
 
         @Test
         @DisplayName("Deve lançar exceção ao deletar disponibilidade inexistente")
         void deveLancarExcecao_QuandoDeletarDisponibilidadeInexistente() {
-            when(disponibilidadeRepository.existsById(999L)).thenReturn(false);
+            when(disponibilidadeRepository.findById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> disponibilidadeService.deletar(999L))
                 .isInstanceOf(EntityNotFoundException.class)
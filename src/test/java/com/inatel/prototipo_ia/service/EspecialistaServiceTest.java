@@ -4,6 +4,7 @@ import com.inatel.prototipo_ia.dto.in.EspecialistaDtoIn;
 import com.inatel.prototipo_ia.dto.out.EspecialistaDtoOut;
 import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.repository.ConsultaRepository;
+import com.inatel.prototipo_ia.repository.DisponibilidadeRecorrenteRepository;
 import com.inatel.prototipo_ia.repository.DisponibilidadeRepository;
 import com.inatel.prototipo_ia.repository.EspecialistaRepository;
 import com.inatel.prototipo_ia.repository.ChatRepository;
@@ -17,6 +18,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -42,6 +46,9 @@ class EspecialistaServiceTest {
     @Mock
     private DisponibilidadeRepository disponibilidadeRepository;
 
+    @Mock
+    private DisponibilidadeRecorrenteRepository disponibilidadeRecorrenteRepository;
+
     @Mock
     private ChatRepository chatRepository;
 
@@ -178,14 +185,14 @@ class EspecialistaServiceTest {
             esp2.setNome("Dra. Santos");
             esp2.setEspecialidade("Neurologia");
 
-            when(especialistaRepository.findAll()).thenReturn(Arrays.asList(esp1, esp2));
+            when(especialistaRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(esp1, esp2)));
 
-            List<EspecialistaDtoOut> resultados = especialistaService.buscarTodos();
+            List<EspecialistaDtoOut> resultados = especialistaService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("Dr. Silva");
             assertThat(resultados.get(1).getNome()).isEqualTo("Dra. Santos");
-            verify(especialistaRepository, times(1)).findAll();
+            verify(especialistaRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -385,5 +392,20 @@ class EspecialistaServiceTest {
 
             verify(especialistaRepository, never()).deleteById(any());
         }
+
+        @Test
+        @DisplayName("Deve lançar exceção ao deletar especialista com disponibilidade recorrente")
+        void deveLancarExcecao_QuandoDeletarEspecialistaComDisponibilidadeRecorrente() {
+            when(especialistaRepository.existsById(5L)).thenReturn(true);
+            when(consultaRepository.existsByEspecialistaId(5L)).thenReturn(false);
+            when(disponibilidadeRepository.existsByEspecialistaId(5L)).thenReturn(false);
+            when(disponibilidadeRecorrenteRepository.existsByEspecialistaId(5L)).thenReturn(true);
+
+            assertThatThrownBy(() -> especialistaService.deletar(5L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("disponibilidades");
+
+            verify(especialistaRepository, never()).deleteById(any());
+        }
     }
 }
@@ -0,0 +1,154 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.entity.ChatEntity;
+import com.inatel.prototipo_ia.entity.ClienteEntity;
+import com.inatel.prototipo_ia.entity.DetalheErroEntity;
+import com.inatel.prototipo_ia.entity.RelatorioEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.enums.FormatoArquivo;
+import com.inatel.prototipo_ia.repository.DetalheErroRepository;
+import com.inatel.prototipo_ia.repository.RelatorioRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - ExportacaoService
+ * Valida a escrita em streaming das exportações NDJSON e CSV
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportacaoServiceTest {
+
+    @Mock
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Mock
+    private RelatorioRepository relatorioRepository;
+
+    @Mock
+    private DetalheErroRepository detalheErroRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ExportacaoService exportacaoService;
+
+    private ClienteEntity cliente() {
+        ClienteEntity cliente = new ClienteEntity();
+        cliente.setId(7L);
+        cliente.setNome("Ana, \"Aninha\"");
+        return cliente;
+    }
+
+    private RelatorioEntity relatorio(Long id) {
+        ChatEntity chat = new ChatEntity();
+        chat.setId(3L);
+        chat.setCliente(cliente());
+        RelatorioEntity relatorio = new RelatorioEntity();
+        relatorio.setId(id);
+        relatorio.setChat(chat);
+        relatorio.setAcuracia(0.9f);
+        relatorio.setAnaliseFono("Troca de R por L\nem posição final");
+        return relatorio;
+    }
+
+    @Nested
+    @DisplayName("Testes de Exportação NDJSON")
+    class ExportacaoNdjsonTests {
+
+        @Test
+        @DisplayName("Deve escrever um objeto JSON por linha")
+        void deveEscreverUmObjetoPorLinha() throws Exception {
+            SessaoTreinoEntity sessao = new SessaoTreinoEntity();
+            sessao.setId(1L);
+            sessao.setCliente(cliente());
+            sessao.setDificuldade("facil");
+            sessao.setIdadeCliente(8);
+            sessao.setStatus(SessaoTreinoEntity.StatusSessao.FINALIZADA);
+            sessao.setPontuacaoGeral(87.5);
+            sessao.setDataInicio(LocalDateTime.of(2025, 1, 10, 14, 30));
+
+            when(sessaoRepository.streamByEspecialistaId(2L)).thenReturn(Stream.of(sessao, sessao));
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+            exportacaoService.exportarSessoes(2L, FormatoArquivo.NDJSON, saida);
+
+            String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(linhas).hasSize(2);
+            assertThat(linhas[0])
+                    .startsWith("{\"id\":1,\"clienteId\":7,")
+                    .contains("\"chatId\":null")
+                    .contains("\"status\":\"FINALIZADA\"")
+                    .contains("\"pontuacaoGeral\":87.5")
+                    .contains("\"dataInicio\":\"2025-01-10T14:30\"")
+                    .endsWith("}");
+            verify(entityManager, times(2)).detach(sessao);
+        }
+
+        @Test
+        @DisplayName("Deve limpar o contexto de persistência a cada lote")
+        void deveLimparContextoACadaLote() throws Exception {
+            DetalheErroEntity detalhe = new DetalheErroEntity();
+            detalhe.setId(1L);
+            detalhe.setRelatorio(relatorio(5L));
+            detalhe.setFonemaEsperado("R");
+            detalhe.setFonemaProduzido("L");
+
+            when(detalheErroRepository.streamByEspecialistaId(2L))
+                    .thenReturn(IntStream.range(0, ExportacaoService.LOTE_EXPORTACAO * 2 + 1).mapToObj(i -> detalhe));
+
+            exportacaoService.exportarDetalhesErro(2L, FormatoArquivo.NDJSON, new ByteArrayOutputStream());
+
+            verify(entityManager, times(2)).clear();
+            verify(entityManager, times(ExportacaoService.LOTE_EXPORTACAO * 2 + 1)).detach(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Exportação CSV")
+    class ExportacaoCsvTests {
+
+        @Test
+        @DisplayName("Deve escrever cabeçalho e escapar valores com vírgula, aspas e quebra de linha")
+        void deveEscreverCabecalhoEEscaparValores() throws Exception {
+            when(relatorioRepository.streamByEspecialistaId(2L)).thenReturn(Stream.of(relatorio(5L)));
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+            exportacaoService.exportarRelatorios(2L, FormatoArquivo.CSV, saida);
+
+            assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo(
+                    "id,chatId,clienteId,clienteNome,acuracia,analiseFono\n"
+                            + "5,3,7,\"Ana, \"\"Aninha\"\"\",0.9,\"Troca de R por L\nem posição final\"\n");
+        }
+
+        @Test
+        @DisplayName("Deve escrever apenas o cabeçalho quando não houver dados")
+        void deveEscreverApenasCabecalhoQuandoVazio() throws Exception {
+            when(relatorioRepository.streamByEspecialistaId(2L)).thenReturn(Stream.empty());
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+            exportacaoService.exportarRelatorios(2L, FormatoArquivo.CSV, saida);
+
+            assertThat(saida.toString(StandardCharsets.UTF_8))
+                    .isEqualTo("id,chatId,clienteId,clienteNome,acuracia,analiseFono\n");
+            verify(entityManager, never()).detach(any());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.inatel.prototipo_ia.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes do GeminiAudioAnalysisService - saída estruturada do Gemini e leitura da resposta (sem rede)
+ */
+class GeminiAudioAnalysisServiceTest {
+
+    private final GeminiAudioAnalysisService service = new GeminiAudioAnalysisService(Metricas.desligadas(), CacheContextoGemini.desligado(), JsonTestes.OBJECT_MAPPER);
+    private final ProtocoloGemini protocolo = new ProtocoloGemini(JsonTestes.OBJECT_MAPPER);
+
+    @Nested
+    @DisplayName("Testes da Requisição")
+    class RequisicaoTests {
+
+        @Test
+        @DisplayName("Deve pedir resposta JSON com o esquema da análise")
+        void devePedirRespostaJsonComEsquema() throws IOException {
+            JsonNode corpo = JsonTestes.OBJECT_MAPPER.readTree(protocolo.serializar(service.construirRequisicao("prompt", new byte[]{1, 2, 3}, null)));
+
+            JsonNode config = corpo.path("generationConfig");
+            assertThat(config.path("responseMimeType").asText()).isEqualTo("application/json");
+            assertThat(config.path("temperature").asDouble()).isEqualTo(0.4);
+            assertThat(config.has("topK")).isFalse();
+
+            JsonNode esquema = config.path("responseSchema");
+            assertThat(esquema.path("type").asText()).isEqualTo("OBJECT");
+            assertThat(esquema.path("properties").fieldNames())
+                    .toIterable().containsExactly("resultados", "feedbackGeral", "pontuacaoGeral");
+            assertThat(esquema.path("required")).hasSize(3);
+            assertThat(esquema.path("properties").path("resultados").path("items").path("properties").fieldNames())
+                    .toIterable().containsExactly("palavraEsperada", "palavraTranscrita", "acertou", "similaridade", "feedback");
+        }
+
+        @Test
+        @DisplayName("Deve enviar o áudio em Base64 no inline_data")
+        void deveEnviarAudioEmBase64() throws IOException {
+            byte[] audio = {0, 1, 2, (byte) 0xff, 42};
+
+            JsonNode partes = JsonTestes.OBJECT_MAPPER.readTree(protocolo.serializar(service.construirRequisicao("prompt", audio, null)))
+                    .path("contents").path(0).path("parts");
+
+            assertThat(partes.path(0).path("text").asText()).isEqualTo("prompt");
+            assertThat(partes.path(0).has("inline_data")).isFalse();
+            assertThat(partes.path(1).path("inline_data").path("mime_type").asText()).isEqualTo("audio/mp3");
+            assertThat(partes.path(1).path("inline_data").path("data").asText())
+                    .isEqualTo(Base64.getEncoder().encodeToString(audio));
+        }
+
+        @Test
+        @DisplayName("Deve enviar a instrução fixa em systemInstruction e só as palavras no conteúdo")
+        void deveEnviarInstrucaoFixaSeparada() throws IOException {
+            JsonNode corpo = JsonTestes.OBJECT_MAPPER.readTree(protocolo.serializar(
+                    service.construirRequisicao(service.construirPromptBatch(List.of("rato", "roupa")), new byte[]{1}, null)));
+
+            assertThat(corpo.path("systemInstruction").path("parts").path(0).path("text").asText())
+                    .isEqualTo(GeminiAudioAnalysisService.INSTRUCAO_ANALISE);
+            assertThat(corpo.path("contents").path(0).path("parts").path(0).path("text").asText())
+                    .isEqualTo("Palavras esperadas: rato, roupa.");
+            assertThat(corpo.has("cachedContent")).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve referenciar o cache de contexto no lugar da instrução quando há um")
+        void deveReferenciarCacheNoLugarDaInstrucao() throws IOException {
+            JsonNode corpo = JsonTestes.OBJECT_MAPPER.readTree(protocolo.serializar(
+                    service.construirRequisicao("Palavras esperadas: rato.", new byte[]{1}, "cachedContents/abc")));
+
+            assertThat(corpo.path("cachedContent").asText()).isEqualTo("cachedContents/abc");
+            assertThat(corpo.has("systemInstruction")).isFalse();
+            assertThat(corpo.path("generationConfig").path("responseMimeType").asText()).isEqualTo("application/json");
+        }
+
+        @Test
+        @DisplayName("Deve intercalar a instrução e o áudio de cada sessão na requisição com vários áudios")
+        void deveIntercalarInstrucaoEAudioDeCadaSessao() throws IOException {
+            JsonNode corpo = JsonTestes.OBJECT_MAPPER.readTree(protocolo.serializar(service.construirRequisicaoVariosAudios(List.of(
+                    new GeminiAudioAnalysisService.AudioSessao(10L, new byte[]{1}, List.of("rato", "roupa")),
+                    new GeminiAudioAnalysisService.AudioSessao(20L, new byte[]{2}, List.of("rei"))), null)));
+
+            JsonNode partes = corpo.path("contents").path(0).path("parts");
+            assertThat(partes).hasSize(5);
+            assertThat(partes.path(0).path("text").asText()).isEqualTo("2 áudios.");
+            assertThat(partes.path(1).path("text").asText()).isEqualTo("Áudio 1: rato, roupa.");
+            assertThat(partes.path(2).path("inline_data").path("data").asText()).isEqualTo("AQ==");
+            assertThat(partes.path(3).path("text").asText()).isEqualTo("Áudio 2: rei.");
+            assertThat(partes.path(4).path("inline_data").path("data").asText()).isEqualTo("Ag==");
+
+            JsonNode analise = corpo.path("generationConfig").path("responseSchema").path("properties").path("analises").path("items");
+            assertThat(analise.path("properties").fieldNames())
+                    .toIterable().containsExactly("indice", "resultados", "feedbackGeral", "pontuacaoGeral");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Parse da Resposta")
+    class ParseRespostaTests {
+
+        @Test
+        @DisplayName("Deve decodificar a análise direto no DTO e calcular os totais")
+        void deveDecodificarAnaliseNoDto() throws IOException {
+            String resposta = "{\"resultados\":["
+                    + "{\"palavraEsperada\":\"rato\",\"palavraTranscrita\":\"lato\",\"acertou\":false,\"similaridade\":75,\"feedback\":\"Atenção ao R\"},"
+                    + "{\"palavraEsperada\":\"roupa\",\"palavraTranscrita\":\"roupa\",\"acertou\":true,\"similaridade\":100,\"feedback\":\"Perfeito!\"}],"
+                    + "\"feedbackGeral\":\"Bom trabalho\",\"pontuacaoGeral\":87.5}";
+
+            BatchPronunciationAnalysisDTO dto = service.parsearRespostaBatch(resposta, List.of("rato", "roupa"));
+
+            assertThat(dto.getResultados()).hasSize(2);
+            assertThat(dto.getResultados().get(0).getPalavraTranscrita()).isEqualTo("lato");
+            assertThat(dto.getResultados().get(0).getSimilaridade()).isEqualTo(75.0);
+            assertThat(dto.getTotalAcertos()).isEqualTo(1);
+            assertThat(dto.getTotalPalavras()).isEqualTo(2);
+            assertThat(dto.getPorcentagemAcerto()).isEqualTo(50.0);
+            assertThat(dto.getPontuacaoGeral()).isEqualTo(87.5);
+            assertThat(dto.getFeedbackGeral()).isEqualTo("Bom trabalho");
+            assertThat(dto.getPalavrasEsperadas()).containsExactly("rato", "roupa");
+            assertThat(dto.getDataAnalise()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Deve falhar quando a resposta não é JSON, sem devolver análise degradada")
+        void deveFalharParaRespostaInvalida() {
+            assertThatThrownBy(() -> service.parsearRespostaBatch("não é json", List.of("rato")))
+                    .isInstanceOf(IOException.class);
+        }
+
+        @Test
+        @DisplayName("Deve falhar quando a resposta é vazia")
+        void deveFalharParaRespostaVazia() {
+            assertThatThrownBy(() -> service.parsearRespostaBatch("null", List.of("rato")))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("vazia");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Parse da Resposta com Vários Áudios")
+    class ParseVariosAudiosTests {
+
+        private final List<GeminiAudioAnalysisService.AudioSessao> audios = List.of(
+                new GeminiAudioAnalysisService.AudioSessao(10L, new byte[0], List.of("rato", "roupa")),
+                new GeminiAudioAnalysisService.AudioSessao(20L, new byte[0], List.of("rei")));
+
+        private String analise(int indice, String... palavras) {
+            StringBuilder json = new StringBuilder("{\"indice\":").append(indice).append(",\"resultados\":[");
+            for (int i = 0; i < palavras.length; i++) {
+                json.append(i > 0 ? "," : "").append("{\"palavraEsperada\":\"").append(palavras[i])
+                        .append("\",\"palavraTranscrita\":\"").append(palavras[i])
+                        .append("\",\"acertou\":true,\"similaridade\":100,\"feedback\":\"ok\"}");
+            }
+            return json.append("],\"feedbackGeral\":\"Áudio ").append(indice).append("\",\"pontuacaoGeral\":100}").toString();
+        }
+
+        @Test
+        @DisplayName("Deve devolver cada análise na posição do seu áudio pelo índice")
+        void deveDevolverAnalisesPeloIndice() throws IOException {
+            String resposta = "{\"analises\":[" + analise(2, "rei") + "," + analise(1, "rato", "roupa") + "]}";
+
+            List<Optional<BatchPronunciationAnalysisDTO>> analises = service.parsearRespostaVariosAudios(resposta, audios);
+
+            assertThat(analises.get(0)).hasValueSatisfying(dto -> {
+                assertThat(dto.getFeedbackGeral()).isEqualTo("Áudio 1");
+                assertThat(dto.getPalavrasEsperadas()).containsExactly("rato", "roupa");
+                assertThat(dto.getTotalAcertos()).isEqualTo(2);
+            });
+            assertThat(analises.get(1)).hasValueSatisfying(dto -> assertThat(dto.getFeedbackGeral()).isEqualTo("Áudio 2"));
+        }
+
+        @Test
+        @DisplayName("Deve deixar vazio o áudio sem análise ou com quantidade de resultados diferente das palavras")
+        void deveDeixarVazioAudioSemAnaliseValida() throws IOException {
+            String resposta = "{\"analises\":[" + analise(1, "rato") + "," + analise(3, "x") + "]}";
+
+            assertThat(service.parsearRespostaVariosAudios(resposta, audios)).containsExactly(Optional.empty(), Optional.empty());
+        }
+
+        @Test
+        @DisplayName("Deve falhar quando a resposta não é JSON, para o lote ser reenviado áudio a áudio")
+        void deveFalharParaRespostaInvalida() {
+            assertThatThrownBy(() -> service.parsearRespostaVariosAudios("não é json", audios))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes da Leitura do Envelope")
+    class LeituraEnvelopeTests {
+
+        @Test
+        @DisplayName("Deve ler o texto do primeiro candidato pulando os demais campos")
+        void deveLerTextoDoPrimeiroCandidato() throws IOException {
+            String envelope = "{\"candidates\":[{\"finishReason\":\"STOP\",\"safetyRatings\":[{\"a\":1}],"
+                    + "\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\"{\\\"trava_lingua\\\":\\\"x\\\"}\"}]}},"
+                    + "{\"content\":{\"parts\":[{\"text\":\"segundo\"}]}}],\"modelVersion\":\"m\"}";
+
+            ProtocoloGemini.Resposta resposta = protocolo.lerResposta(new StringReader(envelope));
+
+            assertThat(resposta.texto()).isEqualTo("{\"trava_lingua\":\"x\"}");
+            assertThat(resposta.tokensPrompt()).isZero();
+        }
+
+        @Test
+        @DisplayName("Deve ler os tokens do usageMetadata antes ou depois dos candidatos")
+        void deveLerTokensDoUsageMetadata() throws IOException {
+            String candidatos = "\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]";
+            String uso = "\"usageMetadata\":{\"promptTokenCount\":120,\"candidatesTokenCount\":30,\"totalTokenCount\":150,"
+                    + "\"promptTokensDetails\":[{\"modality\":\"AUDIO\",\"tokenCount\":100}]}";
+
+            ProtocoloGemini.Resposta depois = protocolo.lerResposta(new StringReader("{" + candidatos + "," + uso + "}"));
+            ProtocoloGemini.Resposta antes = protocolo.lerResposta(new StringReader("{" + uso + "," + candidatos + "}"));
+
+            assertThat(depois).isEqualTo(new ProtocoloGemini.Resposta("ok", 120, 30));
+            assertThat(antes).isEqualTo(depois);
+            assertThat(depois.uso(2_000_000L)).isEqualTo(UsoIa.chamada(120, 30, 2));
+        }
+
+        @Test
+        @DisplayName("Deve falhar quando a resposta não tem candidatos")
+        void deveFalharSemCandidatos() {
+            String envelope = "{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}";
+
+            assertThatThrownBy(() -> protocolo.lerResposta(new StringReader(envelope)))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("candidates");
+        }
+    }
+}
@@ -13,6 +13,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -150,14 +153,14 @@ class ProfissionalServiceTest {
             prof2.setNome("Dra. Santos");
             prof2.setExperiencia(5);
 
-            when(profissionalRepository.findAll()).thenReturn(Arrays.asList(prof1, prof2));
+            when(profissionalRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(prof1, prof2)));
 
-            List<ProfissionalDtoOut> resultados = profissionalService.buscarTodos();
+            List<ProfissionalDtoOut> resultados = profissionalService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("Dr. Silva");
             assertThat(resultados.get(1).getNome()).isEqualTo("Dra. Santos");
-            verify(profissionalRepository, times(1)).findAll();
+            verify(profissionalRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -18,6 +18,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -217,16 +220,16 @@ class RelatorioServiceTest {
             relatorio2.setAcuracia(0.9f);
             relatorio2.setAnaliseFono("Análise 2");
 
-            when(relatorioRepository.findAll()).thenReturn(Arrays.asList(relatorio1, relatorio2));
+            when(relatorioRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(relatorio1, relatorio2)));
 
             
-            List<RelatorioDtoOut> resultados = relatorioService.buscarTodos();
+            List<RelatorioDtoOut> resultados = relatorioService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
         
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getId()).isEqualTo(1L);
             assertThat(resultados.get(1).getId()).isEqualTo(2L);
-            verify(relatorioRepository, times(1)).findAll();
+            verify(relatorioRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
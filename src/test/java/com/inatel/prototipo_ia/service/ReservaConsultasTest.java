@@ -0,0 +1,93 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.in.ConsultaDtoIn;
+import com.inatel.prototipo_ia.dto.out.ConsultaDtoOut;
+import com.inatel.prototipo_ia.entity.DisponibilidadeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - ReservaConsultas
+ * Valida a repetição da reserva que perdeu a janela para outra e a tradução da constraint de exclusão
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservaConsultasTest {
+
+    @Mock
+    private ConsultaService consultaService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservaConsultas reservaConsultas;
+
+    private final ConsultaDtoIn consulta = new ConsultaDtoIn();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocacao -> new SimpleTransactionStatus());
+        reservaConsultas = new ReservaConsultas(consultaService, transactionManager, 3);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflito() {
+        return new ObjectOptimisticLockingFailureException(DisponibilidadeEntity.class, 7L);
+    }
+
+    @Test
+    @DisplayName("Deve repetir a reserva em outra transação quando a janela mudou de versão")
+    void deveRepetirReservaAposConflito() {
+        ConsultaDtoOut criada = new ConsultaDtoOut();
+        when(consultaService.criar(consulta)).thenThrow(conflito()).thenReturn(criada);
+
+        assertThat(reservaConsultas.criar(consulta)).isSameAs(criada);
+        verify(consultaService, times(2)).criar(consulta);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Deve desistir depois das tentativas configuradas")
+    void deveDesistirDepoisDasTentativas() {
+        when(consultaService.atualizar(1L, consulta)).thenThrow(conflito());
+
+        assertThatThrownBy(() -> reservaConsultas.atualizar(1L, consulta))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("disputado");
+        verify(consultaService, times(3)).atualizar(1L, consulta);
+    }
+
+    @Test
+    @DisplayName("Deve traduzir a constraint de exclusão em horário sobreposto, sem repetir")
+    void deveTraduzirConstraintDeExclusao() {
+        SQLException causa = new SQLException("ERROR: conflicting key value violates exclusion constraint \""
+                + ReservaConsultas.CONSTRAINT_SOBREPOSICAO + "\"", "23P01");
+        when(consultaService.criar(consulta)).thenThrow(new DataIntegrityViolationException("could not execute statement", causa));
+
+        assertThatThrownBy(() -> reservaConsultas.criar(consulta))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("sobrepõe");
+        verify(consultaService, times(1)).criar(consulta);
+    }
+
+    @Test
+    @DisplayName("Deve propagar outras violações de integridade")
+    void devePropagarOutrasViolacoes() {
+        when(consultaService.criar(consulta)).thenThrow(new DataIntegrityViolationException("fk_consulta_cliente"));
+
+        assertThatThrownBy(() -> reservaConsultas.criar(consulta)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -12,6 +12,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -170,14 +173,14 @@ class SecretariaServiceTest {
             sec2.setNome("Ana");
             sec2.setEmail("ana@email.com");
 
-            when(secretariaRepository.findAll()).thenReturn(Arrays.asList(sec1, sec2));
+            when(secretariaRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(sec1, sec2)));
 
-            List<SecretariaDtoOut> resultados = secretariaService.buscarTodos();
+            List<SecretariaDtoOut> resultados = secretariaService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("Maria");
             assertThat(resultados.get(1).getNome()).isEqualTo("Ana");
-            verify(secretariaRepository, times(1)).findAll();
+            verify(secretariaRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
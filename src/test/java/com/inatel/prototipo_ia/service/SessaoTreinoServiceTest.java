@@ -0,0 +1,157 @@
+package com.inatel.prototipo_ia.service;
+
+import com.inatel.prototipo_ia.dto.out.BatchPronunciationAnalysisDTO;
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut;
+import com.inatel.prototipo_ia.dto.out.MensagemSessaoDtoOut.TipoMensagem;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity;
+import com.inatel.prototipo_ia.entity.SessaoTreinoEntity.StatusSessao;
+import com.inatel.prototipo_ia.json.JsonTestes;
+import com.inatel.prototipo_ia.observabilidade.Metricas;
+import com.inatel.prototipo_ia.repository.ClienteRepository;
+import com.inatel.prototipo_ia.repository.ConteudoTesteRepository;
+import com.inatel.prototipo_ia.repository.EspecialistaRepository;
+import com.inatel.prototipo_ia.repository.SessaoTreinoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes Unitários - SessaoTreinoService
+ * Valida que a análise do áudio roda fora de transação, entre a reserva da sessão e a gravação do resultado
+ */
+@ExtendWith(MockitoExtension.class)
+class SessaoTreinoServiceTest {
+
+    @Mock
+    private SessaoTreinoRepository sessaoRepository;
+
+    @Mock
+    private AgrupadorAnaliseAudio agrupadorAnalise;
+
+    @Mock
+    private PronunciationAnalysisService pronunciationService;
+
+    @Mock
+    private ContabilidadeIa contabilidadeIa;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SessaoTreinoService service;
+    private SessaoTreinoEntity sessao;
+
+    @BeforeEach
+    void setUp() {
+        service = new SessaoTreinoService(sessaoRepository, mock(ClienteRepository.class), mock(EspecialistaRepository.class),
+                mock(AIWordGeneratorService.class), agrupadorAnalise, pronunciationService, mock(ConteudoTesteRepository.class),
+                contabilidadeIa, Metricas.desligadas(), JsonTestes.OBJECT_MAPPER, transactionManager);
+
+        sessao = new SessaoTreinoEntity();
+        sessao.setId(7L);
+        sessao.setStatus(StatusSessao.AGUARDANDO_AUDIO);
+        sessao.setTravaLingua("O rato roeu.");
+        sessao.setDificuldade("R");
+        sessao.setDataInicio(LocalDateTime.now().minusMinutes(3));
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(i -> new SimpleTransactionStatus());
+        lenient().when(sessaoRepository.findById(7L)).thenReturn(Optional.of(sessao));
+    }
+
+    private static BatchPronunciationAnalysisDTO analise() {
+        BatchPronunciationAnalysisDTO analise = new BatchPronunciationAnalysisDTO();
+        analise.setResultados(List.of());
+        analise.setPontuacaoGeral(90.0);
+        analise.setTotalPalavras(3);
+        analise.setTotalAcertos(3);
+        analise.setFeedbackGeral("Ótimo");
+        return analise;
+    }
+
+    @Nested
+    @DisplayName("Testes do Processamento de Áudio")
+    class ProcessamentoAudioTests {
+
+        @Test
+        @DisplayName("Deve chamar a IA entre a transação que reserva a sessão e a que grava o resultado")
+        void deveAnalisarForaDeTransacao() {
+            when(contabilidadeIa.sessaoDentroDoOrcamento(eq(sessao), any())).thenReturn(true);
+            when(agrupadorAnalise.analisar(eq(7L), any(), anyList())).thenAnswer(i -> {
+                assertThat(sessao.getStatus()).isEqualTo(StatusSessao.PROCESSANDO);
+                return new RespostaIa<>(analise(), UsoIa.chamada(10, 5, 200));
+            });
+
+            List<MensagemSessaoDtoOut> mensagens = service.processarAudio(7L, new byte[]{1}, true);
+
+            InOrder ordem = inOrder(transactionManager, agrupadorAnalise);
+            ordem.verify(transactionManager).getTransaction(any());
+            ordem.verify(transactionManager).commit(any());
+            ordem.verify(agrupadorAnalise).analisar(eq(7L), any(), eq(List.of("o", "rato", "roeu")));
+            ordem.verify(transactionManager).getTransaction(any());
+            ordem.verify(transactionManager).commit(any());
+            verify(contabilidadeIa).registrar(sessao, ContabilidadeIa.ANALISAR_AUDIO, UsoIa.chamada(10, 5, 200));
+            assertThat(sessao.getStatus()).isEqualTo(StatusSessao.FINALIZADA);
+            assertThat(sessao.getResultado()).contains("\"pontuacaoGeral\":90.0");
+            assertThat(mensagens).extracting(MensagemSessaoDtoOut::getTipo).doesNotContain(TipoMensagem.ERRO);
+        }
+
+        @Test
+        @DisplayName("Deve devolver a sessão para aguardando áudio em outra transação quando a análise falha")
+        void deveVoltarParaAguardandoQuandoAnaliseFalha() {
+            when(contabilidadeIa.sessaoDentroDoOrcamento(eq(sessao), any())).thenReturn(true);
+            when(agrupadorAnalise.analisar(eq(7L), any(), anyList())).thenThrow(new RuntimeException("Erro IA: timeout"));
+
+            List<MensagemSessaoDtoOut> mensagens = service.processarAudio(7L, new byte[]{1}, true);
+
+            assertThat(mensagens).singleElement().satisfies(m -> {
+                assertThat(m.getTipo()).isEqualTo(TipoMensagem.ERRO);
+                assertThat(m.getMensagem()).contains("Erro IA: timeout");
+            });
+            assertThat(sessao.getStatus()).isEqualTo(StatusSessao.AGUARDANDO_AUDIO);
+            verify(transactionManager, times(2)).commit(any());
+            verify(contabilidadeIa, never()).registrar(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve recusar o áudio sem chamar a IA quando a sessão não aguarda áudio")
+        void deveRecusarSessaoQueNaoAguardaAudio() {
+            sessao.setStatus(StatusSessao.PROCESSANDO);
+
+            List<MensagemSessaoDtoOut> mensagens = service.processarAudio(7L, new byte[]{1}, true);
+
+            assertThat(mensagens).singleElement().extracting(MensagemSessaoDtoOut::getTipo).isEqualTo(TipoMensagem.ERRO);
+            verifyNoInteractions(agrupadorAnalise, pronunciationService);
+            verify(sessaoRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Deve seguir pela transcrição e registrar no histórico quando o orçamento de IA acabou")
+        void deveUsarTranscricaoSemOrcamento() {
+            when(contabilidadeIa.sessaoDentroDoOrcamento(eq(sessao), any())).thenReturn(false);
+            when(pronunciationService.analisarPronunciaEmLote(any(), anyList())).thenReturn(analise());
+
+            service.processarAudio(7L, new byte[]{1}, true);
+
+            verifyNoInteractions(agrupadorAnalise);
+            verify(contabilidadeIa).registrarRebaixamento(ContabilidadeIa.ANALISAR_AUDIO);
+            verify(contabilidadeIa).registrar(eq(sessao), eq(ContabilidadeIa.TRANSCREVER_AUDIO), any());
+            assertThat(sessao.getHistoricoConversa()).contains("Orçamento de IA esgotado");
+            assertThat(sessao.getStatus()).isEqualTo(StatusSessao.FINALIZADA);
+        }
+    }
+}
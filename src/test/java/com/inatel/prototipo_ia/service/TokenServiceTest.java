@@ -3,7 +3,9 @@ package com.inatel.prototipo_ia.service;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.inatel.prototipo_ia.entity.EspecialistaEntity;
 import com.inatel.prototipo_ia.entity.UsuarioEntity;
+import com.inatel.prototipo_ia.security.UsuarioAutenticado;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +14,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -244,4 +248,56 @@ class TokenServiceTest {
                     .isEqualTo("consistencia@teste.com");
         }
     }
+
+    @Nested
+    @DisplayName("Testes de Principal a partir das Claims")
+    class PrincipalPorClaimsTests {
+
+        @Test
+        @DisplayName("Deve montar o principal com id, login e papel vindos do token")
+        void deveMontarPrincipalDasClaims() {
+            EspecialistaEntity especialista = new EspecialistaEntity();
+            especialista.setId(42L);
+            especialista.setLogin("fono@teste.com");
+
+            String token = tokenService.gerarToken(especialista);
+            Optional<UsuarioAutenticado> principal = tokenService.getUsuarioAutenticado(token);
+
+            assertThat(principal).isPresent();
+            assertThat(principal.get().getId()).isEqualTo(42L);
+            assertThat(principal.get().getUsername()).isEqualTo("fono@teste.com");
+            assertThat(principal.get().getPapel()).isEqualTo("ESPECIALISTA");
+            assertThat(principal.get().getAuthorities())
+                    .extracting(a -> a.getAuthority())
+                    .containsExactly("ROLE_ESPECIALISTA");
+        }
+
+        @Test
+        @DisplayName("Deve retornar vazio para token antigo sem claim de papel")
+        void deveRetornarVazioParaTokenSemPapel() {
+            // Tokens emitidos antes da claim "papel" continuam válidos, mas precisam do usuário do banco
+            String tokenAntigo = JWT.create()
+                    .withIssuer("API Prototipo IA")
+                    .withSubject("antigo@teste.com")
+                    .withClaim("id", 3L)
+                    .sign(Algorithm.HMAC256(SECRET));
+
+            assertThat(tokenService.getUsuarioAutenticado(tokenAntigo)).isEmpty();
+            assertThat(tokenService.getSubject(tokenAntigo)).isEqualTo("antigo@teste.com");
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar token com assinatura inválida")
+        void deveRejeitarTokenComAssinaturaInvalida() {
+            String tokenForjado = JWT.create()
+                    .withIssuer("API Prototipo IA")
+                    .withSubject("invasor@teste.com")
+                    .withClaim("id", 1L)
+                    .withClaim("papel", "ESPECIALISTA")
+                    .sign(Algorithm.HMAC256("outra-chave"));
+
+            assertThatThrownBy(() -> tokenService.getUsuarioAutenticado(tokenForjado))
+                    .isInstanceOf(RuntimeException.class);
+        }
+    }
 }
@@ -16,6 +16,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -249,14 +252,14 @@ class TratamentoServiceTest {
             tratamento2.setProfissional(profissional);
             tratamento2.setTipoTratamento("Respiração");
 
-            when(tratamentoRepository.findAll()).thenReturn(Arrays.asList(tratamento1, tratamento2));
+            when(tratamentoRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(tratamento1, tratamento2)));
 
-            List<TratamentoDtoOut> resultados = tratamentoService.buscarTodos();
+            List<TratamentoDtoOut> resultados = tratamentoService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getTipoTratamento()).isEqualTo("Fonético");
             assertThat(resultados.get(1).getTipoTratamento()).isEqualTo("Respiração");
-            verify(tratamentoRepository, times(1)).findAll();
+            verify(tratamentoRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test
@@ -14,6 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -129,16 +132,16 @@ class UsuarioServiceTest {
             user2.setId(2L);
             user2.setNome("Maria");
 
-            when(usuarioRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+            when(usuarioRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(user1, user2)));
 
 
-            List<UsuarioDtoOut> resultados = usuarioService.buscarTodos();
+            List<UsuarioDtoOut> resultados = usuarioService.buscarTodos(PageRequest.of(0, 20)).getContent();
 
 
             assertThat(resultados).hasSize(2);
             assertThat(resultados.get(0).getNome()).isEqualTo("João");
             assertThat(resultados.get(1).getNome()).isEqualTo("Maria");
-            verify(usuarioRepository, times(1)).findAll();
+            verify(usuarioRepository, times(1)).findAll(any(Pageable.class));
         }
 
         @Test